@@ -24,6 +24,7 @@ public class Loggers
 {
 
     public static final Logger CLUSTERING_LOGGER = LoggerFactory.getLogger("io.zeebe.broker.clustering");
+    public static final Logger LOGSTREAMS_LOGGER = LoggerFactory.getLogger("io.zeebe.broker.logstreams");
     public static final Logger SERVICES_LOGGER = LoggerFactory.getLogger("io.zeebe.broker.services");
     public static final Logger SYSTEM_LOGGER = LoggerFactory.getLogger("io.zeebe.broker.system");
     public static final Logger TRANSPORT_LOGGER = LoggerFactory.getLogger("io.zeebe.broker.transport");
@@ -26,7 +26,10 @@ import static io.zeebe.broker.clustering.ClusterServiceNames.PEER_LIST_SERVICE;
 import static io.zeebe.broker.clustering.ClusterServiceNames.PEER_LOCAL_SERVICE;
 import static io.zeebe.broker.clustering.ClusterServiceNames.RAFT_SERVICE_GROUP;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.LOG_STREAMS_MANAGER_SERVICE;
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.IO_ACTOR_SCHEDULER_SERVICE;
 import static io.zeebe.broker.transport.TransportServiceNames.MANAGEMENT_API_CLIENT_NAME;
 import static io.zeebe.broker.transport.TransportServiceNames.MANAGEMENT_API_SERVER_NAME;
 
@@ -69,7 +72,7 @@ public class ClusterComponent implements Component
         final SocketAddress managementEndpoint = createEndpoint(config, config.managementApi);
         final SocketAddress replicationEndpoint = createEndpoint(config, config.replicationApi);
 
-        final LocalPeerService localPeerService = new LocalPeerService(clientEndpoint, managementEndpoint, replicationEndpoint);
+        final LocalPeerService localPeerService = new LocalPeerService(clientEndpoint, managementEndpoint, replicationEndpoint, config.zone);
         serviceContainer.createService(PEER_LOCAL_SERVICE, localPeerService).install();
     }
 
@@ -83,9 +86,10 @@ public class ClusterComponent implements Component
 
     protected void initGossip(final ServiceContainer serviceContainer, final TransportComponentCfg config)
     {
-        final PeerSelectorService peerSelectorService = new PeerSelectorService();
+        final PeerSelectorService peerSelectorService = new PeerSelectorService(config.gossip);
         serviceContainer.createService(GOSSIP_PEER_SELECTOR_SERVICE, peerSelectorService)
             .dependency(PEER_LIST_SERVICE, peerSelectorService.getPeerListInjector())
+            .dependency(PEER_LOCAL_SERVICE, peerSelectorService.getLocalPeerInjector())
             .install();
 
         final GossipContextService gossipContextService = new GossipContextService(config.gossip);
@@ -99,7 +103,7 @@ public class ClusterComponent implements Component
 
         final GossipService gossipService = new GossipService();
         serviceContainer.createService(GOSSIP_SERVICE, gossipService)
-            .dependency(ACTOR_SCHEDULER_SERVICE, gossipService.getActorSchedulerInjector())
+            .dependency(IO_ACTOR_SCHEDULER_SERVICE, gossipService.getActorSchedulerInjector())
             .dependency(GOSSIP_CONTEXT_SERVICE, gossipService.getGossipContextInjector())
             .install();
     }
@@ -114,6 +118,8 @@ public class ClusterComponent implements Component
             .dependency(PEER_LOCAL_SERVICE, clusterManagementContextService.getLocalPeerInjector())
             .dependency(ACTOR_SCHEDULER_SERVICE, clusterManagementContextService.getActorSchedulerInjector())
             .dependency(LOG_STREAMS_MANAGER_SERVICE, clusterManagementContextService.getLogStreamsManagerInjector())
+            .dependency(REPLICABLE_SNAPSHOTS_SERVICE, clusterManagementContextService.getReplicableSnapshotsInjector())
+            .dependency(SNAPSHOT_STORAGE_SERVICE, clusterManagementContextService.getSnapshotStorageInjector())
             .install();
 
         final ClusterManagerService clusterManagerService = new ClusterManagerService(serviceContainer, config.management);
@@ -126,8 +132,8 @@ public class ClusterComponent implements Component
 
     protected SocketAddress createEndpoint(final TransportComponentCfg config, final SocketBindingCfg socketConfig)
     {
-        final int port = socketConfig.getPort();
-        final String host = socketConfig.getHost(config.host);
+        final int port = socketConfig.getAdvertisedPort();
+        final String host = socketConfig.getAdvertisedHost(config.host);
 
         final SocketAddress endpoint = new SocketAddress();
         endpoint
@@ -21,15 +21,21 @@ import static io.zeebe.clustering.gossip.PeerState.ALIVE;
 import static io.zeebe.clustering.gossip.PeerState.SUSPECT;
 import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.PeerListIterator;
+import io.zeebe.broker.clustering.gossip.data.PeerListListener;
 import io.zeebe.broker.clustering.gossip.data.RaftMembership;
+import io.zeebe.broker.clustering.gossip.data.RaftMembershipList;
 import io.zeebe.broker.clustering.gossip.handler.GossipFragmentHandler;
 import io.zeebe.broker.clustering.gossip.protocol.GossipController;
+import io.zeebe.broker.clustering.handler.TopicLeader;
 import io.zeebe.broker.clustering.handler.Topology;
+import io.zeebe.broker.clustering.handler.TopologyRequest;
 import io.zeebe.clustering.gossip.PeerState;
 import io.zeebe.clustering.gossip.RaftMembershipState;
 import io.zeebe.transport.BufferingServerTransport;
@@ -52,10 +58,21 @@ public class Gossip implements Actor
 
     private final DeferredCommandContext commandContext;
 
+    private final long topologyRequestHoldTime;
+    private final List<PendingTopologyRequest> pendingTopologyRequests = new ArrayList<>();
+    private final PeerListListener topologyChangeListener = new TopologyChangeListener();
+
+    // the raft memberships of the local peer as last synced into the peer list
+    private final RaftMembershipList syncedRaftMemberships = new RaftMembershipList();
+
+    // starts time-based, so that a version of a former incarnation of this broker is not considered as current
+    private long topologyVersion = System.currentTimeMillis();
+
     public Gossip(final GossipContext context)
     {
         this.peer = context.getLocalPeer();
         this.peers = context.getPeers();
+        this.topologyRequestHoldTime = context.getConfig().topologyRequestHoldTime;
 
         this.gossipController = new GossipController(context);
         final BufferingServerTransport serverTransport = context.getServerTransport();
@@ -93,12 +110,22 @@ public class Gossip implements Actor
             peers.set(iterator.position(), peer);
         }
 
+        peers.registerListener(topologyChangeListener);
+
         gossipController.open();
     }
 
     public void close()
     {
+        peers.removeListener(topologyChangeListener);
+
         gossipController.close();
+
+        for (int i = 0; i < pendingTopologyRequests.size(); i++)
+        {
+            pendingTopologyRequests.get(i).future.completeExceptionally(new RuntimeException("Gossip is closed."));
+        }
+        pendingTopologyRequests.clear();
     }
 
     @Override
@@ -111,9 +138,56 @@ public class Gossip implements Actor
         workcount += gossipController.doWork();
         workcount += inputSubscription.poll();
 
+        workcount += completePendingTopologyRequests();
+
+        return workcount;
+    }
+
+    protected int completePendingTopologyRequests()
+    {
+        int workcount = 0;
+
+        if (!pendingTopologyRequests.isEmpty())
+        {
+            // sync local raft changes, so that waiting clients are notified without waiting for the next dissemination
+            syncLocalRaftMemberships();
+
+            final long now = System.currentTimeMillis();
+
+            for (int i = pendingTopologyRequests.size() - 1; i >= 0; i--)
+            {
+                final PendingTopologyRequest request = pendingTopologyRequests.get(i);
+
+                if (request.knownVersion != topologyVersion || now >= request.deadline)
+                {
+                    pendingTopologyRequests.remove(i);
+                    request.future.complete(createTopology());
+
+                    workcount += 1;
+                }
+            }
+        }
+
         return workcount;
     }
 
+    protected void syncLocalRaftMemberships()
+    {
+        // the local memberships reference the rafts, i.e. they reflect the current state and term
+        final RaftMembershipList raftMemberships = peer.raftMemberships();
+
+        if (!syncedRaftMemberships.contentEquals(raftMemberships))
+        {
+            peers.update(peer);
+
+            syncedRaftMemberships.clear();
+            for (final RaftMembership raftMembership : raftMemberships)
+            {
+                syncedRaftMemberships.add(raftMembership);
+            }
+        }
+    }
+
     public Peer peer()
     {
         return peer;
@@ -133,41 +207,117 @@ public class Gossip implements Actor
     {
         return commandContext.runAsync(future ->
         {
-            final Topology topology = new Topology();
-
             // force update local peer in peer list to sync local raft changes
             peers.update(peer);
 
-            for (final Peer peer : peers)
+            future.complete(createTopology());
+        });
+    }
+
+    /**
+     * Returns the topology as soon as its version differs from the passed
+     * known version, i.e. if a peer joined or changed its state or raft memberships.
+     * If the topology does not change within the configured hold time, then the
+     * unchanged topology is returned. If the known version is
+     * {@link TopologyRequest#UNKNOWN_VERSION}, the topology is returned immediately.
+     */
+    public CompletableFuture<Topology> awaitTopologyChange(final long knownVersion)
+    {
+        return commandContext.runAsync(future ->
+        {
+            // sync local raft changes before the versions are compared
+            peers.update(peer);
+
+            if (knownVersion == TopologyRequest.UNKNOWN_VERSION || knownVersion != topologyVersion)
             {
-                if (PeerState.ALIVE == peer.state())
+                future.complete(createTopology());
+            }
+            else
+            {
+                final long deadline = System.currentTimeMillis() + topologyRequestHoldTime;
+                pendingTopologyRequests.add(new PendingTopologyRequest(knownVersion, deadline, future));
+            }
+        });
+    }
+
+    protected Topology createTopology()
+    {
+        final Topology topology = new Topology()
+                .setVersion(topologyVersion);
+
+        for (final Peer peer : peers)
+        {
+            if (PeerState.ALIVE == peer.state())
+            {
+                // TODO(menski): creates garbage
+                final SocketAddress clientEndpoint = new SocketAddress(peer.clientEndpoint());
+
+                topology.brokers().add()
+                        .setHost(clientEndpoint.getHostBuffer(), 0, clientEndpoint.hostLength())
+                        .setPort(clientEndpoint.port());
+
+                for (final RaftMembership raftMembership : peer.raftMemberships())
                 {
-                    // TODO(menski): creates garbage
-                    final SocketAddress clientEndpoint = new SocketAddress(peer.clientEndpoint());
+                    final RaftMembershipState state = raftMembership.state();
+
+                    if (RaftMembershipState.LEADER == state || RaftMembershipState.FOLLOWER == state)
+                    {
+                        // TODO(menski): creates garbage
+                        final DirectBuffer topicName = cloneBuffer(raftMembership.topicNameBuffer(), 0, raftMembership.topicNameLength());
+
+                        final TopicLeader member = RaftMembershipState.LEADER == state ? topology.topicLeaders().add() : topology.topicFollowers().add();
 
-                    topology.brokers().add()
+                        member
+                            .setTopicName(topicName, 0, topicName.capacity())
+                            .setPartitionId(raftMembership.partitionId())
                             .setHost(clientEndpoint.getHostBuffer(), 0, clientEndpoint.hostLength())
                             .setPort(clientEndpoint.port());
-
-                    for (final RaftMembership raftMembership : peer.raftMemberships())
-                    {
-                        if (RaftMembershipState.LEADER == raftMembership.state())
-                        {
-                            // TODO(menski): creates garbage
-                            final DirectBuffer topicName = cloneBuffer(raftMembership.topicNameBuffer(), 0, raftMembership.topicNameLength());
-
-                            topology.topicLeaders().add()
-                                    .setTopicName(topicName, 0, topicName.capacity())
-                                    .setPartitionId(raftMembership.partitionId())
-                                    .setHost(clientEndpoint.getHostBuffer(), 0, clientEndpoint.hostLength())
-                                    .setPort(clientEndpoint.port());
-                        }
                     }
                 }
             }
+        }
 
-            future.complete(topology);
-        });
+        return topology;
+    }
+
+    protected void onTopologyChange()
+    {
+        topologyVersion += 1;
+    }
+
+    class TopologyChangeListener implements PeerListListener
+    {
+        @Override
+        public void onPeerJoin(Peer peer)
+        {
+            onTopologyChange();
+        }
+
+        @Override
+        public void onPeerRaftMembershipsChange(Peer peer)
+        {
+            onTopologyChange();
+        }
+
+        @Override
+        public void onPeerStateChange(Peer peer)
+        {
+            onTopologyChange();
+        }
+    }
+
+    static class PendingTopologyRequest
+    {
+        final long knownVersion;
+        final long deadline;
+        final CompletableFuture<Topology> future;
+
+        PendingTopologyRequest(long knownVersion, long deadline, CompletableFuture<Topology> future)
+        {
+            this.knownVersion = knownVersion;
+            this.deadline = deadline;
+            this.future = future;
+        }
     }
 
 }
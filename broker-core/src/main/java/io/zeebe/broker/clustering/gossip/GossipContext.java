@@ -21,6 +21,7 @@ import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.PeerSelector;
+import io.zeebe.broker.clustering.gossip.protocol.PhiAccrualFailureDetector;
 import io.zeebe.transport.BufferingServerTransport;
 import io.zeebe.transport.ClientTransport;
 
@@ -35,6 +36,7 @@ public class GossipContext
     protected BufferingServerTransport serverTransport;
 
     private PeerSelector peerSelector;
+    private PhiAccrualFailureDetector failureDetector;
 
     public GossipConfiguration getConfig()
     {
@@ -96,4 +98,14 @@ public class GossipContext
         this.peerSelector = peerSelector;
     }
 
+    public PhiAccrualFailureDetector getFailureDetector()
+    {
+        return failureDetector;
+    }
+
+    public void setFailureDetector(PhiAccrualFailureDetector failureDetector)
+    {
+        this.failureDetector = failureDetector;
+    }
+
 }
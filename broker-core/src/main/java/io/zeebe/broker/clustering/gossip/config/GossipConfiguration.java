@@ -21,13 +21,29 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class GossipConfiguration extends DirectoryConfiguration
 {
-    private static final String GOSSIP_FILE_NAME_PATTERN = "%sgossip.zeebe";
+    public enum PeerSelectorType
+    {
+        /**
+         * Selects the peers uniformly at random.
+         */
+        RANDOM,
+        /**
+         * Prefers the peers of the own zone, see {@link GossipConfiguration#crossZoneRatio}.
+         */
+        ZONE_AWARE;
+    }
+
+    private static final String GOSSIP_JOURNAL_FILE_NAME_PATTERN = "%sgossip.journal";
 
     public String[] initialContactPoints = new String[0];
 
     public int peerCapacity = 1000;
 
-    public int peersStorageInterval = 1;
+    /**
+     * The size in bytes up to which the journal of peer changes grows
+     * before it is compacted to the latest state of each peer.
+     */
+    public int peersJournalSize = 1024 * 1024;
 
     public int disseminatorCapacity = 16;
     public int disseminationInterval = 1;
@@ -42,6 +58,52 @@ public class GossipConfiguration extends DirectoryConfiguration
 
     public int suspicionTimeout = 10;
 
+    public PeerSelectorType peerSelector = PeerSelectorType.ZONE_AWARE;
+    /**
+     * The share of gossip and probe targets which are selected from other
+     * zones than the zone of the broker, if the zone aware peer selector is
+     * used. Peers of other zones are only selected more often if there are no
+     * peers in the own zone.
+     */
+    public double crossZoneRatio = 0.2;
+
+    /**
+     * The suspicion level (phi) of the accrual failure detector at which an
+     * alive peer is suspected.
+     */
+    public double phiSuspectThreshold = 8.0;
+    /**
+     * The suspicion level (phi) at which a suspected peer is declared dead
+     * before the suspicion timeout elapsed.
+     */
+    public double phiDeadThreshold = 16.0;
+    /**
+     * The number of heartbeat inter-arrival times which are kept per peer.
+     */
+    public int phiSampleCapacity = 200;
+    /**
+     * The number of inter-arrival times which must be observed before the
+     * failure detector is used for a peer. Until then, the timeouts apply.
+     */
+    public int phiMinSamples = 5;
+    /**
+     * The lower bound of the standard deviation of the inter-arrival times
+     * in milliseconds, avoids suspicion on a small jitter.
+     */
+    public int phiMinStdDeviation = 500;
+    /**
+     * The pause in milliseconds which is added to the mean inter-arrival
+     * time, e.g. to tolerate garbage collection pauses.
+     */
+    public int phiAcceptableHeartbeatPause = 3000;
+
+    /**
+     * The time in milliseconds a topology request of a client which already
+     * knows the current topology is held until the topology changes. Must be
+     * shorter than the request timeout of the clients.
+     */
+    public long topologyRequestHoldTime = 5000;
+
     public int numClientChannelMax = disseminatorCapacity + (failureDetectionCapacity * failureDetectionProbeCapacity) + 1;
 
     @Override
@@ -50,9 +112,9 @@ public class GossipConfiguration extends DirectoryConfiguration
         return "gossip";
     }
 
-    public String fileName()
+    public String journalFileName()
     {
-        return String.format(GOSSIP_FILE_NAME_PATTERN, directory);
+        return String.format(GOSSIP_JOURNAL_FILE_NAME_PATTERN, directory);
     }
 
 }
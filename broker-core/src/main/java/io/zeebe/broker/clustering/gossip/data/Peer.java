@@ -37,11 +37,14 @@ import io.zeebe.util.buffer.BufferReader;
 import io.zeebe.util.buffer.BufferWriter;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
 {
     public static final int PEER_ENDPOINT_COUNT = 3;
 
+    public static final int MAX_ZONE_LENGTH = 64;
+
     public static final int MAX_PEER_LENGTH =
             PeerDescriptorEncoder.BLOCK_LENGTH +
             EndpointsEncoder.sbeHeaderSize() +
@@ -55,7 +58,9 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
                 RaftMembershipsEncoder.sbeBlockLength() +
                 RaftMembershipsEncoder.topicNameHeaderLength() +
                 MAX_TOPIC_NAME_LENGTH
-            );
+            ) +
+            PeerDescriptorEncoder.zoneHeaderLength() +
+            MAX_ZONE_LENGTH;
 
     protected final PeerDescriptorDecoder decoder = new PeerDescriptorDecoder();
     protected final PeerDescriptorEncoder encoder = new PeerDescriptorEncoder();
@@ -68,6 +73,9 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
 
     protected final RaftMembershipList raftMemberships = new RaftMembershipList();
 
+    protected final MutableDirectBuffer zoneBuffer = new UnsafeBuffer(new byte[MAX_ZONE_LENGTH]);
+    protected int zoneLength = 0;
+
     protected PeerState state = NULL_VAL;
 
     protected long changeStateTime = -1L;
@@ -120,6 +128,57 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
         return this;
     }
 
+    /**
+     * @return the zone (e.g. availability zone or rack) the peer is located in,
+     *         empty if the peer is not assigned to a zone
+     */
+    public DirectBuffer zoneBuffer()
+    {
+        return zoneBuffer;
+    }
+
+    public int zoneLength()
+    {
+        return zoneLength;
+    }
+
+    public Peer zone(final DirectBuffer zone, final int offset, final int length)
+    {
+        if (length > MAX_ZONE_LENGTH)
+        {
+            throw new IllegalArgumentException("Zone must be " + MAX_ZONE_LENGTH + " bytes or shorter");
+        }
+
+        zoneBuffer.putBytes(0, zone, offset, length);
+        zoneLength = length;
+
+        return this;
+    }
+
+    public Peer zone(final Peer peer)
+    {
+        return zone(peer.zoneBuffer(), 0, peer.zoneLength());
+    }
+
+    public boolean isInSameZone(final Peer peer)
+    {
+        if (zoneLength != peer.zoneLength())
+        {
+            return false;
+        }
+
+        final DirectBuffer otherZoneBuffer = peer.zoneBuffer();
+        for (int i = 0; i < zoneLength; i++)
+        {
+            if (zoneBuffer.getByte(i) != otherZoneBuffer.getByte(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public long changeStateTime()
     {
         return changeStateTime;
@@ -214,6 +273,8 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
             raftMemberships.add(raftMembershipsDecoder);
         }
 
+        zoneLength = decoder.getZone(zoneBuffer, 0, MAX_ZONE_LENGTH);
+
         assert decoder.limit() == frameEnd : "Decoder read only to position " + decoder.limit() + " but expected " + frameEnd + " as final position";
     }
 
@@ -227,6 +288,8 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
 
         raftMemberships(peer.raftMemberships());
 
+        zone(peer);
+
         this.state(peer.state()).changeStateTime(peer.changeStateTime());
     }
 
@@ -248,6 +311,8 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
                 raftMembership.topicNameLength();
         }
 
+        length += PeerDescriptorEncoder.zoneHeaderLength() + zoneLength;
+
         return length;
     }
 
@@ -300,6 +365,8 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
                 .state(raftMembership.state())
                 .putTopicName(raftMembership.topicNameBuffer(), 0, raftMembership.topicNameLength());
         }
+
+        encoder.putZone(zoneBuffer, 0, zoneLength);
     }
 
     public void reset()
@@ -318,6 +385,8 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
 
         raftMemberships.clear();
 
+        zoneLength = 0;
+
         state = NULL_VAL;
         changeStateTime = -1L;
     }
@@ -343,6 +412,7 @@ public class Peer implements BufferWriter, BufferReader, Comparable<Peer>
             ", replicationEndpoint=" + replicationEndpoint +
             ", heartbeat=" + heartbeat +
             ", raftMembershipList=" + raftMemberships +
+            ", zone=" + zoneBuffer.getStringWithoutLengthUtf8(0, zoneLength) +
             ", state=" + state +
             ", changeStateTime=" + changeStateTime +
             '}';
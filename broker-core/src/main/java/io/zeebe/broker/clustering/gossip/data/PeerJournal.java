@@ -0,0 +1,261 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.data;
+
+import static io.zeebe.broker.clustering.gossip.data.Peer.MAX_PEER_LENGTH;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+
+/**
+ * Persists the peer list as an append-only journal. Every change of a peer
+ * is appended as a checksummed record; on load, the latest valid record of
+ * each peer wins. When the journal exceeds its size, it is compacted to the
+ * latest record of each peer.
+ *
+ * <p>Records are not synced on append, as the peer list is recovered by gossip
+ * anyway. The journal only allows a warm start with the last known peers.
+ *
+ * <p>Record layout:
+ *
+ * <pre>
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                        Payload Length                         |
+ * +---------------------------------------------------------------+
+ * |                      Checksum (CRC32)                         |
+ * +---------------------------------------------------------------+
+ * |                        Payload (Peer)                        ...
+ * +---------------------------------------------------------------+
+ * </pre>
+ *
+ * <p>Not thread-safe.
+ */
+public class PeerJournal implements AutoCloseable
+{
+    public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    protected static final int LENGTH_OFFSET = 0;
+    protected static final int CHECKSUM_OFFSET = LENGTH_OFFSET + SIZE_OF_INT;
+    protected static final int HEADER_LENGTH = CHECKSUM_OFFSET + SIZE_OF_INT;
+
+    protected final File file;
+    protected final File tmpFile;
+    protected final int size;
+
+    // latest record of each peer
+    protected final PeerList latestPeers;
+    protected final Peer peer = new Peer();
+
+    protected final CRC32 checksum = new CRC32();
+    protected final byte[] record = new byte[HEADER_LENGTH + MAX_PEER_LENGTH];
+    protected final UnsafeBuffer recordBuffer = new UnsafeBuffer(record);
+
+    protected FileChannel channel;
+    protected long writePosition;
+    protected long compactionSize;
+
+    public PeerJournal(final File file, final int size, final int peerCapacity)
+    {
+        this.file = file;
+        this.tmpFile = new File(file.getAbsolutePath() + ".tmp");
+        this.size = size;
+        this.compactionSize = size;
+        this.latestPeers = new PeerList(peerCapacity);
+    }
+
+    /**
+     * Opens the journal and reads the latest record of each peer. A torn or
+     * corrupted tail of the journal is discarded.
+     */
+    public void open() throws IOException
+    {
+        file.getParentFile().mkdirs();
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        final ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+        while (content.hasRemaining() && channel.read(content, content.position()) >= 0)
+        {
+            // read the whole journal
+        }
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(content.array(), 0, content.position());
+
+        int offset = 0;
+        while (offset + HEADER_LENGTH <= buffer.capacity())
+        {
+            final int length = buffer.getInt(offset + LENGTH_OFFSET);
+
+            if (length <= 0 || length > MAX_PEER_LENGTH || offset + HEADER_LENGTH + length > buffer.capacity())
+            {
+                break;
+            }
+
+            final int expectedChecksum = buffer.getInt(offset + CHECKSUM_OFFSET);
+
+            if (checksum(content.array(), offset + HEADER_LENGTH, length) != expectedChecksum)
+            {
+                LOG.warn("Ignore peer journal after position {} because of an invalid checksum", offset);
+                break;
+            }
+
+            peer.wrap(buffer, offset + HEADER_LENGTH, length);
+            updateLatestPeer(peer);
+
+            offset += HEADER_LENGTH + length;
+        }
+
+        writePosition = offset;
+        channel.truncate(writePosition);
+    }
+
+    /**
+     * @return the latest state of the peers contained in the journal
+     */
+    public PeerList getPeers()
+    {
+        return latestPeers;
+    }
+
+    /**
+     * Appends the given peer, compacts the journal if it exceeds its size.
+     */
+    public void append(final Peer peer) throws IOException
+    {
+        updateLatestPeer(peer);
+
+        writePosition += writeRecord(channel, writePosition, peer);
+
+        if (writePosition > compactionSize)
+        {
+            compact();
+        }
+    }
+
+    protected void updateLatestPeer(final Peer peer)
+    {
+        final int idx = latestPeers.find(peer);
+        if (idx >= 0)
+        {
+            latestPeers.set(idx, peer);
+        }
+        else
+        {
+            latestPeers.insert(peer);
+        }
+    }
+
+    protected int writeRecord(final FileChannel channel, final long position, final Peer peer) throws IOException
+    {
+        final int length = peer.getLength();
+        peer.write(recordBuffer, HEADER_LENGTH);
+
+        recordBuffer.putInt(LENGTH_OFFSET, length);
+        recordBuffer.putInt(CHECKSUM_OFFSET, checksum(record, HEADER_LENGTH, length));
+
+        final ByteBuffer src = ByteBuffer.wrap(record, 0, HEADER_LENGTH + length);
+        long writePosition = position;
+        while (src.hasRemaining())
+        {
+            writePosition += channel.write(src, writePosition);
+        }
+
+        return HEADER_LENGTH + length;
+    }
+
+    /**
+     * Rewrites the journal with the latest record of each peer only.
+     */
+    protected void compact() throws IOException
+    {
+        long compactedPosition = 0;
+
+        try (FileChannel tmpChannel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            final PeerListIterator iterator = latestPeers.iterator();
+            while (iterator.hasNext())
+            {
+                compactedPosition += writeRecord(tmpChannel, compactedPosition, iterator.next());
+            }
+
+            tmpChannel.force(false);
+        }
+
+        channel.close();
+
+        try
+        {
+            Files.move(tmpFile.toPath(), file.toPath(), ATOMIC_MOVE);
+        }
+        catch (final Exception e)
+        {
+            // failed with atomic move, lets try again with normal replace move
+            Files.move(tmpFile.toPath(), file.toPath(), REPLACE_EXISTING);
+        }
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        writePosition = compactedPosition;
+        // leave room for changes, so that a journal of many peers is not compacted on every append
+        compactionSize = Math.max(size, 2 * compactedPosition);
+    }
+
+    protected int checksum(final byte[] buffer, final int offset, final int length)
+    {
+        checksum.reset();
+        checksum.update(buffer, offset, length);
+
+        return (int) checksum.getValue();
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            if (channel != null)
+            {
+                channel.force(false);
+                channel.close();
+            }
+        }
+        catch (final IOException e)
+        {
+            LOG.warn("Failed to close peer journal", e);
+        }
+        finally
+        {
+            latestPeers.close();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.data;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+
+/**
+ * Appends the changes of the peer list to the {@link PeerJournal}. The
+ * changed peer is copied on the notifying thread (i.e. the gossip thread)
+ * and written by a dedicated thread, so that gossip does not wait for I/O.
+ * Heartbeats are not written, as they are refreshed by gossip after a restart.
+ */
+public class PeerJournalWriter implements PeerListListener, AutoCloseable
+{
+    public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    protected final PeerJournal journal;
+    protected final ExecutorService executor;
+
+    // only used by the writer thread
+    protected final Peer peer = new Peer();
+
+    public PeerJournalWriter(final PeerJournal journal)
+    {
+        this.journal = journal;
+        this.executor = Executors.newSingleThreadExecutor(r ->
+        {
+            final Thread thread = new Thread(r, "gossip-journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onPeerJoin(final Peer peer)
+    {
+        submit(peer);
+    }
+
+    @Override
+    public void onPeerStateChange(final Peer peer)
+    {
+        submit(peer);
+    }
+
+    @Override
+    public void onPeerRaftMembershipsChange(final Peer peer)
+    {
+        submit(peer);
+    }
+
+    @Override
+    public void onPeerZoneChange(final Peer peer)
+    {
+        submit(peer);
+    }
+
+    protected void submit(final Peer changedPeer)
+    {
+        final byte[] copy = new byte[changedPeer.getLength()];
+        final UnsafeBuffer buffer = new UnsafeBuffer(copy);
+        changedPeer.write(buffer, 0);
+
+        executor.execute(() ->
+        {
+            try
+            {
+                peer.wrap(buffer, 0, copy.length);
+                journal.append(peer);
+            }
+            catch (final Exception e)
+            {
+                LOG.warn("Failed to append peer to journal", e);
+            }
+        });
+    }
+
+    /**
+     * Writes the pending changes and closes the journal.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+
+        try
+        {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS))
+            {
+                LOG.warn("Peer journal writer did not terminate in time, pending changes are discarded");
+                executor.shutdownNow();
+            }
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            journal.close();
+        }
+    }
+}
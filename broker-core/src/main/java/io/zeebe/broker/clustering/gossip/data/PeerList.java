@@ -34,6 +34,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.clustering.gossip.PeerDescriptorDecoder;
+import io.zeebe.clustering.gossip.PeerState;
 import io.zeebe.util.CloseableSilently;
 import io.zeebe.util.allocation.DirectBufferAllocator;
 import io.zeebe.util.collection.CompactList;
@@ -66,6 +67,7 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
     protected final UnsafeBuffer tmpPeerBufferView = new UnsafeBuffer(0, 0);
 
     protected final Peer shuffledPeer = new Peer();
+    protected final Peer updatedPeer = new Peer();
     protected final Random shuffleRandom = new Random();
 
     protected final List<PeerListListener> listeners = new CopyOnWriteArrayList<>();
@@ -199,13 +201,20 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
         final Heartbeat thatHeartbeat = thatPeer.heartbeat();
 
         final int cmp = thisHeartbeat.compareTo(thatHeartbeat);
+        final PeerState previousState = thisPeer.state();
+        boolean raftMembershipsChanged = false;
+        boolean zoneChanged = false;
 
         if (cmp < 0)
         {
+            raftMembershipsChanged = !thisPeer.raftMemberships().contentEquals(thatPeer.raftMemberships());
+            zoneChanged = !thisPeer.isInSameZone(thatPeer);
+
             thisPeer.clientEndpoint().wrap(thatPeer.clientEndpoint());
             thisPeer.managementEndpoint().wrap(thatPeer.managementEndpoint());
             thisPeer.replicationEndpoint().wrap(thatPeer.replicationEndpoint());
             thisPeer.raftMemberships(thatPeer.raftMemberships());
+            thisPeer.zone(thatPeer);
         }
 
         switch (thatPeer.state())
@@ -217,6 +226,11 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
                     thisHeartbeat.wrap(thatHeartbeat);
                     thisPeer.alive();
                     set(idx, thisPeer);
+
+                    for (int i = 0; i < listeners.size(); i++)
+                    {
+                        listeners.get(i).onPeerHeartbeat(thisPeer);
+                    }
                 }
                 break;
             }
@@ -257,6 +271,27 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
             }
         }
 
+        if (raftMembershipsChanged)
+        {
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                listeners.get(i).onPeerRaftMembershipsChange(thisPeer);
+            }
+        }
+
+        if (zoneChanged)
+        {
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                listeners.get(i).onPeerZoneChange(thisPeer);
+            }
+        }
+
+        if (previousState != thisPeer.state())
+        {
+            notifyStateChange(thisPeer);
+        }
+
         return cmp > 0;
     }
 
@@ -278,6 +313,24 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
         underlyingList.set(idx, tmpPeerBuffer, 0, src.getLength());
     }
 
+    /**
+     * Replace the peer at the passed idx after its state was changed
+     * and notify the listeners about the change.
+     */
+    public void setChangedState(final int idx, final Peer src)
+    {
+        set(idx, src);
+        notifyStateChange(src);
+    }
+
+    protected void notifyStateChange(final Peer peer)
+    {
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            listeners.get(i).onPeerStateChange(peer);
+        }
+    }
+
     public void add(final int idx, final Peer peer)
     {
         peer.write(tmpPeerBuffer, 0);
@@ -330,7 +383,18 @@ public class PeerList implements Iterable<Peer>, CloseableSilently
         final int idx = find(peer);
         if (idx > -1)
         {
+            get(idx, updatedPeer);
+            final boolean raftMembershipsChanged = !updatedPeer.raftMemberships().contentEquals(peer.raftMemberships());
+
             set(idx, peer);
+
+            if (raftMembershipsChanged)
+            {
+                for (int i = 0; i < listeners.size(); i++)
+                {
+                    listeners.get(i).onPeerRaftMembershipsChange(peer);
+                }
+            }
         }
     }
 
@@ -20,4 +20,35 @@ package io.zeebe.broker.clustering.gossip.data;
 public interface PeerListListener
 {
     void onPeerJoin(Peer peer);
+
+    /**
+     * Called when a newer heartbeat of an alive peer is merged into the list.
+     */
+    default void onPeerHeartbeat(Peer peer)
+    {
+    }
+
+    /**
+     * Called when the raft memberships of a known peer changed, e.g. if the
+     * peer became leader of a partition.
+     */
+    default void onPeerRaftMembershipsChange(Peer peer)
+    {
+    }
+
+    /**
+     * Called when the state of a known peer changed, e.g. if the
+     * peer is suspected or declared dead.
+     */
+    default void onPeerStateChange(Peer peer)
+    {
+    }
+
+    /**
+     * Called when the zone of a known peer changed, e.g. if the zone of an
+     * initial contact point is learned.
+     */
+    default void onPeerZoneChange(Peer peer)
+    {
+    }
 }
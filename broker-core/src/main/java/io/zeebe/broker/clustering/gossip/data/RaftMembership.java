@@ -207,6 +207,34 @@ public class RaftMembership
         }
     }
 
+    /**
+     * @return <code>true</code> if both memberships belong to the same
+     *         partition, regardless of whether they are references or
+     *         extracted from gossip messages
+     */
+    public boolean isSamePartition(final RaftMembership other)
+    {
+        final int length = topicNameLength();
+
+        if (partitionId() != other.partitionId() || length != other.topicNameLength())
+        {
+            return false;
+        }
+
+        final DirectBuffer topicName = topicNameBuffer();
+        final DirectBuffer otherTopicName = other.topicNameBuffer();
+
+        for (int i = 0; i < length; i++)
+        {
+            if (topicName.getByte(i) != otherTopicName.getByte(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public void wrap(final RaftMembership other)
     {
         reset();
@@ -178,6 +178,31 @@ public class RaftMembershipList implements Iterable<RaftMembership>
         return this;
     }
 
+    /**
+     * @return <code>true</code> if both lists contain the same partitions
+     *         with the same term and state in the same order
+     */
+    public boolean contentEquals(final RaftMembershipList other)
+    {
+        if (size != other.size)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < size; i++)
+        {
+            final RaftMembership element = elements[i];
+            final RaftMembership otherElement = other.elements[i];
+
+            if (element.term() != otherElement.term() || element.state() != otherElement.state() || !element.isSamePartition(otherElement))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void remove(final int index)
     {
         checkIndex(index);
@@ -17,10 +17,14 @@
  */
 package io.zeebe.broker.clustering.gossip.message.util;
 
+import static io.zeebe.broker.clustering.gossip.data.Peer.MAX_ZONE_LENGTH;
+
+import java.util.Collections;
 import java.util.Iterator;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.RaftMembershipList;
@@ -39,11 +43,31 @@ public class GossipMessageReader implements BufferReader, Iterator<Peer>
 
     private final Peer currentPeer = new Peer();
 
+    private final MutableDirectBuffer zoneBuffer = new UnsafeBuffer(new byte[MAX_ZONE_LENGTH]);
+
     @Override
     public void wrap(final DirectBuffer values, final int offset, final int length)
     {
-        bodyDecoder.wrap(values, offset, GossipDecoder.BLOCK_LENGTH, GossipDecoder.SCHEMA_VERSION);
-        iterator = bodyDecoder.peers().iterator();
+        wrap(values, offset, length, GossipDecoder.BLOCK_LENGTH, GossipDecoder.SCHEMA_VERSION);
+    }
+
+    /**
+     * Wraps a gossip message body with the block length and the schema version
+     * of its message header. A message of an older version is read without the
+     * fields it doesn't contain (e.g. the zone before version 2). A message of
+     * an unknown newer version is skipped and contains no peers.
+     */
+    public void wrap(final DirectBuffer values, final int offset, final int length, final int actingBlockLength, final int actingVersion)
+    {
+        if (actingVersion > GossipDecoder.SCHEMA_VERSION)
+        {
+            iterator = Collections.emptyIterator();
+        }
+        else
+        {
+            bodyDecoder.wrap(values, offset, actingBlockLength, actingVersion);
+            iterator = bodyDecoder.peers().iterator();
+        }
     }
 
     @Override
@@ -96,6 +120,9 @@ public class GossipMessageReader implements BufferReader, Iterator<Peer>
             raftMemberships.add(raftMembershipsDecoder);
         }
 
+        final int zoneLength = decoder.getZone(zoneBuffer, 0, MAX_ZONE_LENGTH);
+        currentPeer.zone(zoneBuffer, 0, zoneLength);
+
         currentPeer.state(decoder.state())
             .changeStateTime(-1L);
 
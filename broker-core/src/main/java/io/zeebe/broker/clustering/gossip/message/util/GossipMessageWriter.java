@@ -74,6 +74,7 @@ public class GossipMessageWriter implements BufferWriter
             length += current.managementEndpoint().hostLength();
             length += current.replicationEndpoint().hostLength();
             length += RaftMembershipsEncoder.sbeHeaderSize();
+            length += PeersEncoder.zoneHeaderLength() + current.zoneLength();
 
             for (final RaftMembership raftMembership : current.raftMemberships())
             {
@@ -147,6 +148,8 @@ public class GossipMessageWriter implements BufferWriter
                     .putTopicName(raftMembership.topicNameBuffer(), 0, raftMembership.topicNameLength());
             }
 
+            encoder.putZone(current.zoneBuffer(), 0, current.zoneLength());
+
         }
     }
 
@@ -30,6 +30,7 @@ import io.zeebe.broker.clustering.gossip.message.GossipResponse;
 import io.zeebe.broker.clustering.gossip.message.ProbeRequest;
 import io.zeebe.transport.ClientTransport;
 import io.zeebe.transport.RequestResponseController;
+import io.zeebe.transport.SocketAddress;
 import io.zeebe.util.state.SimpleStateMachineContext;
 import io.zeebe.util.state.State;
 import io.zeebe.util.state.StateMachine;
@@ -171,6 +172,9 @@ public class FailureDetection
         final ProbeRequest request;
         final GossipResponse response;
 
+        final PhiAccrualFailureDetector failureDetector;
+        final double phiSuspectThreshold;
+
         FailureDetectionContext(StateMachine<?> stateMachine, final Peer localPeer)
         {
             super(stateMachine);
@@ -187,6 +191,9 @@ public class FailureDetection
 
             final int capacity = config.failureDetectionCapacity;
 
+            this.failureDetector = gossipContext.getFailureDetector();
+            this.phiSuspectThreshold = config.phiSuspectThreshold;
+
             this.peerSelector = peerSelector;
             this.requestControllers = new RequestResponseController[capacity];
             this.targets = new Peer[capacity];
@@ -322,15 +329,22 @@ public class FailureDetection
         {
             final PeerList peers = context.peers;
             final Peer peer = context.peer;
+            final PhiAccrualFailureDetector failureDetector = context.failureDetector;
 
             final int idx = peers.find(peer);
             if (idx >= 0)
             {
                 peers.get(idx, peer);
-                if (peer.state() == ALIVE)
+
+                // a failed probe is not sufficient if the heartbeats of the peer still arrive as usual
+                final SocketAddress endpoint = peer.managementEndpoint();
+                final boolean suspicious = !failureDetector.isAvailable(endpoint)
+                        || failureDetector.phi(endpoint, System.currentTimeMillis()) >= context.phiSuspectThreshold;
+
+                if (peer.state() == ALIVE && suspicious)
                 {
                     peer.suspect();
-                    peers.set(idx, peer);
+                    peers.setChangedState(idx, peer);
                 }
             }
 
@@ -19,10 +19,6 @@ package io.zeebe.broker.clustering.gossip.protocol;
 
 import static io.zeebe.clustering.gossip.PeerState.ALIVE;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.security.MessageDigest;
 import java.util.concurrent.TimeUnit;
 
 import org.agrona.DirectBuffer;
@@ -37,7 +33,6 @@ import io.zeebe.broker.clustering.gossip.message.GossipResponse;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.ServerOutput;
 import io.zeebe.transport.ServerResponse;
-import io.zeebe.util.StreamUtil;
 
 public class GossipController
 {
@@ -49,7 +44,6 @@ public class GossipController
     private final GossipContext context;
 
     private long lastDissemination = 0;
-    private long lastStorage = -1;
 
     private final PeerList diff;
     private final GossipRequest gossipRequest;
@@ -62,8 +56,6 @@ public class GossipController
 
     private Probe[] proberHandlers;
 
-    private final String gossipFileName;
-
     public GossipController(final GossipContext context)
     {
         this.localPeer = context.getLocalPeer();
@@ -74,7 +66,6 @@ public class GossipController
         this.diff = new PeerList(config.peerCapacity);
         this.gossipRequest = new GossipRequest();
         this.gossipResponse = new GossipResponse();
-        this.gossipFileName = config.fileName();
 
         this.tmp = new Peer();
         this.tmp.reset();
@@ -158,7 +149,6 @@ public class GossipController
         workcount += doSuspicion();
 
         workcount += doProbe();
-        workcount += doStore();
 
         return workcount;
     }
@@ -223,38 +213,6 @@ public class GossipController
         return workcount;
     }
 
-    protected int doStore()
-    {
-        int workcount = 0;
-
-        final GossipConfiguration config = context.getConfig();
-
-        final long now = System.currentTimeMillis();
-        final int interval = config.peersStorageInterval;
-        final boolean elapsed = interval > 0 ? now >= TimeUnit.MINUTES.toMillis(interval) + lastStorage : false;
-
-        if (elapsed)
-        {
-            workcount += 1;
-
-            final File file = new File(gossipFileName);
-            final MessageDigest messageDigest = StreamUtil.getSha1Digest();
-
-            try (InputStream is = peers.toInputStream())
-            {
-                StreamUtil.write(file, is, messageDigest);
-            }
-            catch (final IOException e)
-            {
-                // ignore
-            }
-
-            lastStorage = now;
-        }
-
-        return workcount;
-    }
-
     protected int scheduleNextDissemination()
     {
         int workcount = 0;
@@ -336,7 +294,7 @@ public class GossipController
                 // refute
                 localPeer.alive();
                 localPeer.heartbeat().generation(System.currentTimeMillis());
-                peers.set(idx, localPeer);
+                peers.setChangedState(idx, localPeer);
 
                 final int pos = diff.find(localPeer);
                 if (pos >= 0)
@@ -0,0 +1,203 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
+import io.zeebe.broker.clustering.gossip.data.Peer;
+import io.zeebe.broker.clustering.gossip.data.PeerListListener;
+import io.zeebe.transport.SocketAddress;
+
+/**
+ * Accrual failure detector which expresses the suspicion of a peer as
+ * <code>phi = -log10(P(no heartbeat since the last one))</code>. The
+ * probability is estimated from the observed inter-arrival times of the
+ * heartbeats of the peer (assuming a normal distribution), so that the
+ * detection adapts to the current network and scheduling conditions instead
+ * of relying on a fixed timeout.
+ * <p>
+ * A heartbeat is observed when a newer heartbeat of an alive peer is merged
+ * into the peer list, i.e. by gossip or by the acknowledgement of a request.
+ */
+public class PhiAccrualFailureDetector implements PeerListListener
+{
+    private final Map<SocketAddress, ArrivalWindow> arrivalWindows = new HashMap<>();
+
+    private final int sampleCapacity;
+    private final int minSamples;
+    private final double minStdDeviation;
+    private final long acceptableHeartbeatPause;
+
+    public PhiAccrualFailureDetector(final GossipConfiguration config)
+    {
+        this(config.phiSampleCapacity, config.phiMinSamples, config.phiMinStdDeviation, config.phiAcceptableHeartbeatPause);
+    }
+
+    public PhiAccrualFailureDetector(int sampleCapacity, int minSamples, long minStdDeviation, long acceptableHeartbeatPause)
+    {
+        this.sampleCapacity = Math.max(sampleCapacity, 1);
+        this.minSamples = Math.max(minSamples, 1);
+        this.minStdDeviation = Math.max(minStdDeviation, 1);
+        this.acceptableHeartbeatPause = acceptableHeartbeatPause;
+    }
+
+    @Override
+    public void onPeerJoin(final Peer peer)
+    {
+        heartbeat(peer.managementEndpoint(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void onPeerHeartbeat(final Peer peer)
+    {
+        heartbeat(peer.managementEndpoint(), System.currentTimeMillis());
+    }
+
+    public synchronized void heartbeat(final SocketAddress peer, final long now)
+    {
+        ArrivalWindow window = arrivalWindows.get(peer);
+        if (window == null)
+        {
+            final SocketAddress key = new SocketAddress();
+            key.wrap(peer);
+
+            window = new ArrivalWindow(sampleCapacity);
+            arrivalWindows.put(key, window);
+        }
+
+        window.arrival(now);
+    }
+
+    /**
+     * @return <code>true</code> if enough heartbeats of the peer are observed
+     *         to calculate its suspicion level
+     */
+    public synchronized boolean isAvailable(final SocketAddress peer)
+    {
+        final ArrivalWindow window = arrivalWindows.get(peer);
+        return window != null && window.size >= minSamples;
+    }
+
+    /**
+     * @return the suspicion level of the peer at the given time, or
+     *         <code>0</code> if not enough heartbeats are observed
+     */
+    public synchronized double phi(final SocketAddress peer, final long now)
+    {
+        final ArrivalWindow window = arrivalWindows.get(peer);
+        if (window == null || window.size < minSamples)
+        {
+            return 0.0;
+        }
+
+        final long timeDiff = now - window.lastArrival;
+        final double mean = window.mean() + acceptableHeartbeatPause;
+        final double stdDeviation = Math.max(window.stdDeviation(), minStdDeviation);
+
+        return phi(timeDiff, mean, stdDeviation);
+    }
+
+    /**
+     * Removes the observed heartbeats of the peer, e.g. when it is dead. If
+     * the peer joins again then the suspicion is calculated from new
+     * heartbeats.
+     */
+    public synchronized void remove(final SocketAddress peer)
+    {
+        arrivalWindows.remove(peer);
+    }
+
+    /**
+     * Uses the logistic approximation of the cumulative normal distribution,
+     * which avoids an underflow for large time differences.
+     */
+    protected static double phi(final long timeDiff, final double mean, final double stdDeviation)
+    {
+        final double y = (timeDiff - mean) / stdDeviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+
+        if (timeDiff > mean)
+        {
+            return -Math.log10(e / (1.0 + e));
+        }
+        else
+        {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+
+    static class ArrivalWindow
+    {
+        private final long[] intervals;
+        private int head;
+        private int size;
+
+        private double sum;
+        private double squaredSum;
+
+        private long lastArrival = -1L;
+
+        ArrivalWindow(int capacity)
+        {
+            this.intervals = new long[capacity];
+        }
+
+        void arrival(long now)
+        {
+            if (lastArrival >= 0 && now > lastArrival)
+            {
+                final long interval = now - lastArrival;
+
+                if (size == intervals.length)
+                {
+                    final long oldest = intervals[head];
+                    sum -= oldest;
+                    squaredSum -= (double) oldest * oldest;
+                }
+                else
+                {
+                    size += 1;
+                }
+
+                intervals[head] = interval;
+                head = (head + 1) % intervals.length;
+
+                sum += interval;
+                squaredSum += (double) interval * interval;
+            }
+
+            lastArrival = Math.max(lastArrival, now);
+        }
+
+        double mean()
+        {
+            return sum / size;
+        }
+
+        double stdDeviation()
+        {
+            final double mean = mean();
+            final double variance = squaredSum / size - mean * mean;
+
+            return variance > 0 ? Math.sqrt(variance) : 0.0;
+        }
+    }
+
+}
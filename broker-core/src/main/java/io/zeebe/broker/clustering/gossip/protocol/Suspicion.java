@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.clustering.gossip.protocol;
 
+import static io.zeebe.clustering.gossip.PeerState.ALIVE;
 import static io.zeebe.clustering.gossip.PeerState.SUSPECT;
 
 import java.util.concurrent.TimeUnit;
@@ -26,19 +27,32 @@ import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.PeerListIterator;
+import io.zeebe.transport.SocketAddress;
 
+/**
+ * Suspects an alive peer if the suspicion level of the failure detector
+ * exceeds the suspect threshold. Declares a suspected peer as dead if the
+ * suspicion level exceeds the dead threshold, or at the latest when the
+ * suspicion timeout elapsed.
+ */
 public class Suspicion
 {
     private int timeout;
+    private final double phiSuspectThreshold;
+    private final double phiDeadThreshold;
     private final PeerList peers;
     private final PeerListIterator iterator;
+    private final PhiAccrualFailureDetector failureDetector;
 
     public Suspicion(final GossipContext context)
     {
         final GossipConfiguration config = context.getConfig();
         this.timeout = config.suspicionTimeout;
+        this.phiSuspectThreshold = config.phiSuspectThreshold;
+        this.phiDeadThreshold = config.phiDeadThreshold;
         this.peers = context.getPeers();
         this.iterator = new PeerListIterator(peers);
+        this.failureDetector = context.getFailureDetector();
     }
 
     public void open()
@@ -53,18 +67,35 @@ public class Suspicion
     {
         int workcount = 0;
 
+        final long now = System.currentTimeMillis();
+
         iterator.reset();
         while (iterator.hasNext())
         {
             final Peer peer = iterator.next();
-            if (peer.state() == SUSPECT)
+            final SocketAddress endpoint = peer.managementEndpoint();
+
+            if (peer.state() == ALIVE)
+            {
+                if (failureDetector.isAvailable(endpoint) && failureDetector.phi(endpoint, now) >= phiSuspectThreshold)
+                {
+                    workcount += 1;
+                    peer.suspect();
+                    peers.setChangedState(iterator.position(), peer);
+                }
+            }
+            else if (peer.state() == SUSPECT)
             {
                 final long suspectTime = peer.changeStateTime();
-                if (System.currentTimeMillis() > suspectTime + TimeUnit.SECONDS.toMillis(timeout))
+                final boolean timedOut = now > suspectTime + TimeUnit.SECONDS.toMillis(timeout);
+
+                if (timedOut || failureDetector.phi(endpoint, now) >= phiDeadThreshold)
                 {
                     workcount += 1;
                     peer.dead();
-                    peers.set(iterator.position(), peer);
+                    peers.setChangedState(iterator.position(), peer);
+
+                    failureDetector.remove(endpoint);
                 }
             }
         }
@@ -0,0 +1,375 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.protocol.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import io.zeebe.broker.clustering.gossip.data.Peer;
+import io.zeebe.broker.clustering.gossip.data.PeerList;
+import io.zeebe.broker.clustering.gossip.data.PeerListIterator;
+import io.zeebe.broker.clustering.gossip.data.PeerListListener;
+import io.zeebe.broker.clustering.gossip.data.PeerSelector;
+import io.zeebe.transport.SocketAddress;
+
+/**
+ * Selects the peers of the own zone, and with the configured cross zone
+ * ratio the peers of other zones. If the broker is not assigned to a zone,
+ * then all peers without zone are considered as local.
+ *
+ * <p>The candidates are kept in bags per zone locality and peer state, which
+ * are updated by the changes of the peer list. Thereby, a peer is selected
+ * in constant time. The selected peer contains the endpoints and the state of
+ * the peer, but not necessarily its latest heartbeat.
+ *
+ * <p>Not thread-safe; must be used by the gossip thread.
+ */
+public class ZoneAwarePeerSelector implements PeerSelector, PeerListListener
+{
+    protected final Random random = new Random();
+
+    protected final PeerList peers;
+    protected final Peer localPeer;
+    protected final double crossZoneRatio;
+
+    protected final PeerBag localAlivePeers;
+    protected final PeerBag localSuspectPeers;
+    protected final PeerBag remoteAlivePeers;
+    protected final PeerBag remoteSuspectPeers;
+
+    protected final PeerBag[] bags;
+
+    public ZoneAwarePeerSelector(final PeerList peers, final Peer localPeer, final double crossZoneRatio)
+    {
+        this.peers = peers;
+        this.localPeer = localPeer;
+        this.crossZoneRatio = crossZoneRatio;
+
+        final int capacity = peers.capacity();
+        localAlivePeers = new PeerBag(capacity);
+        localSuspectPeers = new PeerBag(capacity);
+        remoteAlivePeers = new PeerBag(capacity);
+        remoteSuspectPeers = new PeerBag(capacity);
+
+        bags = new PeerBag[] { localAlivePeers, localSuspectPeers, remoteAlivePeers, remoteSuspectPeers };
+
+        final PeerListIterator iterator = peers.iterator();
+        while (iterator.hasNext())
+        {
+            add(iterator.next());
+        }
+
+        peers.registerListener(this);
+    }
+
+    @Override
+    public void close()
+    {
+        peers.removeListener(this);
+    }
+
+    @Override
+    public void onPeerJoin(final Peer peer)
+    {
+        refresh(peer);
+    }
+
+    @Override
+    public void onPeerStateChange(final Peer peer)
+    {
+        refresh(peer);
+    }
+
+    @Override
+    public void onPeerZoneChange(final Peer peer)
+    {
+        refresh(peer);
+    }
+
+    protected void refresh(final Peer peer)
+    {
+        remove(peer);
+        add(peer);
+    }
+
+    protected void add(final Peer peer)
+    {
+        if (peer.managementEndpoint().compareTo(localPeer.managementEndpoint()) == 0)
+        {
+            return;
+        }
+
+        final boolean isLocal = peer.isInSameZone(localPeer);
+
+        switch (peer.state())
+        {
+            case ALIVE:
+                (isLocal ? localAlivePeers : remoteAlivePeers).add(peer);
+                break;
+            case SUSPECT:
+                (isLocal ? localSuspectPeers : remoteSuspectPeers).add(peer);
+                break;
+            default:
+                // dead peers are not selected
+                break;
+        }
+    }
+
+    protected void remove(final Peer peer)
+    {
+        for (int i = 0; i < bags.length; i++)
+        {
+            if (bags[i].remove(peer.managementEndpoint()))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Selects an alive or suspected peer, so that a suspected peer is
+     * able to refute the suspicion.
+     */
+    @Override
+    public boolean next(final Peer dst, final Peer[] exclusions)
+    {
+        final boolean preferRemote = preferRemote();
+
+        return next(preferRemote, dst, exclusions) || next(!preferRemote, dst, exclusions);
+    }
+
+    protected boolean next(final boolean remote, final Peer dst, final Peer[] exclusions)
+    {
+        final PeerBag alivePeers = remote ? remoteAlivePeers : localAlivePeers;
+        final PeerBag suspectPeers = remote ? remoteSuspectPeers : localSuspectPeers;
+
+        final int aliveSize = alivePeers.size();
+        final int size = aliveSize + suspectPeers.size();
+
+        if (size == 0)
+        {
+            return false;
+        }
+
+        // at most all excluded peers follow the random start
+        final int start = random.nextInt(size);
+        final int attempts = Math.min(size, exclusionCount(exclusions) + 1);
+
+        for (int i = 0; i < attempts; i++)
+        {
+            final int idx = (start + i) % size;
+            final Peer candidate = idx < aliveSize ? alivePeers.get(idx) : suspectPeers.get(idx - aliveSize);
+
+            if (!isExcluded(candidate, exclusions))
+            {
+                dst.reset();
+                dst.wrap(candidate);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Selects distinct alive peers.
+     */
+    @Override
+    public int next(final int max, final Peer[] dst, final Peer[] exclusions)
+    {
+        localAlivePeers.resetDraws();
+        remoteAlivePeers.resetDraws();
+
+        int dstIdx = 0;
+
+        while (dstIdx < max)
+        {
+            final boolean preferRemote = preferRemote();
+
+            Peer candidate = draw(preferRemote ? remoteAlivePeers : localAlivePeers, exclusions);
+            if (candidate == null)
+            {
+                candidate = draw(preferRemote ? localAlivePeers : remoteAlivePeers, exclusions);
+            }
+
+            if (candidate == null)
+            {
+                break;
+            }
+
+            dst[dstIdx].reset();
+            dst[dstIdx].wrap(candidate);
+            dstIdx++;
+        }
+
+        return dstIdx;
+    }
+
+    protected Peer draw(final PeerBag bag, final Peer[] exclusions)
+    {
+        Peer candidate = bag.draw(random);
+
+        while (candidate != null && isExcluded(candidate, exclusions))
+        {
+            candidate = bag.draw(random);
+        }
+
+        return candidate;
+    }
+
+    protected boolean preferRemote()
+    {
+        return crossZoneRatio > 0 && random.nextDouble() < crossZoneRatio;
+    }
+
+    protected int exclusionCount(final Peer[] exclusions)
+    {
+        return exclusions != null ? exclusions.length : 0;
+    }
+
+    protected boolean isExcluded(final Peer peer, final Peer[] exclusions)
+    {
+        if (exclusions != null)
+        {
+            final SocketAddress peerEndpoint = peer.managementEndpoint();
+            for (int i = 0; i < exclusions.length; i++)
+            {
+                if (exclusions[i].managementEndpoint().compareTo(peerEndpoint) == 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unordered set of peers with constant time insertion, removal and random
+     * access. Removed slots are filled with the last peer.
+     */
+    protected static class PeerBag
+    {
+        protected final Peer[] slots;
+        protected final Map<SocketAddress, Integer> slotsByEndpoint;
+
+        protected int size = 0;
+        protected int draws = 0;
+
+        PeerBag(final int capacity)
+        {
+            slots = new Peer[capacity];
+            slotsByEndpoint = new HashMap<>(capacity);
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        Peer get(final int idx)
+        {
+            return slots[idx];
+        }
+
+        void add(final Peer peer)
+        {
+            if (slots[size] == null)
+            {
+                slots[size] = new Peer();
+            }
+
+            final Peer slot = slots[size];
+            slot.reset();
+            slot.wrap(peer);
+
+            slotsByEndpoint.put(new SocketAddress(peer.managementEndpoint()), size);
+            size += 1;
+        }
+
+        boolean remove(final SocketAddress endpoint)
+        {
+            final Integer idx = slotsByEndpoint.remove(endpoint);
+
+            if (idx == null)
+            {
+                return false;
+            }
+
+            final int lastIdx = size - 1;
+            if (idx != lastIdx)
+            {
+                // move the last peer into the free slot and keep the removed slot for reuse
+                final Peer removedPeer = slots[idx];
+                final Peer movedPeer = slots[lastIdx];
+
+                slots[idx] = movedPeer;
+                slots[lastIdx] = removedPeer;
+
+                // the slot's endpoint is overridden when the slot is reused, so the key is a copy
+                slotsByEndpoint.put(new SocketAddress(movedPeer.managementEndpoint()), idx);
+            }
+
+            size -= 1;
+            draws = Math.min(draws, size);
+
+            return true;
+        }
+
+        void resetDraws()
+        {
+            draws = 0;
+        }
+
+        /**
+         * Draws a random peer which was not drawn since the last reset (partial
+         * Fisher-Yates shuffle).
+         *
+         * @return the drawn peer or <code>null</code> if all peers are drawn
+         */
+        Peer draw(final Random random)
+        {
+            if (draws >= size)
+            {
+                return null;
+            }
+
+            swap(draws, draws + random.nextInt(size - draws));
+
+            final Peer peer = slots[draws];
+            draws += 1;
+
+            return peer;
+        }
+
+        protected void swap(final int i, final int j)
+        {
+            if (i != j)
+            {
+                final Peer peer = slots[i];
+                slots[i] = slots[j];
+                slots[j] = peer;
+
+                // both peers are contained, so only the values are replaced and the copied keys are kept
+                slotsByEndpoint.replace(slots[i].managementEndpoint(), i);
+                slotsByEndpoint.replace(slots[j].managementEndpoint(), j);
+            }
+        }
+    }
+
+}
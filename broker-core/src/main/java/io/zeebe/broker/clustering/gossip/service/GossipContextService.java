@@ -22,6 +22,7 @@ import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.PeerSelector;
+import io.zeebe.broker.clustering.gossip.protocol.PhiAccrualFailureDetector;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
@@ -40,6 +41,7 @@ public class GossipContextService implements Service<GossipContext>
     private final GossipConfiguration config;
 
     private GossipContext context;
+    private PhiAccrualFailureDetector failureDetector;
 
     public GossipContextService(final GossipConfiguration config)
     {
@@ -63,11 +65,16 @@ public class GossipContextService implements Service<GossipContext>
         context.setClientTransport(clientTransport);
         context.setServerTransport(serverTransport);
         context.setPeerSelector(peerSelector);
+
+        failureDetector = new PhiAccrualFailureDetector(config);
+        peers.registerListener(failureDetector);
+        context.setFailureDetector(failureDetector);
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
+        peerListInjector.getValue().removeListener(failureDetector);
     }
 
     @Override
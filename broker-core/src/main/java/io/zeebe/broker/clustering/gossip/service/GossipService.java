@@ -17,16 +17,12 @@
  */
 package io.zeebe.broker.clustering.gossip.service;
 
-import java.io.File;
-
 import io.zeebe.broker.clustering.gossip.Gossip;
 import io.zeebe.broker.clustering.gossip.GossipContext;
-import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
-import io.zeebe.util.LangUtil;
 import io.zeebe.util.actor.ActorReference;
 import io.zeebe.util.actor.ActorScheduler;
 
@@ -46,10 +42,6 @@ public class GossipService implements Service<Gossip>
         this.gossipContext = gossipContextInjector.getValue();
         startContext.run(() ->
         {
-            //create a gossip folder
-            final GossipConfiguration configuration = gossipContext.getConfig();
-            createFile(configuration.fileName());
-
             this.gossip = new Gossip(gossipContext);
             gossip.open();
             actorRef = actorScheduler.schedule(gossip);
@@ -78,21 +70,4 @@ public class GossipService implements Service<Gossip>
     {
         return actorSchedulerInjector;
     }
-
-    private void createFile(String file)
-    {
-        final File f = new File(file);
-        if (!f.exists())
-        {
-            try
-            {
-                f.getParentFile().mkdirs();
-                f.createNewFile();
-            }
-            catch (Exception e)
-            {
-                LangUtil.rethrowUnchecked(e);
-            }
-        }
-    }
 }
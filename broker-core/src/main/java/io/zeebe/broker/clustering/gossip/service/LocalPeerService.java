@@ -17,6 +17,10 @@
  */
 package io.zeebe.broker.clustering.gossip.service;
 
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import org.agrona.DirectBuffer;
+
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
@@ -28,14 +32,16 @@ public class LocalPeerService implements Service<Peer>
     private final SocketAddress clientEndpoint;
     private final SocketAddress managementEndpoint;
     private final SocketAddress replicationEndpoint;
+    private final String zone;
 
     private Peer localPeer;
 
-    public LocalPeerService(final SocketAddress clientEndpoint, final SocketAddress managementEndpoint, final SocketAddress replicationEndpoint)
+    public LocalPeerService(final SocketAddress clientEndpoint, final SocketAddress managementEndpoint, final SocketAddress replicationEndpoint, final String zone)
     {
         this.clientEndpoint = clientEndpoint;
         this.managementEndpoint = managementEndpoint;
         this.replicationEndpoint = replicationEndpoint;
+        this.zone = zone;
     }
 
     @Override
@@ -49,6 +55,12 @@ public class LocalPeerService implements Service<Peer>
         this.localPeer.clientEndpoint().wrap(clientEndpoint);
         this.localPeer.managementEndpoint().wrap(managementEndpoint);
         this.localPeer.replicationEndpoint().wrap(replicationEndpoint);
+
+        if (zone != null)
+        {
+            final DirectBuffer zoneBuffer = wrapString(zone);
+            this.localPeer.zone(zoneBuffer, 0, zoneBuffer.capacity());
+        }
     }
 
     @Override
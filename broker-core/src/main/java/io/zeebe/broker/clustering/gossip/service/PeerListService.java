@@ -20,21 +20,17 @@ package io.zeebe.broker.clustering.gossip.service;
 import static io.zeebe.clustering.gossip.PeerState.ALIVE;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
-import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
 import io.zeebe.broker.clustering.gossip.data.Peer;
+import io.zeebe.broker.clustering.gossip.data.PeerJournal;
+import io.zeebe.broker.clustering.gossip.data.PeerJournalWriter;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
-import io.zeebe.util.collection.CompactList;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
-import io.zeebe.util.StreamUtil;
+import io.zeebe.util.LangUtil;
 
 public class PeerListService implements Service<PeerList>
 {
@@ -43,6 +39,7 @@ public class PeerListService implements Service<PeerList>
     private final GossipConfiguration config;
 
     private PeerList peers;
+    private PeerJournalWriter journalWriter;
 
     public PeerListService(final GossipConfiguration config)
     {
@@ -57,17 +54,27 @@ public class PeerListService implements Service<PeerList>
         {
             peers = new PeerList(config.peerCapacity);
 
-            addStoredPeers(peers, config.fileName());
+            final PeerJournal journal = openJournal();
+            peers.addAll(journal.getPeers());
 
             addContacts(peers, config.initialContactPoints);
             addLocalPeer(peers, localPeer);
+
+            journalWriter = new PeerJournalWriter(journal);
+            peers.registerListener(journalWriter);
         });
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
-        peers.close();
+        stopContext.run(() ->
+        {
+            peers.removeListener(journalWriter);
+            journalWriter.close();
+
+            peers.close();
+        });
     }
 
     @Override
@@ -81,29 +88,21 @@ public class PeerListService implements Service<PeerList>
         return localPeerInjector;
     }
 
-    protected void addStoredPeers(final PeerList peers, final String path)
+    protected PeerJournal openJournal()
     {
-        final File file = new File(path);
+        final PeerJournal journal = new PeerJournal(new File(config.journalFileName()), config.peersJournalSize, config.peerCapacity);
 
-        if (StreamUtil.canRead(file, StreamUtil.getSha1Digest()))
+        try
         {
-            final byte[] data = new byte[(int) file.length()];
-
-            try (InputStream is = new FileInputStream(file))
-            {
-                StreamUtil.read(is, data);
-            }
-            catch (final IOException e)
-            {
-                // ignore
-            }
-
-            final UnsafeBuffer buffer = new UnsafeBuffer(data);
-            final CompactList underlyingList = new CompactList(buffer);
-            final PeerList stored = new PeerList(underlyingList);
-
-            peers.addAll(stored);
+            journal.open();
+        }
+        catch (final Exception e)
+        {
+            journal.close();
+            LangUtil.rethrowUnchecked(e);
         }
+
+        return journal;
     }
 
     protected void addContacts(final PeerList peers, final String[] contacts)
@@ -17,9 +17,12 @@
  */
 package io.zeebe.broker.clustering.gossip.service;
 
+import io.zeebe.broker.clustering.gossip.config.GossipConfiguration;
+import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.PeerSelector;
 import io.zeebe.broker.clustering.gossip.protocol.util.SimplePeerSelector;
+import io.zeebe.broker.clustering.gossip.protocol.util.ZoneAwarePeerSelector;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
@@ -28,14 +31,34 @@ import io.zeebe.servicecontainer.ServiceStopContext;
 public class PeerSelectorService implements Service<PeerSelector>
 {
     private final Injector<PeerList> peerListInjector = new Injector<>();
+    private final Injector<Peer> localPeerInjector = new Injector<>();
+
+    private final GossipConfiguration config;
 
     private PeerSelector peerSelector;
 
+    public PeerSelectorService(final GossipConfiguration config)
+    {
+        this.config = config;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
         final PeerList peers = peerListInjector.getValue();
-        this.peerSelector = new SimplePeerSelector(peers);
+        final Peer localPeer = localPeerInjector.getValue();
+
+        switch (config.peerSelector)
+        {
+            case RANDOM:
+                this.peerSelector = new SimplePeerSelector(peers);
+                break;
+            case ZONE_AWARE:
+                this.peerSelector = new ZoneAwarePeerSelector(peers, localPeer, config.crossZoneRatio);
+                break;
+            default:
+                throw new RuntimeException("Unknown peer selector: " + config.peerSelector);
+        }
     }
 
     @Override
@@ -55,4 +78,9 @@ public class PeerSelectorService implements Service<PeerSelector>
         return peerListInjector;
     }
 
+    public Injector<Peer> getLocalPeerInjector()
+    {
+        return localPeerInjector;
+    }
+
 }
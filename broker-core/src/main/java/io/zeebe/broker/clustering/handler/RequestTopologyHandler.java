@@ -29,7 +29,17 @@ import io.zeebe.broker.transport.controlmessage.ControlMessageResponseWriter;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.transport.ServerOutput;
+import io.zeebe.util.buffer.BufferUtil;
 
+/**
+ * Responds with the topology of the cluster. If the request contains the
+ * version of the topology which is known by the client, then the response is
+ * deferred until the topology changes, so that the client is notified about
+ * changes like a new leader of a partition without polling.
+ *
+ * <p>The handler returns immediately, so that a held request does not block the
+ * processing of further control messages.
+ */
 public class RequestTopologyHandler implements ControlMessageHandler
 {
 
@@ -37,6 +47,8 @@ public class RequestTopologyHandler implements ControlMessageHandler
     protected final ControlMessageResponseWriter responseWriter;
     protected final ErrorResponseWriter errorResponseWriter;
 
+    protected final TopologyRequest request = new TopologyRequest();
+
     public RequestTopologyHandler(final ServerOutput ouput, final Gossip gossip)
     {
         this.gossip = gossip;
@@ -53,35 +65,44 @@ public class RequestTopologyHandler implements ControlMessageHandler
     @Override
     public CompletableFuture<Void> handle(final DirectBuffer buffer, final BrokerEventMetadata metadata)
     {
-        return gossip.getTopology()
-            .handle((topology, failure) ->
-            {
-                if (failure == null)
-                {
-                    responseWriter
-                        .dataWriter(topology);
+        request.reset();
+        request.wrap(buffer);
 
-                    if (!responseWriter.tryWriteResponse(metadata.getRequestStreamId(), metadata.getRequestId()))
-                    {
-                        errorResponseWriter
-                            .errorCode(ErrorCode.REQUEST_WRITE_FAILURE)
-                            .errorMessage("Cannot write topology response.")
-                            .failedRequest(buffer, 0, buffer.capacity())
-                            .tryWriteResponseOrLogFailure(metadata.getRequestStreamId(), metadata.getRequestId());
-                    }
-                }
-                else
-                {
-                    errorResponseWriter
-                        .errorCode(ErrorCode.REQUEST_PROCESSING_FAILURE)
-                        .errorMessage("Cannot close topic subscription. %s", failure.getMessage())
-                        .failedRequest(buffer, 0, buffer.capacity())
-                        .tryWriteResponseOrLogFailure(metadata.getRequestStreamId(), metadata.getRequestId());
-                }
+        // the buffer and the metadata are reused for the next request while this one is held
+        final DirectBuffer requestBuffer = BufferUtil.cloneBuffer(buffer);
+        final int requestStreamId = metadata.getRequestStreamId();
+        final long requestId = metadata.getRequestId();
 
-                return null;
-            });
+        gossip.awaitTopologyChange(request.getKnownVersion())
+            .whenComplete((topology, failure) -> writeResponse(topology, failure, requestBuffer, requestStreamId, requestId));
 
+        return CompletableFuture.completedFuture(null);
+    }
+
+    protected synchronized void writeResponse(final Topology topology, final Throwable failure, final DirectBuffer requestBuffer, final int requestStreamId, final long requestId)
+    {
+        if (failure == null)
+        {
+            responseWriter
+                .dataWriter(topology);
+
+            if (!responseWriter.tryWriteResponse(requestStreamId, requestId))
+            {
+                errorResponseWriter
+                    .errorCode(ErrorCode.REQUEST_WRITE_FAILURE)
+                    .errorMessage("Cannot write topology response.")
+                    .failedRequest(requestBuffer, 0, requestBuffer.capacity())
+                    .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+            }
+        }
+        else
+        {
+            errorResponseWriter
+                .errorCode(ErrorCode.REQUEST_PROCESSING_FAILURE)
+                .errorMessage("Cannot request topology. %s", failure.getMessage())
+                .failedRequest(requestBuffer, 0, requestBuffer.capacity())
+                .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+        }
     }
 
 }
@@ -22,6 +22,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.msgpack.property.ArrayProperty;
+import io.zeebe.msgpack.property.LongProperty;
 import io.zeebe.msgpack.value.ArrayValue;
 import io.zeebe.msgpack.value.ArrayValueIterator;
 import io.zeebe.msgpack.spec.MsgPackHelper;
@@ -36,23 +37,50 @@ public class Topology extends UnpackedObject
         new ArrayValue<>(EMPTY_ARRAY, 0, EMPTY_ARRAY.capacity()),
         new TopicLeader());
 
+    // followers are listed in the same format as leaders, one entry per follower of a partition
+    protected ArrayProperty<TopicLeader> topicFollowersProp = new ArrayProperty<>("topicFollowers",
+        new ArrayValue<>(),
+        new ArrayValue<>(EMPTY_ARRAY, 0, EMPTY_ARRAY.capacity()),
+        new TopicLeader());
+
     protected ArrayProperty<BrokerAddress> brokersProp = new ArrayProperty<>("brokers",
         new ArrayValue<>(),
         new ArrayValue<>(EMPTY_ARRAY, 0, EMPTY_ARRAY.capacity()),
         new BrokerAddress());
 
+    // identifies the state of the topology on the responding broker, changes whenever the topology changes
+    protected LongProperty versionProp = new LongProperty("version", -1L);
+
     public Topology()
     {
         this
+            .declareProperty(versionProp)
             .declareProperty(topicLeadersProp)
+            .declareProperty(topicFollowersProp)
             .declareProperty(brokersProp);
     }
 
+    public long getVersion()
+    {
+        return versionProp.getValue();
+    }
+
+    public Topology setVersion(final long version)
+    {
+        versionProp.setValue(version);
+        return this;
+    }
+
     public ArrayValueIterator<TopicLeader> topicLeaders()
     {
         return topicLeadersProp;
     }
 
+    public ArrayValueIterator<TopicLeader> topicFollowers()
+    {
+        return topicFollowersProp;
+    }
+
     public ArrayProperty<BrokerAddress> brokers()
     {
         return brokersProp;
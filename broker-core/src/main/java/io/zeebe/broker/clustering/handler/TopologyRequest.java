@@ -0,0 +1,46 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.handler;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.LongProperty;
+
+public class TopologyRequest extends UnpackedObject
+{
+    public static final long UNKNOWN_VERSION = -1L;
+
+    // if set, the request is held until the topology differs from this version or the hold time elapsed
+    protected LongProperty knownVersionProp = new LongProperty("knownVersion", UNKNOWN_VERSION);
+
+    public TopologyRequest()
+    {
+        this.declareProperty(knownVersionProp);
+    }
+
+    public long getKnownVersion()
+    {
+        return knownVersionProp.getValue();
+    }
+
+    public TopologyRequest setKnownVersion(final long knownVersion)
+    {
+        knownVersionProp.setValue(knownVersion);
+        return this;
+    }
+
+}
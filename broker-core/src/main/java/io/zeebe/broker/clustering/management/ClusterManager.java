@@ -17,9 +17,10 @@
  */
 package io.zeebe.broker.clustering.management;
 
+import static io.zeebe.broker.clustering.ClusterServiceNames.CLUSTER_MANAGER_SERVICE;
 import static io.zeebe.broker.clustering.ClusterServiceNames.RAFT_SERVICE_GROUP;
 import static io.zeebe.broker.clustering.ClusterServiceNames.raftServiceName;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
 
 import java.io.File;
 import java.io.IOException;
@@ -32,21 +33,31 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
+import io.zeebe.broker.clustering.gossip.data.PeerListListener;
 import io.zeebe.broker.clustering.gossip.data.RaftMembership;
 import io.zeebe.broker.clustering.management.config.ClusterManagementConfig;
 import io.zeebe.broker.clustering.management.handler.ClusterManagerFragmentHandler;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkRequest;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkResponse;
+import io.zeebe.broker.clustering.management.message.InvitationBatchRequest;
 import io.zeebe.broker.clustering.management.message.InvitationRequest;
 import io.zeebe.broker.clustering.management.message.InvitationResponse;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsRequest;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsResponse;
+import io.zeebe.broker.clustering.raft.RaftJournalStorage;
+import io.zeebe.broker.clustering.raft.RaftMetadataJournal;
 import io.zeebe.broker.clustering.raft.RaftPersistentFileStorage;
 import io.zeebe.broker.clustering.raft.RaftService;
 import io.zeebe.broker.logstreams.LogStreamsManager;
 import io.zeebe.broker.transport.TransportServiceNames;
+import io.zeebe.clustering.gossip.PeerState;
 import io.zeebe.clustering.gossip.RaftMembershipState;
 import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.raft.Raft;
 import io.zeebe.raft.RaftPersistentStorage;
+import io.zeebe.raft.state.RaftState;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.transport.*;
@@ -61,19 +72,32 @@ public class ClusterManager implements Actor, PartitionManager
 {
     public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
 
+    /**
+     * Limits the size of a single invitation request
+     */
+    public static final int MAX_INVITATIONS_PER_REQUEST = 64;
+
     private final ClusterManagerContext context;
     private final ServiceContainer serviceContainer;
 
     private final List<Raft> rafts;
     private final List<StartLogStreamServiceController> startLogStreamServiceControllers;
+    private final List<SnapshotReplicationController> snapshotReplicationControllers;
 
     private final DeferredCommandContext commandQueue;
 
     private final List<RequestResponseController> activeRequestControllers;
 
     private final InvitationRequest invitationRequest;
+    private final InvitationBatchRequest invitationBatchRequest;
     private final InvitationResponse invitationResponse;
 
+    private final SnapshotProvider snapshotProvider;
+    private final ListSnapshotsRequest listSnapshotsRequest = new ListSnapshotsRequest();
+    private final ListSnapshotsResponse listSnapshotsResponse = new ListSnapshotsResponse();
+    private final FetchSnapshotChunkRequest fetchSnapshotChunkRequest = new FetchSnapshotChunkRequest();
+    private final FetchSnapshotChunkResponse fetchSnapshotChunkResponse = new FetchSnapshotChunkResponse();
+
     private ClusterManagementConfig config;
 
     //    private final MessageWriter messageWriter;
@@ -82,6 +106,16 @@ public class ClusterManager implements Actor, PartitionManager
 
     protected final LogStreamsManager logStreamsManager;
 
+    protected RaftMetadataJournal metadataJournal;
+
+    protected final List<PartitionListener> partitionListeners = new CopyOnWriteArrayList<>();
+    protected final UnsafeBuffer leaderTopicNameView = new UnsafeBuffer(0, 0);
+
+    // partitions created by this broker whose rafts have not been announced to the other brokers yet
+    protected final List<DirectBuffer> uninvitedPartitionTopicNames = new ArrayList<>();
+    protected final List<Integer> uninvitedPartitionIds = new ArrayList<>();
+    protected final List<Raft> uninvitedRafts = new ArrayList<>();
+
     public ClusterManager(final ClusterManagerContext context, final ServiceContainer serviceContainer, final ClusterManagementConfig config)
     {
         this.context = context;
@@ -89,25 +123,40 @@ public class ClusterManager implements Actor, PartitionManager
         this.config = config;
         this.rafts = new CopyOnWriteArrayList<>();
         this.startLogStreamServiceControllers = new CopyOnWriteArrayList<>();
+        this.snapshotReplicationControllers = new CopyOnWriteArrayList<>();
         this.commandQueue = new DeferredCommandContext();
         this.activeRequestControllers = new CopyOnWriteArrayList<>();
         this.invitationRequest = new InvitationRequest();
+        this.invitationBatchRequest = new InvitationBatchRequest();
         this.logStreamsManager = context.getLogStreamsManager();
 
         this.invitationResponse = new InvitationResponse();
+        this.snapshotProvider = new SnapshotProvider(context.getSnapshotStorage(), context.getReplicableSnapshots());
 
         final ClusterManagerFragmentHandler fragmentHandler = new ClusterManagerFragmentHandler(this);
         inputSubscription = context.getServerTransport()
                                    .openSubscription("cluster-management", fragmentHandler, fragmentHandler)
                                    .join();
 
-        context.getPeers().registerListener(this::addPeer);
+        context.getPeers().registerListener(new PeerListListener()
+        {
+            @Override
+            public void onPeerJoin(final Peer peer)
+            {
+                addPeer(peer);
+                notifyPartitionLeaders(peer);
+            }
+
+            @Override
+            public void onPeerRaftMembershipsChange(final Peer peer)
+            {
+                notifyPartitionLeaders(peer);
+            }
+        });
     }
 
     public void open()
     {
-        final LogStreamsManager logStreamManager = context.getLogStreamsManager();
-
         final File storageDirectory = new File(config.directory);
 
         if (!storageDirectory.exists())
@@ -123,30 +172,18 @@ public class ClusterManager implements Actor, PartitionManager
             }
         }
 
+        metadataJournal = new RaftMetadataJournal(storageDirectory, config.raftMetadataJournalSize);
+        migrateRaftMetaFiles(storageDirectory);
+
         final SocketAddress socketAddress = context.getLocalPeer().replicationEndpoint();
-        final File[] storageFiles = storageDirectory.listFiles();
 
-        if (storageFiles != null && storageFiles.length > 0)
+        if (!metadataJournal.isEmpty())
         {
-            for (int i = 0; i < storageFiles.length; i++)
-            {
-                final File storageFile = storageFiles[i];
-                final RaftPersistentFileStorage storage = new RaftPersistentFileStorage(storageFile.getAbsolutePath());
-
-                final DirectBuffer topicName = storage.getTopicName();
-                final int partitionId = storage.getPartitionId();
+            final List<RaftJournalStorage> storages = metadataJournal.getStorages();
 
-                LogStream logStream = logStreamManager.getLogStream(topicName, partitionId);
-
-                if (logStream == null)
-                {
-                    final String directory = storage.getLogDirectory();
-                    logStream = logStreamManager.createLogStream(topicName, partitionId, directory);
-                }
-
-                storage.setLogStream(logStream);
-
-                createRaft(socketAddress, logStream, storage.getMembers(), storage);
+            for (int i = 0; i < storages.size(); i++)
+            {
+                restoreRaft(socketAddress, storages.get(i));
             }
         }
         else
@@ -160,6 +197,75 @@ public class ClusterManager implements Actor, PartitionManager
         }
     }
 
+    /**
+     * Moves the raft meta files of former versions, one per partition, into
+     * the metadata journal. A meta file of a partition which is already
+     * contained in the journal is outdated (e.g. it could not be deleted
+     * after a former migration) and is not migrated again.
+     */
+    protected void migrateRaftMetaFiles(final File storageDirectory)
+    {
+        final File[] metaFiles = storageDirectory.listFiles((dir, name) -> name.endsWith(".meta"));
+
+        if (metaFiles != null && metaFiles.length > 0)
+        {
+            long record = -1;
+
+            for (int i = 0; i < metaFiles.length; i++)
+            {
+                final RaftPersistentFileStorage metaFile = new RaftPersistentFileStorage(metaFiles[i].getAbsolutePath());
+
+                if (metadataJournal.getStorage(metaFile.getTopicName(), metaFile.getPartitionId()) == null)
+                {
+                    record = metadataJournal.append(metaFile.getConfiguration());
+                }
+                else
+                {
+                    LOG.info("Skip migration of raft meta file {}, the partition is already migrated", metaFiles[i]);
+                }
+            }
+
+            if (record >= 0)
+            {
+                metadataJournal.flush(record);
+            }
+
+            for (int i = 0; i < metaFiles.length; i++)
+            {
+                if (!metaFiles[i].delete())
+                {
+                    LOG.warn("Unable to delete migrated raft meta file {}", metaFiles[i]);
+                }
+            }
+        }
+    }
+
+    public void close()
+    {
+        metadataJournal.close();
+    }
+
+    /**
+     * Creates the raft of a partition from its persisted raft metadata
+     */
+    protected void restoreRaft(final SocketAddress socketAddress, final RaftJournalStorage storage)
+    {
+        final DirectBuffer topicName = storage.getTopicName();
+        final int partitionId = storage.getPartitionId();
+
+        LogStream logStream = logStreamsManager.getLogStream(topicName, partitionId);
+
+        if (logStream == null)
+        {
+            final String directory = storage.getLogDirectory();
+            logStream = logStreamsManager.createLogStream(topicName, partitionId, directory);
+        }
+
+        storage.setLogStream(logStream);
+
+        createRaft(socketAddress, logStream, storage.getMembers(), storage);
+    }
+
     @Override
     public String name()
     {
@@ -200,6 +306,13 @@ public class ClusterManager implements Actor, PartitionManager
             workcount += startLogStreamServiceControllers.get(j).doWork();
         }
 
+        for (int j = 0; j < snapshotReplicationControllers.size(); j++)
+        {
+            workcount += snapshotReplicationControllers.get(j).doWork();
+        }
+
+        workcount += sendPendingInvitations();
+
         return workcount;
     }
 
@@ -209,30 +322,73 @@ public class ClusterManager implements Actor, PartitionManager
         copy.wrap(peer);
         commandQueue.runAsync(() ->
         {
+            // TODO(menski): implement replication factor
+            sendInvitations(copy.managementEndpoint(), rafts);
+        });
+    }
 
-            for (int i = 0; i < rafts.size(); i++)
+    /**
+     * Invites the alive brokers to the rafts of the partitions which were
+     * created by this broker since the last invocation. The invitations for
+     * all of these partitions are sent in one request per broker.
+     */
+    protected int sendPendingInvitations()
+    {
+        if (uninvitedRafts.isEmpty())
+        {
+            return 0;
+        }
+
+        final Peer localPeer = context.getLocalPeer();
+
+        for (final Peer peer : context.getPeers().copy())
+        {
+            if (peer.state() == PeerState.ALIVE && peer.compareTo(localPeer) != 0)
+            {
+                sendInvitations(peer.managementEndpoint(), uninvitedRafts);
+            }
+        }
+
+        uninvitedRafts.clear();
+
+        return 1;
+    }
+
+    protected void sendInvitations(final SocketAddress receiver, final List<Raft> rafts)
+    {
+        InvitationBatchRequest invitations = null;
+
+        for (int i = 0; i < rafts.size(); i++)
+        {
+            if (invitations == null)
             {
-                final Raft raft = rafts.get(i);
-                // TODO(menski): implement replication factor
                 // TODO: if this should be garbage free, we have to limit
                 // the number of concurrent invitations.
-                final List<SocketAddress> members = new ArrayList<>();
-                members.add(raft.getSocketAddress());
-                raft.getMembers().forEach(raftMember -> members.add(raftMember.getRemoteAddress().getAddress()));
+                invitations = new InvitationBatchRequest();
+            }
 
-                final LogStream logStream = raft.getLogStream();
-                final InvitationRequest invitationRequest = new InvitationRequest()
-                    .topicName(logStream.getTopicName())
-                    .partitionId(logStream.getPartitionId())
-                    .term(raft.getTerm())
-                    .members(members);
+            final Raft raft = rafts.get(i);
 
+            final List<SocketAddress> members = new ArrayList<>();
+            members.add(raft.getSocketAddress());
+            raft.getMembers().forEach(raftMember -> members.add(raftMember.getRemoteAddress().getAddress()));
+
+            final LogStream logStream = raft.getLogStream();
+            invitations.add()
+                .topicName(logStream.getTopicName())
+                .partitionId(logStream.getPartitionId())
+                .term(raft.getTerm())
+                .members(members);
+
+            if (invitations.size() == MAX_INVITATIONS_PER_REQUEST || i == rafts.size() - 1)
+            {
                 final RequestResponseController requestController = new RequestResponseController(context.getClientTransport());
-                requestController.open(copy.managementEndpoint(), invitationRequest, null);
+                requestController.open(receiver, invitations, null);
                 activeRequestControllers.add(requestController);
-            }
 
-        });
+                invitations = null;
+            }
+        }
     }
 
     public void addRaft(final Raft raft)
@@ -242,6 +398,24 @@ public class ClusterManager implements Actor, PartitionManager
             context.getLocalPeer().addRaft(raft);
             rafts.add(raft);
             startLogStreamServiceControllers.add(new StartLogStreamServiceController(raft, serviceContainer));
+            startLogStreamServiceControllers.add(new StartLogStreamServiceController(raft, serviceContainer, true));
+
+            if (config.snapshotReplicationInterval > 0)
+            {
+                snapshotReplicationControllers.add(new SnapshotReplicationController(raft, context, config.snapshotReplicationInterval));
+            }
+
+            final LogStream logStream = raft.getLogStream();
+            for (int i = 0; i < uninvitedPartitionIds.size(); i++)
+            {
+                if (uninvitedPartitionIds.get(i) == logStream.getPartitionId() && uninvitedPartitionTopicNames.get(i).equals(logStream.getTopicName()))
+                {
+                    uninvitedPartitionIds.remove(i);
+                    uninvitedPartitionTopicNames.remove(i);
+                    uninvitedRafts.add(raft);
+                    break;
+                }
+            }
         });
     }
 
@@ -265,14 +439,25 @@ public class ClusterManager implements Actor, PartitionManager
                 }
             }
 
-            for (int i = 0; i < startLogStreamServiceControllers.size(); i++)
+            // a raft has a controller for its leader and its follower stream
+            for (int i = startLogStreamServiceControllers.size() - 1; i >= 0; i--)
             {
                 final Raft r = startLogStreamServiceControllers.get(i).getRaft();
                 final LogStream stream = r.getLogStream();
                 if (topicName.equals(stream.getTopicName()) && partitionId == stream.getPartitionId())
                 {
                     startLogStreamServiceControllers.remove(i);
-                    break;
+                }
+            }
+
+            for (int i = snapshotReplicationControllers.size() - 1; i >= 0; i--)
+            {
+                final SnapshotReplicationController controller = snapshotReplicationControllers.get(i);
+                final LogStream stream = controller.getRaft().getLogStream();
+                if (topicName.equals(stream.getTopicName()) && partitionId == stream.getPartitionId())
+                {
+                    controller.close();
+                    snapshotReplicationControllers.remove(i);
                 }
             }
         });
@@ -283,7 +468,7 @@ public class ClusterManager implements Actor, PartitionManager
         final FsLogStorage logStorage = (FsLogStorage) logStream.getLogStorage();
         final String path = logStorage.getConfig().getPath();
 
-        final RaftPersistentFileStorage storage = new RaftPersistentFileStorage(String.format("%s%s.meta", config.directory, logStream.getLogName()));
+        final RaftJournalStorage storage = metadataJournal.createStorage();
         storage
             .setLogStream(logStream)
             .setLogDirectory(path)
@@ -304,7 +489,9 @@ public class ClusterManager implements Actor, PartitionManager
 
         serviceContainer.createService(raftServiceName, raftService)
                         .group(RAFT_SERVICE_GROUP)
-                        .dependency(ACTOR_SCHEDULER_SERVICE, raftService.getActorSchedulerInjector())
+                        // the raft must be stopped before the metadata journal is closed
+                        .dependency(CLUSTER_MANAGER_SERVICE)
+                        .dependency(ACTOR_GROUPS_SERVICE, raftService.getActorGroupsInjector())
                         .dependency(TransportServiceNames.bufferingServerTransport(TransportServiceNames.REPLICATION_API_SERVER_NAME), raftService.getServerTransportInjector())
                         .dependency(TransportServiceNames.clientTransport(TransportServiceNames.REPLICATION_API_CLIENT_NAME), raftService.getClientTransportInjector())
                         .install();
@@ -313,20 +500,32 @@ public class ClusterManager implements Actor, PartitionManager
     /**
      * Creates log stream and sets up raft service to participate in raft group
      */
-    protected void createPartition(DirectBuffer topicName, int partitionId)
+    protected void createPartition(DirectBuffer topicName, int partitionId, List<SocketAddress> members)
     {
         final LogStream logStream = logStreamsManager.createLogStream(topicName, partitionId);
 
         final SocketAddress socketAddress = context.getLocalPeer().replicationEndpoint();
-        createRaft(socketAddress, logStream, new ArrayList<>(invitationRequest.members()));
+        createRaft(socketAddress, logStream, members);
+    }
+
+    protected void createPartition(DirectBuffer topicName, int partitionId)
+    {
+        createPartition(topicName, partitionId, new ArrayList<>());
     }
 
+    /**
+     * Creates the partition and invites the other brokers to it as soon as its
+     * raft is started.
+     */
     public void createPartitionAsync(DirectBuffer topicName, int partitionId)
     {
         final DirectBuffer nameBuffer = BufferUtil.cloneBuffer(topicName);
 
         commandQueue.runAsync(() ->
         {
+            uninvitedPartitionTopicNames.add(nameBuffer);
+            uninvitedPartitionIds.add(partitionId);
+
             createPartition(nameBuffer, partitionId);
         });
     }
@@ -342,11 +541,42 @@ public class ClusterManager implements Actor, PartitionManager
         invitationRequest.reset();
         invitationRequest.wrap(buffer, offset, length);
 
-        final DirectBuffer topicName = invitationRequest.topicName();
-        final int partitionId = invitationRequest.partitionId();
+        acceptInvitation(invitationRequest);
 
-        createPartition(topicName, partitionId);
+        return sendInvitationResponse(output, requestAddress, requestId);
+    }
 
+    public boolean onInvitationBatchRequest(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ServerOutput output,
+        final RemoteAddress requestAddress,
+        final long requestId)
+    {
+        invitationBatchRequest.wrap(buffer, offset, length);
+
+        for (int i = 0; i < invitationBatchRequest.size(); i++)
+        {
+            acceptInvitation(invitationBatchRequest.get(i));
+        }
+
+        return sendInvitationResponse(output, requestAddress, requestId);
+    }
+
+    private void acceptInvitation(final InvitationRequest invitation)
+    {
+        final DirectBuffer topicName = invitation.topicName();
+        final int partitionId = invitation.partitionId();
+
+        if (logStreamsManager.getLogStream(topicName, partitionId) == null)
+        {
+            createPartition(topicName, partitionId, new ArrayList<>(invitation.members()));
+        }
+    }
+
+    private boolean sendInvitationResponse(final ServerOutput output, final RemoteAddress requestAddress, final long requestId)
+    {
         invitationResponse.reset();
         response.reset()
                 .remoteAddress(requestAddress)
@@ -356,6 +586,75 @@ public class ClusterManager implements Actor, PartitionManager
         return output.sendResponse(response);
     }
 
+    public boolean onListSnapshotsRequest(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ServerOutput output,
+        final RemoteAddress requestAddress,
+        final long requestId)
+    {
+        listSnapshotsRequest.wrap(buffer, offset, length);
+        listSnapshotsResponse.reset();
+
+        final Raft raft = getLeaderRaft(listSnapshotsRequest.topicName(), listSnapshotsRequest.partitionId());
+        if (raft != null)
+        {
+            snapshotProvider.listSnapshots(raft.getLogStream(), listSnapshotsResponse);
+        }
+
+        response.reset()
+                .remoteAddress(requestAddress)
+                .requestId(requestId)
+                .writer(listSnapshotsResponse);
+
+        return output.sendResponse(response);
+    }
+
+    public boolean onFetchSnapshotChunkRequest(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ServerOutput output,
+        final RemoteAddress requestAddress,
+        final long requestId)
+    {
+        fetchSnapshotChunkRequest.wrap(buffer, offset, length);
+        fetchSnapshotChunkResponse.reset();
+
+        final Raft raft = getLeaderRaft(fetchSnapshotChunkRequest.topicName(), fetchSnapshotChunkRequest.partitionId());
+        if (raft != null)
+        {
+            snapshotProvider.readChunk(raft.getLogStream(), fetchSnapshotChunkRequest, fetchSnapshotChunkResponse);
+        }
+
+        response.reset()
+                .remoteAddress(requestAddress)
+                .requestId(requestId)
+                .writer(fetchSnapshotChunkResponse);
+
+        return output.sendResponse(response);
+    }
+
+    /**
+     * @return the raft of the partition if the local broker is its leader, otherwise null
+     */
+    protected Raft getLeaderRaft(final DirectBuffer topicName, final int partitionId)
+    {
+        for (int i = 0; i < rafts.size(); i++)
+        {
+            final Raft raft = rafts.get(i);
+            final LogStream logStream = raft.getLogStream();
+
+            if (partitionId == logStream.getPartitionId() && topicName.equals(logStream.getTopicName()))
+            {
+                return raft.getState() == RaftState.LEADER ? raft : null;
+            }
+        }
+
+        return null;
+    }
+
     /*
      * There are some issues with how this connects the gossip state with the system partition processing.
      *
@@ -380,6 +679,49 @@ public class ClusterManager implements Actor, PartitionManager
         return iterator;
     }
 
+    @Override
+    public void addPartitionListener(final PartitionListener listener)
+    {
+        partitionListeners.add(listener);
+
+        final Iterator<Partition> knownPartitions = getKnownPartitions();
+        while (knownPartitions.hasNext())
+        {
+            final Partition partition = knownPartitions.next();
+            listener.onPartitionLeader(partition.getTopicName(), partition.getPartitionId());
+        }
+    }
+
+    @Override
+    public void removePartitionListener(final PartitionListener listener)
+    {
+        partitionListeners.remove(listener);
+    }
+
+    /**
+     * Invoked by the gossip actor when a peer joins or its raft memberships change
+     */
+    protected void notifyPartitionLeaders(final Peer peer)
+    {
+        if (partitionListeners.isEmpty())
+        {
+            return;
+        }
+
+        for (final RaftMembership membership : peer.raftMemberships())
+        {
+            if (membership.state() == RaftMembershipState.LEADER)
+            {
+                leaderTopicNameView.wrap(membership.topicNameBuffer(), 0, membership.topicNameLength());
+
+                for (int i = 0; i < partitionListeners.size(); i++)
+                {
+                    partitionListeners.get(i).onPartitionLeader(leaderTopicNameView, membership.partitionId());
+                }
+            }
+        }
+    }
+
     protected class PartitionIterator implements Iterator<Partition>
     {
         protected PeerList peerList;
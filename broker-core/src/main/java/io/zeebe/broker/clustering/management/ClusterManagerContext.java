@@ -20,6 +20,8 @@ package io.zeebe.broker.clustering.management;
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.logstreams.LogStreamsManager;
+import io.zeebe.broker.logstreams.ReplicableSnapshots;
+import io.zeebe.logstreams.spi.SnapshotStorage;
 import io.zeebe.transport.BufferingServerTransport;
 import io.zeebe.transport.ClientTransport;
 import io.zeebe.util.actor.ActorScheduler;
@@ -30,6 +32,8 @@ public class ClusterManagerContext
     private Peer localPeer;
     private PeerList peers;
     private LogStreamsManager logStreamsManager;
+    private ReplicableSnapshots replicableSnapshots;
+    private SnapshotStorage snapshotStorage;
     protected ClientTransport clientTransport;
     protected BufferingServerTransport serverTransport;
 
@@ -93,4 +97,24 @@ public class ClusterManagerContext
         this.logStreamsManager = logStreamsManager;
     }
 
+    public ReplicableSnapshots getReplicableSnapshots()
+    {
+        return replicableSnapshots;
+    }
+
+    public void setReplicableSnapshots(ReplicableSnapshots replicableSnapshots)
+    {
+        this.replicableSnapshots = replicableSnapshots;
+    }
+
+    public SnapshotStorage getSnapshotStorage()
+    {
+        return snapshotStorage;
+    }
+
+    public void setSnapshotStorage(SnapshotStorage snapshotStorage)
+    {
+        this.snapshotStorage = snapshotStorage;
+    }
+
 }
@@ -27,4 +27,13 @@ public interface PartitionManager
     void createPartitionAsync(DirectBuffer topicName, int partitionId);
 
     Iterator<Partition> getKnownPartitions();
+
+    /**
+     * Registers a listener which is notified whenever the leader of a
+     * partition becomes known. The listener is notified immediately for all
+     * partitions whose leaders are known at the time of registration.
+     */
+    void addPartitionListener(PartitionListener listener);
+
+    void removePartitionListener(PartitionListener listener);
 }
@@ -0,0 +1,203 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkRequest;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkResponse;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsResponse;
+import io.zeebe.broker.logstreams.ReplicableSnapshots;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+
+/**
+ * Reads the latest snapshots of the stream processors of a partition, so
+ * that the leader can ship them to the followers. Only the snapshots which
+ * are registered as replicable for the log are provided.
+ * <p>
+ * A snapshot is read in chunks. Every chunk is read from a freshly opened
+ * snapshot, so that no state is kept between the requests of a follower. If
+ * the snapshot is replaced in the meantime, the position of the new snapshot
+ * is returned and the follower starts over.
+ */
+public class SnapshotProvider
+{
+    public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    protected final SnapshotStorage snapshotStorage;
+    protected final ReplicableSnapshots replicableSnapshots;
+
+    protected final byte[] chunk = new byte[FetchSnapshotChunkResponse.MAX_CHUNK_SIZE];
+    protected final UnsafeBuffer chunkBuffer = new UnsafeBuffer(chunk);
+
+    public SnapshotProvider(final SnapshotStorage snapshotStorage, final ReplicableSnapshots replicableSnapshots)
+    {
+        this.snapshotStorage = snapshotStorage;
+        this.replicableSnapshots = replicableSnapshots;
+    }
+
+    public void listSnapshots(final LogStream logStream, final ListSnapshotsResponse response)
+    {
+        final List<String> names = replicableSnapshots.getReplicableSnapshots(logStream.getLogName());
+
+        for (int i = 0; i < names.size() && response.size() < ListSnapshotsResponse.MAX_SNAPSHOTS; i++)
+        {
+            final String name = names.get(i);
+            final long position = getSnapshotPosition(snapshotStorage, name);
+
+            if (position >= 0)
+            {
+                response.add(name, position);
+            }
+        }
+    }
+
+    /**
+     * Reads the requested chunk into the response. The data of the response
+     * is valid until the next invocation.
+     */
+    public void readChunk(final LogStream logStream, final FetchSnapshotChunkRequest request, final FetchSnapshotChunkResponse response)
+    {
+        final String name = request.name();
+
+        if (!replicableSnapshots.getReplicableSnapshots(logStream.getLogName()).contains(name))
+        {
+            // unknown snapshot, respond without position
+            return;
+        }
+
+        ReadableSnapshot snapshot = null;
+        try
+        {
+            snapshot = snapshotStorage.getLastSnapshot(name);
+
+            if (snapshot != null)
+            {
+                response.position(snapshot.getPosition());
+
+                if (snapshot.getPosition() == request.position())
+                {
+                    final InputStream data = snapshot.getData();
+
+                    skipFully(data, request.chunkOffset());
+                    final int length = readFully(data, chunk);
+
+                    response
+                        .data(chunkBuffer, 0, length)
+                        .lastChunk(length < chunk.length || data.read() < 0);
+                }
+            }
+        }
+        catch (final Exception e)
+        {
+            LOG.warn("Failed to read chunk of snapshot {}", name, e);
+            response.reset();
+        }
+        finally
+        {
+            close(snapshot);
+        }
+    }
+
+    /**
+     * @return the position of the latest snapshot with the given name or -1 if none exists
+     */
+    public static long getSnapshotPosition(final SnapshotStorage snapshotStorage, final String name)
+    {
+        ReadableSnapshot snapshot = null;
+        try
+        {
+            snapshot = snapshotStorage.getLastSnapshot(name);
+            return snapshot != null ? snapshot.getPosition() : -1L;
+        }
+        catch (final Exception e)
+        {
+            LOG.warn("Failed to read snapshot {}", name, e);
+            return -1L;
+        }
+        finally
+        {
+            close(snapshot);
+        }
+    }
+
+    protected static void close(final ReadableSnapshot snapshot)
+    {
+        if (snapshot != null)
+        {
+            try
+            {
+                snapshot.getData().close();
+            }
+            catch (final IOException e)
+            {
+                // ignore
+            }
+        }
+    }
+
+    protected static void skipFully(final InputStream input, long bytes) throws IOException
+    {
+        while (bytes > 0)
+        {
+            final long skipped = input.skip(bytes);
+
+            if (skipped <= 0)
+            {
+                // skip does not indicate the end of the stream
+                if (input.read() < 0)
+                {
+                    throw new EOFException("Snapshot ends before the requested offset");
+                }
+                bytes -= 1;
+            }
+            else
+            {
+                bytes -= skipped;
+            }
+        }
+    }
+
+    protected static int readFully(final InputStream input, final byte[] buffer) throws IOException
+    {
+        int length = 0;
+
+        while (length < buffer.length)
+        {
+            final int read = input.read(buffer, length, buffer.length - length);
+
+            if (read < 0)
+            {
+                break;
+            }
+
+            length += read;
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.clustering.gossip.data.Peer;
+import io.zeebe.broker.clustering.gossip.data.RaftMembership;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkRequest;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkResponse;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsRequest;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsResponse;
+import io.zeebe.clustering.gossip.PeerState;
+import io.zeebe.clustering.gossip.RaftMembershipState;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotWriter;
+import io.zeebe.raft.Raft;
+import io.zeebe.raft.state.RaftState;
+import io.zeebe.transport.RequestResponseController;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.state.SimpleStateMachineContext;
+import io.zeebe.util.state.State;
+import io.zeebe.util.state.StateMachine;
+import io.zeebe.util.state.TransitionState;
+
+/**
+ * Fetches the latest snapshots of the stream processors of a partition from
+ * its leader while the local raft is a follower, and installs them into the
+ * local snapshot storage if they are newer than the local ones. When the
+ * broker becomes leader of the partition, the stream processors recover from
+ * these snapshots and only reprocess the tail of the log.
+ * <p>
+ * The snapshots are fetched when the follower joins the partition and then in
+ * the configured interval. A snapshot is only committed when it is received
+ * completely, so that an interrupted transfer leaves the local snapshot
+ * untouched.
+ */
+public class SnapshotReplicationController
+{
+    public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    /**
+     * Delay in milliseconds before the snapshots are fetched again, if
+     * the leader is unknown or the transfer failed
+     */
+    public static final long RETRY_DELAY = 1_000;
+
+    private static final int TRANSITION_DEFAULT = 0;
+    private static final int TRANSITION_OPEN = 1;
+    private static final int TRANSITION_NEXT = 2;
+    private static final int TRANSITION_DONE = 3;
+    private static final int TRANSITION_FAILED = 4;
+
+    private final StateMachine<Context> stateMachine;
+
+    public SnapshotReplicationController(final Raft raft, final ClusterManagerContext clusterManagerContext, final long interval)
+    {
+        final State<Context> idle = new IdleState();
+        final State<Context> requestList = new RequestListState();
+        final State<Context> awaitList = new AwaitListState();
+        final State<Context> selectSnapshot = new SelectSnapshotState();
+        final State<Context> requestChunk = new RequestChunkState();
+        final State<Context> awaitChunk = new AwaitChunkState();
+
+        stateMachine = StateMachine.<Context>builder(s -> new Context(s, raft, clusterManagerContext, interval))
+            .initialState(idle)
+            .from(idle).take(TRANSITION_OPEN).to(requestList)
+
+            .from(requestList).take(TRANSITION_DEFAULT).to(awaitList)
+
+            .from(awaitList).take(TRANSITION_DEFAULT).to(selectSnapshot)
+            .from(awaitList).take(TRANSITION_FAILED).to(idle)
+
+            .from(selectSnapshot).take(TRANSITION_DEFAULT).to(requestChunk)
+            .from(selectSnapshot).take(TRANSITION_DONE).to(idle)
+            .from(selectSnapshot).take(TRANSITION_FAILED).to(idle)
+
+            .from(requestChunk).take(TRANSITION_DEFAULT).to(awaitChunk)
+            .from(requestChunk).take(TRANSITION_FAILED).to(idle)
+
+            .from(awaitChunk).take(TRANSITION_DEFAULT).to(requestChunk)
+            .from(awaitChunk).take(TRANSITION_NEXT).to(selectSnapshot)
+            .from(awaitChunk).take(TRANSITION_FAILED).to(idle)
+
+            .build();
+    }
+
+    public int doWork()
+    {
+        return stateMachine.doWork();
+    }
+
+    public Raft getRaft()
+    {
+        return stateMachine.getContext().raft;
+    }
+
+    /**
+     * Aborts a running transfer. Must be invoked when the raft is removed.
+     */
+    public void close()
+    {
+        final Context context = stateMachine.getContext();
+
+        context.abortSnapshot();
+
+        if (!context.requestController.isClosed())
+        {
+            context.requestController.close();
+        }
+    }
+
+    static class IdleState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final long now = System.currentTimeMillis();
+
+            if (now < context.nextCheckTime || !context.requestController.isClosed())
+            {
+                return context.requestController.doWork();
+            }
+
+            if (context.isFollower() && context.findLeader())
+            {
+                context.take(TRANSITION_OPEN);
+            }
+            else
+            {
+                context.nextCheckTime = now + RETRY_DELAY;
+            }
+
+            return 1;
+        }
+    }
+
+    static class RequestListState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final LogStream logStream = context.raft.getLogStream();
+
+            context.listRequest.reset();
+            context.listRequest
+                .topicName(logStream.getTopicName())
+                .partitionId(logStream.getPartitionId());
+
+            context.requestController.open(context.leader, context.listRequest, null);
+            context.take(TRANSITION_DEFAULT);
+
+            return 1;
+        }
+    }
+
+    static class AwaitListState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final RequestResponseController requestController = context.requestController;
+
+            int workCount = requestController.doWork();
+
+            if (requestController.isResponseAvailable())
+            {
+                final ListSnapshotsResponse response = context.listResponse;
+                response.wrap(requestController.getResponseBuffer(), 0, requestController.getResponseLength());
+
+                context.snapshotNames.clear();
+                context.snapshotPositions.clear();
+
+                for (int i = 0; i < response.size(); i++)
+                {
+                    context.snapshotNames.add(response.name(i));
+                    context.snapshotPositions.add(response.position(i));
+                }
+
+                context.snapshotIndex = -1;
+
+                requestController.close();
+                context.take(TRANSITION_DEFAULT);
+                workCount += 1;
+            }
+            else if (requestController.isFailed())
+            {
+                requestController.close();
+                context.retry();
+                context.take(TRANSITION_FAILED);
+                workCount += 1;
+            }
+
+            return workCount;
+        }
+    }
+
+    /**
+     * Selects the next snapshot of the leader which is newer than the local one
+     */
+    static class SelectSnapshotState implements TransitionState<Context>
+    {
+        @Override
+        public void work(final Context context) throws Exception
+        {
+            if (!context.isFollower())
+            {
+                context.retry();
+                context.take(TRANSITION_FAILED);
+                return;
+            }
+
+            final SnapshotStorage snapshotStorage = context.snapshotStorage;
+
+            for (int i = context.snapshotIndex + 1; i < context.snapshotNames.size(); i++)
+            {
+                final String name = context.snapshotNames.get(i);
+                final long position = context.snapshotPositions.get(i);
+
+                if (position > SnapshotProvider.getSnapshotPosition(snapshotStorage, name))
+                {
+                    context.snapshotIndex = i;
+
+                    try
+                    {
+                        context.snapshotWriter = snapshotStorage.createSnapshot(name, position);
+                        context.chunkOffset = 0;
+
+                        context.take(TRANSITION_DEFAULT);
+                    }
+                    catch (final Exception e)
+                    {
+                        LOG.warn("Failed to create snapshot {} of position {}", name, position, e);
+
+                        context.retry();
+                        context.take(TRANSITION_FAILED);
+                    }
+
+                    return;
+                }
+            }
+
+            context.nextCheckTime = System.currentTimeMillis() + context.interval;
+            context.take(TRANSITION_DONE);
+        }
+    }
+
+    static class RequestChunkState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final RequestResponseController requestController = context.requestController;
+
+            if (!requestController.isClosed())
+            {
+                // wait until the previous request is closed
+                return requestController.doWork();
+            }
+
+            if (!context.isFollower())
+            {
+                context.abortSnapshot();
+                context.retry();
+                context.take(TRANSITION_FAILED);
+                return 1;
+            }
+
+            final LogStream logStream = context.raft.getLogStream();
+
+            context.chunkRequest.reset();
+            context.chunkRequest
+                .topicName(logStream.getTopicName())
+                .partitionId(logStream.getPartitionId())
+                .name(context.snapshotNames.get(context.snapshotIndex))
+                .position(context.snapshotPositions.get(context.snapshotIndex))
+                .chunkOffset(context.chunkOffset);
+
+            requestController.open(context.leader, context.chunkRequest, null);
+            context.take(TRANSITION_DEFAULT);
+
+            return 1;
+        }
+    }
+
+    static class AwaitChunkState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final RequestResponseController requestController = context.requestController;
+
+            int workCount = requestController.doWork();
+
+            if (requestController.isResponseAvailable())
+            {
+                final FetchSnapshotChunkResponse response = context.chunkResponse;
+                response.wrap(requestController.getResponseBuffer(), 0, requestController.getResponseLength());
+
+                final String name = context.snapshotNames.get(context.snapshotIndex);
+                final long position = context.snapshotPositions.get(context.snapshotIndex);
+
+                if (response.position() != position)
+                {
+                    context.abortSnapshot();
+
+                    if (response.position() > position)
+                    {
+                        // the snapshot was replaced on the leader, fetch the list again
+                        context.nextCheckTime = 0;
+                    }
+                    else
+                    {
+                        // the leader failed to read the chunk (no position), try again later
+                        context.retry();
+                    }
+                    context.take(TRANSITION_FAILED);
+                }
+                else if (!writeChunk(context, response))
+                {
+                    context.abortSnapshot();
+                    context.retry();
+                    context.take(TRANSITION_FAILED);
+                }
+                else if (response.lastChunk())
+                {
+                    commitSnapshot(context, name, position);
+                }
+                else
+                {
+                    context.take(TRANSITION_DEFAULT);
+                }
+
+                requestController.close();
+                workCount += 1;
+            }
+            else if (requestController.isFailed())
+            {
+                requestController.close();
+                context.abortSnapshot();
+                context.retry();
+                context.take(TRANSITION_FAILED);
+                workCount += 1;
+            }
+
+            return workCount;
+        }
+
+        protected boolean writeChunk(final Context context, final FetchSnapshotChunkResponse response)
+        {
+            final DirectBuffer data = response.data();
+            final int length = data.capacity();
+
+            try
+            {
+                data.getBytes(0, context.chunk, 0, length);
+                context.snapshotWriter.getOutputStream().write(context.chunk, 0, length);
+
+                context.chunkOffset += length;
+                return true;
+            }
+            catch (final Exception e)
+            {
+                LOG.warn("Failed to write chunk of snapshot {}", context.chunkRequest.name(), e);
+                return false;
+            }
+        }
+
+        protected void commitSnapshot(final Context context, final String name, final long position)
+        {
+            // the stream processors may recover from the snapshot as soon as the broker is leader
+            if (!context.isFollower())
+            {
+                context.abortSnapshot();
+                context.retry();
+                context.take(TRANSITION_FAILED);
+                return;
+            }
+
+            try
+            {
+                context.snapshotWriter.commit();
+                context.snapshotWriter = null;
+
+                LOG.info("Installed snapshot {} of position {} from the leader of partition {}", name, position, context.raft.getLogStream().getLogName());
+
+                context.take(TRANSITION_NEXT);
+            }
+            catch (final Exception e)
+            {
+                LOG.warn("Failed to commit snapshot {} of position {}", name, position, e);
+
+                context.abortSnapshot();
+                context.retry();
+                context.take(TRANSITION_FAILED);
+            }
+        }
+    }
+
+    static class Context extends SimpleStateMachineContext
+    {
+        final Raft raft;
+        final ClusterManagerContext clusterManagerContext;
+        final SnapshotStorage snapshotStorage;
+        final long interval;
+
+        final RequestResponseController requestController;
+        final SocketAddress leader = new SocketAddress();
+        final UnsafeBuffer topicNameView = new UnsafeBuffer(0, 0);
+
+        final ListSnapshotsRequest listRequest = new ListSnapshotsRequest();
+        final ListSnapshotsResponse listResponse = new ListSnapshotsResponse();
+        final FetchSnapshotChunkRequest chunkRequest = new FetchSnapshotChunkRequest();
+        final FetchSnapshotChunkResponse chunkResponse = new FetchSnapshotChunkResponse();
+
+        final List<String> snapshotNames = new ArrayList<>();
+        final List<Long> snapshotPositions = new ArrayList<>();
+        final byte[] chunk = new byte[FetchSnapshotChunkResponse.MAX_CHUNK_SIZE];
+
+        long nextCheckTime = 0;
+        int snapshotIndex = -1;
+        long chunkOffset = 0;
+        SnapshotWriter snapshotWriter;
+
+        Context(final StateMachine<Context> stateMachine, final Raft raft, final ClusterManagerContext clusterManagerContext, final long interval)
+        {
+            super(stateMachine);
+            this.raft = raft;
+            this.clusterManagerContext = clusterManagerContext;
+            this.snapshotStorage = clusterManagerContext.getSnapshotStorage();
+            this.interval = interval;
+            this.requestController = new RequestResponseController(clusterManagerContext.getClientTransport());
+        }
+
+        boolean isFollower()
+        {
+            return raft.getState() == RaftState.FOLLOWER;
+        }
+
+        void retry()
+        {
+            nextCheckTime = System.currentTimeMillis() + RETRY_DELAY;
+        }
+
+        void abortSnapshot()
+        {
+            if (snapshotWriter != null)
+            {
+                snapshotWriter.abort();
+                snapshotWriter = null;
+            }
+        }
+
+        /**
+         * Looks up the management endpoint of the partition's leader in the peer list.
+         *
+         * @return true if the leader is known
+         */
+        boolean findLeader()
+        {
+            final LogStream logStream = raft.getLogStream();
+            final DirectBuffer topicName = logStream.getTopicName();
+            final int partitionId = logStream.getPartitionId();
+
+            for (final Peer peer : clusterManagerContext.getPeers().copy())
+            {
+                if (peer.state() != PeerState.ALIVE)
+                {
+                    continue;
+                }
+
+                for (final RaftMembership membership : peer.raftMemberships())
+                {
+                    if (membership.state() == RaftMembershipState.LEADER && membership.partitionId() == partitionId)
+                    {
+                        topicNameView.wrap(membership.topicNameBuffer(), 0, membership.topicNameLength());
+
+                        if (topicNameView.equals(topicName))
+                        {
+                            leader.wrap(peer.managementEndpoint());
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+}
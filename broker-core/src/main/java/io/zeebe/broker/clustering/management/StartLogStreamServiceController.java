@@ -18,6 +18,8 @@
 package io.zeebe.broker.clustering.management;
 
 import static io.zeebe.broker.clustering.ClusterServiceNames.CLUSTER_MANAGER_SERVICE;
+import static io.zeebe.broker.clustering.ClusterServiceNames.raftServiceName;
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.followerLogStreamServiceName;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.logStreamServiceName;
 import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
 
@@ -29,6 +31,7 @@ import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.raft.Raft;
 import io.zeebe.raft.state.RaftState;
+import io.zeebe.servicecontainer.ServiceBuilder;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.util.state.SimpleStateMachineContext;
@@ -46,6 +49,16 @@ public class StartLogStreamServiceController
     private final StateMachine<Context> stateMachine;
 
     public StartLogStreamServiceController(final Raft raft, final ServiceContainer serviceContainer)
+    {
+        this(raft, serviceContainer, false);
+    }
+
+    /**
+     * @param followerStream if true, the log stream service is installed while the raft is a follower
+     *          (instead of the leader) in the {@link LogStreamServiceNames#FOLLOWER_STREAM_GROUP}. Services of
+     *          this group only read the committed part of the log, e.g. to serve read-only subscriptions.
+     */
+    public StartLogStreamServiceController(final Raft raft, final ServiceContainer serviceContainer, final boolean followerStream)
     {
         final State<Context> startLogStreamService = new StartLogStreamServiceState();
         final State<Context> awaitStartLogStreamService = new AwaitServiceFutureState();
@@ -54,7 +67,7 @@ public class StartLogStreamServiceController
         final State<Context> awaitStopLogStreamService = new AwaitServiceFutureState();
         final State<Context> closed = new ClosedState();
 
-        stateMachine = StateMachine.<Context>builder(s -> new Context(s, raft, serviceContainer))
+        stateMachine = StateMachine.<Context>builder(s -> new Context(s, raft, serviceContainer, followerStream))
             .initialState(closed)
             .from(closed).take(TRANSITION_OPEN).to(startLogStreamService)
             .from(closed).take(TRANSITION_CLOSE).to(closed)
@@ -101,17 +114,29 @@ public class StartLogStreamServiceController
             final LogStream logStream = context.getRaft().getLogStream();
             final LogStreamService service = new LogStreamService(logStream);
 
-            final ServiceName<LogStream> streamGroup = Protocol.SYSTEM_TOPIC_BUF.equals(logStream.getTopicName()) ?
-                    LogStreamServiceNames.SYSTEM_STREAM_GROUP :
-                    LogStreamServiceNames.WORKFLOW_STREAM_GROUP;
-
-            final CompletableFuture<Void> future =
+            final ServiceBuilder<LogStream> serviceBuilder =
                 context.getServiceContainer()
                        .createService(serviceName, service)
                        .dependency(ACTOR_SCHEDULER_SERVICE)
-                       .dependency(CLUSTER_MANAGER_SERVICE)
-                       .group(streamGroup)
-                       .install();
+                       .dependency(CLUSTER_MANAGER_SERVICE);
+
+            if (context.isFollowerStream())
+            {
+                // the raft may be removed while it is a follower, so the stream must not outlive it
+                serviceBuilder
+                    .dependency(raftServiceName(logStream.getLogName()))
+                    .group(LogStreamServiceNames.FOLLOWER_STREAM_GROUP);
+            }
+            else
+            {
+                final ServiceName<LogStream> streamGroup = Protocol.SYSTEM_TOPIC_BUF.equals(logStream.getTopicName()) ?
+                        LogStreamServiceNames.SYSTEM_STREAM_GROUP :
+                        LogStreamServiceNames.WORKFLOW_STREAM_GROUP;
+
+                serviceBuilder.group(streamGroup);
+            }
+
+            final CompletableFuture<Void> future = serviceBuilder.install();
 
             context.setServiceFuture(future);
 
@@ -177,7 +202,7 @@ public class StartLogStreamServiceController
         {
             int workCount = 0;
 
-            if (!context.isRaftLeader())
+            if (!context.isActive())
             {
                 workCount++;
                 context.take(TRANSITION_CLOSE);
@@ -222,7 +247,7 @@ public class StartLogStreamServiceController
         {
             int workCount = 0;
 
-            if (context.isRaftLeader())
+            if (context.isActive())
             {
                 workCount++;
                 context.take(TRANSITION_OPEN);
@@ -238,15 +263,19 @@ public class StartLogStreamServiceController
 
         private final Raft raft;
         private final ServiceContainer serviceContainer;
+        private final boolean followerStream;
         private final ServiceName<LogStream> serviceName;
         private CompletableFuture<Void> serviceFuture;
 
-        Context(final StateMachine<Context> stateMachine, final Raft raft, final ServiceContainer serviceContainer)
+        Context(final StateMachine<Context> stateMachine, final Raft raft, final ServiceContainer serviceContainer, final boolean followerStream)
         {
             super(stateMachine);
             this.raft = raft;
             this.serviceContainer = serviceContainer;
-            this.serviceName = logStreamServiceName(raft.getLogStream().getLogName());
+            this.followerStream = followerStream;
+
+            final String logName = raft.getLogStream().getLogName();
+            this.serviceName = followerStream ? followerLogStreamServiceName(logName) : logStreamServiceName(logName);
 
             reset();
         }
@@ -282,6 +311,19 @@ public class StartLogStreamServiceController
             return raft.getState() == RaftState.LEADER && raft.isInitialEventCommitted();
         }
 
+        public boolean isFollowerStream()
+        {
+            return followerStream;
+        }
+
+        /**
+         * @return true if the log stream service should be installed
+         */
+        public boolean isActive()
+        {
+            return followerStream ? raft.getState() == RaftState.FOLLOWER : isRaftLeader();
+        }
+
         public ServiceName<LogStream> getServiceName()
         {
             return serviceName;
@@ -21,6 +21,21 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class ClusterManagementConfig extends DirectoryConfiguration
 {
+    /**
+     * Size in bytes of the journal which stores the raft metadata (term, vote
+     * and members) of all partitions of the broker. The journal is compacted
+     * when it is full.
+     */
+    public int raftMetadataJournalSize = 1024 * 1024;
+
+    /**
+     * Interval in milliseconds in which a follower fetches the latest
+     * snapshots of the stream processors from the leader of the partition,
+     * if they are newer than its own. A follower which joins a partition
+     * fetches them immediately. A value &lt;= 0 disables snapshot replication.
+     */
+    public long snapshotReplicationInterval = 300_000;
+
     @Override
     protected String componentDirectoryName()
     {
@@ -20,8 +20,11 @@ package io.zeebe.broker.clustering.management.handler;
 import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.clustering.management.ClusterManager;
+import io.zeebe.clustering.management.FetchSnapshotChunkRequestEncoder;
+import io.zeebe.clustering.management.InvitationBatchRequestEncoder;
 import io.zeebe.clustering.management.InvitationRequestEncoder;
 import io.zeebe.clustering.management.InvitationResponseDecoder;
+import io.zeebe.clustering.management.ListSnapshotsRequestEncoder;
 import io.zeebe.clustering.management.MessageHeaderDecoder;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.ServerMessageHandler;
@@ -56,6 +59,18 @@ public class ClusterManagerFragmentHandler implements ServerMessageHandler, Serv
                 {
                     return clusterManager.onInvitationRequest(buffer, offset, length, output, remoteAddress, requestId);
                 }
+                case InvitationBatchRequestEncoder.TEMPLATE_ID:
+                {
+                    return clusterManager.onInvitationBatchRequest(buffer, offset, length, output, remoteAddress, requestId);
+                }
+                case ListSnapshotsRequestEncoder.TEMPLATE_ID:
+                {
+                    return clusterManager.onListSnapshotsRequest(buffer, offset, length, output, remoteAddress, requestId);
+                }
+                case FetchSnapshotChunkRequestEncoder.TEMPLATE_ID:
+                {
+                    return clusterManager.onFetchSnapshotChunkRequest(buffer, offset, length, output, remoteAddress, requestId);
+                }
                 default:
                 {
                     // TODO: send error response
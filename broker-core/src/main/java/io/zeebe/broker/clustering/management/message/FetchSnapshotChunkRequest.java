@@ -0,0 +1,179 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.message;
+
+import static io.zeebe.clustering.management.FetchSnapshotChunkRequestEncoder.nameHeaderLength;
+import static io.zeebe.clustering.management.FetchSnapshotChunkRequestEncoder.partitionIdNullValue;
+import static io.zeebe.clustering.management.FetchSnapshotChunkRequestEncoder.topicNameHeaderLength;
+
+import java.nio.charset.StandardCharsets;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.clustering.management.FetchSnapshotChunkRequestDecoder;
+import io.zeebe.clustering.management.FetchSnapshotChunkRequestEncoder;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.MessageHeaderEncoder;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * Requests the data of a snapshot from the given offset on. The leader only
+ * responds with data if its latest snapshot of this name has still the
+ * requested position.
+ */
+public class FetchSnapshotChunkRequest implements BufferWriter, BufferReader
+{
+    protected final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected final FetchSnapshotChunkRequestDecoder bodyDecoder = new FetchSnapshotChunkRequestDecoder();
+
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final FetchSnapshotChunkRequestEncoder bodyEncoder = new FetchSnapshotChunkRequestEncoder();
+
+    protected DirectBuffer topicName = new UnsafeBuffer(0, 0);
+    protected int partitionId = partitionIdNullValue();
+    protected String name = "";
+    protected byte[] encodedName = new byte[0];
+    protected long position = -1L;
+    protected long chunkOffset = 0L;
+
+    public DirectBuffer topicName()
+    {
+        return topicName;
+    }
+
+    public FetchSnapshotChunkRequest topicName(final DirectBuffer topicName)
+    {
+        this.topicName.wrap(topicName);
+        return this;
+    }
+
+    public int partitionId()
+    {
+        return partitionId;
+    }
+
+    public FetchSnapshotChunkRequest partitionId(final int partitionId)
+    {
+        this.partitionId = partitionId;
+        return this;
+    }
+
+    public String name()
+    {
+        return name;
+    }
+
+    public FetchSnapshotChunkRequest name(final String name)
+    {
+        this.name = name;
+        this.encodedName = name.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    public long position()
+    {
+        return position;
+    }
+
+    public FetchSnapshotChunkRequest position(final long position)
+    {
+        this.position = position;
+        return this;
+    }
+
+    public long chunkOffset()
+    {
+        return chunkOffset;
+    }
+
+    public FetchSnapshotChunkRequest chunkOffset(final long chunkOffset)
+    {
+        this.chunkOffset = chunkOffset;
+        return this;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return headerEncoder.encodedLength() +
+                bodyEncoder.sbeBlockLength() +
+                topicNameHeaderLength() +
+                topicName.capacity() +
+                nameHeaderLength() +
+                encodedName.length;
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        bodyEncoder.wrap(buffer, offset)
+            .partitionId(partitionId)
+            .position(position)
+            .chunkOffset(chunkOffset)
+            .putTopicName(topicName, 0, topicName.capacity())
+            .putName(encodedName, 0, encodedName.length);
+    }
+
+    @Override
+    public void wrap(final DirectBuffer buffer, int offset, final int length)
+    {
+        final int frameEnd = offset + length;
+
+        headerDecoder.wrap(buffer, offset);
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+        partitionId = bodyDecoder.partitionId();
+        position = bodyDecoder.position();
+        chunkOffset = bodyDecoder.chunkOffset();
+
+        final int topicNameLength = bodyDecoder.topicNameLength();
+        final int topicNameOffset = bodyDecoder.limit() + topicNameHeaderLength();
+        topicName.wrap(buffer, topicNameOffset, topicNameLength);
+
+        // skip topic name in decoder
+        bodyDecoder.limit(topicNameOffset + topicNameLength);
+
+        final byte[] nameBytes = new byte[bodyDecoder.nameLength()];
+        bodyDecoder.getName(nameBytes, 0, nameBytes.length);
+        name(new String(nameBytes, StandardCharsets.UTF_8));
+
+        assert bodyDecoder.limit() == frameEnd : "Decoder read only to position " + bodyDecoder.limit() + " but expected " + frameEnd + " as final position";
+    }
+
+    public void reset()
+    {
+        topicName.wrap(0, 0);
+        partitionId = partitionIdNullValue();
+        name("");
+        position = -1L;
+        chunkOffset = 0L;
+    }
+}
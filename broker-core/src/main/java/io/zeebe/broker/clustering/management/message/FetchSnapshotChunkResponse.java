@@ -0,0 +1,144 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.message;
+
+import static io.zeebe.clustering.management.FetchSnapshotChunkResponseEncoder.dataHeaderLength;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.clustering.management.FetchSnapshotChunkResponseDecoder;
+import io.zeebe.clustering.management.FetchSnapshotChunkResponseEncoder;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.MessageHeaderEncoder;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * A chunk of a snapshot's data. If the position differs from the requested
+ * one, then the snapshot was replaced by a newer one (or does not exist
+ * anymore) and the chunk is empty.
+ */
+public class FetchSnapshotChunkResponse implements BufferWriter, BufferReader
+{
+    /**
+     * The maximum length of the data of a chunk, fits into the
+     * length field of the data.
+     */
+    public static final int MAX_CHUNK_SIZE = 32 * 1024;
+
+    protected final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected final FetchSnapshotChunkResponseDecoder bodyDecoder = new FetchSnapshotChunkResponseDecoder();
+
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final FetchSnapshotChunkResponseEncoder bodyEncoder = new FetchSnapshotChunkResponseEncoder();
+
+    protected long position = -1L;
+    protected boolean lastChunk = false;
+    protected DirectBuffer data = new UnsafeBuffer(0, 0);
+
+    public long position()
+    {
+        return position;
+    }
+
+    public FetchSnapshotChunkResponse position(final long position)
+    {
+        this.position = position;
+        return this;
+    }
+
+    public boolean lastChunk()
+    {
+        return lastChunk;
+    }
+
+    public FetchSnapshotChunkResponse lastChunk(final boolean lastChunk)
+    {
+        this.lastChunk = lastChunk;
+        return this;
+    }
+
+    public DirectBuffer data()
+    {
+        return data;
+    }
+
+    public FetchSnapshotChunkResponse data(final DirectBuffer data, final int offset, final int length)
+    {
+        this.data.wrap(data, offset, length);
+        return this;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return headerEncoder.encodedLength() +
+                bodyEncoder.sbeBlockLength() +
+                dataHeaderLength() +
+                data.capacity();
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        bodyEncoder.wrap(buffer, offset)
+            .position(position)
+            .lastChunk((short) (lastChunk ? 1 : 0))
+            .putData(data, 0, data.capacity());
+    }
+
+    @Override
+    public void wrap(final DirectBuffer buffer, int offset, final int length)
+    {
+        final int frameEnd = offset + length;
+
+        headerDecoder.wrap(buffer, offset);
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+        position = bodyDecoder.position();
+        lastChunk = bodyDecoder.lastChunk() == 1;
+
+        final int dataLength = bodyDecoder.dataLength();
+        final int dataOffset = bodyDecoder.limit() + dataHeaderLength();
+        data.wrap(buffer, dataOffset, dataLength);
+
+        // skip data in decoder
+        bodyDecoder.limit(dataOffset + dataLength);
+
+        assert bodyDecoder.limit() == frameEnd : "Decoder read only to position " + bodyDecoder.limit() + " but expected " + frameEnd + " as final position";
+    }
+
+    public void reset()
+    {
+        position = -1L;
+        lastChunk = false;
+        data.wrap(0, 0);
+    }
+}
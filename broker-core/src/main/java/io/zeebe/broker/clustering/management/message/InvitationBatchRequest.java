@@ -0,0 +1,207 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.message;
+
+import static io.zeebe.clustering.management.InvitationBatchRequestEncoder.InvitationsEncoder.MembersEncoder.hostHeaderLength;
+import static io.zeebe.clustering.management.InvitationBatchRequestEncoder.InvitationsEncoder.topicNameHeaderLength;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.clustering.management.InvitationBatchRequestDecoder;
+import io.zeebe.clustering.management.InvitationBatchRequestDecoder.InvitationsDecoder;
+import io.zeebe.clustering.management.InvitationBatchRequestDecoder.InvitationsDecoder.MembersDecoder;
+import io.zeebe.clustering.management.InvitationBatchRequestEncoder;
+import io.zeebe.clustering.management.InvitationBatchRequestEncoder.InvitationsEncoder;
+import io.zeebe.clustering.management.InvitationBatchRequestEncoder.InvitationsEncoder.MembersEncoder;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.MessageHeaderEncoder;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * Invitations to multiple partitions which are sent to a broker in a single
+ * request.
+ */
+public class InvitationBatchRequest implements BufferWriter, BufferReader
+{
+    protected final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected final InvitationBatchRequestDecoder bodyDecoder = new InvitationBatchRequestDecoder();
+
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final InvitationBatchRequestEncoder bodyEncoder = new InvitationBatchRequestEncoder();
+
+    protected final UnsafeBuffer topicNameView = new UnsafeBuffer(0, 0);
+
+    protected final List<InvitationRequest> invitations = new ArrayList<>();
+    protected int size = 0;
+
+    public InvitationRequest add()
+    {
+        if (size == invitations.size())
+        {
+            invitations.add(new InvitationRequest());
+        }
+
+        final InvitationRequest invitation = invitations.get(size);
+        invitation.reset();
+
+        size++;
+
+        return invitation;
+    }
+
+    public InvitationRequest get(final int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+        }
+
+        return invitations.get(index);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int getLength()
+    {
+        int length = headerEncoder.encodedLength() + bodyEncoder.sbeBlockLength() + InvitationsEncoder.sbeHeaderSize();
+
+        for (int i = 0; i < size; i++)
+        {
+            final InvitationRequest invitation = invitations.get(i);
+            final List<SocketAddress> members = invitation.members();
+
+            length += InvitationsEncoder.sbeBlockLength() + MembersEncoder.sbeHeaderSize();
+
+            for (int j = 0; j < members.size(); j++)
+            {
+                length += MembersEncoder.sbeBlockLength() + hostHeaderLength() + members.get(j).hostLength();
+            }
+
+            length += topicNameHeaderLength() + invitation.topicName().capacity();
+        }
+
+        return length;
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        final InvitationsEncoder invitationsEncoder = bodyEncoder.wrap(buffer, offset)
+            .invitationsCount(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            final InvitationRequest invitation = invitations.get(i);
+            final List<SocketAddress> members = invitation.members();
+
+            final MembersEncoder membersEncoder = invitationsEncoder.next()
+                .partitionId(invitation.partitionId())
+                .term(invitation.term())
+                .membersCount(members.size());
+
+            for (int j = 0; j < members.size(); j++)
+            {
+                final SocketAddress member = members.get(j);
+
+                membersEncoder.next()
+                    .port(member.port())
+                    .putHost(member.getHostBuffer(), 0, member.hostLength());
+            }
+
+            final DirectBuffer topicName = invitation.topicName();
+            invitationsEncoder.putTopicName(topicName, 0, topicName.capacity());
+        }
+    }
+
+    @Override
+    public void wrap(final DirectBuffer buffer, int offset, final int length)
+    {
+        final int frameEnd = offset + length;
+
+        reset();
+
+        headerDecoder.wrap(buffer, offset);
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+        final Iterator<InvitationsDecoder> invitationsIterator = bodyDecoder.invitations().iterator();
+
+        while (invitationsIterator.hasNext())
+        {
+            final InvitationsDecoder invitationsDecoder = invitationsIterator.next();
+
+            final InvitationRequest invitation = add()
+                .partitionId(invitationsDecoder.partitionId())
+                .term(invitationsDecoder.term());
+
+            final Iterator<MembersDecoder> membersIterator = invitationsDecoder.members().iterator();
+
+            while (membersIterator.hasNext())
+            {
+                final MembersDecoder membersDecoder = membersIterator.next();
+
+                final SocketAddress member = new SocketAddress();
+                member.port(membersDecoder.port());
+
+                final MutableDirectBuffer hostBuffer = member.getHostBuffer();
+                final int hostLength = membersDecoder.hostLength();
+                member.hostLength(hostLength);
+                membersDecoder.getHost(hostBuffer, 0, hostLength);
+
+                invitation.members().add(member);
+            }
+
+            final int topicNameLength = invitationsDecoder.topicNameLength();
+            final int topicNameOffset = bodyDecoder.limit() + topicNameHeaderLength();
+            topicNameView.wrap(buffer, topicNameOffset, topicNameLength);
+            invitation.topicName(topicNameView);
+
+            // skip topic name in decoder
+            bodyDecoder.limit(topicNameOffset + topicNameLength);
+        }
+
+        assert bodyDecoder.limit() == frameEnd : "Decoder read only to position " + bodyDecoder.limit() + " but expected " + frameEnd + " as final position";
+    }
+
+    public void reset()
+    {
+        size = 0;
+    }
+
+}
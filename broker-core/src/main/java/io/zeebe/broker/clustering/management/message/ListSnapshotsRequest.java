@@ -0,0 +1,123 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.message;
+
+import static io.zeebe.clustering.management.ListSnapshotsRequestEncoder.partitionIdNullValue;
+import static io.zeebe.clustering.management.ListSnapshotsRequestEncoder.topicNameHeaderLength;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.clustering.management.ListSnapshotsRequestDecoder;
+import io.zeebe.clustering.management.ListSnapshotsRequestEncoder;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.MessageHeaderEncoder;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * Requests the latest snapshots of the stream processors of a partition
+ * from the partition's leader.
+ */
+public class ListSnapshotsRequest implements BufferWriter, BufferReader
+{
+    protected final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected final ListSnapshotsRequestDecoder bodyDecoder = new ListSnapshotsRequestDecoder();
+
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final ListSnapshotsRequestEncoder bodyEncoder = new ListSnapshotsRequestEncoder();
+
+    protected DirectBuffer topicName = new UnsafeBuffer(0, 0);
+    protected int partitionId = partitionIdNullValue();
+
+    public DirectBuffer topicName()
+    {
+        return topicName;
+    }
+
+    public ListSnapshotsRequest topicName(final DirectBuffer topicName)
+    {
+        this.topicName.wrap(topicName);
+        return this;
+    }
+
+    public int partitionId()
+    {
+        return partitionId;
+    }
+
+    public ListSnapshotsRequest partitionId(final int partitionId)
+    {
+        this.partitionId = partitionId;
+        return this;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return headerEncoder.encodedLength() +
+                bodyEncoder.sbeBlockLength() +
+                topicNameHeaderLength() +
+                topicName.capacity();
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        bodyEncoder.wrap(buffer, offset)
+            .partitionId(partitionId)
+            .putTopicName(topicName, 0, topicName.capacity());
+    }
+
+    @Override
+    public void wrap(final DirectBuffer buffer, int offset, final int length)
+    {
+        final int frameEnd = offset + length;
+
+        headerDecoder.wrap(buffer, offset);
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+        partitionId = bodyDecoder.partitionId();
+
+        final int topicNameLength = bodyDecoder.topicNameLength();
+        final int topicNameOffset = bodyDecoder.limit() + topicNameHeaderLength();
+        topicName.wrap(buffer, topicNameOffset, topicNameLength);
+
+        // skip topic name in decoder
+        bodyDecoder.limit(topicNameOffset + topicNameLength);
+
+        assert bodyDecoder.limit() == frameEnd : "Decoder read only to position " + bodyDecoder.limit() + " but expected " + frameEnd + " as final position";
+    }
+
+    public void reset()
+    {
+        topicName.wrap(0, 0);
+        partitionId = partitionIdNullValue();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.message;
+
+import static io.zeebe.clustering.management.ListSnapshotsResponseEncoder.SnapshotsEncoder.nameHeaderLength;
+import static io.zeebe.clustering.management.ListSnapshotsResponseEncoder.SnapshotsEncoder.sbeBlockLength;
+import static io.zeebe.clustering.management.ListSnapshotsResponseEncoder.SnapshotsEncoder.sbeHeaderSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import io.zeebe.clustering.management.ListSnapshotsResponseDecoder;
+import io.zeebe.clustering.management.ListSnapshotsResponseDecoder.SnapshotsDecoder;
+import io.zeebe.clustering.management.ListSnapshotsResponseEncoder;
+import io.zeebe.clustering.management.ListSnapshotsResponseEncoder.SnapshotsEncoder;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.MessageHeaderEncoder;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * The names and positions of the latest snapshots of a partition's stream
+ * processors. Empty if the broker does not lead the partition.
+ */
+public class ListSnapshotsResponse implements BufferWriter, BufferReader
+{
+    /**
+     * Limited by the size of the group header
+     */
+    public static final int MAX_SNAPSHOTS = 255;
+
+    protected final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected final ListSnapshotsResponseDecoder bodyDecoder = new ListSnapshotsResponseDecoder();
+
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final ListSnapshotsResponseEncoder bodyEncoder = new ListSnapshotsResponseEncoder();
+
+    protected final List<String> names = new ArrayList<>();
+    protected final List<byte[]> encodedNames = new ArrayList<>();
+    protected final List<Long> positions = new ArrayList<>();
+
+    public ListSnapshotsResponse add(final String name, final long position)
+    {
+        if (names.size() == MAX_SNAPSHOTS)
+        {
+            throw new IllegalStateException("Can not list more than " + MAX_SNAPSHOTS + " snapshots");
+        }
+
+        names.add(name);
+        encodedNames.add(name.getBytes(StandardCharsets.UTF_8));
+        positions.add(position);
+        return this;
+    }
+
+    public int size()
+    {
+        return names.size();
+    }
+
+    public String name(final int index)
+    {
+        return names.get(index);
+    }
+
+    public long position(final int index)
+    {
+        return positions.get(index);
+    }
+
+    @Override
+    public int getLength()
+    {
+        final int size = names.size();
+
+        int length = headerEncoder.encodedLength() + bodyEncoder.sbeBlockLength();
+
+        length += sbeHeaderSize() + (sbeBlockLength() + nameHeaderLength()) * size;
+
+        for (int i = 0; i < size; i++)
+        {
+            length += encodedNames.get(i).length;
+        }
+
+        return length;
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        final int size = names.size();
+
+        final SnapshotsEncoder encoder = bodyEncoder.wrap(buffer, offset)
+            .snapshotsCount(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            final byte[] name = encodedNames.get(i);
+
+            encoder.next()
+                .position(positions.get(i))
+                .putName(name, 0, name.length);
+        }
+    }
+
+    @Override
+    public void wrap(final DirectBuffer buffer, int offset, final int length)
+    {
+        final int frameEnd = offset + length;
+
+        reset();
+
+        headerDecoder.wrap(buffer, offset);
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+        final Iterator<SnapshotsDecoder> iterator = bodyDecoder.snapshots().iterator();
+
+        while (iterator.hasNext())
+        {
+            final SnapshotsDecoder decoder = iterator.next();
+
+            final long position = decoder.position();
+
+            final byte[] name = new byte[decoder.nameLength()];
+            decoder.getName(name, 0, name.length);
+
+            add(new String(name, StandardCharsets.UTF_8), position);
+        }
+
+        assert bodyDecoder.limit() == frameEnd : "Decoder read only to position " + bodyDecoder.limit() + " but expected " + frameEnd + " as final position";
+    }
+
+    public void reset()
+    {
+        names.clear();
+        encodedNames.clear();
+        positions.clear();
+    }
+}
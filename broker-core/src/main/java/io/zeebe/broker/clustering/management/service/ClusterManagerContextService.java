@@ -21,6 +21,8 @@ import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.management.ClusterManagerContext;
 import io.zeebe.broker.logstreams.LogStreamsManager;
+import io.zeebe.broker.logstreams.ReplicableSnapshots;
+import io.zeebe.logstreams.spi.SnapshotStorage;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
@@ -37,6 +39,8 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
     private final Injector<Peer> localPeerInjector = new Injector<>();
     private final Injector<ActorScheduler> actorSchedulerInjector = new Injector<>();
     private final Injector<LogStreamsManager> logStreamsManagerInjector = new Injector<>();
+    private final Injector<ReplicableSnapshots> replicableSnapshotsInjector = new Injector<>();
+    private final Injector<SnapshotStorage> snapshotStorageInjector = new Injector<>();
 
     private ClusterManagerContext context;
 
@@ -49,6 +53,8 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
         final Peer localPeer = localPeerInjector.getValue();
         final ActorScheduler actorScheduler = actorSchedulerInjector.getValue();
         final LogStreamsManager logStreamsManager = logStreamsManagerInjector.getValue();
+        final ReplicableSnapshots replicableSnapshots = replicableSnapshotsInjector.getValue();
+        final SnapshotStorage snapshotStorage = snapshotStorageInjector.getValue();
 
         context = new ClusterManagerContext();
         context.setActorScheduler(actorScheduler);
@@ -57,6 +63,8 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
         context.setServerTransport(serverTransport);
         context.setPeers(peers);
         context.setLogStreamsManager(logStreamsManager);
+        context.setReplicableSnapshots(replicableSnapshots);
+        context.setSnapshotStorage(snapshotStorage);
     }
 
     @Override
@@ -90,6 +98,16 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
         return logStreamsManagerInjector;
     }
 
+    public Injector<ReplicableSnapshots> getReplicableSnapshotsInjector()
+    {
+        return replicableSnapshotsInjector;
+    }
+
+    public Injector<SnapshotStorage> getSnapshotStorageInjector()
+    {
+        return snapshotStorageInjector;
+    }
+
     public Injector<BufferingServerTransport> getManagementApiTransportInjector()
     {
         return managementApiTransportInjector;
@@ -67,6 +67,7 @@ public class ClusterManagerService implements Service<ClusterManager>
     public void stop(ServiceStopContext stopContext)
     {
         actorRef.close();
+        clusterManager.close();
     }
 
     @Override
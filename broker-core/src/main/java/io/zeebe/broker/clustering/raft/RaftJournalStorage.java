@@ -0,0 +1,164 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.raft;
+
+import java.util.List;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.raft.RaftPersistentStorage;
+import io.zeebe.transport.SocketAddress;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Raft metadata of a single partition which is persisted in the shared
+ * {@link RaftMetadataJournal} of the broker.
+ */
+public class RaftJournalStorage implements RaftPersistentStorage
+{
+    private final RaftMetadataJournal journal;
+    private final RaftConfiguration configuration = new RaftConfiguration();
+
+    private final SocketAddress votedFor = new SocketAddress();
+    private LogStream logStream;
+
+    public RaftJournalStorage(final RaftMetadataJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    public RaftJournalStorage(final RaftMetadataJournal journal, final byte[] record)
+    {
+        this(journal);
+
+        configuration.wrap(new UnsafeBuffer(record));
+        configuration.getVotedFor(votedFor);
+    }
+
+    @Override
+    public int getTerm()
+    {
+        return logStream.getTerm();
+    }
+
+    @Override
+    public RaftJournalStorage setTerm(final int term)
+    {
+        logStream.setTerm(term);
+
+        configuration.setTerm(term);
+
+        return this;
+    }
+
+    @Override
+    public SocketAddress getVotedFor()
+    {
+        if (votedFor.hostLength() > 0)
+        {
+            return votedFor;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    @Override
+    public RaftJournalStorage setVotedFor(final SocketAddress votedFor)
+    {
+        configuration.setVotedFor(votedFor);
+
+        if (votedFor != null)
+        {
+            this.votedFor.wrap(votedFor);
+        }
+        else
+        {
+            this.votedFor.reset();
+        }
+
+        return this;
+    }
+
+    public List<SocketAddress> getMembers()
+    {
+        return configuration.getMembers();
+    }
+
+    @Override
+    public RaftJournalStorage addMember(final SocketAddress member)
+    {
+        configuration.addMember(member);
+
+        return this;
+    }
+
+    @Override
+    public RaftJournalStorage clearMembers()
+    {
+        configuration.membersProp.reset();
+
+        return this;
+    }
+
+    /**
+     * Appends the metadata to the journal and returns when it is durable.
+     */
+    public RaftJournalStorage save()
+    {
+        final long record = journal.append(configuration);
+        journal.flush(record);
+
+        return this;
+    }
+
+    public DirectBuffer getTopicName()
+    {
+        return configuration.getTopicName();
+    }
+
+    public int getPartitionId()
+    {
+        return configuration.getPartitionId();
+    }
+
+    public String getLogDirectory()
+    {
+        return configuration.getLogDirectory();
+    }
+
+    public RaftJournalStorage setLogStream(final LogStream logStream)
+    {
+        this.logStream = logStream;
+
+        configuration.setTopicName(logStream.getTopicName());
+        configuration.setPartitionId(logStream.getPartitionId());
+
+        logStream.setTerm(configuration.getTerm());
+
+        return this;
+    }
+
+    public RaftJournalStorage setLogDirectory(final String logDirectory)
+    {
+        configuration.setLogDirectory(logDirectory);
+
+        return this;
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.raft;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.align;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import io.zeebe.broker.Loggers;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+/**
+ * Stores the raft metadata (term, vote and members) of all partitions of a
+ * broker in a single memory-mapped file. Every change of a partition's
+ * metadata is appended as a checksummed record; on load, the latest valid
+ * record of each partition wins. When the journal is full, it is compacted
+ * to the latest record of each partition.
+ *
+ * <p>Appended records are made durable by {@link #flush(long)}. Concurrent
+ * callers share a single sync of the file, so that a storm of vote changes
+ * on many partitions results in a few syncs only.
+ *
+ * <p>Record layout:
+ *
+ * <pre>
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                        Payload Length                         |
+ * +---------------------------------------------------------------+
+ * |                      Checksum (CRC32)                         |
+ * +---------------------------------------------------------------+
+ * |                 Payload (RaftConfiguration)                  ...
+ * +---------------------------------------------------------------+
+ * </pre>
+ *
+ * Records are aligned to 8 bytes.
+ */
+public class RaftMetadataJournal implements AutoCloseable
+{
+    public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    public static final String FILE_NAME = "raft-metadata.journal";
+
+    protected static final int LENGTH_OFFSET = 0;
+    protected static final int CHECKSUM_OFFSET = LENGTH_OFFSET + SIZE_OF_INT;
+    protected static final int HEADER_LENGTH = CHECKSUM_OFFSET + SIZE_OF_INT;
+    protected static final int RECORD_ALIGNMENT = 8;
+
+    protected final File file;
+    protected final File tmpFile;
+    protected final int capacity;
+
+    // latest payload per partition, guarded by this
+    protected final Map<String, byte[]> latestRecords = new LinkedHashMap<>();
+    protected final CRC32 checksum = new CRC32();
+    protected final RaftConfiguration readConfiguration = new RaftConfiguration();
+
+    protected final Object flushLock = new Object();
+
+    protected MappedByteBuffer mappedBuffer;
+    protected final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
+    protected int writePosition;
+
+    protected volatile long appendedRecords;
+    protected volatile long flushedRecords;
+
+    public RaftMetadataJournal(final File directory, final int capacity)
+    {
+        this.file = new File(directory, FILE_NAME);
+        this.tmpFile = new File(directory, FILE_NAME + ".tmp");
+        this.capacity = capacity;
+
+        if (file.exists())
+        {
+            mappedBuffer = IoUtil.mapExistingFile(file, "raft metadata journal");
+            buffer.wrap(mappedBuffer);
+
+            load();
+        }
+        else
+        {
+            mappedBuffer = IoUtil.mapNewFile(file, capacity);
+            buffer.wrap(mappedBuffer);
+
+            syncDirectory();
+        }
+    }
+
+    protected void load()
+    {
+        int offset = 0;
+
+        while (offset + HEADER_LENGTH <= buffer.capacity())
+        {
+            final int length = buffer.getInt(offset + LENGTH_OFFSET);
+
+            if (length <= 0 || offset + HEADER_LENGTH + length > buffer.capacity())
+            {
+                break;
+            }
+
+            final int expectedChecksum = buffer.getInt(offset + CHECKSUM_OFFSET);
+
+            final byte[] payload = new byte[length];
+            buffer.getBytes(offset + HEADER_LENGTH, payload);
+
+            if (checksum(payload) != expectedChecksum)
+            {
+                LOG.warn("Ignore raft metadata journal after position {} because of an invalid checksum", offset);
+                break;
+            }
+
+            readConfiguration.reset();
+            readConfiguration.wrap(new UnsafeBuffer(payload));
+
+            latestRecords.put(partitionKey(readConfiguration.getTopicName(), readConfiguration.getPartitionId()), payload);
+
+            offset += align(HEADER_LENGTH + length, RECORD_ALIGNMENT);
+        }
+
+        writePosition = offset;
+
+        // discard the remains of a torn write, so they can not become valid after further appends
+        if (writePosition < buffer.capacity())
+        {
+            buffer.setMemory(writePosition, buffer.capacity() - writePosition, (byte) 0);
+            mappedBuffer.force();
+        }
+    }
+
+    /**
+     * Appends the configuration to the journal. The record is not durable
+     * until {@link #flush(long)} is called with the returned record number.
+     *
+     * @return the number of the appended record
+     */
+    public synchronized long append(final RaftConfiguration configuration)
+    {
+        final int length = configuration.getEncodedLength();
+        final byte[] payload = new byte[length];
+        configuration.write(new UnsafeBuffer(payload), 0);
+
+        latestRecords.put(partitionKey(configuration.getTopicName(), configuration.getPartitionId()), payload);
+
+        if (writePosition + align(HEADER_LENGTH + length, RECORD_ALIGNMENT) > buffer.capacity())
+        {
+            compact();
+        }
+        else
+        {
+            writePosition = writeRecord(buffer, writePosition, payload);
+        }
+
+        appendedRecords += 1;
+
+        return appendedRecords;
+    }
+
+    /**
+     * Ensures that the given record and all records before are durable. If
+     * another thread is currently syncing the journal, the caller waits and
+     * returns without a sync of its own if its record was covered.
+     */
+    public void flush(final long record)
+    {
+        if (flushedRecords >= record)
+        {
+            return;
+        }
+
+        synchronized (flushLock)
+        {
+            if (flushedRecords < record)
+            {
+                // all records counted here are completely written
+                final long records = appendedRecords;
+
+                mappedBuffer.force();
+
+                flushedRecords = records;
+            }
+        }
+    }
+
+    protected int writeRecord(final UnsafeBuffer buffer, final int offset, final byte[] payload)
+    {
+        buffer.putBytes(offset + HEADER_LENGTH, payload);
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(payload));
+        // the length is written last, so that an incomplete record is not read on load
+        buffer.putIntOrdered(offset + LENGTH_OFFSET, payload.length);
+
+        return offset + align(HEADER_LENGTH + payload.length, RECORD_ALIGNMENT);
+    }
+
+    /**
+     * Rewrites the journal with the latest record of each partition only.
+     * The records are durable afterwards.
+     */
+    protected void compact()
+    {
+        synchronized (flushLock)
+        {
+            int requiredCapacity = 0;
+            for (final byte[] payload : latestRecords.values())
+            {
+                requiredCapacity += align(HEADER_LENGTH + payload.length, RECORD_ALIGNMENT);
+            }
+
+            final int newCapacity = Math.max(capacity, 2 * requiredCapacity);
+
+            IoUtil.deleteIfExists(tmpFile);
+            final MappedByteBuffer newMappedBuffer = IoUtil.mapNewFile(tmpFile, newCapacity);
+            final UnsafeBuffer newBuffer = new UnsafeBuffer(newMappedBuffer);
+
+            int offset = 0;
+            for (final byte[] payload : latestRecords.values())
+            {
+                offset = writeRecord(newBuffer, offset, payload);
+            }
+
+            newMappedBuffer.force();
+
+            IoUtil.unmap(mappedBuffer);
+
+            try
+            {
+                try
+                {
+                    Files.move(tmpFile.toPath(), file.toPath(), ATOMIC_MOVE);
+                }
+                catch (final Exception e)
+                {
+                    // failed with atomic move, lets try again with normal replace move
+                    Files.move(tmpFile.toPath(), file.toPath(), REPLACE_EXISTING);
+                }
+            }
+            catch (final IOException e)
+            {
+                throw new RuntimeException("Unable to replace raft metadata journal", e);
+            }
+
+            syncDirectory();
+
+            mappedBuffer = newMappedBuffer;
+            buffer.wrap(newMappedBuffer);
+            writePosition = offset;
+
+            // all records including the one which is currently appended are durable now
+            flushedRecords = appendedRecords + 1;
+        }
+    }
+
+    protected void syncDirectory()
+    {
+        try (FileChannel channel = FileChannel.open(file.getParentFile().toPath(), StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (final IOException e)
+        {
+            // not supported on all platforms
+            LOG.debug("Unable to sync directory of raft metadata journal", e);
+        }
+    }
+
+    protected int checksum(final byte[] payload)
+    {
+        checksum.reset();
+        checksum.update(payload, 0, payload.length);
+
+        return (int) checksum.getValue();
+    }
+
+    protected static String partitionKey(final DirectBuffer topicName, final int partitionId)
+    {
+        return bufferAsString(topicName) + "." + partitionId;
+    }
+
+    public synchronized boolean isEmpty()
+    {
+        return latestRecords.isEmpty();
+    }
+
+    /**
+     * Creates the storage of a new partition.
+     */
+    public RaftJournalStorage createStorage()
+    {
+        return new RaftJournalStorage(this);
+    }
+
+    /**
+     * @return the storage of the partition with its latest metadata or
+     *         <code>null</code> if the journal contains no record of the
+     *         partition
+     */
+    public synchronized RaftJournalStorage getStorage(final DirectBuffer topicName, final int partitionId)
+    {
+        final byte[] payload = latestRecords.get(partitionKey(topicName, partitionId));
+
+        if (payload != null)
+        {
+            return new RaftJournalStorage(this, payload);
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return the storages of all partitions contained in the journal
+     */
+    public synchronized List<RaftJournalStorage> getStorages()
+    {
+        final List<RaftJournalStorage> storages = new ArrayList<>();
+
+        for (final byte[] payload : latestRecords.values())
+        {
+            storages.add(new RaftJournalStorage(this, payload));
+        }
+
+        return storages;
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized (flushLock)
+        {
+            mappedBuffer.force();
+
+            // caution: if the file is used after unmap then a segmentation fault occurs
+            IoUtil.unmap(mappedBuffer);
+        }
+    }
+}
@@ -35,6 +35,11 @@ import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
+/**
+ * Raft metadata of a single partition in a file of its own, as written by
+ * former versions. Such files are migrated to the {@link RaftMetadataJournal}
+ * on startup.
+ */
 public class RaftPersistentFileStorage implements RaftPersistentStorage
 {
 
@@ -212,6 +217,11 @@ public class RaftPersistentFileStorage implements RaftPersistentStorage
         buffer.wrap(new byte[capacity]);
     }
 
+    public RaftConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+
     public DirectBuffer getTopicName()
     {
         return configuration.getTopicName();
@@ -20,6 +20,7 @@ package io.zeebe.broker.clustering.raft;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import io.zeebe.broker.system.threads.ActorGroups;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.raft.Raft;
 import io.zeebe.raft.RaftPersistentStorage;
@@ -40,7 +41,7 @@ public class RaftService implements Service<Raft>
     private final LogStream logStream;
     private final List<SocketAddress> members;
     private final RaftPersistentStorage persistentStorage;
-    private Injector<ActorScheduler> actorSchedulerInjector = new Injector<>();
+    private Injector<ActorGroups> actorGroupsInjector = new Injector<>();
     private Injector<BufferingServerTransport> serverTransportInjector = new Injector<>();
     private Injector<ClientTransport> clientTransportInjector = new Injector<>();
 
@@ -68,7 +69,7 @@ public class RaftService implements Service<Raft>
 
                 raft.addMembers(members);
 
-                final ActorScheduler actorScheduler = actorSchedulerInjector.getValue();
+                final ActorScheduler actorScheduler = actorGroupsInjector.getValue().getPartitionScheduler(logStream.getPartitionId());
                 actorReference = actorScheduler.schedule(raft);
             });
 
@@ -93,9 +94,9 @@ public class RaftService implements Service<Raft>
         return raft;
     }
 
-    public Injector<ActorScheduler> getActorSchedulerInjector()
+    public Injector<ActorGroups> getActorGroupsInjector()
     {
-        return actorSchedulerInjector;
+        return actorGroupsInjector;
     }
 
     public Injector<BufferingServerTransport> getServerTransportInjector()
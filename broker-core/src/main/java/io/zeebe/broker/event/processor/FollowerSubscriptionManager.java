@@ -0,0 +1,282 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.event.TopicSubscriptionServiceNames;
+import io.zeebe.broker.logstreams.processor.StreamProcessorIds;
+import io.zeebe.broker.logstreams.processor.StreamProcessorService;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.processor.StreamProcessorController;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.servicecontainer.ServiceName;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.util.DeferredCommandContext;
+
+/**
+ * Serves read-only topic subscriptions from the log of a partition this broker is a follower of.
+ * In contrast to the {@link TopicSubscriptionManagementProcessor} of the leader, subscriptions and
+ * acknowledgements are not written to the log, as a follower can not append to it. Consequently,
+ * a read-only subscription always begins at its requested start position and acknowledgements are
+ * only used for flow control. Events are pushed when they are committed.
+ *
+ * <p>Not thread-safe; all methods must be invoked by the {@link TopicSubscriptionService}.
+ */
+public class FollowerSubscriptionManager
+{
+    public static final Logger LOG = Loggers.SERVICES_LOGGER;
+
+    protected static final int MAXIMUM_SUBSCRIPTION_NAME_LENGTH = TopicSubscriptionManagementProcessor.MAXIMUM_SUBSCRIPTION_NAME_LENGTH;
+
+    protected final ServiceName<LogStream> streamServiceName;
+    protected final LogStream logStream;
+    protected final ServiceStartContext serviceContext;
+    protected final DeferredCommandContext cmdContext;
+
+    protected final CommandResponseWriter responseWriter;
+    protected final ErrorResponseWriter errorWriter;
+    protected final Supplier<SubscribedEventWriter> eventWriterFactory;
+
+    protected final SubscriptionRegistry subscriptionRegistry = new SubscriptionRegistry();
+
+    protected final TopicSubscriberEvent subscriberEvent = new TopicSubscriberEvent();
+    protected final TopicSubscriptionEvent subscriptionEvent = new TopicSubscriptionEvent();
+
+    protected long nextSubscriberKey = 0L;
+
+    public FollowerSubscriptionManager(
+            ServiceName<LogStream> streamServiceName,
+            LogStream logStream,
+            ServiceStartContext serviceContext,
+            DeferredCommandContext cmdContext,
+            CommandResponseWriter responseWriter,
+            ErrorResponseWriter errorWriter,
+            Supplier<SubscribedEventWriter> eventWriterFactory)
+    {
+        this.streamServiceName = streamServiceName;
+        this.logStream = logStream;
+        this.serviceContext = serviceContext;
+        this.cmdContext = cmdContext;
+        this.responseWriter = responseWriter;
+        this.errorWriter = errorWriter;
+        this.eventWriterFactory = eventWriterFactory;
+    }
+
+    public void onCommand(EventType eventType, int requestStreamId, long requestId, DirectBuffer command)
+    {
+        if (eventType == EventType.SUBSCRIBER_EVENT)
+        {
+            subscriberEvent.reset();
+            subscriberEvent.wrap(command, 0, command.capacity());
+
+            if (subscriberEvent.getState() == TopicSubscriberState.SUBSCRIBE && subscriberEvent.getReadOnly())
+            {
+                subscribe(requestStreamId, requestId, command);
+                return;
+            }
+        }
+        else if (eventType == EventType.SUBSCRIPTION_EVENT)
+        {
+            subscriptionEvent.reset();
+            subscriptionEvent.wrap(command, 0, command.capacity());
+
+            final TopicSubscriptionPushProcessor processor = subscriptionRegistry.getProcessorByName(subscriptionEvent.getName());
+
+            if (subscriptionEvent.getState() == TopicSubscriptionState.ACKNOWLEDGE && processor != null)
+            {
+                acknowledge(processor, requestStreamId, requestId);
+                return;
+            }
+        }
+
+        // the client addressed this broker as leader of the partition
+        writeError(ErrorCode.TOPIC_NOT_FOUND, "Cannot execute command. Broker is not the leader of the partition.", requestStreamId, requestId, command);
+    }
+
+    protected void subscribe(int requestStreamId, long requestId, DirectBuffer command)
+    {
+        final DirectBuffer subscriptionName = subscriberEvent.getName();
+
+        if (subscriptionName.capacity() > MAXIMUM_SUBSCRIPTION_NAME_LENGTH)
+        {
+            writeError(ErrorCode.REQUEST_PROCESSING_FAILURE, "Cannot open topic subscription " + subscriberEvent.getNameAsString() +
+                    ". Subscription name must be " + MAXIMUM_SUBSCRIPTION_NAME_LENGTH + " characters or shorter.", requestStreamId, requestId, command);
+            return;
+        }
+
+        final SubscriptionEventFilter subscriptionFilter;
+        try
+        {
+            subscriptionFilter = SubscriptionEventFilter.of(subscriberEvent.filters());
+        }
+        catch (IllegalArgumentException e)
+        {
+            writeError(ErrorCode.REQUEST_PROCESSING_FAILURE, "Cannot open topic subscription " + subscriberEvent.getNameAsString() + ". " + e.getMessage(),
+                    requestStreamId, requestId, command);
+            return;
+        }
+
+        final long subscriberKey = nextSubscriberKey++;
+
+        final TopicSubscriptionPushProcessor processor = new TopicSubscriptionPushProcessor(
+                requestStreamId,
+                subscriberKey,
+                subscriberEvent.getStartPosition(),
+                subscriptionName,
+                subscriberEvent.getPrefetchCapacity(),
+                subscriptionFilter,
+                eventWriterFactory.get())
+            .committedEventsOnly(true);
+
+        final ServiceName<StreamProcessorController> serviceName = pushServiceName(processor);
+
+        final StreamProcessorService streamProcessorService = new StreamProcessorService(
+                serviceName.getName(),
+                StreamProcessorIds.TOPIC_SUBSCRIPTION_PUSH_PROCESSOR_ID,
+                processor)
+            .eventFilter(TopicSubscriptionPushProcessor.eventFilter())
+            .readOnly(true);
+
+        serviceContext.createService(serviceName, streamProcessorService)
+            .dependency(streamServiceName, streamProcessorService.getSourceStreamInjector())
+            .dependency(streamServiceName, streamProcessorService.getTargetStreamInjector())
+            .dependency(SNAPSHOT_STORAGE_SERVICE, streamProcessorService.getSnapshotStorageInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, streamProcessorService.getActorGroupsInjector())
+            .install()
+            .handle((v, t) -> cmdContext.runAsync(() ->
+            {
+                if (t == null)
+                {
+                    onPushProcessorOpened(processor, requestStreamId, requestId, command);
+                }
+                else
+                {
+                    writeError(ErrorCode.REQUEST_PROCESSING_FAILURE, t.getMessage(), requestStreamId, requestId, command);
+                }
+            }));
+    }
+
+    protected void onPushProcessorOpened(TopicSubscriptionPushProcessor processor, int requestStreamId, long requestId, DirectBuffer command)
+    {
+        subscriberEvent.reset();
+        subscriberEvent.wrap(command, 0, command.capacity());
+        subscriberEvent
+            .setStartPosition(processor.getStartPosition())
+            .setState(TopicSubscriberState.SUBSCRIBED);
+
+        final boolean responseWritten = responseWriter
+                .topicName(logStream.getTopicName())
+                .partitionId(logStream.getPartitionId())
+                .eventWriter(subscriberEvent)
+                .key(processor.getSubscriptionId())
+                .tryWriteResponse(requestStreamId, requestId);
+
+        if (responseWritten)
+        {
+            subscriptionRegistry.addSubscription(processor);
+            processor.enable();
+        }
+        else
+        {
+            LOG.warn("Failed to write response for read-only subscription {}; closing subscription", processor.getNameAsString());
+            closePushProcessor(processor);
+        }
+    }
+
+    protected void acknowledge(TopicSubscriptionPushProcessor processor, int requestStreamId, long requestId)
+    {
+        processor.onAck(subscriptionEvent.getAckPosition());
+
+        subscriptionEvent.setState(TopicSubscriptionState.ACKNOWLEDGED);
+
+        final boolean responseWritten = responseWriter
+                .topicName(logStream.getTopicName())
+                .partitionId(logStream.getPartitionId())
+                .eventWriter(subscriptionEvent)
+                .key(processor.getSubscriptionId())
+                .tryWriteResponse(requestStreamId, requestId);
+
+        if (!responseWritten)
+        {
+            LOG.warn("Failed to write acknowledgement response for read-only subscription {}", processor.getNameAsString());
+        }
+    }
+
+    protected void writeError(ErrorCode errorCode, String errorMessage, int requestStreamId, long requestId, DirectBuffer command)
+    {
+        errorWriter
+            .errorCode(errorCode)
+            .errorMessage(errorMessage)
+            .failedRequest(command, 0, command.capacity())
+            .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+    }
+
+    public CompletableFuture<Void> closePushProcessorAsync(long subscriberKey)
+    {
+        final TopicSubscriptionPushProcessor processor = subscriptionRegistry.removeProcessorByKey(subscriberKey);
+
+        if (processor != null)
+        {
+            return closePushProcessor(processor);
+        }
+        else
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public void onClientChannelClose(int channelId)
+    {
+        final Iterator<TopicSubscriptionPushProcessor> subscriptionsIt = subscriptionRegistry.iterateSubscriptions();
+
+        while (subscriptionsIt.hasNext())
+        {
+            final TopicSubscriptionPushProcessor processor = subscriptionsIt.next();
+            if (processor.getChannelId() == channelId)
+            {
+                subscriptionsIt.remove();
+                closePushProcessor(processor);
+            }
+        }
+    }
+
+    protected CompletableFuture<Void> closePushProcessor(TopicSubscriptionPushProcessor processor)
+    {
+        return serviceContext.removeService(pushServiceName(processor));
+    }
+
+    protected ServiceName<StreamProcessorController> pushServiceName(TopicSubscriptionPushProcessor processor)
+    {
+        return TopicSubscriptionServiceNames.subscriptionPushServiceName(streamServiceName.getName(), processor.getNameAsString());
+    }
+
+}
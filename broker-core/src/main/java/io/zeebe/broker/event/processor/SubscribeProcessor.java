@@ -37,6 +37,7 @@ public class SubscribeProcessor implements EventProcessor
     protected LoggedEvent event;
     protected BrokerEventMetadata metadata;
     protected TopicSubscriberEvent subscriberEvent;
+    protected SubscriptionEventFilter subscriptionFilter;
 
     protected EventProcessor state;
     protected final RequestFailureProcessor failedRequestState = new RequestFailureProcessor();
@@ -71,10 +72,19 @@ public class SubscribeProcessor implements EventProcessor
             state = failedRequestState;
             return;
         }
-        else
+
+        try
+        {
+            subscriptionFilter = SubscriptionEventFilter.of(subscriberEvent.filters());
+        }
+        catch (IllegalArgumentException e)
         {
-            state = createProcessorState;
+            failedRequestState.wrapError("Cannot open topic subscription " + subscriberEvent.getNameAsString() + ". " + e.getMessage());
+            state = failedRequestState;
+            return;
         }
+
+        state = createProcessorState;
     }
 
     @Override
@@ -141,7 +151,8 @@ public class SubscribeProcessor implements EventProcessor
                     event.getKey(),
                     resumePosition,
                     subscriptionName,
-                    subscriberEvent.getPrefetchCapacity());
+                    subscriberEvent.getPrefetchCapacity(),
+                    subscriptionFilter);
 
             awaitProcessorState.wrap(processorFuture);
             state = awaitProcessorState;
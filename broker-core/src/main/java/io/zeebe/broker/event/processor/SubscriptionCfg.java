@@ -21,6 +21,19 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class SubscriptionCfg extends DirectoryConfiguration
 {
+    /**
+     * The number of acknowledgements of a subscription after which the latest
+     * acknowledged position is written to the log as ACKNOWLEDGE command.
+     * Acknowledgements in between are applied in memory only.
+     */
+    public int ackPersistThreshold = 16;
+
+    /**
+     * The interval in milliseconds in which the acknowledged positions of the
+     * subscriptions are written to the log, if they are kept in memory only.
+     */
+    public long ackPersistInterval = 1000;
+
     @Override
     protected String componentDirectoryName()
     {
@@ -0,0 +1,314 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.msgpack.spec.MsgPackFormat;
+import io.zeebe.msgpack.spec.MsgPackReader;
+import io.zeebe.msgpack.spec.MsgPackType;
+import io.zeebe.msgpack.value.ArrayValueIterator;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Evaluates the filters of a topic subscription. The filters are checked
+ * against the event metadata first. Only if a filter with a matching event
+ * type restricts a property of the event value, then the value is scanned for
+ * the state, the bpmn process id and the task type (without deserializing the
+ * whole event).
+ */
+public class SubscriptionEventFilter implements MetadataFilter
+{
+    public static final SubscriptionEventFilter ACCEPT_ALL = new SubscriptionEventFilter(new Entry[0]);
+
+    protected static final DirectBuffer STATE_KEY = wrapString("state");
+    protected static final DirectBuffer BPMN_PROCESS_ID_KEY = wrapString("bpmnProcessId");
+    protected static final DirectBuffer TASK_TYPE_KEY = wrapString("type");
+
+    protected final Entry[] entries;
+
+    // entries which match the metadata of the current event
+    protected final boolean[] matchingEntries;
+
+    protected final MsgPackReader reader = new MsgPackReader();
+
+    protected final UnsafeBuffer state = new UnsafeBuffer(0, 0);
+    protected final UnsafeBuffer bpmnProcessId = new UnsafeBuffer(0, 0);
+    protected final UnsafeBuffer taskType = new UnsafeBuffer(0, 0);
+
+    protected SubscriptionEventFilter(Entry[] entries)
+    {
+        this.entries = entries;
+        this.matchingEntries = new boolean[entries.length];
+    }
+
+    /**
+     * Creates the filter of the given subscription filters.
+     *
+     * @throws IllegalArgumentException if a filter is not valid
+     */
+    public static SubscriptionEventFilter of(ArrayValueIterator<TopicSubscriptionFilter> filters)
+    {
+        final List<Entry> entries = new ArrayList<>();
+
+        while (filters.hasNext())
+        {
+            final TopicSubscriptionFilter filter = filters.next();
+
+            EventType eventType = null;
+            final DirectBuffer eventTypeBuffer = filter.getEventType();
+            if (eventTypeBuffer.capacity() > 0)
+            {
+                final String eventTypeName = bufferAsString(eventTypeBuffer);
+                try
+                {
+                    eventType = EventType.valueOf(eventTypeName);
+                }
+                catch (IllegalArgumentException e)
+                {
+                    throw new IllegalArgumentException("Unknown event type '" + eventTypeName + "' in subscription filter.");
+                }
+            }
+
+            entries.add(new Entry(eventType, optional(filter.getState()), optional(filter.getBpmnProcessId()), optional(filter.getTaskType())));
+        }
+
+        return entries.isEmpty() ? ACCEPT_ALL : new SubscriptionEventFilter(entries.toArray(new Entry[entries.size()]));
+    }
+
+    private static DirectBuffer optional(DirectBuffer value)
+    {
+        return value.capacity() > 0 ? cloneBuffer(value) : null;
+    }
+
+    public boolean isAcceptAll()
+    {
+        return entries.length == 0;
+    }
+
+    @Override
+    public boolean applies(BrokerEventMetadata metadata)
+    {
+        if (isAcceptAll())
+        {
+            return true;
+        }
+
+        final EventType eventType = metadata.getEventType();
+
+        boolean applies = false;
+        for (int i = 0; i < entries.length; i++)
+        {
+            final Entry entry = entries[i];
+            matchingEntries[i] = entry.eventType == null || entry.eventType == eventType;
+
+            applies |= matchingEntries[i];
+        }
+        return applies;
+    }
+
+    /**
+     * Must be called after {@link #applies(BrokerEventMetadata)} for the same
+     * event.
+     *
+     * @return true if the value of the event matches a filter
+     */
+    public boolean applies(LoggedEvent event)
+    {
+        if (isAcceptAll())
+        {
+            return true;
+        }
+
+        boolean isValueRead = false;
+
+        for (int i = 0; i < entries.length; i++)
+        {
+            if (matchingEntries[i])
+            {
+                final Entry entry = entries[i];
+
+                if (!entry.hasValueConditions())
+                {
+                    return true;
+                }
+
+                if (!isValueRead)
+                {
+                    readValue(event.getValueBuffer(), event.getValueOffset(), event.getValueLength());
+                    isValueRead = true;
+                }
+
+                if (entry.matches(state, bpmnProcessId, taskType))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected void readValue(DirectBuffer buffer, int offset, int length)
+    {
+        state.wrap(0, 0);
+        bpmnProcessId.wrap(0, 0);
+        taskType.wrap(0, 0);
+
+        reader.wrap(buffer, offset, length);
+
+        final int limit = offset + length;
+
+        if (!isType(buffer, reader.getOffset(), limit, MsgPackType.MAP))
+        {
+            return;
+        }
+
+        final int size = reader.readMapHeader();
+        for (int i = 0; i < size && reader.getOffset() < limit; i++)
+        {
+            UnsafeBuffer target = null;
+
+            if (isType(buffer, reader.getOffset(), limit, MsgPackType.STRING))
+            {
+                final int keyLength = reader.readStringLength();
+                final int keyOffset = reader.getOffset();
+
+                if (keyOffset + keyLength > limit)
+                {
+                    return;
+                }
+
+                reader.skipBytes(keyLength);
+
+                target = targetOfKey(buffer, keyOffset, keyLength);
+            }
+            else
+            {
+                reader.skipValue();
+            }
+
+            if (reader.getOffset() >= limit)
+            {
+                // the value of the last key is missing
+                return;
+            }
+
+            if (target != null && isType(buffer, reader.getOffset(), limit, MsgPackType.STRING))
+            {
+                final int valueLength = reader.readStringLength();
+
+                if (reader.getOffset() + valueLength > limit)
+                {
+                    return;
+                }
+
+                target.wrap(buffer, reader.getOffset(), valueLength);
+                reader.skipBytes(valueLength);
+            }
+            else
+            {
+                reader.skipValue();
+            }
+        }
+    }
+
+    protected UnsafeBuffer targetOfKey(DirectBuffer buffer, int offset, int length)
+    {
+        if (equals(STATE_KEY, buffer, offset, length))
+        {
+            return state;
+        }
+        else if (equals(BPMN_PROCESS_ID_KEY, buffer, offset, length))
+        {
+            return bpmnProcessId;
+        }
+        else if (equals(TASK_TYPE_KEY, buffer, offset, length))
+        {
+            return taskType;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    protected static boolean isType(DirectBuffer buffer, int offset, int limit, MsgPackType type)
+    {
+        return offset < limit && MsgPackFormat.valueOf(buffer.getByte(offset)).getType() == type;
+    }
+
+    protected static boolean equals(DirectBuffer expected, DirectBuffer buffer, int offset, int length)
+    {
+        if (expected.capacity() != length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (expected.getByte(i) != buffer.getByte(offset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static class Entry
+    {
+        protected final EventType eventType;
+        protected final DirectBuffer state;
+        protected final DirectBuffer bpmnProcessId;
+        protected final DirectBuffer taskType;
+
+        Entry(EventType eventType, DirectBuffer state, DirectBuffer bpmnProcessId, DirectBuffer taskType)
+        {
+            this.eventType = eventType;
+            this.state = state;
+            this.bpmnProcessId = bpmnProcessId;
+            this.taskType = taskType;
+        }
+
+        boolean hasValueConditions()
+        {
+            return state != null || bpmnProcessId != null || taskType != null;
+        }
+
+        boolean matches(DirectBuffer actualState, DirectBuffer actualBpmnProcessId, DirectBuffer actualTaskType)
+        {
+            return matches(state, actualState)
+                    && matches(bpmnProcessId, actualBpmnProcessId)
+                    && matches(taskType, actualTaskType);
+        }
+
+        private static boolean matches(DirectBuffer expected, DirectBuffer actual)
+        {
+            return expected == null || SubscriptionEventFilter.equals(expected, actual, 0, actual.capacity());
+        }
+    }
+}
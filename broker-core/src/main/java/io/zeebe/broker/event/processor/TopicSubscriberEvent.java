@@ -18,8 +18,13 @@
 package io.zeebe.broker.event.processor;
 
 import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.spec.MsgPackHelper;
+import io.zeebe.msgpack.value.ArrayValue;
+import io.zeebe.msgpack.value.ArrayValueIterator;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
+import io.zeebe.msgpack.property.ArrayProperty;
 import io.zeebe.msgpack.property.BooleanProperty;
 import io.zeebe.msgpack.property.EnumProperty;
 import io.zeebe.msgpack.property.IntegerProperty;
@@ -28,6 +33,8 @@ import io.zeebe.msgpack.property.StringProperty;
 
 public class TopicSubscriberEvent extends UnpackedObject
 {
+    protected static final DirectBuffer EMPTY_ARRAY = new UnsafeBuffer(MsgPackHelper.EMPTY_ARRAY);
+
     // negative value for end of log
     protected LongProperty startPositionProp = new LongProperty("startPosition", -1L);
     protected IntegerProperty prefetchCapacityProp = new IntegerProperty("prefetchCapacity", -1);
@@ -35,8 +42,16 @@ public class TopicSubscriberEvent extends UnpackedObject
 
     // true if startPosition should override any previously acknowledged position
     protected BooleanProperty forceStartProp = new BooleanProperty("forceStart", false);
+    // true if the subscription is served by a follower without writing to the log
+    protected BooleanProperty readOnlyProp = new BooleanProperty("readOnly", false);
     protected EnumProperty<TopicSubscriberState> stateProp = new EnumProperty<>("state", TopicSubscriberState.class);
 
+    // an event is pushed if it matches any of the filters; all events are pushed if no filter is set
+    protected ArrayProperty<TopicSubscriptionFilter> filtersProp = new ArrayProperty<>("filters",
+        new ArrayValue<>(),
+        new ArrayValue<>(EMPTY_ARRAY, 0, EMPTY_ARRAY.capacity()),
+        new TopicSubscriptionFilter());
+
     public TopicSubscriberEvent()
     {
         this
@@ -44,7 +59,9 @@ public class TopicSubscriberEvent extends UnpackedObject
             .declareProperty(startPositionProp)
             .declareProperty(nameProp)
             .declareProperty(prefetchCapacityProp)
-            .declareProperty(forceStartProp);
+            .declareProperty(forceStartProp)
+            .declareProperty(readOnlyProp)
+            .declareProperty(filtersProp);
     }
 
     public TopicSubscriberEvent setStartPosition(long startPosition)
@@ -91,6 +108,16 @@ public class TopicSubscriberEvent extends UnpackedObject
         return forceStartProp.getValue();
     }
 
+    public boolean getReadOnly()
+    {
+        return readOnlyProp.getValue();
+    }
+
+    public ArrayValueIterator<TopicSubscriptionFilter> filters()
+    {
+        return filtersProp;
+    }
+
     public TopicSubscriberState getState()
     {
         return stateProp.getValue();
@@ -0,0 +1,87 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.StringProperty;
+import org.agrona.DirectBuffer;
+
+/**
+ * A filter of a topic subscription. An event matches the filter if it matches
+ * all of the given properties. An empty property matches any event.
+ */
+public class TopicSubscriptionFilter extends UnpackedObject
+{
+    protected StringProperty eventTypeProp = new StringProperty("eventType", "");
+    protected StringProperty stateProp = new StringProperty("state", "");
+    protected StringProperty bpmnProcessIdProp = new StringProperty("bpmnProcessId", "");
+    protected StringProperty taskTypeProp = new StringProperty("taskType", "");
+
+    public TopicSubscriptionFilter()
+    {
+        this
+            .declareProperty(eventTypeProp)
+            .declareProperty(stateProp)
+            .declareProperty(bpmnProcessIdProp)
+            .declareProperty(taskTypeProp);
+    }
+
+    public DirectBuffer getEventType()
+    {
+        return eventTypeProp.getValue();
+    }
+
+    public TopicSubscriptionFilter setEventType(String eventType)
+    {
+        this.eventTypeProp.setValue(eventType);
+        return this;
+    }
+
+    public DirectBuffer getState()
+    {
+        return stateProp.getValue();
+    }
+
+    public TopicSubscriptionFilter setState(String state)
+    {
+        this.stateProp.setValue(state);
+        return this;
+    }
+
+    public DirectBuffer getBpmnProcessId()
+    {
+        return bpmnProcessIdProp.getValue();
+    }
+
+    public TopicSubscriptionFilter setBpmnProcessId(String bpmnProcessId)
+    {
+        this.bpmnProcessIdProp.setValue(bpmnProcessId);
+        return this;
+    }
+
+    public DirectBuffer getTaskType()
+    {
+        return taskTypeProp.getValue();
+    }
+
+    public TopicSubscriptionFilter setTaskType(String taskType)
+    {
+        this.taskTypeProp.setValue(taskType);
+        return this;
+    }
+}
@@ -18,7 +18,7 @@
 package io.zeebe.broker.event.processor;
 
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
 
 import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
@@ -68,9 +68,11 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     protected final CommandResponseWriter responseWriter;
     protected final Supplier<SubscribedEventWriter> eventWriterFactory;
     protected final ServiceStartContext serviceContext;
+    protected final SubscriptionCfg config;
     protected final Bytes2LongZbMap ackMap;
 
     protected DeferredCommandContext cmdContext;
+    protected LogStreamWriter logStreamWriter;
 
     protected final AckProcessor ackProcessor = new AckProcessor();
     protected final SubscribeProcessor subscribeProcessor = new SubscribeProcessor(MAXIMUM_SUBSCRIPTION_NAME_LENGTH, this);
@@ -81,18 +83,23 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     protected final TopicSubscriberEvent subscriberEvent = new TopicSubscriberEvent();
     protected LoggedEvent currentEvent;
 
+    protected final BrokerEventMetadata ackMetadata = new BrokerEventMetadata();
+    protected final TopicSubscriptionEvent ackEvent = new TopicSubscriptionEvent();
+
     public TopicSubscriptionManagementProcessor(
             ServiceName<LogStream> streamServiceName,
             CommandResponseWriter responseWriter,
             ErrorResponseWriter errorWriter,
             Supplier<SubscribedEventWriter> eventWriterFactory,
-            ServiceStartContext serviceContext)
+            ServiceStartContext serviceContext,
+            SubscriptionCfg config)
     {
         this.streamServiceName = streamServiceName;
         this.responseWriter = responseWriter;
         this.errorWriter = errorWriter;
         this.eventWriterFactory = eventWriterFactory;
         this.serviceContext = serviceContext;
+        this.config = config;
         this.ackMap = new Bytes2LongZbMap(MAXIMUM_SUBSCRIPTION_NAME_LENGTH);
         this.snapshotResource = new ZbMapSnapshotSupport<>(ackMap);
     }
@@ -107,6 +114,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         this.logStreamPartitionId = sourceStream.getPartitionId();
 
         targetStream = context.getTargetStream();
+        logStreamWriter = context.getLogStreamWriter();
     }
 
     @Override
@@ -196,6 +204,8 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
 
             if (processor != null)
             {
+                persistAck(processor);
+
                 closePushProcessor(processor)
                     .handle((r, t) -> t == null ? future.complete(null) : future.completeExceptionally(t));
             }
@@ -241,7 +251,8 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             long subscriberKey,
             long resumePosition,
             DirectBuffer subscriptionName,
-            int prefetchCapacity)
+            int prefetchCapacity,
+            SubscriptionEventFilter subscriptionFilter)
     {
         final TopicSubscriptionPushProcessor processor = new TopicSubscriptionPushProcessor(
                 clientChannelId,
@@ -249,6 +260,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
                 resumePosition,
                 subscriptionName,
                 prefetchCapacity,
+                subscriptionFilter,
                 eventWriterFactory.get());
 
         final ServiceName<StreamProcessorController> serviceName = TopicSubscriptionServiceNames.subscriptionPushServiceName(streamServiceName.getName(), processor.getNameAsString());
@@ -264,7 +276,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             .dependency(streamServiceName, streamProcessorService.getSourceStreamInjector())
             .dependency(streamServiceName, streamProcessorService.getTargetStreamInjector())
             .dependency(SNAPSHOT_STORAGE_SERVICE, streamProcessorService.getSnapshotStorageInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, streamProcessorService.getActorSchedulerInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, streamProcessorService.getActorGroupsInjector())
             .install()
             .thenApply((v) -> processor);
     }
@@ -295,6 +307,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
                 if (processor.getChannelId() == channelId)
                 {
                     subscriptionsIt.remove();
+                    persistAck(processor);
                     closePushProcessor(processor);
                 }
             }
@@ -302,6 +315,116 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     }
 
 
+    /**
+     * Applies an acknowledgement of a client to the push processor of the subscription right away,
+     * without writing it to the log. Only the latest acknowledged position of a subscription is written
+     * to the log, after {@link SubscriptionCfg#ackPersistThreshold} acknowledgements, by
+     * {@link #persistAcksAsync()} or when the subscription is closed. Acknowledgements which are not
+     * written yet are lost on a leader change, so that the events are pushed again.
+     */
+    public void onAckAsync(int requestStreamId, long requestId, DirectBuffer command)
+    {
+        cmdContext.runAsync(() ->
+        {
+            ackEvent.reset();
+            ackEvent.wrap(command, 0, command.capacity());
+
+            final TopicSubscriptionPushProcessor processor = subscriptionRegistry.getProcessorByName(ackEvent.getName());
+
+            if (ackEvent.getState() == TopicSubscriptionState.ACKNOWLEDGE && processor != null)
+            {
+                acknowledge(processor, requestStreamId, requestId);
+            }
+            else
+            {
+                // the subscription is not open; the command is processed from the log
+                final long position = writeAck(requestStreamId, requestId);
+
+                if (position < 0)
+                {
+                    errorWriter
+                        .resourceExhausted("Cannot execute command. Log appender of partition '%d' is exhausted.", logStreamPartitionId)
+                        .failedRequest(command, 0, command.capacity())
+                        .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+                }
+            }
+        });
+    }
+
+    protected void acknowledge(TopicSubscriptionPushProcessor processor, int requestStreamId, long requestId)
+    {
+        processor.onAck(ackEvent.getAckPosition());
+
+        ackEvent.setState(TopicSubscriptionState.ACKNOWLEDGED);
+
+        responseWriter
+            .topicName(logStreamTopicName)
+            .partitionId(logStreamPartitionId)
+            .eventWriter(ackEvent)
+            .key(processor.getSubscriptionId())
+            .tryWriteResponse(requestStreamId, requestId);
+
+        if (processor.getAcksSinceLastPersist() >= config.ackPersistThreshold)
+        {
+            persistAck(processor);
+        }
+    }
+
+    /**
+     * Writes the latest acknowledged positions of the open subscriptions to the log,
+     * if they are not written yet.
+     */
+    public void persistAcksAsync()
+    {
+        cmdContext.runAsync(() ->
+        {
+            final Iterator<TopicSubscriptionPushProcessor> subscriptionsIt = subscriptionRegistry.iterateSubscriptions();
+
+            while (subscriptionsIt.hasNext())
+            {
+                persistAck(subscriptionsIt.next());
+            }
+        });
+    }
+
+    protected void persistAck(TopicSubscriptionPushProcessor processor)
+    {
+        if (processor.hasUnpersistedAck())
+        {
+            final DirectBuffer subscriptionName = processor.getName();
+            final long ackPosition = processor.getLastAckedPosition();
+
+            ackEvent.reset();
+            ackEvent.setState(TopicSubscriptionState.ACKNOWLEDGE)
+                .setName(subscriptionName, 0, subscriptionName.capacity())
+                .setAckPosition(ackPosition);
+
+            // retried on the next interval if the log appender is exhausted
+            if (writeAck(-1, -1L) >= 0)
+            {
+                processor.onAckPersisted(ackPosition);
+            }
+        }
+    }
+
+    protected long writeAck(int requestStreamId, long requestId)
+    {
+        ackMetadata.reset();
+        ackMetadata
+            .protocolVersion(Protocol.PROTOCOL_VERSION)
+            .eventType(EventType.SUBSCRIPTION_EVENT)
+            .requestStreamId(requestStreamId)
+            .requestId(requestId)
+            .raftTermId(targetStream.getTerm());
+
+        logStreamWriter.positionAsKey();
+
+        return logStreamWriter
+            .metadataWriter(ackMetadata)
+            .valueWriter(ackEvent)
+            .tryWrite();
+    }
+
     public static MetadataFilter filter()
     {
         return (m) -> EventType.SUBSCRIPTION_EVENT == m.getEventType() || EventType.SUBSCRIBER_EVENT == m.getEventType();
@@ -336,7 +459,10 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
 
             if (subscriptionProcessor != null)
             {
-                subscriptionProcessor.onAck(subscriptionEvent.getAckPosition());
+                final long ackPosition = subscriptionEvent.getAckPosition();
+
+                subscriptionProcessor.onAck(ackPosition);
+                subscriptionProcessor.onAckPersisted(ackPosition);
             }
 
             if (metadata.getRequestId() >= 0)
@@ -50,25 +50,35 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     protected long startPosition;
     protected final DirectBuffer name;
     protected final String nameString;
+    protected LogStream sourceStream;
     protected DirectBuffer logStreamTopicName;
     protected int logStreamPartitionId;
+    protected boolean committedEventsOnly;
 
     protected final SnapshotSupport snapshotSupport = new NoopSnapshotSupport();
     protected final SubscribedEventWriter channelWriter;
+    protected final SubscriptionEventFilter subscriptionFilter;
 
     protected LongRingBuffer pendingEvents;
     protected LongRingBuffer pendingAcks;
     protected AtomicBoolean enabled;
 
+    // accessed by the thread of the subscription's manager only
+    protected long lastAckedPosition = -1L;
+    protected long lastPersistedAckPosition = -1L;
+    protected int acksSinceLastPersist = 0;
+
     public TopicSubscriptionPushProcessor(
             int clientStreamId,
             long subscriberKey,
             long startPosition,
             DirectBuffer name,
             int prefetchCapacity,
+            SubscriptionEventFilter subscriptionFilter,
             SubscribedEventWriter channelWriter)
     {
         this.channelWriter = channelWriter;
+        this.subscriptionFilter = subscriptionFilter;
         this.clientStreamId = clientStreamId;
         this.subscriberKey = subscriberKey;
         this.startPosition = startPosition;
@@ -89,13 +99,23 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
 
         final LogStreamReader logReader = context.getSourceLogStreamReader();
 
-        final LogStream sourceStream = context.getSourceStream();
+        this.sourceStream = context.getSourceStream();
         this.logStreamTopicName = sourceStream.getTopicName();
         this.logStreamPartitionId = sourceStream.getPartitionId();
 
         setToStartPosition(logReader);
     }
 
+    /**
+     * Only pushes events which are committed, i.e. the processor waits until an event is committed before
+     * it is pushed. Required if the source stream is replicated from a leader, like the log of a follower.
+     */
+    public TopicSubscriptionPushProcessor committedEventsOnly(boolean committedEventsOnly)
+    {
+        this.committedEventsOnly = committedEventsOnly;
+        return this;
+    }
+
     /**
      * @return the position at which this processor actually started. This may be different than the constructor argument
      */
@@ -132,6 +152,17 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     @Override
     public EventProcessor onEvent(LoggedEvent event)
     {
+        if (!subscriptionFilter.isAcceptAll())
+        {
+            event.readMetadata(metadata);
+
+            if (!subscriptionFilter.applies(metadata) || !subscriptionFilter.applies(event))
+            {
+                // skip the event without pushing it to the client
+                return null;
+            }
+        }
+
         this.event = event;
         return this;
     }
@@ -144,6 +175,12 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     @Override
     public boolean executeSideEffects()
     {
+        if (committedEventsOnly && event.getPosition() > sourceStream.getCommitPosition())
+        {
+            // retry until the event is committed
+            return false;
+        }
+
         event.readMetadata(metadata);
 
         final boolean success = channelWriter
@@ -204,8 +241,21 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         return nameString;
     }
 
+    /**
+     * Applies an acknowledgement. Acknowledgements of already acknowledged positions are ignored,
+     * e.g. when an acknowledgement is read from the log after it was applied in memory.
+     * Must be called on the thread of the subscription's manager.
+     */
     public void onAck(long eventPosition)
     {
+        if (eventPosition <= lastAckedPosition)
+        {
+            return;
+        }
+
+        lastAckedPosition = eventPosition;
+        acksSinceLastPersist++;
+
         if (recordsPendingEvents())
         {
             final boolean elementAdded = pendingAcks.addElementToHead(eventPosition);
@@ -217,6 +267,38 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         }
     }
 
+    /**
+     * Must be called on the thread of the subscription's manager when an acknowledged
+     * position is written to the log.
+     */
+    public void onAckPersisted(long ackPosition)
+    {
+        if (ackPosition > lastPersistedAckPosition)
+        {
+            lastPersistedAckPosition = ackPosition;
+        }
+
+        if (ackPosition >= lastAckedPosition)
+        {
+            acksSinceLastPersist = 0;
+        }
+    }
+
+    public boolean hasUnpersistedAck()
+    {
+        return lastAckedPosition > lastPersistedAckPosition;
+    }
+
+    public long getLastAckedPosition()
+    {
+        return lastAckedPosition;
+    }
+
+    public int getAcksSinceLastPersist()
+    {
+        return acksSinceLastPersist;
+    }
+
     /**
      * @return true if this subscription requires throttling
      */
@@ -17,10 +17,14 @@
  */
 package io.zeebe.broker.event.processor;
 
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
 import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -30,16 +34,23 @@ import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 
 import io.zeebe.broker.event.TopicSubscriptionServiceNames;
+import io.zeebe.broker.logstreams.cfg.SnapshotStorageCfg;
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
 import io.zeebe.broker.logstreams.processor.StreamProcessorIds;
 import io.zeebe.broker.logstreams.processor.StreamProcessorService;
 import io.zeebe.broker.system.ConfigurationManager;
+import io.zeebe.broker.system.executor.ScheduledCommand;
+import io.zeebe.broker.system.executor.ScheduledExecutor;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
 import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
 import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.processor.StreamProcessor;
 import io.zeebe.logstreams.processor.StreamProcessorController;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceGroupReference;
@@ -59,14 +70,20 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
 {
     protected final Injector<ActorScheduler> actorSchedulerInjector = new Injector<>();
     protected final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
+    protected final Injector<ClientApiMessageHandler> clientApiMessageHandlerInjector = new Injector<>();
+    protected final Injector<ScheduledExecutor> executorInjector = new Injector<>();
     protected final SubscriptionCfg config;
+    protected final SnapshotStorageCfg snapshotCfg;
 
     protected ActorScheduler actorScheduler;
     protected ServiceStartContext serviceContext;
     protected Map<DirectBuffer, Int2ObjectHashMap<TopicSubscriptionManagementProcessor>> managersByLog = new HashMap<>();
+    protected Map<DirectBuffer, Int2ObjectHashMap<FollowerSubscriptionManager>> followerManagersByLog = new HashMap<>();
+    protected ClientApiMessageHandler clientApiMessageHandler;
     protected ServerOutput serverOutput;
 
     protected ActorReference actorRef;
+    protected ScheduledCommand scheduledPersistAcksCmd;
 
     protected DeferredCommandContext asyncContext;
 
@@ -75,10 +92,16 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
         .onRemove(this::onStreamRemoved)
         .build();
 
+    protected final ServiceGroupReference<LogStream> followerStreamsGroupReference = ServiceGroupReference.<LogStream>create()
+        .onAdd(this::onFollowerStreamAdded)
+        .onRemove(this::onFollowerStreamRemoved)
+        .build();
+
     public TopicSubscriptionService(ConfigurationManager configurationManager)
     {
         config = configurationManager.readEntry("subscriptions", SubscriptionCfg.class);
         Objects.requireNonNull(config);
+        snapshotCfg = configurationManager.readEntry("snapshot", SnapshotStorageCfg.class);
     }
 
     @Override
@@ -97,11 +120,26 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
         return clientApiTransportInjector;
     }
 
+    public Injector<ClientApiMessageHandler> getClientApiMessageHandlerInjector()
+    {
+        return clientApiMessageHandlerInjector;
+    }
+
+    public Injector<ScheduledExecutor> getExecutorInjector()
+    {
+        return executorInjector;
+    }
+
     public ServiceGroupReference<LogStream> getLogStreamsGroupReference()
     {
         return logStreamsGroupReference;
     }
 
+    public ServiceGroupReference<LogStream> getFollowerStreamsGroupReference()
+    {
+        return followerStreamsGroupReference;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
@@ -116,11 +154,19 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
         startContext.async(registration);
 
         actorRef = actorScheduler.schedule(this);
+
+        clientApiMessageHandler = clientApiMessageHandlerInjector.getValue();
+        clientApiMessageHandler.setReadOnlyCommandHandler(this::onReadOnlyCommand);
+
+        final ScheduledExecutor executor = executorInjector.getValue();
+        scheduledPersistAcksCmd = executor.scheduleAtFixedRate(this::persistAcksAsync, Duration.ofMillis(config.ackPersistInterval));
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
+        scheduledPersistAcksCmd.cancel();
+        clientApiMessageHandler.setReadOnlyCommandHandler(null);
         actorRef.close();
     }
 
@@ -133,7 +179,8 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
                 new CommandResponseWriter(serverOutput),
                 new ErrorResponseWriter(serverOutput),
                 () -> new SubscribedEventWriter(serverOutput),
-                serviceContext
+                serviceContext,
+                config
                 );
 
             createStreamProcessorService(
@@ -161,13 +208,16 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
                 processorName.getName(),
                 processorId,
                 streamProcessor)
-            .eventFilter(eventFilter);
+            .eventFilter(eventFilter)
+            .incrementalSnapshots(snapshotCfg);
 
         return serviceContext.createService(processorName, streamProcessorService)
             .dependency(logStreamName, streamProcessorService.getSourceStreamInjector())
             .dependency(logStreamName, streamProcessorService.getTargetStreamInjector())
             .dependency(SNAPSHOT_STORAGE_SERVICE, streamProcessorService.getSnapshotStorageInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, streamProcessorService.getActorSchedulerInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, streamProcessorService.getActorGroupsInjector())
+            .dependency(REPLICABLE_SNAPSHOTS_SERVICE, streamProcessorService.getReplicableSnapshotsInjector())
+            .dependency(COUNTERS_MANAGER_SERVICE, streamProcessorService.getCountersInjector())
             .install();
     }
 
@@ -193,6 +243,89 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
         });
     }
 
+    public void onFollowerStreamAdded(ServiceName<LogStream> logStreamServiceName, LogStream logStream)
+    {
+        asyncContext.runAsync(() ->
+        {
+            final FollowerSubscriptionManager manager = new FollowerSubscriptionManager(
+                logStreamServiceName,
+                logStream,
+                serviceContext,
+                asyncContext,
+                new CommandResponseWriter(serverOutput),
+                new ErrorResponseWriter(serverOutput),
+                () -> new SubscribedEventWriter(serverOutput));
+
+            followerManagersByLog
+                .computeIfAbsent(logStream.getTopicName(), k -> new Int2ObjectHashMap<>())
+                .put(logStream.getPartitionId(), manager);
+        });
+    }
+
+    public void onFollowerStreamRemoved(ServiceName<LogStream> logStreamServiceName, LogStream logStream)
+    {
+        // the push processors depend on the stream and are removed with it
+        asyncContext.runAsync(() ->
+        {
+            final DirectBuffer topicName = logStream.getTopicName();
+            final Int2ObjectHashMap<FollowerSubscriptionManager> managersByPartition = followerManagersByLog.get(topicName);
+
+            if (managersByPartition != null)
+            {
+                managersByPartition.remove(logStream.getPartitionId());
+
+                if (managersByPartition.isEmpty())
+                {
+                    followerManagersByLog.remove(topicName);
+                }
+            }
+        });
+    }
+
+    /**
+     * Receives subscription commands for partitions this broker is not the leader of, and
+     * acknowledgements of topic subscriptions. Invoked by the client api message handler.
+     */
+    protected boolean onReadOnlyCommand(
+            DirectBuffer topicName,
+            int partitionId,
+            EventType eventType,
+            BrokerEventMetadata metadata,
+            DirectBuffer buffer,
+            int offset,
+            int length)
+    {
+        final DirectBuffer topic = cloneBuffer(topicName);
+        final DirectBuffer command = cloneBuffer(buffer, offset, length);
+        final int requestStreamId = metadata.getRequestStreamId();
+        final long requestId = metadata.getRequestId();
+
+        asyncContext.runAsync(() ->
+        {
+            final TopicSubscriptionManagementProcessor leaderManager = getManager(topic, partitionId);
+            final FollowerSubscriptionManager manager = getFollowerManager(topic, partitionId);
+
+            if (leaderManager != null && eventType == EventType.SUBSCRIPTION_EVENT)
+            {
+                leaderManager.onAckAsync(requestStreamId, requestId, command);
+            }
+            else if (manager != null)
+            {
+                manager.onCommand(eventType, requestStreamId, requestId, command);
+            }
+            else
+            {
+                new ErrorResponseWriter(serverOutput)
+                    .errorCode(ErrorCode.TOPIC_NOT_FOUND)
+                    .errorMessage("Cannot execute command. Topic with name '%s' and partition id '%d' not found", bufferAsString(topic), partitionId)
+                    .failedRequest(command, 0, command.capacity())
+                    .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+            }
+        });
+
+        return true;
+    }
+
     public void onClientChannelCloseAsync(int channelId)
     {
         asyncContext.runAsync(() ->
@@ -203,9 +336,26 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
                     manager.onClientChannelCloseAsync(channelId)
                 )
             );
+
+            followerManagersByLog.forEach((topicName, partitions) ->
+                partitions.forEach((partitionId, manager) ->
+                    manager.onClientChannelClose(channelId)
+                )
+            );
         });
     }
 
+    public void persistAcksAsync()
+    {
+        asyncContext.runAsync(() ->
+            managersByLog.forEach((topicName, partitions) ->
+                partitions.forEach((partitionId, manager) ->
+                    manager.persistAcksAsync()
+                )
+            )
+        );
+    }
+
     @Override
     public int doWork() throws Exception
     {
@@ -234,18 +384,43 @@ public class TopicSubscriptionService implements Service<TopicSubscriptionServic
         }
         else
         {
-            final CompletableFuture<Void> future = new CompletableFuture<>();
-            future.completeExceptionally(
-                new RuntimeException(
-                    String.format("No subscription management processor registered for topic '%s' and partition '%d'",
-                        bufferAsString(topicName), partitionId)
-                )
-            );
-            return future;
+            final DirectBuffer topic = cloneBuffer(topicName);
+
+            return asyncContext.runAsync((future) ->
+            {
+                final FollowerSubscriptionManager followerManager = getFollowerManager(topic, partitionId);
+
+                if (followerManager != null)
+                {
+                    followerManager.closePushProcessorAsync(subscriberKey)
+                        .handle((r, t) -> t == null ? future.complete(null) : future.completeExceptionally(t));
+                }
+                else
+                {
+                    future.completeExceptionally(
+                        new RuntimeException(
+                            String.format("No subscription management processor registered for topic '%s' and partition '%d'",
+                                bufferAsString(topic), partitionId)
+                        )
+                    );
+                }
+            });
         }
 
     }
 
+    private FollowerSubscriptionManager getFollowerManager(final DirectBuffer topicName, final int partitionId)
+    {
+        final Int2ObjectHashMap<FollowerSubscriptionManager> managersByPartition = followerManagersByLog.get(topicName);
+
+        if (managersByPartition != null)
+        {
+            return managersByPartition.get(partitionId);
+        }
+
+        return null;
+    }
+
     private TopicSubscriptionManagementProcessor getManager(final DirectBuffer topicName, final int partitionId)
     {
         final Int2ObjectHashMap<TopicSubscriptionManagementProcessor> managersByPartition = managersByLog.get(topicName);
@@ -0,0 +1,186 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Selects the log directory for a new partition. Directories on disks with
+ * less than the minimal free space are avoided. Among the remaining ones, the
+ * directory with the fewest assigned partitions is chosen; ties are broken by
+ * the most free space.
+ * <p>
+ * The assigned partitions are tracked by their log directory, so that a
+ * partition which is assigned again (e.g. when it is recreated after it was
+ * removed) is only counted once.
+ */
+public class LogDirectoryPlacement
+{
+    protected final LogDirectory[] directories;
+    protected final long minFreeSpace;
+
+    public LogDirectoryPlacement(String[] directories, long minFreeSpace)
+    {
+        this.directories = new LogDirectory[directories.length];
+        for (int i = 0; i < directories.length; i++)
+        {
+            this.directories[i] = new LogDirectory(directories[i]);
+        }
+
+        this.minFreeSpace = minFreeSpace;
+    }
+
+    /**
+     * Registers a partition which was already assigned to a log directory,
+     * e.g. when the partition is recovered on startup.
+     */
+    public void onPartitionAssigned(String logDirectory)
+    {
+        final LogDirectory directory = findDirectory(logDirectory);
+        if (directory != null)
+        {
+            directory.assignedLogs.add(new File(logDirectory).getAbsolutePath());
+        }
+    }
+
+    /**
+     * Unregisters a partition, e.g. when its log stream is removed.
+     */
+    public void onPartitionRemoved(String logDirectory)
+    {
+        final LogDirectory directory = findDirectory(logDirectory);
+        if (directory != null)
+        {
+            directory.assignedLogs.remove(new File(logDirectory).getAbsolutePath());
+        }
+    }
+
+    /**
+     * Selects the directory for the log with the given name and assigns the
+     * log to it.
+     *
+     * @return the log directory of the partition
+     */
+    public String selectDirectory(String logName)
+    {
+        for (int i = 0; i < directories.length; i++)
+        {
+            directories[i].updateUsableSpace();
+        }
+
+        LogDirectory selected = null;
+        for (int i = 0; i < directories.length; i++)
+        {
+            final LogDirectory candidate = directories[i];
+
+            if (selected == null || isPreferable(candidate, selected))
+            {
+                selected = candidate;
+            }
+        }
+
+        final String logDirectory = selected.path + File.separator + logName;
+        selected.assignedLogs.add(logDirectory);
+
+        return logDirectory;
+    }
+
+    protected boolean isPreferable(LogDirectory candidate, LogDirectory current)
+    {
+        final boolean candidateHasSpace = candidate.usableSpace >= minFreeSpace;
+        final boolean currentHasSpace = current.usableSpace >= minFreeSpace;
+
+        if (candidateHasSpace != currentHasSpace)
+        {
+            return candidateHasSpace;
+        }
+        else if (candidate.getAssignedPartitions() != current.getAssignedPartitions())
+        {
+            return candidate.getAssignedPartitions() < current.getAssignedPartitions();
+        }
+        else
+        {
+            return candidate.usableSpace > current.usableSpace;
+        }
+    }
+
+    protected LogDirectory findDirectory(String logDirectory)
+    {
+        final String path = new File(logDirectory).getAbsolutePath();
+
+        for (int i = 0; i < directories.length; i++)
+        {
+            final LogDirectory directory = directories[i];
+            if (path.equals(directory.path) || path.startsWith(directory.path + File.separator))
+            {
+                return directory;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the usable space in bytes of the disk which contains the given
+     *         directory, or 0 if it cannot be determined
+     */
+    protected long getUsableSpace(File directory)
+    {
+        File existing = directory.getAbsoluteFile();
+        while (existing != null && !existing.exists())
+        {
+            existing = existing.getParentFile();
+        }
+
+        return existing != null ? existing.getUsableSpace() : 0L;
+    }
+
+    public int getAssignedPartitions(String directory)
+    {
+        final LogDirectory logDirectory = findDirectory(directory);
+        return logDirectory != null ? logDirectory.getAssignedPartitions() : 0;
+    }
+
+    protected class LogDirectory
+    {
+        protected final String path;
+        protected final File file;
+
+        protected final Set<String> assignedLogs = new HashSet<>();
+
+        protected long usableSpace = -1;
+
+        LogDirectory(String path)
+        {
+            this.file = new File(path).getAbsoluteFile();
+            this.path = file.getPath();
+        }
+
+        int getAssignedPartitions()
+        {
+            return assignedLogs.size();
+        }
+
+        void updateUsableSpace()
+        {
+            usableSpace = getUsableSpace(file);
+        }
+    }
+}
@@ -25,13 +25,20 @@ public class LogStreamServiceNames
 {
 
     public static final ServiceName<LogStreamsManager> LOG_STREAMS_MANAGER_SERVICE = ServiceName.newServiceName("logstreams.manager", LogStreamsManager.class);
+    public static final ServiceName<ReplicableSnapshots> REPLICABLE_SNAPSHOTS_SERVICE = ServiceName.newServiceName("logstreams.replicableSnapshots", ReplicableSnapshots.class);
     public static final ServiceName<SnapshotStorage> SNAPSHOT_STORAGE_SERVICE = ServiceName.newServiceName("snapshot.storage", SnapshotStorage.class);
     public static final ServiceName<LogStream> WORKFLOW_STREAM_GROUP = ServiceName.newServiceName("logstreams.worfklow", LogStream.class);
     public static final ServiceName<LogStream> SYSTEM_STREAM_GROUP = ServiceName.newServiceName("logstreams.system", LogStream.class);
+    public static final ServiceName<LogStream> FOLLOWER_STREAM_GROUP = ServiceName.newServiceName("logstreams.follower", LogStream.class);
 
     public static final ServiceName<LogStream> logStreamServiceName(String logName)
     {
         return ServiceName.newServiceName(String.format("log.%s", logName), LogStream.class);
     }
 
+    public static final ServiceName<LogStream> followerLogStreamServiceName(String logName)
+    {
+        return ServiceName.newServiceName(String.format("log.follower.%s", logName), LogStream.class);
+    }
+
 }
@@ -18,8 +18,11 @@
 package io.zeebe.broker.logstreams;
 
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.LOG_STREAMS_MANAGER_SERVICE;
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.EXECUTOR_SERVICE;
 
 import io.zeebe.broker.event.TopicSubscriptionServiceNames;
 import io.zeebe.broker.event.processor.TopicSubscriptionService;
@@ -35,7 +38,10 @@ public class LogStreamsComponent implements Component
     {
         final LogStreamsManagerService streamsManager = new LogStreamsManagerService(context.getConfigurationManager());
         context.getServiceContainer().createService(LOG_STREAMS_MANAGER_SERVICE, streamsManager)
-            .dependency(ACTOR_SCHEDULER_SERVICE, streamsManager.getActorSchedulerInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, streamsManager.getActorGroupsInjector())
+            .install();
+
+        context.getServiceContainer().createService(REPLICABLE_SNAPSHOTS_SERVICE, new ReplicableSnapshots())
             .install();
 
         final SnapshotStorageService snapshotStorageService = new SnapshotStorageService(context.getConfigurationManager());
@@ -46,8 +52,11 @@ public class LogStreamsComponent implements Component
         context.getServiceContainer()
             .createService(TopicSubscriptionServiceNames.TOPIC_SUBSCRIPTION_SERVICE, topicSubscriptionService)
             .dependency(TransportServiceNames.serverTransport(TransportServiceNames.CLIENT_API_SERVER_NAME), topicSubscriptionService.getClientApiTransportInjector())
+            .dependency(TransportServiceNames.CLIENT_API_MESSAGE_HANDLER, topicSubscriptionService.getClientApiMessageHandlerInjector())
             .dependency(ACTOR_SCHEDULER_SERVICE, topicSubscriptionService.getActorSchedulerInjector())
+            .dependency(EXECUTOR_SERVICE, topicSubscriptionService.getExecutorInjector())
             .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, topicSubscriptionService.getLogStreamsGroupReference())
+            .groupReference(LogStreamServiceNames.FOLLOWER_STREAM_GROUP, topicSubscriptionService.getFollowerStreamsGroupReference())
             .install();
     }
 
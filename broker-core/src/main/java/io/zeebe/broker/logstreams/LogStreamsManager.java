@@ -21,33 +21,35 @@ import static io.zeebe.util.EnsureUtil.ensureGreaterThanOrEqual;
 import static io.zeebe.util.EnsureUtil.ensureLessThanOrEqual;
 import static io.zeebe.util.EnsureUtil.ensureNotNullOrEmpty;
 
-import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.function.Consumer;
 
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 
 import io.zeebe.broker.logstreams.cfg.LogStreamsCfg;
+import io.zeebe.broker.system.threads.ActorGroups;
 import io.zeebe.logstreams.LogStreams;
 import io.zeebe.logstreams.fs.FsLogStreamBuilder;
 import io.zeebe.logstreams.log.LogStream;
-import io.zeebe.util.actor.ActorScheduler;
 
 
 public class LogStreamsManager
 {
     protected LogStreamsCfg logStreamsCfg;
-    protected ActorScheduler actorScheduler;
+    protected ActorGroups actorGroups;
     protected Map<DirectBuffer, Int2ObjectHashMap<LogStream>> logStreams;
+    protected LogDirectoryPlacement logDirectoryPlacement;
+    protected Map<LogStream, String> logDirectories;
 
-    public LogStreamsManager(final LogStreamsCfg logStreamsCfg, final ActorScheduler actorScheduler)
+    public LogStreamsManager(final LogStreamsCfg logStreamsCfg, final ActorGroups actorGroups)
     {
         this.logStreamsCfg = logStreamsCfg;
-        this.actorScheduler = actorScheduler;
+        this.actorGroups = actorGroups;
         this.logStreams = new HashMap<>();
+        this.logDirectories = new HashMap<>();
+        this.logDirectoryPlacement = new LogDirectoryPlacement(logStreamsCfg.directories, logStreamsCfg.minFreeDiskSpace * 1024L * 1024L);
     }
 
     public void forEachLogStream(Consumer<LogStream> consumer)
@@ -90,16 +92,13 @@ public class LogStreamsManager
         final String logDirectory;
         final boolean deleteOnExit = false;
 
-        int assignedLogDirectory = 0;
         if (logStreamsCfg.directories.length == 0)
         {
             throw new RuntimeException(String.format("Cannot start log %s, no log directory provided.", logName));
         }
-        else if (logStreamsCfg.directories.length > 1)
-        {
-            assignedLogDirectory = new Random().nextInt(logStreamsCfg.directories.length - 1);
-        }
-        logDirectory = logStreamsCfg.directories[assignedLogDirectory] + File.separator + logName;
+
+        // the assignment is persisted by the raft storage of the partition
+        logDirectory = logDirectoryPlacement.selectDirectory(logName);
 
 
         final int logSegmentSize = logStreamsCfg.defaultLogSegmentSize * 1024 * 1024;
@@ -107,34 +106,63 @@ public class LogStreamsManager
         final LogStream logStream = logStreamBuilder
             .deleteOnClose(deleteOnExit)
             .logDirectory(logDirectory)
-            .actorScheduler(actorScheduler)
+            .actorScheduler(actorGroups.getPartitionScheduler(partitionId))
             .logSegmentSize(logSegmentSize)
             .logStreamControllerDisabled(true)
             .build();
 
-        addLogStream(logStream);
+        addLogStream(logStream, logDirectory);
 
         return logStream;
     }
 
     public LogStream createLogStream(final DirectBuffer topicName, final int partitionId, final String logDirectory)
     {
+        logDirectoryPlacement.onPartitionAssigned(logDirectory);
+
         final LogStream logStream =
             LogStreams.createFsLogStream(topicName, partitionId)
                       .deleteOnClose(false)
                       .logDirectory(logDirectory)
-                      .actorScheduler(actorScheduler)
+                      .actorScheduler(actorGroups.getPartitionScheduler(partitionId))
                       .logSegmentSize(logStreamsCfg.defaultLogSegmentSize * 1024 * 1024)
                       .logStreamControllerDisabled(true)
                       .build();
 
-        addLogStream(logStream);
+        addLogStream(logStream, logDirectory);
 
         return logStream;
     }
 
-    private void addLogStream(final LogStream logStream)
+    /**
+     * Removes a closed log stream, so that a new one can be created for the
+     * partition.
+     */
+    public void removeLogStream(final LogStream logStream)
     {
+        final Int2ObjectHashMap<LogStream> logStreamPartitions = logStreams.get(logStream.getTopicName());
+
+        if (logStreamPartitions != null && logStreamPartitions.get(logStream.getPartitionId()) == logStream)
+        {
+            logStreamPartitions.remove(logStream.getPartitionId());
+
+            if (logStreamPartitions.isEmpty())
+            {
+                logStreams.remove(logStream.getTopicName());
+            }
+        }
+
+        final String logDirectory = logDirectories.remove(logStream);
+        if (logDirectory != null)
+        {
+            logDirectoryPlacement.onPartitionRemoved(logDirectory);
+        }
+    }
+
+    private void addLogStream(final LogStream logStream, final String logDirectory)
+    {
+        logDirectories.put(logStream, logDirectory);
+
         logStreams
             .computeIfAbsent(logStream.getTopicName(), k -> new Int2ObjectHashMap<>())
             .put(logStream.getPartitionId(), logStream);
@@ -0,0 +1,80 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.servicecontainer.ServiceStopContext;
+
+/**
+ * Registry of the snapshots of the stream processors which read a log, so
+ * that the leader of the log's partition can ship them to the followers.
+ */
+public class ReplicableSnapshots implements Service<ReplicableSnapshots>
+{
+    protected final Map<String, List<String>> replicableSnapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        // nothing to do
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        replicableSnapshots.clear();
+    }
+
+    @Override
+    public ReplicableSnapshots get()
+    {
+        return this;
+    }
+
+    public void addReplicableSnapshot(LogStream logStream, String snapshotName)
+    {
+        replicableSnapshots
+            .computeIfAbsent(logStream.getLogName(), k -> new CopyOnWriteArrayList<>())
+            .add(snapshotName);
+    }
+
+    public void removeReplicableSnapshot(LogStream logStream, String snapshotName)
+    {
+        final List<String> snapshotNames = replicableSnapshots.get(logStream.getLogName());
+        if (snapshotNames != null)
+        {
+            snapshotNames.remove(snapshotName);
+        }
+    }
+
+    /**
+     * @return the names of the replicable snapshots of the log, may be empty
+     */
+    public List<String> getReplicableSnapshots(String logName)
+    {
+        return replicableSnapshots.getOrDefault(logName, Collections.emptyList());
+    }
+}
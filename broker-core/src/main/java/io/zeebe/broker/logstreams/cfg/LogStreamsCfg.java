@@ -27,6 +27,12 @@ public class LogStreamsCfg extends DirectoryConfiguration
 
     public String[] directories = null;
 
+    /**
+     * New partitions are not placed in log directories on disks with less
+     * free space (in MB), unless all disks are below it.
+     */
+    public int minFreeDiskSpace = 1024;
+
     @Override
     public void applyGlobalConfiguration(GlobalConfiguration globalConfig)
     {
@@ -21,6 +21,22 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class SnapshotStorageCfg extends DirectoryConfiguration
 {
+    /**
+     * If enabled, snapshots of large processor states only contain the blocks
+     * which changed since the last full snapshot.
+     */
+    public boolean incremental = false;
+
+    /**
+     * The size in bytes of the blocks which are compared for incremental snapshots.
+     */
+    public int incrementalBlockSize = 64 * 1024;
+
+    /**
+     * The number of incremental snapshots after which a full snapshot is written.
+     */
+    public int fullSnapshotInterval = 10;
+
     @Override
     protected String componentDirectoryName()
     {
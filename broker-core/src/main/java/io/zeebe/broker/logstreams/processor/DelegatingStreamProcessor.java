@@ -0,0 +1,82 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+
+/**
+ * Replaces the state resource of the wrapped stream processor, e.g. by an
+ * {@link IncrementalSnapshotSupport}.
+ */
+class DelegatingStreamProcessor implements StreamProcessor
+{
+    private final StreamProcessor wrappedProcessor;
+    private final SnapshotSupport stateResource;
+
+    DelegatingStreamProcessor(StreamProcessor wrappedProcessor, SnapshotSupport stateResource)
+    {
+        this.wrappedProcessor = wrappedProcessor;
+        this.stateResource = stateResource;
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return stateResource;
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        wrappedProcessor.onOpen(context);
+    }
+
+    @Override
+    public void onClose()
+    {
+        wrappedProcessor.onClose();
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        return wrappedProcessor.onEvent(event);
+    }
+
+    @Override
+    public boolean isSuspended()
+    {
+        return wrappedProcessor.isSuspended();
+    }
+
+    @Override
+    public void afterEvent()
+    {
+        wrappedProcessor.afterEvent();
+    }
+
+    @Override
+    public int getPriority(long now)
+    {
+        return wrappedProcessor.getPriority(now);
+    }
+}
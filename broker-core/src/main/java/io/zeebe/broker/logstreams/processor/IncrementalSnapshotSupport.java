@@ -0,0 +1,745 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.slf4j.Logger;
+
+/**
+ * Decorates the snapshot support of a stream processor so that a snapshot only
+ * contains the blocks of the serialized state which differ from a base file.
+ * The base file holds a full copy of the serialized state and is rewritten
+ * (compacted) every {@link #fullSnapshotInterval} snapshots or when the delta
+ * grows beyond half of the state.
+ * <p>
+ * Snapshot layout:
+ *
+ * <pre>
+ * long  magic
+ * int   format version
+ * long  base id
+ * (int block index, int block length, byte[] block)*
+ * int   -1
+ * long  length of the serialized state
+ * </pre>
+ *
+ * If incremental snapshots are disabled, the snapshot is written by the
+ * wrapped snapshot support only. Snapshots of both formats can be recovered,
+ * so that incremental snapshots can be enabled or disabled for an existing
+ * data directory.
+ * <p>
+ * A base file is deleted once it is neither referenced by the latest committed
+ * snapshot of the processor nor by the snapshot which is currently written.
+ * <p>
+ * A new base file is synced to disk before a snapshot references it.
+ * <p>
+ * On recovery, the base file is memory mapped and streamed into the wrapped
+ * snapshot support without reading it upfront. The block hashes of the base
+ * are computed lazily when the next snapshot is written. The mapping is
+ * released once the base file is read.
+ */
+public class IncrementalSnapshotSupport implements SnapshotSupport
+{
+    private static final Logger LOG = Loggers.LOGSTREAMS_LOGGER;
+
+    private static final long MAGIC = 0x5A42494E43534E50L;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String BASE_FILE_SUFFIX = ".base";
+    private static final int END_OF_DELTA = -1;
+    private static final long UNKNOWN_BASE_ID = -2;
+    private static final int MAX_DELTA_RATIO_PERCENT = 50;
+
+    private final SnapshotSupport delegate;
+    private final File directory;
+    private final String name;
+    private final int blockSize;
+    private final int fullSnapshotInterval;
+    private final boolean incremental;
+    private final Pattern baseFilePattern;
+
+    private SnapshotStorage snapshotStorage;
+
+    private long baseId = -1;
+    private final List<byte[]> baseBlockHashes = new ArrayList<>();
+    private boolean baseBlockHashesLoaded;
+
+    private int snapshotsSinceFullSnapshot;
+    private boolean compactOnNextSnapshot;
+
+    public IncrementalSnapshotSupport(SnapshotSupport delegate, String directory, String name, int blockSize, int fullSnapshotInterval, boolean incremental)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("block size must be greater than 0");
+        }
+
+        this.delegate = delegate;
+        this.directory = new File(directory);
+        this.name = name;
+        this.blockSize = blockSize;
+        this.fullSnapshotInterval = fullSnapshotInterval;
+        this.incremental = incremental;
+        this.baseFilePattern = Pattern.compile(Pattern.quote(name) + "\\.(\\d+)" + Pattern.quote(BASE_FILE_SUFFIX));
+    }
+
+    /**
+     * The storage which contains the committed snapshots of the processor. It
+     * is used to find the base files which are still referenced. Without it,
+     * the base file of the previous snapshot is assumed to be referenced.
+     */
+    public IncrementalSnapshotSupport snapshotStorage(SnapshotStorage snapshotStorage)
+    {
+        this.snapshotStorage = snapshotStorage;
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        if (!incremental)
+        {
+            writePlainSnapshot(outputStream);
+            return;
+        }
+
+        final boolean compact = baseId < 0 || compactOnNextSnapshot || snapshotsSinceFullSnapshot >= fullSnapshotInterval;
+
+        if (compact)
+        {
+            writeFullSnapshot(outputStream);
+        }
+        else
+        {
+            writeDeltaSnapshot(outputStream);
+        }
+    }
+
+    private void writePlainSnapshot(OutputStream outputStream) throws Exception
+    {
+        final boolean hasBaseFiles = latestBaseId() >= 0;
+        final long referencedBaseId = hasBaseFiles ? referencedBaseId() : -1;
+
+        delegate.writeSnapshot(outputStream);
+
+        baseId = -1;
+        baseBlockHashes.clear();
+        baseBlockHashesLoaded = false;
+
+        if (hasBaseFiles)
+        {
+            // the base files of former incremental snapshots are not needed anymore once this snapshot is committed
+            deleteBaseFilesExcept(referencedBaseId, -1);
+        }
+    }
+
+    private void writeFullSnapshot(OutputStream outputStream) throws Exception
+    {
+        final long referencedBaseId = referencedBaseId();
+
+        directory.mkdirs();
+
+        final long newBaseId = Math.max(baseId, latestBaseId()) + 1;
+        final File baseFile = baseFile(newBaseId);
+        final File tmpFile = new File(directory, baseFile.getName() + ".tmp");
+
+        final List<byte[]> blockHashes = new ArrayList<>();
+        final long length;
+
+        try (FileOutputStream fileOutputStream = new FileOutputStream(tmpFile);
+            BlockHashingOutputStream hashingStream = new BlockHashingOutputStream(fileOutputStream, blockHashes))
+        {
+            delegate.writeSnapshot(hashingStream);
+            hashingStream.finish();
+            length = hashingStream.getLength();
+
+            fileOutputStream.getChannel().force(true);
+        }
+
+        Files.move(tmpFile.toPath(), baseFile.toPath());
+        syncDirectory();
+
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        writeHeader(dataOutputStream, newBaseId);
+        dataOutputStream.writeInt(END_OF_DELTA);
+        dataOutputStream.writeLong(length);
+        dataOutputStream.flush();
+
+        baseId = newBaseId;
+        baseBlockHashes.clear();
+        baseBlockHashes.addAll(blockHashes);
+        baseBlockHashesLoaded = true;
+
+        snapshotsSinceFullSnapshot = 0;
+        compactOnNextSnapshot = false;
+
+        // keep the base of the committed snapshot until this snapshot is committed
+        deleteBaseFilesExcept(referencedBaseId, newBaseId);
+    }
+
+    private void writeDeltaSnapshot(OutputStream outputStream) throws Exception
+    {
+        if (!baseBlockHashesLoaded)
+        {
+            loadBaseBlockHashes();
+        }
+
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        writeHeader(dataOutputStream, baseId);
+
+        final DeltaWritingOutputStream deltaStream = new DeltaWritingOutputStream(dataOutputStream);
+        delegate.writeSnapshot(deltaStream);
+        deltaStream.finish();
+
+        dataOutputStream.writeInt(END_OF_DELTA);
+        dataOutputStream.writeLong(deltaStream.getLength());
+        dataOutputStream.flush();
+
+        snapshotsSinceFullSnapshot += 1;
+        // the delta is cumulative against the base, rewrite the base once it is not worth it anymore
+        compactOnNextSnapshot = deltaStream.getChangedBlocks() * 100 > deltaStream.getBlocks() * MAX_DELTA_RATIO_PERCENT;
+    }
+
+    private static void writeHeader(DataOutputStream outputStream, long baseId) throws IOException
+    {
+        outputStream.writeLong(MAGIC);
+        outputStream.writeInt(FORMAT_VERSION);
+        outputStream.writeLong(baseId);
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, Long.BYTES);
+
+        if (!readMagic(pushbackInputStream))
+        {
+            // the snapshot was written while incremental snapshots were disabled
+            recoverFromPlainSnapshot(pushbackInputStream);
+        }
+        else
+        {
+            recoverFromIncrementalSnapshot(new DataInputStream(pushbackInputStream));
+        }
+    }
+
+    /**
+     * Reads the magic of an incremental snapshot. Otherwise, the read bytes
+     * are unread, so that the stream can be passed to the wrapped snapshot
+     * support.
+     */
+    private static boolean readMagic(PushbackInputStream inputStream) throws IOException
+    {
+        final byte[] header = new byte[Long.BYTES];
+
+        int length = 0;
+        int read = 0;
+        while (length < header.length && read >= 0)
+        {
+            read = inputStream.read(header, length, header.length - length);
+            if (read > 0)
+            {
+                length += read;
+            }
+        }
+
+        final boolean isIncremental = length == header.length && ByteBuffer.wrap(header).getLong() == MAGIC;
+        if (!isIncremental && length > 0)
+        {
+            inputStream.unread(header, 0, length);
+        }
+
+        return isIncremental;
+    }
+
+    private void recoverFromPlainSnapshot(InputStream inputStream) throws Exception
+    {
+        // the next incremental snapshot is written with a new base
+        baseId = -1;
+        baseBlockHashes.clear();
+        baseBlockHashesLoaded = false;
+        compactOnNextSnapshot = false;
+        snapshotsSinceFullSnapshot = 0;
+
+        delegate.recoverFromSnapshot(inputStream);
+    }
+
+    private void recoverFromIncrementalSnapshot(DataInputStream dataInputStream) throws Exception
+    {
+        final int formatVersion = dataInputStream.readInt();
+        if (formatVersion != FORMAT_VERSION)
+        {
+            throw new IllegalStateException(String.format("Cannot recover from snapshot. Unsupported incremental snapshot format version %d, expected %d.", formatVersion, FORMAT_VERSION));
+        }
+
+        final long snapshotBaseId = dataInputStream.readLong();
+
+        final Map<Integer, byte[]> changedBlocks = new HashMap<>();
+
+        int blockIndex = dataInputStream.readInt();
+        while (blockIndex != END_OF_DELTA)
+        {
+            final byte[] block = new byte[dataInputStream.readInt()];
+            dataInputStream.readFully(block);
+            changedBlocks.put(blockIndex, block);
+
+            blockIndex = dataInputStream.readInt();
+        }
+
+        final long length = dataInputStream.readLong();
+
+        final File baseFile = baseFile(snapshotBaseId);
+        if (!baseFile.exists())
+        {
+            throw new FileNotFoundException(String.format("Cannot recover from snapshot. Base file '%s' does not exist.", baseFile));
+        }
+
+        baseId = snapshotBaseId;
+        // the block hashes are only needed for the next snapshot, don't delay the recovery
+        baseBlockHashes.clear();
+        baseBlockHashesLoaded = false;
+        compactOnNextSnapshot = false;
+        snapshotsSinceFullSnapshot = 0;
+
+        try (MappedBaseFile mappedBaseFile = new MappedBaseFile(baseFile, blockSize))
+        {
+            delegate.recoverFromSnapshot(new DeltaApplyingInputStream(mappedBaseFile, changedBlocks, length));
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        delegate.reset();
+    }
+
+    private void loadBaseBlockHashes() throws IOException
+    {
+        final MessageDigest digest = newDigest();
+
+        baseBlockHashes.clear();
+
+        try (MappedBaseFile mappedBaseFile = new MappedBaseFile(baseFile(baseId), blockSize))
+        {
+            final int blockCount = mappedBaseFile.getBlockCount();
+            for (int blockIndex = 0; blockIndex < blockCount; blockIndex++)
+            {
+                digest.update(mappedBaseFile.getBlock(blockIndex));
+                baseBlockHashes.add(digest.digest());
+            }
+        }
+
+        baseBlockHashesLoaded = true;
+    }
+
+    private void syncDirectory()
+    {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (final IOException e)
+        {
+            // not supported on all platforms
+            LOG.debug("Unable to sync snapshot directory '{}'", directory, e);
+        }
+    }
+
+    private File baseFile(long id)
+    {
+        return new File(directory, name + "." + id + BASE_FILE_SUFFIX);
+    }
+
+    private long latestBaseId()
+    {
+        long latestId = -1;
+
+        final String[] fileNames = directory.list();
+        if (fileNames != null)
+        {
+            for (String fileName : fileNames)
+            {
+                final Matcher matcher = baseFilePattern.matcher(fileName);
+                if (matcher.matches())
+                {
+                    latestId = Math.max(latestId, Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+
+        return latestId;
+    }
+
+    /**
+     * @return the id of the base file which is referenced by the latest
+     *         committed snapshot, -1 if it references none or
+     *         {@link #UNKNOWN_BASE_ID} if the snapshot can not be read
+     */
+    private long referencedBaseId()
+    {
+        if (snapshotStorage == null)
+        {
+            return baseId;
+        }
+
+        ReadableSnapshot snapshot = null;
+        try
+        {
+            snapshot = snapshotStorage.getLastSnapshot(name);
+            if (snapshot == null)
+            {
+                return -1;
+            }
+
+            final DataInputStream dataInputStream = new DataInputStream(snapshot.getData());
+            if (dataInputStream.readLong() == MAGIC)
+            {
+                dataInputStream.readInt();
+                return dataInputStream.readLong();
+            }
+            else
+            {
+                return -1;
+            }
+        }
+        catch (EOFException e)
+        {
+            // shorter than the header - not an incremental snapshot
+            return -1;
+        }
+        catch (Exception e)
+        {
+            return UNKNOWN_BASE_ID;
+        }
+        finally
+        {
+            if (snapshot != null)
+            {
+                try
+                {
+                    snapshot.getData().close();
+                }
+                catch (IOException e)
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private void deleteBaseFilesExcept(long referencedId, long currentId)
+    {
+        if (referencedId == UNKNOWN_BASE_ID)
+        {
+            // don't delete a base file which may still be referenced
+            return;
+        }
+
+        final String[] fileNames = directory.list();
+        if (fileNames != null)
+        {
+            for (String fileName : fileNames)
+            {
+                final Matcher matcher = baseFilePattern.matcher(fileName);
+                if (matcher.matches())
+                {
+                    final long id = Long.parseLong(matcher.group(1));
+                    if (id != referencedId && id != currentId)
+                    {
+                        new File(directory, fileName).delete();
+                    }
+                }
+            }
+        }
+    }
+
+    public long getBaseId()
+    {
+        return baseId;
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("MD5");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Passes the written bytes through and records a hash for each block.
+     */
+    private class BlockHashingOutputStream extends FilterOutputStream
+    {
+        private final List<byte[]> blockHashes;
+        private final MessageDigest digest = newDigest();
+
+        private int bytesInBlock;
+        private long length;
+
+        BlockHashingOutputStream(OutputStream outputStream, List<byte[]> blockHashes)
+        {
+            super(new BufferedOutputStream(outputStream));
+            this.blockHashes = blockHashes;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            digest.update((byte) b);
+            onBytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+
+            int remaining = len;
+            int offset = off;
+            while (remaining > 0)
+            {
+                final int chunk = Math.min(remaining, blockSize - bytesInBlock);
+                digest.update(b, offset, chunk);
+                onBytesWritten(chunk);
+
+                offset += chunk;
+                remaining -= chunk;
+            }
+        }
+
+        private void onBytesWritten(int count)
+        {
+            bytesInBlock += count;
+            length += count;
+
+            if (bytesInBlock == blockSize)
+            {
+                blockHashes.add(digest.digest());
+                bytesInBlock = 0;
+            }
+        }
+
+        public void finish() throws IOException
+        {
+            if (bytesInBlock > 0)
+            {
+                blockHashes.add(digest.digest());
+                bytesInBlock = 0;
+            }
+            flush();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            finish();
+            super.close();
+        }
+
+        public long getLength()
+        {
+            return length;
+        }
+    }
+
+    /**
+     * Collects the written bytes block-wise and writes only the blocks which
+     * differ from the base.
+     */
+    private class DeltaWritingOutputStream extends OutputStream
+    {
+        private final DataOutputStream out;
+        private final MessageDigest digest = newDigest();
+        private final byte[] block = new byte[blockSize];
+
+        private int bytesInBlock;
+        private int blockIndex;
+        private int changedBlocks;
+        private long length;
+
+        DeltaWritingOutputStream(DataOutputStream out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            block[bytesInBlock] = (byte) b;
+            onBytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            int remaining = len;
+            int offset = off;
+            while (remaining > 0)
+            {
+                final int chunk = Math.min(remaining, blockSize - bytesInBlock);
+                System.arraycopy(b, offset, block, bytesInBlock, chunk);
+                onBytesWritten(chunk);
+
+                offset += chunk;
+                remaining -= chunk;
+            }
+        }
+
+        private void onBytesWritten(int count) throws IOException
+        {
+            bytesInBlock += count;
+            length += count;
+
+            if (bytesInBlock == blockSize)
+            {
+                completeBlock();
+            }
+        }
+
+        private void completeBlock() throws IOException
+        {
+            digest.update(block, 0, bytesInBlock);
+            final byte[] hash = digest.digest();
+
+            final boolean changed = blockIndex >= baseBlockHashes.size() || !Arrays.equals(hash, baseBlockHashes.get(blockIndex));
+            if (changed)
+            {
+                out.writeInt(blockIndex);
+                out.writeInt(bytesInBlock);
+                out.write(block, 0, bytesInBlock);
+
+                changedBlocks += 1;
+            }
+
+            blockIndex += 1;
+            bytesInBlock = 0;
+        }
+
+        public void finish() throws IOException
+        {
+            if (bytesInBlock > 0)
+            {
+                completeBlock();
+            }
+        }
+
+        public long getLength()
+        {
+            return length;
+        }
+
+        public int getBlocks()
+        {
+            return blockIndex;
+        }
+
+        public int getChangedBlocks()
+        {
+            return changedBlocks;
+        }
+    }
+
+    /**
+     * Reads the memory mapped base file with the changed blocks of the delta
+     * applied on top. Unchanged blocks are copied from the mapping directly.
+     */
+    private class DeltaApplyingInputStream extends InputStream
+    {
+        private final MappedBaseFile baseFile;
+        private final Map<Integer, byte[]> changedBlocks;
+        private final long length;
+
+        private ByteBuffer currentBlock;
+        private int currentBlockIndex = -1;
+        private long position;
+
+        DeltaApplyingInputStream(MappedBaseFile baseFile, Map<Integer, byte[]> changedBlocks, long length)
+        {
+            this.baseFile = baseFile;
+            this.changedBlocks = changedBlocks;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) > 0 ? b[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (position >= length)
+            {
+                return -1;
+            }
+
+            if (currentBlock == null || !currentBlock.hasRemaining())
+            {
+                nextBlock();
+            }
+
+            final int count = (int) Math.min(Math.min(len, currentBlock.remaining()), length - position);
+            currentBlock.get(b, off, count);
+            position += count;
+
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            return currentBlock != null ? (int) Math.min(currentBlock.remaining(), length - position) : 0;
+        }
+
+        private void nextBlock() throws IOException
+        {
+            currentBlockIndex += 1;
+
+            final byte[] changedBlock = changedBlocks.get(currentBlockIndex);
+            currentBlock = changedBlock != null ? ByteBuffer.wrap(changedBlock) : baseFile.getBlock(currentBlockIndex);
+
+            if (currentBlock == null || !currentBlock.hasRemaining())
+            {
+                throw new EOFException("Cannot recover from snapshot. Base file ends before the snapshot.");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.agrona.IoUtil;
+
+/**
+ * Read-only memory mapping of a snapshot base file, divided into blocks. The
+ * file is mapped in regions of whole blocks since a single mapping is limited
+ * to 2 GB. Pages are loaded lazily by the operating system when a block is
+ * accessed. The mapping is released on close, the blocks must not be
+ * accessed afterwards.
+ */
+class MappedBaseFile implements AutoCloseable
+{
+    private final int blockSize;
+    private final int blocksPerRegion;
+    private final long length;
+    private final MappedByteBuffer[] regions;
+
+    MappedBaseFile(File file, int blockSize) throws IOException
+    {
+        this.blockSize = blockSize;
+        this.blocksPerRegion = Math.max(1, Integer.MAX_VALUE / blockSize);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            this.length = channel.size();
+
+            final long regionSize = (long) blocksPerRegion * blockSize;
+            final int regionCount = (int) ((length + regionSize - 1) / regionSize);
+
+            regions = new MappedByteBuffer[regionCount];
+            for (int i = 0; i < regionCount; i++)
+            {
+                final long offset = i * regionSize;
+                regions[i] = channel.map(MapMode.READ_ONLY, offset, Math.min(regionSize, length - offset));
+            }
+        }
+    }
+
+    public long getLength()
+    {
+        return length;
+    }
+
+    public int getBlockCount()
+    {
+        return (int) ((length + blockSize - 1) / blockSize);
+    }
+
+    /**
+     * @return a view of the block with the given index, or <code>null</code>
+     *         if the file does not contain the block
+     */
+    public ByteBuffer getBlock(int blockIndex)
+    {
+        if (blockIndex >= getBlockCount())
+        {
+            return null;
+        }
+
+        final ByteBuffer region = regions[blockIndex / blocksPerRegion].duplicate();
+        final int offset = (blockIndex % blocksPerRegion) * blockSize;
+
+        region.position(offset);
+        region.limit(Math.min(offset + blockSize, region.capacity()));
+
+        return region.slice();
+    }
+
+    @Override
+    public void close()
+    {
+        for (int i = 0; i < regions.length; i++)
+        {
+            IoUtil.unmap(regions[i]);
+            regions[i] = null;
+        }
+    }
+}
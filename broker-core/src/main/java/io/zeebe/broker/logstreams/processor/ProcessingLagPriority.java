@@ -0,0 +1,85 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.util.actor.Actor;
+import io.zeebe.util.time.ClockUtil;
+
+/**
+ * Derives the actor priority of a stream processor from its processing lag.
+ * A processor is scheduled with high priority as long as the committed log head
+ * is ahead of its last processed event. A processor which has caught up keeps
+ * the high priority until it is idle for a while, so that it reacts fast on the
+ * next events. Afterwards, it is scheduled with low priority and does not take
+ * iterations from backlogged partitions.
+ */
+public class ProcessingLagPriority
+{
+    /**
+     * Time in milliseconds after the last processed event a processor is considered idle.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 100;
+
+    protected final long idleTimeout;
+
+    protected LogStream sourceStream;
+    protected long lastProcessedPosition = -1L;
+    protected long lastProcessingTime = -1L;
+
+    public ProcessingLagPriority()
+    {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public ProcessingLagPriority(long idleTimeout)
+    {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public void wrap(LogStream sourceStream)
+    {
+        this.sourceStream = sourceStream;
+        this.lastProcessedPosition = -1L;
+        this.lastProcessingTime = -1L;
+    }
+
+    public void onEvent(long position)
+    {
+        lastProcessedPosition = position;
+        lastProcessingTime = ClockUtil.getCurrentTimeInMillis();
+    }
+
+    public boolean hasBacklog()
+    {
+        return sourceStream != null && sourceStream.getCommitPosition() > lastProcessedPosition;
+    }
+
+    public int getPriority()
+    {
+        if (hasBacklog())
+        {
+            return Actor.PRIORITY_HIGH;
+        }
+
+        final long now = ClockUtil.getCurrentTimeInMillis();
+        final boolean isActive = lastProcessingTime >= 0 && now - lastProcessingTime <= idleTimeout;
+
+        return isActive ? Actor.PRIORITY_HIGH : Actor.PRIORITY_LOW;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.services.Counters;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.util.time.ClockUtil;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.slf4j.Logger;
+
+/**
+ * Recovery metrics of a stream processor: measures the phases of its recovery
+ * on startup, i.e. restoring the state from the snapshot and reprocessing the
+ * log afterwards. The durations (in ms) are exposed as counters, if available,
+ * and logged. The recovery itself is not changed, every processor still
+ * recovers and reprocesses the log on its own.
+ */
+public class StreamProcessorRecoveryMetrics
+{
+    public static final Logger LOG = Loggers.LOGSTREAMS_LOGGER;
+
+    private final String processorName;
+
+    private AtomicCounter snapshotRecoveryTime;
+    private AtomicCounter reprocessingTime;
+    private AtomicCounter totalRecoveryTime;
+
+    private long recoveryStartTime = -1;
+    private long snapshotRecoveryDuration;
+    private long totalRecoveryDuration = -1;
+
+    public StreamProcessorRecoveryMetrics(String processorName)
+    {
+        this.processorName = processorName;
+    }
+
+    public void register(Counters counters)
+    {
+        snapshotRecoveryTime = newCounter(counters, "snapshot.ms");
+        reprocessingTime = newCounter(counters, "reprocessing.ms");
+        totalRecoveryTime = newCounter(counters, "total.ms");
+    }
+
+    private AtomicCounter newCounter(Counters counters, String phase)
+    {
+        final CountersManager countersManager = counters.getCountersManager();
+        final int counterId = countersManager.allocate(String.format("%s.recovery.%s", processorName, phase));
+
+        return new AtomicCounter(counters.getCountersBuffer(), counterId, countersManager);
+    }
+
+    /**
+     * @return a snapshot support which measures the time of recovering from
+     *         a snapshot
+     */
+    public SnapshotSupport wrap(SnapshotSupport snapshotSupport)
+    {
+        return new SnapshotSupport()
+        {
+            @Override
+            public void writeSnapshot(OutputStream outputStream) throws Exception
+            {
+                snapshotSupport.writeSnapshot(outputStream);
+            }
+
+            @Override
+            public void recoverFromSnapshot(InputStream inputStream) throws Exception
+            {
+                final long start = ClockUtil.getCurrentTimeInMillis();
+                try
+                {
+                    snapshotSupport.recoverFromSnapshot(inputStream);
+                }
+                finally
+                {
+                    snapshotRecoveryDuration += ClockUtil.getCurrentTimeInMillis() - start;
+                }
+            }
+
+            @Override
+            public void reset()
+            {
+                snapshotSupport.reset();
+            }
+        };
+    }
+
+    public void onRecoveryStarted()
+    {
+        recoveryStartTime = ClockUtil.getCurrentTimeInMillis();
+        snapshotRecoveryDuration = 0;
+    }
+
+    public void onRecoveryCompleted()
+    {
+        if (recoveryStartTime < 0)
+        {
+            return;
+        }
+
+        totalRecoveryDuration = ClockUtil.getCurrentTimeInMillis() - recoveryStartTime;
+        final long reprocessingDuration = Math.max(0, totalRecoveryDuration - snapshotRecoveryDuration);
+
+        if (totalRecoveryTime != null)
+        {
+            snapshotRecoveryTime.set(snapshotRecoveryDuration);
+            reprocessingTime.set(reprocessingDuration);
+            totalRecoveryTime.set(totalRecoveryDuration);
+        }
+
+        LOG.info("Recovered stream processor {} in {} ms (snapshot: {} ms, reprocessing: {} ms)",
+                processorName, totalRecoveryDuration, snapshotRecoveryDuration, reprocessingDuration);
+    }
+
+    public long getSnapshotRecoveryDuration()
+    {
+        return snapshotRecoveryDuration;
+    }
+
+    public long getTotalRecoveryDuration()
+    {
+        return totalRecoveryDuration;
+    }
+
+    public void close()
+    {
+        if (totalRecoveryTime != null)
+        {
+            snapshotRecoveryTime.close();
+            reprocessingTime.close();
+            totalRecoveryTime.close();
+
+            snapshotRecoveryTime = null;
+            reprocessingTime = null;
+            totalRecoveryTime = null;
+        }
+    }
+}
@@ -17,6 +17,12 @@
  */
 package io.zeebe.broker.logstreams.processor;
 
+import java.io.File;
+
+import io.zeebe.broker.logstreams.ReplicableSnapshots;
+import io.zeebe.broker.logstreams.cfg.SnapshotStorageCfg;
+import io.zeebe.broker.services.Counters;
+import io.zeebe.broker.system.threads.ActorGroups;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.logstreams.LogStreams;
@@ -34,14 +40,19 @@ public class StreamProcessorService implements Service<StreamProcessorController
     private final Injector<LogStream> targetStreamInjector = new Injector<>();
     private final Injector<SnapshotStorage> snapshotStorageInjector = new Injector<>();
     private final Injector<ActorScheduler> actorSchedulerInjector = new Injector<>();
+    private final Injector<ActorGroups> actorGroupsInjector = new Injector<>();
+    private final Injector<Counters> countersInjector = new Injector<>();
+    private final Injector<ReplicableSnapshots> replicableSnapshotsInjector = new Injector<>();
 
     private final String name;
     private final int id;
-    private final StreamProcessor streamProcessor;
+    private StreamProcessor streamProcessor;
 
     protected MetadataFilter customEventFilter;
     protected EventFilter customReprocessingEventFilter;
     protected boolean readOnly;
+    protected boolean incrementalSnapshots;
+    protected IncrementalSnapshotSupport incrementalSnapshotSupport;
     protected StreamProcessorErrorHandler errorHandler;
 
     protected final MetadataFilter versionFilter = (m) ->
@@ -59,6 +70,7 @@ public class StreamProcessorService implements Service<StreamProcessorController
     protected SnapshotPositionProvider snapshotPositionProvider;
 
     private StreamProcessorController streamProcessorController;
+    private StreamProcessorRecoveryMetrics recoveryMetrics;
 
     public StreamProcessorService(String name, int id, StreamProcessor streamProcessor)
     {
@@ -91,6 +103,27 @@ public class StreamProcessorService implements Service<StreamProcessorController
         return this;
     }
 
+    /**
+     * Write snapshots of the processor's state incrementally, if enabled in
+     * the given configuration. Only useful for processors with a large state.
+     * Snapshots written with the other setting can still be recovered.
+     */
+    public StreamProcessorService incrementalSnapshots(SnapshotStorageCfg snapshotCfg)
+    {
+        final String baseDirectory = snapshotCfg.directory + File.separator + "incremental";
+        incrementalSnapshotSupport = new IncrementalSnapshotSupport(
+            streamProcessor.getStateResource(),
+            baseDirectory,
+            name,
+            snapshotCfg.incrementalBlockSize,
+            snapshotCfg.fullSnapshotInterval,
+            snapshotCfg.incremental);
+
+        this.streamProcessor = new DelegatingStreamProcessor(streamProcessor, incrementalSnapshotSupport);
+        this.incrementalSnapshots = snapshotCfg.incremental;
+        return this;
+    }
+
     public StreamProcessorService errorHandler(StreamProcessorErrorHandler errorHandler)
     {
         this.errorHandler = errorHandler;
@@ -105,7 +138,16 @@ public class StreamProcessorService implements Service<StreamProcessorController
 
         final SnapshotStorage snapshotStorage = snapshotStorageInjector.getValue();
 
-        final ActorScheduler actorScheduler = actorSchedulerInjector.getValue();
+        if (incrementalSnapshotSupport != null)
+        {
+            incrementalSnapshotSupport.snapshotStorage(snapshotStorage);
+        }
+
+        // prefer the runner of the source stream's partition over the shared scheduler
+        final ActorGroups actorGroups = actorGroupsInjector.getValue();
+        final ActorScheduler actorScheduler = actorGroups != null ?
+                actorGroups.getPartitionScheduler(sourceStream.getPartitionId()) :
+                actorSchedulerInjector.getValue();
 
         MetadataFilter metadataFilter = versionFilter;
         if (customEventFilter != null)
@@ -125,7 +167,25 @@ public class StreamProcessorService implements Service<StreamProcessorController
             errorHandler = new DefaultStreamProcessorErrorHandler();
         }
 
-        streamProcessorController = LogStreams.createStreamProcessor(name, id, streamProcessor)
+        recoveryMetrics = new StreamProcessorRecoveryMetrics(name);
+
+        final Counters counters = countersInjector.getValue();
+        if (counters != null)
+        {
+            recoveryMetrics.register(counters);
+        }
+
+        final StreamProcessor measuredStreamProcessor =
+                new DelegatingStreamProcessor(streamProcessor, recoveryMetrics.wrap(streamProcessor.getStateResource()));
+
+        // incremental snapshots depend on the local base files and can not be replicated
+        final ReplicableSnapshots replicableSnapshots = replicableSnapshotsInjector.getValue();
+        if (replicableSnapshots != null && isReplicableSnapshot())
+        {
+            replicableSnapshots.addReplicableSnapshot(sourceStream, name);
+        }
+
+        streamProcessorController = LogStreams.createStreamProcessor(name, id, measuredStreamProcessor)
             .sourceStream(sourceStream)
             .targetStream(targetStream)
             .snapshotStorage(snapshotStorage)
@@ -137,7 +197,11 @@ public class StreamProcessorService implements Service<StreamProcessorController
             .readOnly(readOnly)
             .build();
 
-        ctx.async(streamProcessorController.openAsync());
+        recoveryMetrics.onRecoveryStarted();
+
+        // the controller is opened when the state is recovered and the log is reprocessed
+        ctx.async(streamProcessorController.openAsync()
+            .thenRun(recoveryMetrics::onRecoveryCompleted));
     }
 
     @Override
@@ -149,7 +213,19 @@ public class StreamProcessorService implements Service<StreamProcessorController
     @Override
     public void stop(ServiceStopContext ctx)
     {
-        ctx.async(streamProcessorController.closeAsync());
+        final ReplicableSnapshots replicableSnapshots = replicableSnapshotsInjector.getValue();
+        if (replicableSnapshots != null && isReplicableSnapshot())
+        {
+            replicableSnapshots.removeReplicableSnapshot(sourceStreamInjector.getValue(), name);
+        }
+
+        ctx.async(streamProcessorController.closeAsync()
+            .thenRun(recoveryMetrics::close));
+    }
+
+    protected boolean isReplicableSnapshot()
+    {
+        return !readOnly && !incrementalSnapshots;
     }
 
     public Injector<SnapshotStorage> getSnapshotStorageInjector()
@@ -162,6 +238,21 @@ public class StreamProcessorService implements Service<StreamProcessorController
         return actorSchedulerInjector;
     }
 
+    public Injector<ActorGroups> getActorGroupsInjector()
+    {
+        return actorGroupsInjector;
+    }
+
+    public Injector<Counters> getCountersInjector()
+    {
+        return countersInjector;
+    }
+
+    public Injector<ReplicableSnapshots> getReplicableSnapshotsInjector()
+    {
+        return replicableSnapshotsInjector;
+    }
+
     public Injector<LogStream> getSourceStreamInjector()
     {
         return sourceStreamInjector;
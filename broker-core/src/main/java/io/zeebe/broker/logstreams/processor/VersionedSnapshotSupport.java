@@ -0,0 +1,108 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+
+import java.io.*;
+
+import io.zeebe.logstreams.spi.SnapshotSupport;
+
+/**
+ * Decorates a snapshot support with a header which contains a magic number and
+ * the version of the snapshot format. Recovering from a snapshot fails if the
+ * snapshot has a different format version, instead of reading the state in the
+ * wrong format.
+ *
+ * <p>
+ * A snapshot without header was written before the header was introduced. It
+ * is recovered by the given legacy recovery which reads the state in the old
+ * format.
+ */
+public class VersionedSnapshotSupport implements SnapshotSupport
+{
+    public static final int MAGIC = 0x5A425353;
+
+    private final SnapshotSupport delegate;
+    private final int formatVersion;
+    private final LegacySnapshotRecovery legacyRecovery;
+
+    public VersionedSnapshotSupport(SnapshotSupport delegate, int formatVersion, LegacySnapshotRecovery legacyRecovery)
+    {
+        this.delegate = delegate;
+        this.formatVersion = formatVersion;
+        this.legacyRecovery = legacyRecovery;
+    }
+
+    @Override
+    public void writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeInt(formatVersion);
+        dataOutputStream.flush();
+
+        delegate.writeSnapshot(outputStream);
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, SIZE_OF_INT);
+        final DataInputStream dataInputStream = new DataInputStream(pushbackInputStream);
+
+        final int magic = dataInputStream.readInt();
+        if (magic != MAGIC)
+        {
+            // legacy snapshot - the first bytes belong to the state
+            pushbackInputStream.unread(new byte[] {(byte) (magic >>> 24), (byte) (magic >>> 16), (byte) (magic >>> 8), (byte) magic});
+
+            legacyRecovery.recoverFromSnapshot(pushbackInputStream);
+        }
+        else
+        {
+            final int version = dataInputStream.readInt();
+            if (version != formatVersion)
+            {
+                throw new IllegalStateException(String.format("Cannot recover from snapshot. Expected format version %d but found %d.", formatVersion, version));
+            }
+
+            delegate.recoverFromSnapshot(pushbackInputStream);
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        delegate.reset();
+    }
+
+    public int getFormatVersion()
+    {
+        return formatVersion;
+    }
+
+    /**
+     * Recovers the state from a snapshot which was written without header.
+     */
+    @FunctionalInterface
+    public interface LegacySnapshotRecovery
+    {
+        void recoverFromSnapshot(InputStream inputStream) throws Exception;
+    }
+}
@@ -17,16 +17,20 @@
  */
 package io.zeebe.broker.system;
 
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.EXECUTOR_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.IO_ACTOR_SCHEDULER_SERVICE;
 
 import io.zeebe.broker.clustering.ClusterServiceNames;
 import io.zeebe.broker.logstreams.LogStreamServiceNames;
 import io.zeebe.broker.services.CountersManagerService;
 import io.zeebe.broker.system.executor.ScheduledExecutorService;
 import io.zeebe.broker.system.log.SystemPartitionManager;
+import io.zeebe.broker.system.threads.ActorGroupsService;
 import io.zeebe.broker.system.threads.ActorSchedulerService;
+import io.zeebe.broker.system.threads.IoActorSchedulerService;
 import io.zeebe.broker.transport.TransportServiceNames;
 import io.zeebe.servicecontainer.ServiceContainer;
 
@@ -46,6 +50,16 @@ public class SystemComponent implements Component
         serviceContainer.createService(ACTOR_SCHEDULER_SERVICE, agentRunnerService)
             .install();
 
+        final ActorGroupsService actorGroupsService = new ActorGroupsService(context.getConfigurationManager());
+        serviceContainer.createService(ACTOR_GROUPS_SERVICE, actorGroupsService)
+            .dependency(ACTOR_SCHEDULER_SERVICE, actorGroupsService.getDefaultSchedulerInjector())
+            .install();
+
+        final IoActorSchedulerService ioActorSchedulerService = new IoActorSchedulerService();
+        serviceContainer.createService(IO_ACTOR_SCHEDULER_SERVICE, ioActorSchedulerService)
+            .dependency(ACTOR_GROUPS_SERVICE, ioActorSchedulerService.getActorGroupsInjector())
+            .install();
+
         final ScheduledExecutorService executorService = new ScheduledExecutorService();
         serviceContainer.createService(EXECUTOR_SERVICE, executorService)
             .dependency(ACTOR_SCHEDULER_SERVICE, executorService.getActorSchedulerInjector())
@@ -20,6 +20,7 @@ package io.zeebe.broker.system;
 import io.zeebe.broker.services.Counters;
 import io.zeebe.broker.system.executor.ScheduledExecutor;
 import io.zeebe.broker.system.log.SystemPartitionManager;
+import io.zeebe.broker.system.threads.ActorGroups;
 import io.zeebe.logstreams.processor.StreamProcessorController;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.util.actor.ActorScheduler;
@@ -27,6 +28,8 @@ import io.zeebe.util.actor.ActorScheduler;
 public class SystemServiceNames
 {
     public static final ServiceName<ActorScheduler> ACTOR_SCHEDULER_SERVICE = ServiceName.newServiceName("broker.task.scheduler", ActorScheduler.class);
+    public static final ServiceName<ActorGroups> ACTOR_GROUPS_SERVICE = ServiceName.newServiceName("broker.task.scheduler.groups", ActorGroups.class);
+    public static final ServiceName<ActorScheduler> IO_ACTOR_SCHEDULER_SERVICE = ServiceName.newServiceName("broker.task.scheduler.io", ActorScheduler.class);
 
     public static final ServiceName<Counters> COUNTERS_MANAGER_SERVICE = ServiceName.newServiceName("broker.countersManager", Counters.class);
 
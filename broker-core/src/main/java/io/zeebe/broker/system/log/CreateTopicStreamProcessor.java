@@ -22,6 +22,7 @@ import java.util.Iterator;
 import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.clustering.management.Partition;
+import io.zeebe.broker.clustering.management.PartitionListener;
 import io.zeebe.broker.clustering.management.PartitionManager;
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
@@ -42,6 +43,7 @@ import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.util.DeferredCommandContext;
+import io.zeebe.util.buffer.BufferUtil;
 
 public class CreateTopicStreamProcessor implements StreamProcessor
 {
@@ -52,6 +54,7 @@ public class CreateTopicStreamProcessor implements StreamProcessor
     protected final PartitionsIndex partitions;
 
     protected ResolvePendingPartitionsCommand resolvePartitionsCommand;
+    protected final PartitionListener partitionListener = this::onPartitionLeader;
 
     // --- TODO: below: things that should not be managed in a stream processor
     //   => https://github.com/zeebe-io/zeebe/issues/411
@@ -100,6 +103,14 @@ public class CreateTopicStreamProcessor implements StreamProcessor
         this.commandQueue = context.getStreamProcessorCmdQueue();
         this.resolvePartitionsCommand = new ResolvePendingPartitionsCommand();
         this.topics.put(Protocol.SYSTEM_TOPIC_BUF, 0, -1); // ensure that the system topic cannot be created
+
+        partitionManager.addPartitionListener(partitionListener);
+    }
+
+    @Override
+    public void onClose()
+    {
+        partitionManager.removePartitionListener(partitionListener);
     }
 
     @Override
@@ -165,6 +176,12 @@ public class CreateTopicStreamProcessor implements StreamProcessor
                 m.getEventType() == EventType.PARTITION_EVENT;
     }
 
+    /**
+     * Periodic check which resolves all pending partitions whose leaders are
+     * known. Only required as fallback if a partition leader became known
+     * before the partition was pending or the completion of a partition could
+     * not be written.
+     */
     public void checkPendingPartitionsAsync()
     {
         if (resolvePartitionsCommand != null)
@@ -173,6 +190,17 @@ public class CreateTopicStreamProcessor implements StreamProcessor
         }
     }
 
+    /**
+     * Resolves the pending partition when the cluster manager announces its
+     * leader.
+     */
+    protected void onPartitionLeader(DirectBuffer topicName, int partitionId)
+    {
+        final DirectBuffer nameBuffer = BufferUtil.cloneBuffer(topicName);
+
+        commandQueue.runAsync(() -> resolvePartitionsCommand.resolvePartition(nameBuffer, partitionId));
+    }
+
     protected class CreateTopicProcessor implements EventProcessor
     {
 
@@ -445,28 +473,30 @@ public class CreateTopicStreamProcessor implements StreamProcessor
             while (currentPartitions.hasNext())
             {
                 final Partition nextPartition = currentPartitions.next();
-                final DirectBuffer topicName = nextPartition.getTopicName();
-                final int partitionId = nextPartition.getPartitionId();
+                resolvePartition(nextPartition.getTopicName(), nextPartition.getPartitionId());
+            }
+        }
 
-                final long key = partitions.getPartitionKey(topicName, partitionId);
+        public void resolvePartition(DirectBuffer topicName, int partitionId)
+        {
+            final long key = partitions.getPartitionKey(topicName, partitionId);
 
-                if (key >= 0)
-                {
-                    targetMetadata.raftTermId(targetStream.getTerm());
-                    targetMetadata.eventType(EventType.PARTITION_EVENT);
+            if (key >= 0)
+            {
+                targetMetadata.raftTermId(targetStream.getTerm());
+                targetMetadata.eventType(EventType.PARTITION_EVENT);
 
-                    partitionEvent.reset();
-                    partitionEvent.setTopicName(topicName);
-                    partitionEvent.setId(partitionId);
-                    partitionEvent.setState(PartitionState.CREATE_COMPLETE);
+                partitionEvent.reset();
+                partitionEvent.setTopicName(topicName);
+                partitionEvent.setId(partitionId);
+                partitionEvent.setState(PartitionState.CREATE_COMPLETE);
 
-                    // it is ok if writing fails,
-                    // we will then try it again with the next command execution (there are no other side effects)
-                    writer.key(key)
-                        .metadataWriter(targetMetadata)
-                        .valueWriter(partitionEvent)
-                        .tryWrite();
-                }
+                // it is ok if writing fails,
+                // we will then try it again with the next check of the pending partitions (there are no other side effects)
+                writer.key(key)
+                    .metadataWriter(targetMetadata)
+                    .valueWriter(partitionEvent)
+                    .tryWrite();
             }
         }
     }
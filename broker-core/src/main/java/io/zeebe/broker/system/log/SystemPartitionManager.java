@@ -17,8 +17,10 @@
  */
 package io.zeebe.broker.system.log;
 
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
 
 import java.time.Duration;
 
@@ -40,6 +42,12 @@ import io.zeebe.transport.ServerTransport;
 
 public class SystemPartitionManager implements Service<SystemPartitionManager>
 {
+    /**
+     * Pending partitions are resolved when their leaders become known; the
+     * periodic check is only a fallback for missed notifications
+     */
+    public static final Duration PENDING_PARTITIONS_CHECK_INTERVAL = Duration.ofSeconds(1);
+
     protected ServiceStartContext serviceContext;
 
     protected final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
@@ -72,11 +80,13 @@ public class SystemPartitionManager implements Service<SystemPartitionManager>
             .dependency(serviceName, streamProcessorService.getSourceStreamInjector())
             .dependency(serviceName, streamProcessorService.getTargetStreamInjector())
             .dependency(SNAPSHOT_STORAGE_SERVICE, streamProcessorService.getSnapshotStorageInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, streamProcessorService.getActorSchedulerInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, streamProcessorService.getActorGroupsInjector())
+            .dependency(REPLICABLE_SNAPSHOTS_SERVICE, streamProcessorService.getReplicableSnapshotsInjector())
+            .dependency(COUNTERS_MANAGER_SERVICE, streamProcessorService.getCountersInjector())
             .install()
             .thenRun(() ->
             {
-                partitionCheck = executor.scheduleAtFixedRate(processor::checkPendingPartitionsAsync, Duration.ofMillis(100));
+                partitionCheck = executor.scheduleAtFixedRate(processor::checkPendingPartitionsAsync, PENDING_PARTITIONS_CHECK_INTERVAL);
             });
     }
 
@@ -0,0 +1,81 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import io.zeebe.util.actor.ActorScheduler;
+
+/**
+ * Groups of actor schedulers. The actors of one partition (log stream, raft and
+ * stream processors) are always scheduled on the same partition runner, so that
+ * they keep their data in the caches of one thread. Transport and gossip actors
+ * run isolated in the io group. Groups which are not configured fall back to the
+ * default scheduler.
+ */
+public class ActorGroups implements AutoCloseable
+{
+    protected final ActorScheduler defaultScheduler;
+    protected final ActorScheduler[] partitionSchedulers;
+    protected final ActorScheduler ioScheduler;
+
+    public ActorGroups(ActorScheduler defaultScheduler, ActorScheduler[] partitionSchedulers, ActorScheduler ioScheduler)
+    {
+        this.defaultScheduler = defaultScheduler;
+        this.partitionSchedulers = partitionSchedulers;
+        this.ioScheduler = ioScheduler;
+    }
+
+    public ActorScheduler getDefaultScheduler()
+    {
+        return defaultScheduler;
+    }
+
+    public ActorScheduler getPartitionScheduler(int partitionId)
+    {
+        if (partitionSchedulers.length > 0)
+        {
+            return partitionSchedulers[partitionId % partitionSchedulers.length];
+        }
+        else
+        {
+            return defaultScheduler;
+        }
+    }
+
+    public ActorScheduler getIoScheduler()
+    {
+        return ioScheduler != null ? ioScheduler : defaultScheduler;
+    }
+
+    /**
+     * Closes the schedulers of the partition and io groups. The default scheduler is
+     * owned by the {@link ActorSchedulerService}.
+     */
+    @Override
+    public void close()
+    {
+        for (int i = 0; i < partitionSchedulers.length; i++)
+        {
+            partitionSchedulers[i].close();
+        }
+
+        if (ioScheduler != null)
+        {
+            ioScheduler.close();
+        }
+    }
+}
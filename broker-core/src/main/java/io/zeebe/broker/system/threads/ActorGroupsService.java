@@ -0,0 +1,101 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import org.agrona.ErrorHandler;
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.system.ConfigurationManager;
+import io.zeebe.broker.system.threads.cfg.ThreadingCfg;
+import io.zeebe.servicecontainer.Injector;
+import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.servicecontainer.ServiceStopContext;
+import io.zeebe.util.actor.ActorScheduler;
+import io.zeebe.util.actor.ActorSchedulerBuilder;
+
+public class ActorGroupsService implements Service<ActorGroups>
+{
+    public static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    protected final Injector<ActorScheduler> defaultSchedulerInjector = new Injector<>();
+
+    protected final ThreadingCfg cfg;
+
+    protected ActorGroups actorGroups;
+
+    public ActorGroupsService(ConfigurationManager configurationManager)
+    {
+        cfg = configurationManager.readEntry("threading", ThreadingCfg.class);
+    }
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        final ActorScheduler[] partitionSchedulers = new ActorScheduler[Math.max(cfg.partitionThreads, 0)];
+
+        for (int i = 0; i < partitionSchedulers.length; i++)
+        {
+            partitionSchedulers[i] = createScheduler("broker-partition-" + i, 1);
+        }
+
+        final ActorScheduler ioScheduler = cfg.ioThreads > 0 ? createScheduler("broker-io", cfg.ioThreads) : null;
+
+        LOG.info("Using {} partition runner(s) and {} io runner(s)", partitionSchedulers.length, Math.max(cfg.ioThreads, 0));
+
+        actorGroups = new ActorGroups(defaultSchedulerInjector.getValue(), partitionSchedulers, ioScheduler);
+    }
+
+    protected ActorScheduler createScheduler(String name, int threadCount)
+    {
+        final ErrorHandler errorHandler = t -> t.printStackTrace();
+
+        return new ActorSchedulerBuilder()
+                .name(name)
+                .threadCount(threadCount)
+                .runnerIdleStrategy(ActorSchedulerService.createIdleStrategy(cfg.idleStrategy, cfg.maxIdleTimeMs))
+                .runnerErrorHander(errorHandler)
+                .baseIterationsPerActor(Math.max(cfg.baseIterationsPerActor, 1))
+                .build();
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        try
+        {
+            actorGroups.close();
+        }
+        catch (Exception e)
+        {
+            LOG.error("Unable to stop actor groups", e);
+        }
+    }
+
+    @Override
+    public ActorGroups get()
+    {
+        return actorGroups;
+    }
+
+    public Injector<ActorScheduler> getDefaultSchedulerInjector()
+    {
+        return defaultSchedulerInjector;
+    }
+}
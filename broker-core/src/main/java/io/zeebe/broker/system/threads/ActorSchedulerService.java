@@ -45,6 +45,7 @@ public class ActorSchedulerService implements Service<ActorScheduler>
 
     protected final BrokerIdleStrategy brokerIdleStrategy;
     protected final int maxIdleTimeMs;
+    protected final int baseIterationsPerActor;
 
     protected ActorScheduler scheduler;
 
@@ -68,12 +69,13 @@ public class ActorSchedulerService implements Service<ActorScheduler>
         availableThreads = numberOfThreads;
         brokerIdleStrategy = cfg.idleStrategy;
         maxIdleTimeMs = cfg.maxIdleTimeMs;
+        baseIterationsPerActor = Math.max(cfg.baseIterationsPerActor, 1);
     }
 
     @Override
     public void start(ServiceStartContext serviceContext)
     {
-        final IdleStrategy idleStrategy = createIdleStrategy(brokerIdleStrategy);
+        final IdleStrategy idleStrategy = createIdleStrategy(brokerIdleStrategy, maxIdleTimeMs);
         final ErrorHandler errorHandler = t -> t.printStackTrace();
 
         scheduler = new ActorSchedulerBuilder()
@@ -81,7 +83,7 @@ public class ActorSchedulerService implements Service<ActorScheduler>
                 .threadCount(availableThreads)
                 .runnerIdleStrategy(idleStrategy)
                 .runnerErrorHander(errorHandler)
-                .baseIterationsPerActor(37)
+                .baseIterationsPerActor(baseIterationsPerActor)
                 .build();
     }
 
@@ -104,7 +106,7 @@ public class ActorSchedulerService implements Service<ActorScheduler>
         return scheduler;
     }
 
-    protected IdleStrategy createIdleStrategy(BrokerIdleStrategy idleStrategy)
+    protected static IdleStrategy createIdleStrategy(BrokerIdleStrategy idleStrategy, int maxIdleTimeMs)
     {
         switch (idleStrategy)
         {
@@ -0,0 +1,57 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import io.zeebe.servicecontainer.Injector;
+import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.servicecontainer.ServiceStopContext;
+import io.zeebe.util.actor.ActorScheduler;
+
+/**
+ * Provides the scheduler of the io group to services which only depend on an {@link ActorScheduler}.
+ */
+public class IoActorSchedulerService implements Service<ActorScheduler>
+{
+    protected final Injector<ActorGroups> actorGroupsInjector = new Injector<>();
+
+    protected ActorScheduler scheduler;
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        scheduler = actorGroupsInjector.getValue().getIoScheduler();
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        // the scheduler is closed by the actor groups service
+    }
+
+    @Override
+    public ActorScheduler get()
+    {
+        return scheduler;
+    }
+
+    public Injector<ActorGroups> getActorGroupsInjector()
+    {
+        return actorGroupsInjector;
+    }
+}
@@ -29,4 +29,23 @@ public class ThreadingCfg extends ComponentConfiguration
     public int numberOfThreads = -1;
     public int maxIdleTimeMs = 200;
     public BrokerIdleStrategy idleStrategy = BrokerIdleStrategy.BACKOFF;
+
+    /**
+     * The number of iterations a runner spends on an actor before it moves on to
+     * the next one.
+     */
+    public int baseIterationsPerActor = 37;
+
+    /**
+     * The number of runner threads dedicated to partitions. The log stream, raft
+     * and stream processors of a partition always run on the same runner. If 0,
+     * partition actors share the runners of the default scheduler.
+     */
+    public int partitionThreads = 0;
+
+    /**
+     * The number of runner threads dedicated to transport and gossip. If 0, these
+     * actors share the runners of the default scheduler.
+     */
+    public int ioThreads = 0;
 }
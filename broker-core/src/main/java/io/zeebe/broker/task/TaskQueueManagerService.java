@@ -17,11 +17,13 @@
  */
 package io.zeebe.broker.task;
 
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.logStreamServiceName;
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.TASK_EXPIRE_LOCK_STREAM_PROCESSOR_ID;
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.TASK_QUEUE_STREAM_PROCESSOR_ID;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
 import static io.zeebe.broker.task.TaskQueueServiceNames.TASK_QUEUE_STREAM_PROCESSOR_SERVICE_GROUP_NAME;
 import static io.zeebe.broker.task.TaskQueueServiceNames.taskQueueExpireLockStreamProcessorServiceName;
 import static io.zeebe.broker.task.TaskQueueServiceNames.taskQueueInstanceStreamProcessorServiceName;
@@ -100,7 +102,9 @@ public class TaskQueueManagerService implements Service<TaskQueueManager>, TaskQ
               .dependency(logStreamServiceName, taskInstanceStreamProcessorService.getSourceStreamInjector())
               .dependency(logStreamServiceName, taskInstanceStreamProcessorService.getTargetStreamInjector())
               .dependency(SNAPSHOT_STORAGE_SERVICE, taskInstanceStreamProcessorService.getSnapshotStorageInjector())
-              .dependency(ACTOR_SCHEDULER_SERVICE, taskInstanceStreamProcessorService.getActorSchedulerInjector())
+              .dependency(ACTOR_GROUPS_SERVICE, taskInstanceStreamProcessorService.getActorGroupsInjector())
+              .dependency(REPLICABLE_SNAPSHOTS_SERVICE, taskInstanceStreamProcessorService.getReplicableSnapshotsInjector())
+              .dependency(COUNTERS_MANAGER_SERVICE, taskInstanceStreamProcessorService.getCountersInjector())
               .install();
 
         startExpireLockService(logName, logStreamServiceName);
@@ -123,7 +127,9 @@ public class TaskQueueManagerService implements Service<TaskQueueManager>, TaskQ
             .dependency(logStreamServiceName, expireLockStreamProcessorService.getSourceStreamInjector())
             .dependency(logStreamServiceName, expireLockStreamProcessorService.getTargetStreamInjector())
             .dependency(SNAPSHOT_STORAGE_SERVICE, expireLockStreamProcessorService.getSnapshotStorageInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, expireLockStreamProcessorService.getActorSchedulerInjector())
+            .dependency(ACTOR_GROUPS_SERVICE, expireLockStreamProcessorService.getActorGroupsInjector())
+            .dependency(REPLICABLE_SNAPSHOTS_SERVICE, expireLockStreamProcessorService.getReplicableSnapshotsInjector())
+            .dependency(COUNTERS_MANAGER_SERVICE, expireLockStreamProcessorService.getCountersInjector())
             .install()
             .thenRun(() ->
             {
@@ -34,6 +34,8 @@ public class TaskEvent extends UnpackedObject
     private final LongProperty lockTimeProp = new LongProperty("lockTime", Protocol.INSTANT_NULL_VALUE);
     private final StringProperty lockOwnerProp = new StringProperty("lockOwner", "");
     private final IntegerProperty retriesProp = new IntegerProperty("retries", -1);
+    private final LongProperty retryBackoffProp = new LongProperty("retryBackoff", 0L);
+    private final LongProperty retryTimeProp = new LongProperty("retryTime", Protocol.INSTANT_NULL_VALUE);
     private final StringProperty typeProp = new StringProperty("type");
     private final ObjectProperty<TaskHeaders> headersProp = new ObjectProperty<>("headers", new TaskHeaders());
     private final PackedProperty customHeadersProp = new PackedProperty("customHeaders", NO_HEADERS);
@@ -45,6 +47,8 @@ public class TaskEvent extends UnpackedObject
             .declareProperty(lockTimeProp)
             .declareProperty(lockOwnerProp)
             .declareProperty(retriesProp)
+            .declareProperty(retryBackoffProp)
+            .declareProperty(retryTimeProp)
             .declareProperty(typeProp)
             .declareProperty(headersProp)
             .declareProperty(customHeadersProp)
@@ -100,6 +104,36 @@ public class TaskEvent extends UnpackedObject
         return this;
     }
 
+    /**
+     * @return the time in ms after which a failed task can be locked again
+     */
+    public long getRetryBackoff()
+    {
+        return retryBackoffProp.getValue();
+    }
+
+    public TaskEvent setRetryBackoff(long retryBackoff)
+    {
+        retryBackoffProp.setValue(retryBackoff);
+        return this;
+    }
+
+    /**
+     * @return the point in time (ms) at which a failed task can be locked
+     *         again, or {@link Protocol#INSTANT_NULL_VALUE} if the task has no
+     *         retry backoff
+     */
+    public long getRetryTime()
+    {
+        return retryTimeProp.getValue();
+    }
+
+    public TaskEvent setRetryTime(long retryTime)
+    {
+        retryTimeProp.setValue(retryTime);
+        return this;
+    }
+
     public DirectBuffer getType()
     {
         return typeProp.getValue();
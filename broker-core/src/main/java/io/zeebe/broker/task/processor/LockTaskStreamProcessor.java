@@ -261,11 +261,18 @@ public class LockTaskStreamProcessor implements StreamProcessor, EventProcessor
             {
                 case CREATED:
                 case LOCK_EXPIRED:
-                case FAILED:
                 case RETRIES_UPDATED:
                     eventProcessor = this;
                     break;
 
+                case FAILED:
+                    // with a backoff, the task is unlocked by the expire lock processor
+                    if (taskEvent.getRetryTime() == Protocol.INSTANT_NULL_VALUE)
+                    {
+                        eventProcessor = this;
+                    }
+                    break;
+
                 default:
                     break;
             }
@@ -288,7 +295,10 @@ public class LockTaskStreamProcessor implements StreamProcessor, EventProcessor
                 taskEvent
                     .setState(TaskState.LOCK)
                     .setLockTime(lockTimeout)
-                    .setLockOwner(lockSubscription.getLockOwner());
+                    .setLockOwner(lockSubscription.getLockOwner())
+                    // the backoff only applies to the previous failure
+                    .setRetryBackoff(0L)
+                    .setRetryTime(Protocol.INSTANT_NULL_VALUE);
 
                 hasLockedTask = true;
             }
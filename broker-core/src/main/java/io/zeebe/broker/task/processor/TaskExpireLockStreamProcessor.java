@@ -50,9 +50,11 @@ public class TaskExpireLockStreamProcessor implements StreamProcessor
     protected final EventProcessor lockedEventProcessor = new LockedEventProcessor();
     protected final EventProcessor unlockEventProcessor = new UnlockEventProcessor();
     protected final EventProcessor expireLockEventProcessor = new ExpireLockEventProcessor();
+    protected final EventProcessor failedEventProcessor = new FailedEventProcessor();
 
     protected final Runnable checkLockExpirationCmd = new CheckLockExpirationCmd();
 
+    // contains locked tasks by lock expiration time and failed tasks by the end of their retry backoff
     // TODO #161 - replace the map by a more efficient one
     protected HashMap<Long, ExpirationTimeBucket> index = new HashMap<>();
     protected SerializableWrapper<HashMap<Long, ExpirationTimeBucket>> indexSnapshot = new SerializableWrapper<>(index);
@@ -118,11 +120,27 @@ public class TaskExpireLockStreamProcessor implements StreamProcessor
                 eventProcessor = lockedEventProcessor;
                 break;
             case EXPIRE_LOCK:
-                eventProcessor = expireLockEventProcessor;
+            case UPDATE_RETRIES:
+                // a client can update the retries as well; only the events written by this processor are relevant
+                if (event.getProducerId() == streamProcessorId)
+                {
+                    eventProcessor = expireLockEventProcessor;
+                }
+                break;
+            case FAILED:
+                if (taskEvent.getRetryTime() != Protocol.INSTANT_NULL_VALUE)
+                {
+                    eventProcessor = failedEventProcessor;
+                }
+                else
+                {
+                    eventProcessor = unlockEventProcessor;
+                }
                 break;
             case LOCK_EXPIRED:
             case COMPLETED:
-            case FAILED:
+            case RETRIES_UPDATED:
+            case CANCELED:
                 eventProcessor = unlockEventProcessor;
                 break;
 
@@ -167,6 +185,24 @@ public class TaskExpireLockStreamProcessor implements StreamProcessor
 
     }
 
+    class FailedEventProcessor implements EventProcessor
+    {
+
+        @Override
+        public void processEvent()
+        {
+            // just add event to map
+        }
+
+        @Override
+        public void updateState()
+        {
+            final ExpirationTimeBucket expirationTimeBucket = new ExpirationTimeBucket(eventPosition, taskEvent.getRetryTime());
+            index.put(eventKey, expirationTimeBucket);
+        }
+
+    }
+
     class ExpireLockEventProcessor implements EventProcessor
     {
 
@@ -209,8 +245,8 @@ public class TaskExpireLockStreamProcessor implements StreamProcessor
 
                     if (lockExpired(lockExpirationTime))
                     {
-                        final LoggedEvent taskLockedEvent = findEvent(eventPosition);
-                        writeLockExpireEvent(eventKey, taskLockedEvent);
+                        final LoggedEvent taskEvent = findEvent(eventPosition);
+                        writeLockExpireOrRetryEvent(eventKey, taskEvent);
                         eventKeyIt.remove();
                     }
                 }
@@ -236,12 +272,23 @@ public class TaskExpireLockStreamProcessor implements StreamProcessor
             }
         }
 
-        protected void writeLockExpireEvent(long eventKey, final LoggedEvent lockedEvent)
+        protected void writeLockExpireOrRetryEvent(long eventKey, final LoggedEvent lockedEvent)
         {
             taskEvent.reset();
             lockedEvent.readValue(taskEvent);
 
-            taskEvent.setState(TaskState.EXPIRE_LOCK);
+            if (taskEvent.getState() == TaskState.FAILED)
+            {
+                // the retry backoff elapsed - make the task lockable again
+                taskEvent
+                    .setState(TaskState.UPDATE_RETRIES)
+                    .setRetryBackoff(0L)
+                    .setRetryTime(Protocol.INSTANT_NULL_VALUE);
+            }
+            else
+            {
+                taskEvent.setState(TaskState.EXPIRE_LOCK);
+            }
 
             targetEventMetadata
                 .reset()
@@ -26,6 +26,7 @@ import org.agrona.DirectBuffer;
 
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.ProcessingLagPriority;
 import io.zeebe.broker.task.CreditsRequest;
 import io.zeebe.broker.task.TaskSubscriptionManager;
 import io.zeebe.broker.task.data.TaskEvent;
@@ -42,8 +43,8 @@ import io.zeebe.logstreams.processor.StreamProcessorContext;
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.clientapi.SubscriptionType;
-import io.zeebe.util.actor.Actor;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.time.ClockUtil;
 
 public class TaskInstanceStreamProcessor implements StreamProcessor
 {
@@ -80,6 +81,8 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
     protected long eventKey = 0;
     protected long eventPosition = 0;
 
+    protected final ProcessingLagPriority processingLagPriority = new ProcessingLagPriority();
+
     public TaskInstanceStreamProcessor(CommandResponseWriter responseWriter, SubscribedEventWriter subscribedEventWriter, TaskSubscriptionManager taskSubscriptionManager)
     {
         this.responseWriter = responseWriter;
@@ -92,7 +95,7 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
     @Override
     public int getPriority(long now)
     {
-        return Actor.PRIORITY_HIGH;
+        return processingLagPriority.getPriority();
     }
 
     @Override
@@ -107,6 +110,7 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
         final LogStream sourceStream = context.getSourceStream();
         logStreamTopicName = sourceStream.getTopicName();
         logStreamPartitionId = sourceStream.getPartitionId();
+        processingLagPriority.wrap(sourceStream);
 
         targetStream = context.getTargetStream();
     }
@@ -129,6 +133,7 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
 
         eventKey = event.getKey();
         eventPosition = event.getPosition();
+        processingLagPriority.onEvent(eventPosition);
 
         event.readMetadata(sourceEventMetadata);
 
@@ -375,6 +380,7 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
             if (taskIndex.getState() == STATE_LOCKED && BufferUtil.contentsEqual(taskIndex.getLockOwner(), taskEvent.getLockOwner()))
             {
                 taskEvent.setState(TaskState.FAILED);
+                setRetryTime();
                 isFailed = true;
             }
 
@@ -384,6 +390,19 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
             }
         }
 
+        protected void setRetryTime()
+        {
+            // the retry time is written once, so that reprocessing the failed event leads to the same retry
+            if (taskEvent.getRetries() > 0 && taskEvent.getRetryBackoff() > 0)
+            {
+                taskEvent.setRetryTime(ClockUtil.getCurrentTimeInMillis() + taskEvent.getRetryBackoff());
+            }
+            else
+            {
+                taskEvent.setRetryTime(Protocol.INSTANT_NULL_VALUE);
+            }
+        }
+
         @Override
         public boolean executeSideEffects()
         {
@@ -468,7 +487,14 @@ public class TaskInstanceStreamProcessor implements StreamProcessor
         @Override
         public boolean executeSideEffects()
         {
-            return writeResponse();
+            boolean success = true;
+
+            // the retries are also updated by the broker when the retry backoff of a failed task elapsed
+            if (sourceEventMetadata.hasRequestMetadata())
+            {
+                success = writeResponse();
+            }
+            return success;
         }
 
         @Override
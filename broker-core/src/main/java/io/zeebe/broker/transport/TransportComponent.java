@@ -19,6 +19,7 @@ package io.zeebe.broker.transport;
 
 import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
 import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.IO_ACTOR_SCHEDULER_SERVICE;
 import static io.zeebe.broker.transport.TransportServiceNames.CLIENT_API_MESSAGE_HANDLER;
 import static io.zeebe.broker.transport.TransportServiceNames.CLIENT_API_SERVER_NAME;
 import static io.zeebe.broker.transport.TransportServiceNames.MANAGEMENT_API_CLIENT_NAME;
@@ -41,6 +42,7 @@ import io.zeebe.broker.transport.cfg.SocketBindingCfg;
 import io.zeebe.broker.transport.cfg.TransportComponentCfg;
 import io.zeebe.broker.transport.clientapi.ClientApiMessageHandlerService;
 import io.zeebe.broker.transport.controlmessage.ControlMessageHandlerManagerService;
+import io.zeebe.broker.workflow.WorkflowQueueServiceNames;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.dispatcher.DispatcherBuilder;
 import io.zeebe.dispatcher.Dispatchers;
@@ -97,7 +99,7 @@ public class TransportComponent implements Component
             transportComponentCfg.clientApi.getReceiveBufferSize(transportComponentCfg.defaultReceiveBufferSize),
             DispatcherSubscriptionNames.TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION);
 
-        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService();
+        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService(transportComponentCfg.clientApi.maxUncommittedCommands);
         serviceContainer.createService(CLIENT_API_MESSAGE_HANDLER, messageHandlerService)
             .dependency(controlMessageBufferService, messageHandlerService.getControlMessageBufferInjector())
             .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, messageHandlerService.getLogStreamsGroupReference())
@@ -114,6 +116,7 @@ public class TransportComponent implements Component
             .dependency(TaskQueueServiceNames.TASK_QUEUE_SUBSCRIPTION_MANAGER, controlMessageHandlerManagerService.getTaskSubscriptionManagerInjector())
             .dependency(TopicSubscriptionServiceNames.TOPIC_SUBSCRIPTION_SERVICE, controlMessageHandlerManagerService.getTopicSubscriptionServiceInjector())
             .dependency(ClusterServiceNames.GOSSIP_SERVICE, controlMessageHandlerManagerService.getGossipInjector())
+            .dependency(WorkflowQueueServiceNames.WORKFLOW_QUEUE_MANAGER, controlMessageHandlerManagerService.getWorkflowQueueManagerInjector())
             .install();
 
         context.addRequiredStartAction(replactionApiFuture);
@@ -181,7 +184,7 @@ public class TransportComponent implements Component
             .dependency(sendBufferName, service.getSendBufferInjector())
             .dependency(requestHandlerDependency, service.getRequestHandlerInjector())
             .dependency(messageHandlerDependency, service.getMessageHandlerInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
+            .dependency(IO_ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
             .install();
 
     }
@@ -201,7 +204,7 @@ public class TransportComponent implements Component
         return serviceContainer.createService(TransportServiceNames.bufferingServerTransport(name), service)
             .dependency(receiveBufferName, service.getReceiveBufferInjector())
             .dependency(sendBufferName, service.getSendBufferInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
+            .dependency(IO_ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
             .install();
     }
 
@@ -213,7 +216,7 @@ public class TransportComponent implements Component
 
         final DispatcherService receiveBufferService = new DispatcherService(dispatcherBuilder);
         serviceContainer.createService(name, receiveBufferService)
-            .dependency(ACTOR_SCHEDULER_SERVICE, receiveBufferService.getActorSchedulerInjector())
+            .dependency(IO_ACTOR_SCHEDULER_SERVICE, receiveBufferService.getActorSchedulerInjector())
             .dependency(COUNTERS_MANAGER_SERVICE, receiveBufferService.getCountersManagerInjector())
             .install();
     }
@@ -252,7 +255,7 @@ public class TransportComponent implements Component
         return serviceContainer.createService(TransportServiceNames.clientTransport(name), service)
             .dependency(receiveBufferName, service.getReceiveBufferInjector())
             .dependency(sendBufferName, service.getSendBufferInjector())
-            .dependency(ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
+            .dependency(IO_ACTOR_SCHEDULER_SERVICE, service.getSchedulerInjector())
             .install();
     }
 }
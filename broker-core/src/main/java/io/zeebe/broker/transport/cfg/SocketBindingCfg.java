@@ -27,6 +27,20 @@ public class SocketBindingCfg extends ComponentConfiguration
     public int sendBufferSize = -1;
     public long controlMessageRequestTimeoutInMillis = 10_000;
 
+    /**
+     * The host and port under which the other brokers and the clients reach
+     * this endpoint, if it differs from the bound address, e.g. behind a NAT
+     * or a proxy. Defaults to the bound address.
+     */
+    public String advertisedHost;
+    public int advertisedPort = -1;
+
+    /**
+     * The maximum number of commands per partition which are written but not yet
+     * committed. Further commands are rejected. A value <= 0 disables the limit.
+     */
+    public int maxUncommittedCommands = 1024;
+
     public String getHost(String defaultValue)
     {
         return getOrDefault(host, defaultValue);
@@ -37,6 +51,16 @@ public class SocketBindingCfg extends ComponentConfiguration
         return port;
     }
 
+    public String getAdvertisedHost(String defaultValue)
+    {
+        return getOrDefault(advertisedHost, getHost(defaultValue));
+    }
+
+    public int getAdvertisedPort()
+    {
+        return advertisedPort > 0 ? advertisedPort : port;
+    }
+
     public int getReceiveBufferSize(int defaultValue)
     {
         return getBufferSize(this.receiveBufferSize, defaultValue);
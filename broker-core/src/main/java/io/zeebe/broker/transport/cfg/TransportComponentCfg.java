@@ -28,6 +28,12 @@ public class TransportComponentCfg extends ComponentConfiguration
     public int sendBufferSize = 16;
     public int defaultReceiveBufferSize = 16;
 
+    /**
+     * The zone (e.g. availability zone or rack) the broker is located in.
+     * Gossip prefers peers of the same zone.
+     */
+    public String zone = "";
+
     public SocketBindingCfg clientApi = new SocketBindingCfg();
     public SocketBindingCfg managementApi = new SocketBindingCfg();
     public SocketBindingCfg replicationApi = new SocketBindingCfg();
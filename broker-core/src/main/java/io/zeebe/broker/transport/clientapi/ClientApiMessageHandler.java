@@ -69,7 +69,7 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
     protected final ManyToOneConcurrentArrayQueue<Runnable> cmdQueue = new ManyToOneConcurrentArrayQueue<>(100);
     protected final Consumer<Runnable> cmdConsumer = (c) -> c.run();
 
-    protected final Map<DirectBuffer, Int2ObjectHashMap<LogStream>> logStreamsByTopic = new HashMap<>();
+    protected final Map<DirectBuffer, Int2ObjectHashMap<PartitionBackpressure>> partitionsByTopic = new HashMap<>();
     protected final BrokerEventMetadata eventMetadata = new BrokerEventMetadata();
     protected final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
 
@@ -79,9 +79,14 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
     protected final EnumMap<EventType, UnpackedObject> eventsByType = new EnumMap<>(EventType.class);
 
-    public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher)
+    protected final int maxUncommittedCommands;
+
+    protected ReadOnlyCommandHandler readOnlyCommandHandler;
+
+    public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher, final int maxUncommittedCommands)
     {
         this.controlMessageDispatcher = controlMessageDispatcher;
+        this.maxUncommittedCommands = maxUncommittedCommands;
 
         initEventTypeMap();
     }
@@ -115,9 +120,21 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
         final int partitionId = executeCommandRequestDecoder.partitionId();
         final long key = executeCommandRequestDecoder.key();
 
-        final LogStream logStream = getLogStream(topicName, partitionId);
+        final PartitionBackpressure partition = getPartition(topicName, partitionId);
+        final EventType eventType = executeCommandRequestDecoder.eventType();
+
+        if (isReadOnlyCommand(partition, eventType))
+        {
+            final int eventOffset = executeCommandRequestDecoder.limit() + ExecuteCommandRequestDecoder.commandHeaderLength();
+            final int eventLength = executeCommandRequestDecoder.commandLength();
+
+            if (readOnlyCommandHandler.onCommand(topicName, partitionId, eventType, eventMetadata, buffer, eventOffset, eventLength))
+            {
+                return true;
+            }
+        }
 
-        if (logStream == null)
+        if (partition == null)
         {
             return errorResponseWriter
                 .errorCode(ErrorCode.TOPIC_NOT_FOUND)
@@ -126,7 +143,6 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
 
-        final EventType eventType = executeCommandRequestDecoder.eventType();
         final UnpackedObject event = eventsByType.get(eventType);
 
         if (event == null)
@@ -157,6 +173,16 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                     .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
 
+        if (!partition.tryAdmit())
+        {
+            return errorResponseWriter
+                    .resourceExhausted("Cannot execute command. Partition '%d' of topic '%s' is exhausted; too many uncommitted commands.", partitionId, bufferAsString(topicName))
+                    .failedRequest(buffer, messageOffset, messageLength)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
+
+        final LogStream logStream = partition.getLogStream();
+
         eventMetadata.eventType(eventType);
         eventMetadata.raftTermId(logStream.getTerm());
 
@@ -176,7 +202,18 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 .value(buffer, eventOffset, eventLength)
                 .tryWrite();
 
-        return eventPosition >= 0;
+        if (eventPosition >= 0)
+        {
+            partition.onCommandWritten(eventPosition);
+            return true;
+        }
+        else
+        {
+            return errorResponseWriter
+                    .resourceExhausted("Cannot execute command. Log appender of partition '%d' of topic '%s' is exhausted.", partitionId, bufferAsString(topicName))
+                    .failedRequest(buffer, messageOffset, messageLength)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
     }
 
     private String concatErrorMessages(Throwable t)
@@ -196,19 +233,42 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
         return sb.toString();
     }
 
-    private LogStream getLogStream(final DirectBuffer topicName, final int partitionId)
+    /**
+     * Subscriptions can be opened on followers; any other command requires the partition leader.
+     * On the leader, acknowledgements of topic subscriptions are coalesced before they are written to the log.
+     */
+    private boolean isReadOnlyCommand(final PartitionBackpressure partition, final EventType eventType)
+    {
+        if (readOnlyCommandHandler == null)
+        {
+            return false;
+        }
+        else if (partition == null)
+        {
+            return eventType == EventType.SUBSCRIBER_EVENT || eventType == EventType.SUBSCRIPTION_EVENT;
+        }
+        else
+        {
+            return eventType == EventType.SUBSCRIPTION_EVENT;
+        }
+    }
+
+    private PartitionBackpressure getPartition(final DirectBuffer topicName, final int partitionId)
     {
-        final Int2ObjectHashMap<LogStream> logStreamPartitions = logStreamsByTopic.get(topicName);
+        final Int2ObjectHashMap<PartitionBackpressure> partitions = partitionsByTopic.get(topicName);
 
-        if (logStreamPartitions != null)
+        if (partitions != null)
         {
-            return logStreamPartitions.get(partitionId);
+            return partitions.get(partitionId);
         }
 
         return null;
     }
 
     private boolean handleControlMessageRequest(
+            final ServerOutput output,
+            final RemoteAddress requestAddress,
+            final long requestId,
             final BrokerEventMetadata eventMetadata,
             final DirectBuffer buffer,
             final int messageOffset,
@@ -241,6 +301,14 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
             isHandled = true;
         }
+        else
+        {
+            // the control message handlers can't keep up; reject immediately instead of letting the client time out
+            isHandled = errorResponseWriter
+                    .resourceExhausted("Cannot handle control message. Request buffer is exhausted.")
+                    .failedRequest(buffer, messageOffset, messageLength)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
 
         return isHandled;
     }
@@ -248,9 +316,9 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
     public void addStream(final LogStream logStream)
     {
         cmdQueue.add(() ->
-            logStreamsByTopic
+            partitionsByTopic
                 .computeIfAbsent(logStream.getTopicName(), topicName -> new Int2ObjectHashMap<>())
-                .put(logStream.getPartitionId(), logStream)
+                .put(logStream.getPartitionId(), new PartitionBackpressure(logStream, maxUncommittedCommands))
         );
     }
 
@@ -261,20 +329,25 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
             final DirectBuffer topicName = logStream.getTopicName();
             final int partitionId = logStream.getPartitionId();
 
-            final Int2ObjectHashMap<LogStream> logStreamPartitions = logStreamsByTopic.get(topicName);
+            final Int2ObjectHashMap<PartitionBackpressure> partitions = partitionsByTopic.get(topicName);
 
-            if (logStreamPartitions != null)
+            if (partitions != null)
             {
-                logStreamPartitions.remove(partitionId);
+                partitions.remove(partitionId);
 
-                if (logStreamPartitions.isEmpty())
+                if (partitions.isEmpty())
                 {
-                    logStreamsByTopic.remove(topicName);
+                    partitionsByTopic.remove(topicName);
                 }
             }
         });
     }
 
+    public void setReadOnlyCommandHandler(final ReadOnlyCommandHandler readOnlyCommandHandler)
+    {
+        cmdQueue.add(() -> this.readOnlyCommandHandler = readOnlyCommandHandler);
+    }
+
     @Override
     public boolean onRequest(ServerOutput output, RemoteAddress remoteAddress, DirectBuffer buffer, int offset,
             int length, long requestId)
@@ -317,7 +390,7 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 break;
 
             case ControlMessageRequestDecoder.TEMPLATE_ID:
-                isHandled = handleControlMessageRequest(eventMetadata, buffer, offset, length);
+                isHandled = handleControlMessageRequest(output, remoteAddress, requestId, eventMetadata, buffer, offset, length);
                 break;
 
             default:
@@ -28,6 +28,7 @@ import io.zeebe.servicecontainer.ServiceStopContext;
 public class ClientApiMessageHandlerService implements Service<ClientApiMessageHandler>
 {
     private final Injector<Dispatcher> controlMessageBufferInjector = new Injector<>();
+    protected final int maxUncommittedCommands;
     protected ClientApiMessageHandler service;
 
     protected final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
@@ -35,11 +36,16 @@ public class ClientApiMessageHandlerService implements Service<ClientApiMessageH
         .onRemove((name, stream) -> service.removeStream(stream))
         .build();
 
+    public ClientApiMessageHandlerService(int maxUncommittedCommands)
+    {
+        this.maxUncommittedCommands = maxUncommittedCommands;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
         final Dispatcher controlMessageBuffer = controlMessageBufferInjector.getValue();
-        service = new ClientApiMessageHandler(controlMessageBuffer);
+        service = new ClientApiMessageHandler(controlMessageBuffer, maxUncommittedCommands);
     }
 
     @Override
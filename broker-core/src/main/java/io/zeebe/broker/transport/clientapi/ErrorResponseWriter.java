@@ -40,6 +40,13 @@ public class ErrorResponseWriter implements BufferWriter
 {
     public static final Logger LOG = Loggers.TRANSPORT_LOGGER;
 
+    /**
+     * Prefix of the error message if a request is rejected because the broker
+     * has no resources left. The request can be retried later. The prefix
+     * distinguishes it from other errors with the same error code.
+     */
+    public static final String RESOURCE_EXHAUSTED_MESSAGE_PREFIX = "Resource exhausted: ";
+
     protected final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
     protected final ErrorResponseEncoder errorResponseEncoder = new ErrorResponseEncoder();
 
@@ -79,6 +86,17 @@ public class ErrorResponseWriter implements BufferWriter
         return this;
     }
 
+    /**
+     * Rejects the request because the broker has no resources left, e.g. too
+     * many uncommitted commands. The client can retry the request later.
+     */
+    public ErrorResponseWriter resourceExhausted(String errorMessage, Object... args)
+    {
+        this.errorCode = ErrorCode.REQUEST_WRITE_FAILURE;
+        this.errorMessage = getBytes(RESOURCE_EXHAUSTED_MESSAGE_PREFIX + format(errorMessage, args));
+        return this;
+    }
+
     public ErrorResponseWriter failedRequest(DirectBuffer buffer, int offset, int length)
     {
         failedRequestBuffer.wrap(buffer, offset, length);
@@ -0,0 +1,76 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.util.collection.LongRingBuffer;
+
+/**
+ * Admission control for the commands of one partition. Keeps track of the
+ * positions of commands which are written to the log but not yet committed.
+ * If the number of uncommitted commands reaches the limit then new commands
+ * are rejected until the log appender and the replication caught up.
+ */
+public class PartitionBackpressure
+{
+    protected final LogStream logStream;
+    protected final LongRingBuffer uncommittedCommandPositions;
+
+    public PartitionBackpressure(LogStream logStream, int maxUncommittedCommands)
+    {
+        this.logStream = logStream;
+
+        if (maxUncommittedCommands > 0)
+        {
+            this.uncommittedCommandPositions = new LongRingBuffer(maxUncommittedCommands);
+        }
+        else
+        {
+            this.uncommittedCommandPositions = null;
+        }
+    }
+
+    /**
+     * @return true if a new command can be written to the log
+     */
+    public boolean tryAdmit()
+    {
+        if (uncommittedCommandPositions != null)
+        {
+            uncommittedCommandPositions.consumeAscendingUntilInclusive(logStream.getCommitPosition());
+            return !uncommittedCommandPositions.isSaturated();
+        }
+        else
+        {
+            return true;
+        }
+    }
+
+    public void onCommandWritten(long position)
+    {
+        if (uncommittedCommandPositions != null)
+        {
+            uncommittedCommandPositions.addElementToHead(position);
+        }
+    }
+
+    public LogStream getLogStream()
+    {
+        return logStream;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+
+/**
+ * Handles commands which can be served without writing them to the log right away
+ * (e.g. read-only subscriptions on a follower or acknowledgements of topic subscriptions).
+ */
+@FunctionalInterface
+public interface ReadOnlyCommandHandler
+{
+    /**
+     * Invoked on the transport thread. The command must be copied if it is handled asynchronously.
+     *
+     * @return true if the command is accepted; in this case, the handler is responsible for
+     *         writing the response
+     */
+    boolean onCommand(
+            DirectBuffer topicName,
+            int partitionId,
+            EventType eventType,
+            BrokerEventMetadata metadata,
+            DirectBuffer buffer,
+            int offset,
+            int length);
+}
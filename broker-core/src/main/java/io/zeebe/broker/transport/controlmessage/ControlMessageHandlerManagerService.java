@@ -25,6 +25,9 @@ import io.zeebe.broker.clustering.handler.RequestTopologyHandler;
 import io.zeebe.broker.event.handler.RemoveTopicSubscriptionHandler;
 import io.zeebe.broker.event.processor.TopicSubscriptionService;
 import io.zeebe.broker.task.TaskSubscriptionManager;
+import io.zeebe.broker.workflow.WorkflowQueueManager;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+import io.zeebe.broker.workflow.handler.QueryWorkflowInstancesHandler;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
@@ -42,6 +45,7 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
     protected final Injector<TaskSubscriptionManager> taskSubscriptionManagerInjector = new Injector<>();
     protected final Injector<TopicSubscriptionService> topicSubscriptionServiceInjector = new Injector<>();
     protected final Injector<Gossip> gossipInjector = new Injector<>();
+    protected final Injector<WorkflowQueueManager> workflowQueueManagerInjector = new Injector<>();
 
     protected final long controlMessageRequestTimeoutInMillis;
 
@@ -63,6 +67,7 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
         final TaskSubscriptionManager taskSubscriptionManager = taskSubscriptionManagerInjector.getValue();
         final TopicSubscriptionService topicSubscriptionService = topicSubscriptionServiceInjector.getValue();
         final Gossip gossip = gossipInjector.getValue();
+        final WorkflowQueueManager workflowQueueManager = workflowQueueManagerInjector.getValue();
 
         final ServerOutput output = transport.getOutput();
 
@@ -71,7 +76,8 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
             new IncreaseTaskSubscriptionCreditsHandler(output, taskSubscriptionManager),
             new RemoveTaskSubscriptionHandler(output, taskSubscriptionManager),
             new RemoveTopicSubscriptionHandler(output, topicSubscriptionService),
-            new RequestTopologyHandler(output, gossip)
+            new QueryDispatchingHandler(output, new RequestTopologyHandler(output, gossip))
+                .query(WorkflowInstanceQueryRequest.QUERY_TYPE, new QueryWorkflowInstancesHandler(output, workflowQueueManager))
         );
 
         service = new ControlMessageHandlerManager(
@@ -125,4 +131,9 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
     {
         return gossipInjector;
     }
+
+    public Injector<WorkflowQueueManager> getWorkflowQueueManagerInjector()
+    {
+        return workflowQueueManagerInjector;
+    }
 }
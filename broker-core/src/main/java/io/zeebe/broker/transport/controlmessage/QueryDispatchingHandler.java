@@ -0,0 +1,116 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.StringProperty;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.util.buffer.BufferUtil;
+
+/**
+ * Handles a control message type which is shared by several requests. The
+ * requests are distinguished by their <code>query</code> property. A request
+ * without query is handled by the default handler, a request with a query by
+ * the handler which is registered for its name. A request with an unknown
+ * query is rejected.
+ */
+public class QueryDispatchingHandler implements ControlMessageHandler
+{
+    protected final ControlMessageType messageType;
+    protected final ControlMessageHandler defaultHandler;
+    protected final Map<DirectBuffer, ControlMessageHandler> queryHandlers = new HashMap<>();
+
+    protected final ErrorResponseWriter errorResponseWriter;
+
+    protected final Query query = new Query();
+
+    public QueryDispatchingHandler(ServerOutput output, ControlMessageHandler defaultHandler)
+    {
+        this.messageType = defaultHandler.getMessageType();
+        this.defaultHandler = defaultHandler;
+        this.errorResponseWriter = new ErrorResponseWriter(output);
+    }
+
+    public QueryDispatchingHandler query(DirectBuffer queryName, ControlMessageHandler handler)
+    {
+        queryHandlers.put(BufferUtil.cloneBuffer(queryName), handler);
+        return this;
+    }
+
+    @Override
+    public ControlMessageType getMessageType()
+    {
+        return messageType;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(DirectBuffer buffer, BrokerEventMetadata metadata)
+    {
+        query.reset();
+        query.wrap(buffer);
+
+        final DirectBuffer queryName = query.getQuery();
+
+        if (queryName.capacity() == 0)
+        {
+            return defaultHandler.handle(buffer, metadata);
+        }
+
+        final ControlMessageHandler handler = queryHandlers.get(queryName);
+        if (handler != null)
+        {
+            return handler.handle(buffer, metadata);
+        }
+        else
+        {
+            final boolean success = errorResponseWriter
+                .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
+                .errorMessage("Cannot handle control message with type '%s' and query '%s'.", messageType.name(), BufferUtil.bufferAsString(queryName))
+                .failedRequest(buffer, 0, buffer.capacity())
+                .tryWriteResponseOrLogFailure(metadata.getRequestStreamId(), metadata.getRequestId());
+            // TODO: proper backpressure
+
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    protected static class Query extends UnpackedObject
+    {
+        protected StringProperty queryProp = new StringProperty("query", "");
+
+        Query()
+        {
+            this.declareProperty(queryProp);
+        }
+
+        public DirectBuffer getQuery()
+        {
+            return queryProp.getValue();
+        }
+    }
+}
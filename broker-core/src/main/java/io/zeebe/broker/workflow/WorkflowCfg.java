@@ -24,4 +24,17 @@ public class WorkflowCfg extends ComponentConfiguration
     public int deploymentCacheSize = 32;
 
     public int payloadCacheSize = 64;
+
+    /**
+     * The number of threads which parse and validate the BPMN resources of
+     * deployments.
+     */
+    public int deploymentParserThreads = 1;
+
+    /**
+     * The maximum number of workflow instances which are canceled by one
+     * processing step of a bulk cancellation. Other events are processed
+     * between the steps. Must be greater than 0.
+     */
+    public int cancelBatchSize = 32;
 }
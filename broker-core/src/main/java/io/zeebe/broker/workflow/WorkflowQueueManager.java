@@ -17,9 +17,15 @@
  */
 package io.zeebe.broker.workflow;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryResult;
 import io.zeebe.logstreams.log.LogStream;
 
 public interface WorkflowQueueManager
 {
     void startWorkflowQueue(LogStream logName);
+
+    CompletableFuture<Void> queryWorkflowInstances(WorkflowInstanceQueryRequest request, WorkflowInstanceQueryResult result);
 }
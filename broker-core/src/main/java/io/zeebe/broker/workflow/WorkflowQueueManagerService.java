@@ -17,21 +17,41 @@
  */
 package io.zeebe.broker.workflow;
 
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.REPLICABLE_SNAPSHOTS_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.SNAPSHOT_STORAGE_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.logStreamServiceName;
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.INCIDENT_PROCESSOR_ID;
-import static io.zeebe.broker.system.SystemServiceNames.ACTOR_SCHEDULER_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.ACTOR_GROUPS_SERVICE;
+import static io.zeebe.broker.system.SystemServiceNames.COUNTERS_MANAGER_SERVICE;
 import static io.zeebe.broker.workflow.WorkflowQueueServiceNames.deploymentStreamProcessorServiceName;
 import static io.zeebe.broker.workflow.WorkflowQueueServiceNames.incidentStreamProcessorServiceName;
 import static io.zeebe.broker.workflow.WorkflowQueueServiceNames.workflowInstanceStreamProcessorServiceName;
 
+import static io.zeebe.util.EnsureUtil.ensureGreaterThan;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.zeebe.broker.incident.IncidentStreamProcessorErrorHandler;
 import io.zeebe.broker.incident.processor.IncidentStreamProcessor;
+import io.zeebe.broker.logstreams.cfg.SnapshotStorageCfg;
 import io.zeebe.broker.logstreams.processor.StreamProcessorIds;
 import io.zeebe.broker.logstreams.processor.StreamProcessorService;
 import io.zeebe.broker.system.ConfigurationManager;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryResult;
+import io.zeebe.broker.workflow.map.ParsedWorkflowRegistry;
+import io.zeebe.broker.workflow.processor.BpmnDeploymentParser;
 import io.zeebe.broker.workflow.processor.DeploymentStreamProcessor;
+import io.zeebe.broker.workflow.processor.WorkflowInstanceQueryPage;
+import io.zeebe.broker.workflow.processor.WorkflowInstanceQueryReader;
 import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.processor.StreamProcessorController;
@@ -47,6 +67,8 @@ import io.zeebe.util.EnsureUtil;
 import io.zeebe.util.actor.Actor;
 import io.zeebe.util.actor.ActorReference;
 import io.zeebe.util.actor.ActorScheduler;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
 
 public class WorkflowQueueManagerService implements Service<WorkflowQueueManager>, WorkflowQueueManager, Actor
 {
@@ -57,17 +79,27 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
 
     protected final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
             .onAdd((name, stream) -> addStream(stream, name))
+            .onRemove((name, stream) -> removeStream(stream))
             .build();
 
+    protected final Map<DirectBuffer, Int2ObjectHashMap<PartitionQueryContext>> queryContexts = new HashMap<>();
+
     protected ServiceStartContext serviceContext;
     protected DeferredCommandContext asyncContext;
     protected WorkflowCfg workflowCfg;
+    protected SnapshotStorageCfg snapshotCfg;
 
     protected ActorReference actorRef;
 
+    protected ExecutorService deploymentParserExecutor;
+    protected BpmnDeploymentParser deploymentParser;
+
     public WorkflowQueueManagerService(final ConfigurationManager configurationManager)
     {
         workflowCfg = configurationManager.readEntry("workflow", WorkflowCfg.class);
+        ensureGreaterThan("cancel batch size", workflowCfg.cancelBatchSize, 0);
+
+        snapshotCfg = configurationManager.readEntry("snapshot", SnapshotStorageCfg.class);
     }
 
     @Override
@@ -75,12 +107,14 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
     {
         EnsureUtil.ensureNotNull("logStream", logStream);
 
-        installDeploymentStreamProcessor(logStream.getLogName());
-        installWorkflowStreamProcessor(logStream);
+        final ParsedWorkflowRegistry parsedWorkflowRegistry = new ParsedWorkflowRegistry(workflowCfg.deploymentCacheSize);
+
+        installDeploymentStreamProcessor(logStream.getLogName(), parsedWorkflowRegistry);
+        installWorkflowStreamProcessor(logStream, parsedWorkflowRegistry);
         installIncidentStreamProcessor(logStream);
     }
 
-    private void installDeploymentStreamProcessor(final String logName)
+    private void installDeploymentStreamProcessor(final String logName, final ParsedWorkflowRegistry parsedWorkflowRegistry)
     {
         final ServiceName<StreamProcessorController> streamProcessorServiceName = deploymentStreamProcessorServiceName(logName);
         final String streamProcessorName = streamProcessorServiceName.getName();
@@ -89,7 +123,7 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
         final CommandResponseWriter responseWriter = new CommandResponseWriter(transport.getOutput());
         final ServiceName<LogStream> logStreamServiceName = logStreamServiceName(logName);
 
-        final DeploymentStreamProcessor deploymentStreamProcessor = new DeploymentStreamProcessor(responseWriter);
+        final DeploymentStreamProcessor deploymentStreamProcessor = new DeploymentStreamProcessor(responseWriter, deploymentParser, parsedWorkflowRegistry);
         final StreamProcessorService deploymentStreamProcessorService = new StreamProcessorService(
                 streamProcessorName,
                 StreamProcessorIds.DEPLOYMENT_PROCESSOR_ID,
@@ -100,11 +134,13 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
                 .dependency(logStreamServiceName, deploymentStreamProcessorService.getSourceStreamInjector())
                 .dependency(logStreamServiceName, deploymentStreamProcessorService.getTargetStreamInjector())
                 .dependency(SNAPSHOT_STORAGE_SERVICE, deploymentStreamProcessorService.getSnapshotStorageInjector())
-                .dependency(ACTOR_SCHEDULER_SERVICE, deploymentStreamProcessorService.getActorSchedulerInjector())
+                .dependency(ACTOR_GROUPS_SERVICE, deploymentStreamProcessorService.getActorGroupsInjector())
+                .dependency(REPLICABLE_SNAPSHOTS_SERVICE, deploymentStreamProcessorService.getReplicableSnapshotsInjector())
+                .dependency(COUNTERS_MANAGER_SERVICE, deploymentStreamProcessorService.getCountersInjector())
                 .install();
     }
 
-    private void installWorkflowStreamProcessor(final LogStream logStream)
+    private void installWorkflowStreamProcessor(final LogStream logStream, final ParsedWorkflowRegistry parsedWorkflowRegistry)
     {
         final ServiceName<StreamProcessorController> streamProcessorServiceName = workflowInstanceStreamProcessorServiceName(logStream.getLogName());
         final String streamProcessorName = streamProcessorServiceName.getName();
@@ -117,21 +153,30 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
 
         final WorkflowInstanceStreamProcessor workflowInstanceStreamProcessor = new WorkflowInstanceStreamProcessor(
                 responseWriter,
+                parsedWorkflowRegistry,
                 workflowCfg.deploymentCacheSize,
-                workflowCfg.payloadCacheSize);
+                workflowCfg.payloadCacheSize,
+                workflowCfg.cancelBatchSize);
+
+        queryContexts
+            .computeIfAbsent(cloneBuffer(logStream.getTopicName()), k -> new Int2ObjectHashMap<>())
+            .put(logStream.getPartitionId(), new PartitionQueryContext(workflowInstanceStreamProcessor, new WorkflowInstanceQueryReader(logStream)));
 
         final StreamProcessorService workflowStreamProcessorService = new StreamProcessorService(
                 streamProcessorName,
                 StreamProcessorIds.WORKFLOW_INSTANCE_PROCESSOR_ID,
                 workflowInstanceStreamProcessor)
                 .eventFilter(WorkflowInstanceStreamProcessor.eventFilter())
-                .errorHandler(errorHandler);
+                .errorHandler(errorHandler)
+                .incrementalSnapshots(snapshotCfg);
 
         serviceContext.createService(streamProcessorServiceName, workflowStreamProcessorService)
                 .dependency(logStreamServiceName, workflowStreamProcessorService.getSourceStreamInjector())
                 .dependency(logStreamServiceName, workflowStreamProcessorService.getTargetStreamInjector())
                 .dependency(SNAPSHOT_STORAGE_SERVICE, workflowStreamProcessorService.getSnapshotStorageInjector())
-                .dependency(ACTOR_SCHEDULER_SERVICE, workflowStreamProcessorService.getActorSchedulerInjector())
+                .dependency(ACTOR_GROUPS_SERVICE, workflowStreamProcessorService.getActorGroupsInjector())
+                .dependency(REPLICABLE_SNAPSHOTS_SERVICE, workflowStreamProcessorService.getReplicableSnapshotsInjector())
+                .dependency(COUNTERS_MANAGER_SERVICE, workflowStreamProcessorService.getCountersInjector())
                 .install();
     }
 
@@ -148,13 +193,16 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
                 streamProcessorName,
                 INCIDENT_PROCESSOR_ID,
                 incidentStreamProcessor)
-                .eventFilter(IncidentStreamProcessor.eventFilter());
+                .eventFilter(IncidentStreamProcessor.eventFilter())
+                .incrementalSnapshots(snapshotCfg);
 
         serviceContext.createService(streamProcessorServiceName, incidentStreamProcessorService)
                 .dependency(logStreamServiceName, incidentStreamProcessorService.getSourceStreamInjector())
                 .dependency(logStreamServiceName, incidentStreamProcessorService.getTargetStreamInjector())
                 .dependency(SNAPSHOT_STORAGE_SERVICE, incidentStreamProcessorService.getSnapshotStorageInjector())
-                .dependency(ACTOR_SCHEDULER_SERVICE, incidentStreamProcessorService.getActorSchedulerInjector())
+                .dependency(ACTOR_GROUPS_SERVICE, incidentStreamProcessorService.getActorGroupsInjector())
+                .dependency(REPLICABLE_SNAPSHOTS_SERVICE, incidentStreamProcessorService.getReplicableSnapshotsInjector())
+                .dependency(COUNTERS_MANAGER_SERVICE, incidentStreamProcessorService.getCountersInjector())
                 .install();
     }
 
@@ -164,6 +212,15 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
         this.serviceContext = serviceContext;
         this.asyncContext = new DeferredCommandContext();
 
+        final AtomicInteger threadCount = new AtomicInteger();
+        deploymentParserExecutor = Executors.newFixedThreadPool(workflowCfg.deploymentParserThreads, r ->
+        {
+            final Thread thread = new Thread(r, "deployment-parser-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        deploymentParser = new BpmnDeploymentParser(deploymentParserExecutor);
+
         final ActorScheduler actorScheduler = actorSchedulerInjector.getValue();
         actorRef = actorScheduler.schedule(this);
     }
@@ -174,6 +231,7 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
         ctx.run(() ->
         {
             actorRef.close();
+            deploymentParserExecutor.shutdownNow();
         });
     }
 
@@ -206,6 +264,83 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
         });
     }
 
+    public void removeStream(LogStream logStream)
+    {
+        asyncContext.runAsync((r) ->
+        {
+            final Int2ObjectHashMap<PartitionQueryContext> partitions = queryContexts.get(logStream.getTopicName());
+
+            if (partitions != null)
+            {
+                final PartitionQueryContext queryContext = partitions.remove(logStream.getPartitionId());
+                if (queryContext != null)
+                {
+                    queryContext.reader.close();
+                }
+
+                if (partitions.isEmpty())
+                {
+                    queryContexts.remove(logStream.getTopicName());
+                }
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> queryWorkflowInstances(WorkflowInstanceQueryRequest request, WorkflowInstanceQueryResult result)
+    {
+        return asyncContext.runAsync(future ->
+        {
+            final DirectBuffer topicName = request.getTopicName();
+            final int partitionId = request.getPartitionId();
+
+            final PartitionQueryContext queryContext = getQueryContext(topicName, partitionId);
+
+            if (queryContext != null)
+            {
+                final WorkflowInstanceQueryPage page = new WorkflowInstanceQueryPage(request.getLimit());
+
+                // collect the instances on the stream processor thread but read the events on this thread
+                queryContext.streamProcessor
+                    .queryWorkflowInstances(request, page)
+                    .handle((r, t) -> asyncContext.runAsync(() ->
+                    {
+                        if (t != null)
+                        {
+                            future.completeExceptionally(t);
+                        }
+                        else if (getQueryContext(topicName, partitionId) != queryContext)
+                        {
+                            future.completeExceptionally(new RuntimeException("Partition was removed while querying workflow instances."));
+                        }
+                        else
+                        {
+                            try
+                            {
+                                queryContext.reader.read(page, result);
+                                future.complete(null);
+                            }
+                            catch (Exception e)
+                            {
+                                future.completeExceptionally(e);
+                            }
+                        }
+                    }));
+            }
+            else
+            {
+                final String errorMessage = String.format("Topic with name '%s' and partition id '%d' not found.", bufferAsString(topicName), partitionId);
+                future.completeExceptionally(new RuntimeException(errorMessage));
+            }
+        });
+    }
+
+    protected PartitionQueryContext getQueryContext(DirectBuffer topicName, int partitionId)
+    {
+        final Int2ObjectHashMap<PartitionQueryContext> partitions = queryContexts.get(topicName);
+        return partitions != null ? partitions.get(partitionId) : null;
+    }
+
     @Override
     public int getPriority(long now)
     {
@@ -223,4 +358,16 @@ public class WorkflowQueueManagerService implements Service<WorkflowQueueManager
     {
         return NAME;
     }
+
+    protected static class PartitionQueryContext
+    {
+        protected final WorkflowInstanceStreamProcessor streamProcessor;
+        protected final WorkflowInstanceQueryReader reader;
+
+        PartitionQueryContext(WorkflowInstanceStreamProcessor streamProcessor, WorkflowInstanceQueryReader reader)
+        {
+            this.streamProcessor = streamProcessor;
+            this.reader = reader;
+        }
+    }
 }
@@ -34,6 +34,7 @@ public class WorkflowInstanceEvent extends UnpackedObject
     public static final String PROP_WORKFLOW_VERSION = "version";
     public static final String PROP_WORKFLOW_KEY = "workflowKey";
     public static final String PROP_WORKFLOW_PAYLOAD = "payload";
+    public static final String PROP_CANCELED_INSTANCES = "canceledInstances";
 
     private final EnumProperty<WorkflowInstanceState> stateProp = new EnumProperty<>(PROP_STATE, WorkflowInstanceState.class);
 
@@ -46,6 +47,8 @@ public class WorkflowInstanceEvent extends UnpackedObject
 
     private final BinaryProperty payloadProp = new BinaryProperty(PROP_WORKFLOW_PAYLOAD, NO_PAYLOAD);
 
+    private final IntegerProperty canceledInstancesProp = new IntegerProperty(PROP_CANCELED_INSTANCES, 0);
+
     public WorkflowInstanceEvent()
     {
         this
@@ -55,7 +58,8 @@ public class WorkflowInstanceEvent extends UnpackedObject
             .declareProperty(workflowKeyProp)
             .declareProperty(workflowInstanceKeyProp)
             .declareProperty(activityIdProp)
-            .declareProperty(payloadProp);
+            .declareProperty(payloadProp)
+            .declareProperty(canceledInstancesProp);
     }
 
     public WorkflowInstanceState getState()
@@ -158,4 +162,19 @@ public class WorkflowInstanceEvent extends UnpackedObject
         return this;
     }
 
+    /**
+     * @return the number of workflow instances which are canceled so far by
+     *         a bulk cancellation
+     */
+    public int getCanceledInstances()
+    {
+        return canceledInstancesProp.getValue();
+    }
+
+    public WorkflowInstanceEvent setCanceledInstances(int canceledInstances)
+    {
+        canceledInstancesProp.setValue(canceledInstances);
+        return this;
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.data;
+
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.NO_PAYLOAD;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_ACTIVITY_ID;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_BPMN_PROCESS_ID;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_INSTANCE_KEY;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_KEY;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_PAYLOAD;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_VERSION;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.*;
+import org.agrona.DirectBuffer;
+
+public class WorkflowInstanceInfo extends UnpackedObject
+{
+    private final LongProperty workflowInstanceKeyProp = new LongProperty(PROP_WORKFLOW_INSTANCE_KEY, -1L);
+    private final LongProperty workflowKeyProp = new LongProperty(PROP_WORKFLOW_KEY, -1L);
+    private final StringProperty bpmnProcessIdProp = new StringProperty(PROP_WORKFLOW_BPMN_PROCESS_ID, "");
+    private final IntegerProperty versionProp = new IntegerProperty(PROP_WORKFLOW_VERSION, -1);
+
+    private final StringProperty activityIdProp = new StringProperty(PROP_WORKFLOW_ACTIVITY_ID, "");
+    private final LongProperty activityInstanceKeyProp = new LongProperty("activityInstanceKey", -1L);
+    private final IntegerProperty activeTokenCountProp = new IntegerProperty("activeTokenCount", 0);
+
+    private final BinaryProperty payloadProp = new BinaryProperty(PROP_WORKFLOW_PAYLOAD, NO_PAYLOAD);
+
+    public WorkflowInstanceInfo()
+    {
+        this.declareProperty(workflowInstanceKeyProp)
+            .declareProperty(workflowKeyProp)
+            .declareProperty(bpmnProcessIdProp)
+            .declareProperty(versionProp)
+            .declareProperty(activityIdProp)
+            .declareProperty(activityInstanceKeyProp)
+            .declareProperty(activeTokenCountProp)
+            .declareProperty(payloadProp);
+    }
+
+    public WorkflowInstanceInfo setWorkflowInstanceKey(long workflowInstanceKey)
+    {
+        this.workflowInstanceKeyProp.setValue(workflowInstanceKey);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setWorkflowKey(long workflowKey)
+    {
+        this.workflowKeyProp.setValue(workflowKey);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setBpmnProcessId(DirectBuffer bpmnProcessId)
+    {
+        this.bpmnProcessIdProp.setValue(bpmnProcessId);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setVersion(int version)
+    {
+        this.versionProp.setValue(version);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setActivityId(DirectBuffer activityId)
+    {
+        this.activityIdProp.setValue(activityId);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setActivityInstanceKey(long activityInstanceKey)
+    {
+        this.activityInstanceKeyProp.setValue(activityInstanceKey);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setActiveTokenCount(int activeTokenCount)
+    {
+        this.activeTokenCountProp.setValue(activeTokenCount);
+        return this;
+    }
+
+    public WorkflowInstanceInfo setPayload(DirectBuffer payload)
+    {
+        this.payloadProp.setValue(payload, 0, payload.capacity());
+        return this;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.data;
+
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_BPMN_PROCESS_ID;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_INSTANCE_KEY;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_VERSION;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.*;
+import io.zeebe.util.buffer.BufferUtil;
+import org.agrona.DirectBuffer;
+
+/**
+ * Request of a workflow instance query. Either a single workflow instance is
+ * requested by its key, or the active instances of a workflow are listed by
+ * the bpmn process id (and optional version). A list is paged by the cursor,
+ * which is the key of the next instance to return.
+ * <p>
+ * The request is sent as topology request control message with the query
+ * property set to {@link #QUERY_TYPE}.
+ */
+public class WorkflowInstanceQueryRequest extends UnpackedObject
+{
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public static final DirectBuffer QUERY_TYPE = BufferUtil.wrapString("workflowInstances");
+
+    protected StringProperty queryProp = new StringProperty("query", "");
+
+    protected StringProperty topicNameProp = new StringProperty("topicName");
+    protected IntegerProperty partitionIdProp = new IntegerProperty("partitionId");
+
+    protected LongProperty workflowInstanceKeyProp = new LongProperty(PROP_WORKFLOW_INSTANCE_KEY, -1L);
+
+    protected StringProperty bpmnProcessIdProp = new StringProperty(PROP_WORKFLOW_BPMN_PROCESS_ID, "");
+    protected IntegerProperty versionProp = new IntegerProperty(PROP_WORKFLOW_VERSION, -1);
+
+    protected LongProperty cursorProp = new LongProperty("cursor", -1L);
+    protected IntegerProperty limitProp = new IntegerProperty("limit", DEFAULT_LIMIT);
+
+    public WorkflowInstanceQueryRequest()
+    {
+        this.declareProperty(queryProp)
+            .declareProperty(topicNameProp)
+            .declareProperty(partitionIdProp)
+            .declareProperty(workflowInstanceKeyProp)
+            .declareProperty(bpmnProcessIdProp)
+            .declareProperty(versionProp)
+            .declareProperty(cursorProp)
+            .declareProperty(limitProp);
+    }
+
+    public DirectBuffer getTopicName()
+    {
+        return topicNameProp.getValue();
+    }
+
+    public int getPartitionId()
+    {
+        return partitionIdProp.getValue();
+    }
+
+    public long getWorkflowInstanceKey()
+    {
+        return workflowInstanceKeyProp.getValue();
+    }
+
+    public DirectBuffer getBpmnProcessId()
+    {
+        return bpmnProcessIdProp.getValue();
+    }
+
+    public int getVersion()
+    {
+        return versionProp.getValue();
+    }
+
+    public long getCursor()
+    {
+        return cursorProp.getValue();
+    }
+
+    public int getLimit()
+    {
+        return limitProp.getValue();
+    }
+}
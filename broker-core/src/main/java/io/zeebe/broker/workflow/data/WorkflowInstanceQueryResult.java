@@ -0,0 +1,62 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.data;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.ArrayProperty;
+import io.zeebe.msgpack.property.LongProperty;
+import io.zeebe.msgpack.spec.MsgPackHelper;
+import io.zeebe.msgpack.value.ArrayValue;
+import io.zeebe.msgpack.value.ArrayValueIterator;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+public class WorkflowInstanceQueryResult extends UnpackedObject
+{
+    protected static final DirectBuffer EMPTY_ARRAY = new UnsafeBuffer(MsgPackHelper.EMPTY_ARRAY);
+
+    private final ArrayProperty<WorkflowInstanceInfo> workflowInstancesProp = new ArrayProperty<>(
+            "workflowInstances",
+            new ArrayValue<>(),
+            new ArrayValue<>(EMPTY_ARRAY, 0, EMPTY_ARRAY.capacity()),
+            new WorkflowInstanceInfo());
+
+    private final LongProperty nextCursorProp = new LongProperty("nextCursor", -1L);
+
+    public WorkflowInstanceQueryResult()
+    {
+        this.declareProperty(workflowInstancesProp)
+            .declareProperty(nextCursorProp);
+    }
+
+    public ArrayValueIterator<WorkflowInstanceInfo> workflowInstances()
+    {
+        return workflowInstancesProp;
+    }
+
+    public long getNextCursor()
+    {
+        return nextCursorProp.getValue();
+    }
+
+    public WorkflowInstanceQueryResult setNextCursor(long nextCursor)
+    {
+        this.nextCursorProp.setValue(nextCursor);
+        return this;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.handler;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.broker.transport.controlmessage.ControlMessageHandler;
+import io.zeebe.broker.transport.controlmessage.ControlMessageResponseWriter;
+import io.zeebe.broker.transport.controlmessage.QueryDispatchingHandler;
+import io.zeebe.broker.workflow.WorkflowQueueManager;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryResult;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.transport.ServerOutput;
+import org.agrona.DirectBuffer;
+
+/**
+ * Handles workflow instance queries. The protocol has no dedicated control
+ * message type for queries, so they are sent as topology requests with the
+ * query {@link WorkflowInstanceQueryRequest#QUERY_TYPE} and dispatched by
+ * the {@link QueryDispatchingHandler}.
+ */
+public class QueryWorkflowInstancesHandler implements ControlMessageHandler
+{
+    protected final WorkflowInstanceQueryRequest request = new WorkflowInstanceQueryRequest();
+    protected final WorkflowInstanceQueryResult result = new WorkflowInstanceQueryResult();
+
+    protected final WorkflowQueueManager manager;
+
+    protected final ControlMessageResponseWriter responseWriter;
+    protected final ErrorResponseWriter errorResponseWriter;
+
+    public QueryWorkflowInstancesHandler(ServerOutput output, WorkflowQueueManager manager)
+    {
+        this.manager = manager;
+        this.responseWriter = new ControlMessageResponseWriter(output);
+        this.errorResponseWriter = new ErrorResponseWriter(output);
+    }
+
+    @Override
+    public ControlMessageType getMessageType()
+    {
+        return ControlMessageType.REQUEST_TOPOLOGY;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(DirectBuffer buffer, BrokerEventMetadata metadata)
+    {
+        request.reset();
+        request.wrap(buffer);
+
+        result.reset();
+
+        return manager.queryWorkflowInstances(request, result)
+            .handle((v, failure) ->
+            {
+                if (failure == null)
+                {
+                    responseWriter
+                        .dataWriter(result);
+
+                    if (!responseWriter.tryWriteResponse(metadata.getRequestStreamId(), metadata.getRequestId()))
+                    {
+                        errorResponseWriter
+                            .errorCode(ErrorCode.REQUEST_WRITE_FAILURE)
+                            .errorMessage("Cannot write workflow instance query response.")
+                            .failedRequest(buffer, 0, buffer.capacity())
+                            .tryWriteResponseOrLogFailure(metadata.getRequestStreamId(), metadata.getRequestId());
+                    }
+                }
+                else
+                {
+                    errorResponseWriter
+                        .errorCode(ErrorCode.REQUEST_PROCESSING_FAILURE)
+                        .errorMessage("Cannot query workflow instances. %s", failure.getMessage())
+                        .failedRequest(buffer, 0, buffer.capacity())
+                        .tryWriteResponseOrLogFailure(metadata.getRequestStreamId(), metadata.getRequestId());
+                }
+
+                return null;
+            });
+    }
+
+}
@@ -17,6 +17,11 @@
  */
 package io.zeebe.broker.workflow.map;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.zeebe.broker.workflow.mapping.MappingPlan;
+import io.zeebe.model.bpmn.instance.ServiceTask;
 import io.zeebe.model.bpmn.instance.Workflow;
 
 public class DeployedWorkflow
@@ -25,6 +30,9 @@ public class DeployedWorkflow
 
     private final int version;
 
+    private final Map<ServiceTask, MappingPlan> inputMappingPlans = new IdentityHashMap<>();
+    private final Map<ServiceTask, MappingPlan> outputMappingPlans = new IdentityHashMap<>();
+
     public DeployedWorkflow(Workflow workflow, int version)
     {
         super();
@@ -42,4 +50,24 @@ public class DeployedWorkflow
         return version;
     }
 
+    /**
+     * @return the compiled input mappings of the given service task of this
+     *         workflow. The plan is compiled on first access.
+     */
+    public MappingPlan getInputMappingPlan(ServiceTask serviceTask)
+    {
+        return inputMappingPlans.computeIfAbsent(serviceTask,
+            task -> MappingPlan.compile(task.getInputOutputMapping().getInputMappings()));
+    }
+
+    /**
+     * @return the compiled output mappings of the given service task of this
+     *         workflow. The plan is compiled on first access.
+     */
+    public MappingPlan getOutputMappingPlan(ServiceTask serviceTask)
+    {
+        return outputMappingPlans.computeIfAbsent(serviceTask,
+            task -> MappingPlan.compile(task.getInputOutputMapping().getOutputMappings()));
+    }
+
 }
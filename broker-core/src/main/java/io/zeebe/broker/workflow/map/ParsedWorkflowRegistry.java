@@ -0,0 +1,69 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.zeebe.model.bpmn.instance.Workflow;
+
+/**
+ * Hands over the workflows which are parsed by the deployment stream processor
+ * to the workflow instance stream processor of the same partition, so that a
+ * deployed workflow doesn't have to be parsed again when it is added to the
+ * {@link WorkflowDeploymentCache}.
+ *
+ * <p>
+ * The stream processors run on different actors, so the registry is thread
+ * safe. It holds only a limited number of workflows. If a workflow is not
+ * taken over in time (e.g. because the workflow event is not processed again
+ * on reprocessing) then it is dropped and parsed on demand.
+ */
+public class ParsedWorkflowRegistry
+{
+    private final Map<Long, Workflow> workflowsByDeploymentKey;
+
+    public ParsedWorkflowRegistry(int capacity)
+    {
+        this.workflowsByDeploymentKey = new LinkedHashMap<Long, Workflow>()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Workflow> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized void register(long deploymentKey, Workflow workflow)
+    {
+        workflowsByDeploymentKey.put(deploymentKey, workflow);
+    }
+
+    /**
+     * @return the parsed workflow of the given deployment or <code>null</code>
+     *         if it is not registered (anymore)
+     */
+    public synchronized Workflow take(long deploymentKey)
+    {
+        return workflowsByDeploymentKey.remove(deploymentKey);
+    }
+
+}
@@ -83,6 +83,16 @@ public class PayloadCache implements AutoCloseable
         return payload == null ? WorkflowInstanceEvent.NO_PAYLOAD : payload;
     }
 
+    /**
+     * @return the position of the event which contains the current payload of
+     *         the workflow instance, or <code>-1</code> if the instance has no
+     *         payload yet
+     */
+    public long getPayloadPosition(long workflowInstanceKey)
+    {
+        return map.get(workflowInstanceKey, -1L);
+    }
+
     public void addPayload(long workflowInstanceKey, long payloadEventPosition, DirectBuffer payload)
     {
         map.put(workflowInstanceKey, payloadEventPosition);
@@ -21,6 +21,8 @@ import static org.agrona.BitUtil.SIZE_OF_CHAR;
 import static org.agrona.BitUtil.SIZE_OF_INT;
 
 import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import io.zeebe.broker.workflow.data.WorkflowEvent;
 import io.zeebe.logstreams.log.LogStreamReader;
@@ -44,6 +46,11 @@ import org.agrona.concurrent.UnsafeBuffer;
  * When a workflow is requested then the parsed workflow is returned from the
  * cache. If it is not present in the cache then the deployed event is seek in
  * the log stream.
+ *
+ * <p>
+ * Workflows which are already parsed by the deployment processor can be added
+ * directly, so that they don't have to be parsed again. Only the latest added
+ * workflows are kept until they are requested.
  */
 public class WorkflowDeploymentCache implements AutoCloseable
 {
@@ -64,6 +71,8 @@ public class WorkflowDeploymentCache implements AutoCloseable
     private final LongLruCache<DeployedWorkflow> cache;
     private final LogStreamReader logStreamReader;
 
+    private final Map<Long, DeployedWorkflow> parsedWorkflows;
+
     private final BpmnModelApi bpmn = new BpmnModelApi();
 
     public WorkflowDeploymentCache(int cacheSize, LogStreamReader logStreamReader)
@@ -73,6 +82,16 @@ public class WorkflowDeploymentCache implements AutoCloseable
         this.snapshotSupport = new ZbMapSnapshotSupport<>(idVersionToKeyMap);
 
         this.logStreamReader = logStreamReader;
+        this.parsedWorkflows = new LinkedHashMap<Long, DeployedWorkflow>()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DeployedWorkflow> eldest)
+            {
+                return size() > cacheSize;
+            }
+        };
         this.cache = new LongLruCache<>(cacheSize, this::lookupWorkflow, (workflow) ->
         { });
     }
@@ -100,6 +119,16 @@ public class WorkflowDeploymentCache implements AutoCloseable
         idVersionToKeyMap.put(buffer, 0, bufferLength, workflowKey);
     }
 
+    /**
+     * Adds a workflow which is already parsed. It is moved into the cache when
+     * it is requested for the first time. If more workflows are added than the
+     * cache size, the eldest one is dropped and parsed on demand.
+     */
+    public void addParsedWorkflow(long workflowKey, Workflow workflow, int version)
+    {
+        parsedWorkflows.put(workflowKey, new DeployedWorkflow(workflow, version));
+    }
+
     public long getWorkflowKeyByIdAndLatestVersion(DirectBuffer bpmnProcessId)
     {
         return getWorkflowKeyByIdAndVersion(bpmnProcessId, LATEST_VERSION);
@@ -126,7 +155,11 @@ public class WorkflowDeploymentCache implements AutoCloseable
 
     private DeployedWorkflow lookupWorkflow(long position)
     {
-        DeployedWorkflow deployedWorkflow = null;
+        DeployedWorkflow deployedWorkflow = parsedWorkflows.remove(position);
+        if (deployedWorkflow != null)
+        {
+            return deployedWorkflow;
+        }
 
         final boolean found = logStreamReader.seek(position);
         if (found && logStreamReader.hasNext())
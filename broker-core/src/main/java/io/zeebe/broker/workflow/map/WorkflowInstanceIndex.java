@@ -21,9 +21,13 @@ import static org.agrona.BitUtil.SIZE_OF_INT;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 import java.nio.ByteOrder;
+import java.util.Iterator;
 
 import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
 import io.zeebe.map.Long2BytesZbMap;
+import io.zeebe.map.Long2LongZbMap;
+import io.zeebe.map.iterator.Long2BytesZbMapEntry;
+import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 /**
@@ -32,30 +36,57 @@ import org.agrona.concurrent.UnsafeBuffer;
  * <li>workflow instance event position
  * <li>active token count
  * <li>activity instance key
+ * <li>workflow key
+ * <li>previous / next workflow instance key of the same workflow
+ *
+ * <p>
+ * The workflow instances of a workflow are linked, so that they can be listed
+ * without iterating over the whole index. The first instance of a workflow is
+ * stored in a second map (<b>workflow key</b> to <b>workflow instance
+ * key</b>).
+ *
+ * <p>
+ * An index of the legacy format (without workflow key and links) can be
+ * migrated by a {@link LegacyIndex}.
  */
 public class WorkflowInstanceIndex implements AutoCloseable
 {
-    private static final int INDEX_VALUE_SIZE = SIZE_OF_LONG + SIZE_OF_INT + SIZE_OF_LONG;
+    private static final int LEGACY_INDEX_VALUE_SIZE = SIZE_OF_LONG + SIZE_OF_INT + SIZE_OF_LONG;
+    private static final int INDEX_VALUE_SIZE = LEGACY_INDEX_VALUE_SIZE + 3 * SIZE_OF_LONG;
 
     private static final int POSITION_OFFSET = 0;
     private static final int TOKEN_COUNT_OFFSET = POSITION_OFFSET + SIZE_OF_LONG;
     private static final int ACTIVITY_INSTANCE_KEY_OFFSET = TOKEN_COUNT_OFFSET + SIZE_OF_INT;
+    private static final int WORKFLOW_KEY_OFFSET = ACTIVITY_INSTANCE_KEY_OFFSET + SIZE_OF_LONG;
+    private static final int PREVIOUS_INSTANCE_KEY_OFFSET = WORKFLOW_KEY_OFFSET + SIZE_OF_LONG;
+    private static final int NEXT_INSTANCE_KEY_OFFSET = PREVIOUS_INSTANCE_KEY_OFFSET + SIZE_OF_LONG;
 
     private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
 
     private final byte[] rawBuffer = new byte[INDEX_VALUE_SIZE];
     private final UnsafeBuffer buffer = new UnsafeBuffer(rawBuffer);
 
+    // used to update the linked instances without overriding the wrapped one
+    private final byte[] linkRawBuffer = new byte[INDEX_VALUE_SIZE];
+    private final UnsafeBuffer linkBuffer = new UnsafeBuffer(linkRawBuffer);
+
     private final Long2BytesZbMap map;
+    private final Long2LongZbMap firstInstanceByWorkflowKey;
+
     private final ZbMapSnapshotSupport<Long2BytesZbMap> snapshotSupport;
+    private final ZbMapSnapshotSupport<Long2LongZbMap> workflowSnapshotSupport;
 
     private long key;
     private boolean isRead = false;
+    private boolean isNew = false;
 
     public WorkflowInstanceIndex()
     {
         this.map = new Long2BytesZbMap(INDEX_VALUE_SIZE);
+        this.firstInstanceByWorkflowKey = new Long2LongZbMap();
+
         this.snapshotSupport = new ZbMapSnapshotSupport<>(map);
+        this.workflowSnapshotSupport = new ZbMapSnapshotSupport<>(firstInstanceByWorkflowKey);
     }
 
     public ZbMapSnapshotSupport<Long2BytesZbMap> getSnapshotSupport()
@@ -63,24 +94,88 @@ public class WorkflowInstanceIndex implements AutoCloseable
         return snapshotSupport;
     }
 
+    public ZbMapSnapshotSupport<Long2LongZbMap> getWorkflowSnapshotSupport()
+    {
+        return workflowSnapshotSupport;
+    }
+
     public void reset()
     {
         isRead = false;
+        isNew = false;
     }
 
     public void remove(long workflowInstanceKey)
     {
-        map.remove(workflowInstanceKey, rawBuffer);
+        if (map.get(workflowInstanceKey, linkRawBuffer))
+        {
+            final long workflowKey = linkBuffer.getLong(WORKFLOW_KEY_OFFSET, BYTE_ORDER);
+            final long previousKey = linkBuffer.getLong(PREVIOUS_INSTANCE_KEY_OFFSET, BYTE_ORDER);
+            final long nextKey = linkBuffer.getLong(NEXT_INSTANCE_KEY_OFFSET, BYTE_ORDER);
+
+            if (previousKey >= 0)
+            {
+                updateLink(previousKey, NEXT_INSTANCE_KEY_OFFSET, nextKey);
+            }
+            else if (nextKey >= 0)
+            {
+                firstInstanceByWorkflowKey.put(workflowKey, nextKey);
+            }
+            else
+            {
+                firstInstanceByWorkflowKey.remove(workflowKey, -1L);
+            }
+
+            if (nextKey >= 0)
+            {
+                updateLink(nextKey, PREVIOUS_INSTANCE_KEY_OFFSET, previousKey);
+            }
+
+            map.remove(workflowInstanceKey, linkRawBuffer);
+        }
+    }
+
+    private void updateLink(long workflowInstanceKey, int offset, long linkedKey)
+    {
+        if (map.get(workflowInstanceKey, linkRawBuffer))
+        {
+            linkBuffer.putLong(offset, linkedKey, BYTE_ORDER);
+            map.put(workflowInstanceKey, linkRawBuffer);
+        }
     }
 
     public WorkflowInstanceIndex wrapWorkflowInstanceKey(long key)
     {
         this.isRead = map.get(key, rawBuffer);
+        this.isNew = false;
         this.key = key;
 
         return this;
     }
 
+    /**
+     * @return the key of the first active instance of the given workflow or
+     *         <code>-1</code> if no instance is active
+     */
+    public long getFirstWorkflowInstanceKey(long workflowKey)
+    {
+        return firstInstanceByWorkflowKey.get(workflowKey, -1L);
+    }
+
+    public long getWorkflowKey()
+    {
+        return isRead ? buffer.getLong(WORKFLOW_KEY_OFFSET, BYTE_ORDER) : -1L;
+    }
+
+    /**
+     * Creates a read-only view on the index which can be used without
+     * overriding the currently wrapped workflow instance.
+     */
+    public View newView()
+    {
+        return new View();
+    }
+
     public long getPosition()
     {
         return isRead ? buffer.getLong(POSITION_OFFSET, BYTE_ORDER) : -1L;
@@ -96,19 +191,65 @@ public class WorkflowInstanceIndex implements AutoCloseable
         return isRead ? buffer.getLong(ACTIVITY_INSTANCE_KEY_OFFSET, BYTE_ORDER) : -1L;
     }
 
-    public WorkflowInstanceIndex newWorkflowInstance(long workflowInstanceKey)
+    public WorkflowInstanceIndex newWorkflowInstance(long workflowInstanceKey, long workflowKey)
     {
         key = workflowInstanceKey;
         isRead = true;
+        isNew = true;
+
+        buffer.putLong(WORKFLOW_KEY_OFFSET, workflowKey, BYTE_ORDER);
+        buffer.putLong(PREVIOUS_INSTANCE_KEY_OFFSET, -1L, BYTE_ORDER);
+        buffer.putLong(NEXT_INSTANCE_KEY_OFFSET, -1L, BYTE_ORDER);
         return this;
     }
 
     public void write()
     {
         ensureRead();
+
+        if (isNew)
+        {
+            // prepend the new instance to the instances of the workflow
+            final long workflowKey = buffer.getLong(WORKFLOW_KEY_OFFSET, BYTE_ORDER);
+            final long firstKey = firstInstanceByWorkflowKey.get(workflowKey, -1L);
+
+            if (firstKey >= 0)
+            {
+                updateLink(firstKey, PREVIOUS_INSTANCE_KEY_OFFSET, key);
+            }
+            buffer.putLong(NEXT_INSTANCE_KEY_OFFSET, firstKey, BYTE_ORDER);
+
+            firstInstanceByWorkflowKey.put(workflowKey, key);
+            isNew = false;
+        }
+        else if (map.get(key, linkRawBuffer))
+        {
+            // the links may be changed since the instance was wrapped
+            buffer.putLong(PREVIOUS_INSTANCE_KEY_OFFSET, linkBuffer.getLong(PREVIOUS_INSTANCE_KEY_OFFSET, BYTE_ORDER), BYTE_ORDER);
+            buffer.putLong(NEXT_INSTANCE_KEY_OFFSET, linkBuffer.getLong(NEXT_INSTANCE_KEY_OFFSET, BYTE_ORDER), BYTE_ORDER);
+        }
+
         map.put(key, buffer.byteArray());
     }
 
+    /**
+     * Sets the workflow key of an instance which is migrated from a legacy
+     * index and has no workflow key yet. The instance is linked to the other
+     * instances of the workflow on write. Does nothing if the instance has
+     * already a workflow key.
+     */
+    public WorkflowInstanceIndex setWorkflowKey(long workflowKey)
+    {
+        ensureRead();
+
+        if (buffer.getLong(WORKFLOW_KEY_OFFSET, BYTE_ORDER) < 0 && workflowKey >= 0)
+        {
+            buffer.putLong(WORKFLOW_KEY_OFFSET, workflowKey, BYTE_ORDER);
+            isNew = true;
+        }
+        return this;
+    }
+
     public WorkflowInstanceIndex setPosition(long position)
     {
         ensureRead();
@@ -142,5 +283,119 @@ public class WorkflowInstanceIndex implements AutoCloseable
     public void close()
     {
         map.close();
+        firstInstanceByWorkflowKey.close();
+    }
+
+    /**
+     * Creates a temporary index in the legacy format which can be recovered
+     * from a legacy snapshot and migrated into this index.
+     */
+    public LegacyIndex newLegacyIndex()
+    {
+        return new LegacyIndex();
+    }
+
+    /**
+     * Index of the legacy format which contains only the position, the active
+     * token count and the activity instance key. The migrated instances have
+     * no workflow key until it is set by {@link WorkflowInstanceIndex#setWorkflowKey(long)}.
+     */
+    public final class LegacyIndex implements AutoCloseable
+    {
+        private final Long2BytesZbMap legacyMap = new Long2BytesZbMap(LEGACY_INDEX_VALUE_SIZE);
+        private final ZbMapSnapshotSupport<Long2BytesZbMap> legacySnapshotSupport = new ZbMapSnapshotSupport<>(legacyMap);
+
+        private LegacyIndex()
+        {
+        }
+
+        public ZbMapSnapshotSupport<Long2BytesZbMap> getSnapshotSupport()
+        {
+            return legacySnapshotSupport;
+        }
+
+        public void migrate()
+        {
+            final Iterator<Long2BytesZbMapEntry> iterator = legacyMap.iterator();
+            while (iterator.hasNext())
+            {
+                final Long2BytesZbMapEntry entry = iterator.next();
+                final DirectBuffer value = entry.getValue();
+
+                linkBuffer.setMemory(0, INDEX_VALUE_SIZE, (byte) 0);
+                value.getBytes(0, linkBuffer, 0, LEGACY_INDEX_VALUE_SIZE);
+                linkBuffer.putLong(WORKFLOW_KEY_OFFSET, -1L, BYTE_ORDER);
+                linkBuffer.putLong(PREVIOUS_INSTANCE_KEY_OFFSET, -1L, BYTE_ORDER);
+                linkBuffer.putLong(NEXT_INSTANCE_KEY_OFFSET, -1L, BYTE_ORDER);
+
+                map.put(entry.getKey(), linkRawBuffer);
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            legacyMap.close();
+        }
+    }
+
+    public final class View
+    {
+        private final byte[] viewRawBuffer = new byte[INDEX_VALUE_SIZE];
+        private final UnsafeBuffer viewBuffer = new UnsafeBuffer(viewRawBuffer);
+
+        private long viewKey = -1L;
+        private boolean isViewRead = false;
+
+        private View()
+        {
+        }
+
+        public View wrapWorkflowInstanceKey(long key)
+        {
+            this.isViewRead = map.get(key, viewRawBuffer);
+            this.viewKey = key;
+
+            return this;
+        }
+
+        public boolean isActive()
+        {
+            return isViewRead;
+        }
+
+        public long getKey()
+        {
+            return viewKey;
+        }
+
+        public long getPosition()
+        {
+            return isViewRead ? viewBuffer.getLong(POSITION_OFFSET, BYTE_ORDER) : -1L;
+        }
+
+        public int getTokenCount()
+        {
+            return isViewRead ? viewBuffer.getInt(TOKEN_COUNT_OFFSET, BYTE_ORDER) : -1;
+        }
+
+        public long getActivityInstanceKey()
+        {
+            return isViewRead ? viewBuffer.getLong(ACTIVITY_INSTANCE_KEY_OFFSET, BYTE_ORDER) : -1L;
+        }
+
+        public long getWorkflowKey()
+        {
+            return isViewRead ? viewBuffer.getLong(WORKFLOW_KEY_OFFSET, BYTE_ORDER) : -1L;
+        }
+
+        /**
+         * @return the key of the next active instance of the same workflow or
+         *         <code>-1</code> if it is the last one
+         */
+        public long getNextWorkflowInstanceKey()
+        {
+            return isViewRead ? viewBuffer.getLong(NEXT_INSTANCE_KEY_OFFSET, BYTE_ORDER) : -1L;
+        }
     }
 }
@@ -0,0 +1,383 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.mapping;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.msgpack.mapping.Mapping;
+import org.agrona.DirectBuffer;
+
+/**
+ * Execution plan of the input or output mappings of a flow node. It is
+ * compiled once per deployed workflow and reused for every activation /
+ * completion of the flow node.
+ *
+ * <p>
+ * The plan merges the source paths of all mappings into a trie, so that the
+ * document is read only once and only the matching values are visited. The
+ * target paths are merged into a second trie which describes the structure of
+ * the result document.
+ *
+ * <p>
+ * Only simple paths (e.g. <code>$</code> or <code>$.foo.bar</code>) can be
+ * compiled. If a mapping contains another expression (e.g. wildcards or array
+ * indexes) then the plan is not compiled and the mappings are executed by the
+ * generic mapping processor.
+ */
+public final class MappingPlan
+{
+    private static final String ROOT_PATH = "$";
+
+    public static final MappingPlan EMPTY = new MappingPlan(new Mapping[0]);
+
+    private final Mapping[] mappings;
+
+    private final boolean isCompiled;
+    private final PathNode sourceRoot;
+    private final PathNode targetRoot;
+    private final boolean hasRootTarget;
+    private final boolean hasOnlyTopLevelTargets;
+    private final String[] sourceExpressions;
+
+    private MappingPlan(Mapping[] mappings)
+    {
+        this.mappings = mappings;
+
+        final int count = mappings.length;
+
+        PathNode sourceRoot = new PathNode(null);
+        PathNode targetRoot = new PathNode(null);
+        final String[] sourceExpressions = new String[count];
+        boolean isCompiled = true;
+
+        for (int i = 0; i < count && isCompiled; i++)
+        {
+            final Mapping mapping = mappings[i];
+
+            final String source = bufferAsString(mapping.getSource().getExpression());
+            final String target = mapping.getTargetQueryString();
+
+            final String[] sourcePath = parsePath(source);
+            final String[] targetPath = parsePath(target);
+
+            sourceExpressions[i] = source;
+
+            if (sourcePath != null && targetPath != null)
+            {
+                sourceRoot.insert(sourcePath, i);
+                isCompiled = targetRoot.insertUnique(targetPath, i);
+            }
+            else
+            {
+                isCompiled = false;
+            }
+        }
+
+        if (!isCompiled)
+        {
+            sourceRoot = null;
+            targetRoot = null;
+        }
+
+        this.isCompiled = isCompiled;
+        this.sourceRoot = sourceRoot;
+        this.targetRoot = targetRoot;
+        this.sourceExpressions = sourceExpressions;
+        this.hasRootTarget = isCompiled && targetRoot.isLeaf();
+        this.hasOnlyTopLevelTargets = isCompiled && !hasRootTarget && targetRoot.hasOnlyLeafChildren();
+    }
+
+    public static MappingPlan compile(Mapping[] mappings)
+    {
+        return mappings.length > 0 ? new MappingPlan(mappings) : EMPTY;
+    }
+
+    /**
+     * @return the path segments, an empty array for the root path or
+     *         <code>null</code> if the path is not a simple path
+     */
+    private static String[] parsePath(String expression)
+    {
+        if (expression == null || !expression.startsWith(ROOT_PATH))
+        {
+            return null;
+        }
+        else if (expression.length() == ROOT_PATH.length())
+        {
+            return new String[0];
+        }
+        else if (expression.charAt(ROOT_PATH.length()) != '.')
+        {
+            return null;
+        }
+
+        final String[] segments = expression.substring(ROOT_PATH.length() + 1).split("\\.", -1);
+        for (String segment : segments)
+        {
+            if (!isSimpleKey(segment))
+            {
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isSimpleKey(String segment)
+    {
+        if (segment.isEmpty())
+        {
+            return false;
+        }
+
+        for (int i = 0; i < segment.length(); i++)
+        {
+            final char c = segment.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-'))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty()
+    {
+        return mappings.length == 0;
+    }
+
+    /**
+     * @return <code>true</code> if the plan can be executed without the
+     *         generic mapping processor
+     */
+    public boolean isCompiled()
+    {
+        return isCompiled;
+    }
+
+    public Mapping[] getMappings()
+    {
+        return mappings;
+    }
+
+    public int getMappingCount()
+    {
+        return mappings.length;
+    }
+
+    public String getSourceExpression(int mappingIndex)
+    {
+        return sourceExpressions[mappingIndex];
+    }
+
+    /**
+     * @return <code>true</code> if the plan consists of a single mapping which
+     *         targets the root of the result document (i.e. a projection)
+     */
+    public boolean hasRootTarget()
+    {
+        return hasRootTarget;
+    }
+
+    /**
+     * @return <code>true</code> if all targets are keys of the root object of
+     *         the result document
+     */
+    public boolean hasOnlyTopLevelTargets()
+    {
+        return hasOnlyTopLevelTargets;
+    }
+
+    PathNode getSourceRoot()
+    {
+        return sourceRoot;
+    }
+
+    PathNode getTargetRoot()
+    {
+        return targetRoot;
+    }
+
+    /**
+     * Node of a path trie. A node can be the end of multiple source paths
+     * (i.e. the same value is mapped to different targets) but only of one
+     * target path.
+     */
+    static final class PathNode
+    {
+        private static final PathNode[] NO_CHILDREN = new PathNode[0];
+        private static final int[] NO_MAPPINGS = new int[0];
+
+        private final DirectBuffer key;
+
+        private PathNode[] children = NO_CHILDREN;
+        private int[] mappingIndexes = NO_MAPPINGS;
+
+        PathNode(DirectBuffer key)
+        {
+            this.key = key;
+        }
+
+        DirectBuffer getKey()
+        {
+            return key;
+        }
+
+        PathNode[] getChildren()
+        {
+            return children;
+        }
+
+        boolean hasChildren()
+        {
+            return children.length > 0;
+        }
+
+        int[] getMappingIndexes()
+        {
+            return mappingIndexes;
+        }
+
+        boolean isLeaf()
+        {
+            return mappingIndexes.length > 0;
+        }
+
+        /**
+         * @return the index of the mapping if the node is the end of a target
+         *         path
+         */
+        int getMappingIndex()
+        {
+            return mappingIndexes[0];
+        }
+
+        boolean hasOnlyLeafChildren()
+        {
+            for (PathNode child : children)
+            {
+                if (child.hasChildren())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void insert(String[] path, int mappingIndex)
+        {
+            PathNode node = this;
+            for (String segment : path)
+            {
+                node = node.getOrAddChild(segment);
+            }
+            node.addMappingIndex(mappingIndex);
+        }
+
+        /**
+         * Inserts a target path. A target must not be the prefix of another
+         * target, otherwise the mappings would override each other.
+         *
+         * @return <code>false</code> if the path conflicts with another path
+         */
+        boolean insertUnique(String[] path, int mappingIndex)
+        {
+            PathNode node = this;
+            for (String segment : path)
+            {
+                if (node.isLeaf())
+                {
+                    return false;
+                }
+                node = node.getOrAddChild(segment);
+            }
+
+            if (node.isLeaf() || node.hasChildren())
+            {
+                return false;
+            }
+
+            node.addMappingIndex(mappingIndex);
+            return true;
+        }
+
+        private PathNode getOrAddChild(String segment)
+        {
+            for (PathNode child : children)
+            {
+                if (segment.equals(bufferAsString(child.key)))
+                {
+                    return child;
+                }
+            }
+
+            final List<PathNode> newChildren = new ArrayList<>(children.length + 1);
+            for (PathNode child : children)
+            {
+                newChildren.add(child);
+            }
+
+            final PathNode child = new PathNode(wrapString(segment));
+            newChildren.add(child);
+
+            children = newChildren.toArray(NO_CHILDREN);
+            return child;
+        }
+
+        private void addMappingIndex(int mappingIndex)
+        {
+            final int[] newIndexes = new int[mappingIndexes.length + 1];
+            System.arraycopy(mappingIndexes, 0, newIndexes, 0, mappingIndexes.length);
+            newIndexes[mappingIndexes.length] = mappingIndex;
+
+            mappingIndexes = newIndexes;
+        }
+
+        /**
+         * @return the child with the given key or <code>null</code>
+         */
+        PathNode findChild(DirectBuffer buffer, int offset, int length)
+        {
+            for (PathNode child : children)
+            {
+                final DirectBuffer childKey = child.key;
+                if (childKey.capacity() == length && equals(childKey, buffer, offset, length))
+                {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private static boolean equals(DirectBuffer key, DirectBuffer buffer, int offset, int length)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                if (key.getByte(i) != buffer.getByte(offset + i))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.mapping;
+
+import java.util.Arrays;
+
+import io.zeebe.broker.workflow.mapping.MappingPlan.PathNode;
+import io.zeebe.msgpack.mapping.MappingException;
+import io.zeebe.msgpack.mapping.MappingProcessor;
+import io.zeebe.msgpack.spec.MsgPackFormat;
+import io.zeebe.msgpack.spec.MsgPackReader;
+import io.zeebe.msgpack.spec.MsgPackType;
+import io.zeebe.msgpack.spec.MsgPackWriter;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Executes compiled {@link MappingPlan}s. The source document is read once and
+ * only the values of the mapped paths are visited. The result is written into
+ * an expandable buffer which is reused for all executions. If the result is a
+ * part of the source document (e.g. <code>$.foo -> $</code>) then no copy is
+ * made at all.
+ *
+ * <p>
+ * Plans which could not be compiled are executed by the generic
+ * {@link MappingProcessor}.
+ *
+ * <p>
+ * The returned buffer is only valid until the next invocation.
+ */
+public class MappingPlanProcessor
+{
+    public static final String NO_DATA_FOUND_MSG = "No data found for query %s.";
+    public static final String NON_MAP_RESULT_MSG = "Processing failed, since mapping will result in a non map object (json object).";
+
+    private static final int MAX_HEADER_LENGTH = 5;
+
+    private final MsgPackReader reader = new MsgPackReader();
+    private final MsgPackWriter writer = new MsgPackWriter();
+
+    private final ExpandableArrayBuffer resultBuffer;
+    private final UnsafeBuffer result = new UnsafeBuffer(0, 0);
+
+    private final MappingProcessor mappingProcessor;
+
+    private int[] valueOffsets = new int[8];
+    private int[] valueLengths = new int[8];
+
+    public MappingPlanProcessor(int initialDocumentSize)
+    {
+        this.resultBuffer = new ExpandableArrayBuffer(initialDocumentSize);
+        this.mappingProcessor = new MappingProcessor(initialDocumentSize);
+    }
+
+    /**
+     * Extracts the mapped values of the given document into a new document.
+     *
+     * @throws MappingException if a source path does not match or the result
+     *             is not a map
+     */
+    public DirectBuffer extract(MappingPlan plan, DirectBuffer document)
+    {
+        if (plan.isEmpty())
+        {
+            result.wrap(document);
+        }
+        else if (!plan.isCompiled())
+        {
+            final int resultLength = mappingProcessor.extract(document, plan.getMappings());
+            result.wrap(mappingProcessor.getResultBuffer(), 0, resultLength);
+        }
+        else
+        {
+            readSourceValues(plan, document);
+
+            if (plan.hasRootTarget())
+            {
+                final int mappingIndex = plan.getTargetRoot().getMappingIndex();
+                final int offset = valueOffsets[mappingIndex];
+
+                if (!isType(document, offset, MsgPackType.MAP))
+                {
+                    throw new MappingException(NON_MAP_RESULT_MSG);
+                }
+
+                // the projection is a part of the source document
+                result.wrap(document, offset, valueLengths[mappingIndex]);
+            }
+            else
+            {
+                final PathNode targetRoot = plan.getTargetRoot();
+
+                resultBuffer.checkLimit(estimateLength(targetRoot));
+                writer.wrap(resultBuffer, 0);
+
+                writeTargetNode(targetRoot, document);
+
+                result.wrap(resultBuffer, 0, writer.getOffset());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the mapped values of the source document and merges them into
+     * the target document. Existing values of the target document are
+     * replaced.
+     *
+     * @throws MappingException if a source path does not match or the result
+     *             is not a map
+     */
+    public DirectBuffer merge(MappingPlan plan, DirectBuffer sourceDocument, DirectBuffer targetDocument)
+    {
+        if (!plan.isCompiled() || !plan.hasOnlyTopLevelTargets())
+        {
+            final int resultLength = mappingProcessor.merge(sourceDocument, targetDocument, plan.getMappings());
+            result.wrap(mappingProcessor.getResultBuffer(), 0, resultLength);
+        }
+        else
+        {
+            readSourceValues(plan, sourceDocument);
+
+            final PathNode targetRoot = plan.getTargetRoot();
+            final PathNode[] targets = targetRoot.getChildren();
+
+            final boolean isTargetMap = isType(targetDocument, 0, MsgPackType.MAP);
+
+            int retainedEntries = 0;
+            if (isTargetMap)
+            {
+                retainedEntries = forEachRetainedEntry(targetRoot, targetDocument, false);
+            }
+
+            int limit = targetDocument.capacity() + MAX_HEADER_LENGTH;
+            for (PathNode target : targets)
+            {
+                limit += MAX_HEADER_LENGTH + target.getKey().capacity() + valueLengths[target.getMappingIndex()];
+            }
+
+            resultBuffer.checkLimit(limit);
+            writer.wrap(resultBuffer, 0);
+            writer.writeMapHeader(retainedEntries + targets.length);
+
+            if (isTargetMap)
+            {
+                forEachRetainedEntry(targetRoot, targetDocument, true);
+            }
+
+            for (PathNode target : targets)
+            {
+                final int mappingIndex = target.getMappingIndex();
+
+                writer.writeString(target.getKey());
+                writer.writeRaw(sourceDocument, valueOffsets[mappingIndex], valueLengths[mappingIndex]);
+            }
+
+            result.wrap(resultBuffer, 0, writer.getOffset());
+        }
+        return result;
+    }
+
+    /**
+     * Iterates over the entries of the target document which are not
+     * overridden by the mappings.
+     *
+     * @return the number of retained entries
+     */
+    private int forEachRetainedEntry(PathNode targetRoot, DirectBuffer targetDocument, boolean write)
+    {
+        reader.wrap(targetDocument, 0, targetDocument.capacity());
+
+        int retainedEntries = 0;
+
+        final int size = reader.readMapHeader();
+        for (int i = 0; i < size; i++)
+        {
+            final int entryOffset = reader.getOffset();
+
+            final PathNode target = readKey(targetRoot, targetDocument);
+            reader.skipValue();
+
+            if (target == null)
+            {
+                retainedEntries += 1;
+
+                if (write)
+                {
+                    writer.writeRaw(targetDocument, entryOffset, reader.getOffset() - entryOffset);
+                }
+            }
+        }
+        return retainedEntries;
+    }
+
+    private void readSourceValues(MappingPlan plan, DirectBuffer document)
+    {
+        final int mappingCount = plan.getMappingCount();
+        if (valueLengths.length < mappingCount)
+        {
+            valueOffsets = new int[mappingCount];
+            valueLengths = new int[mappingCount];
+        }
+        Arrays.fill(valueLengths, 0, mappingCount, -1);
+
+        if (document.capacity() > 0)
+        {
+            reader.wrap(document, 0, document.capacity());
+            readValue(plan.getSourceRoot(), document);
+        }
+
+        for (int i = 0; i < mappingCount; i++)
+        {
+            if (valueLengths[i] < 0)
+            {
+                throw new MappingException(String.format(NO_DATA_FOUND_MSG, plan.getSourceExpression(i)));
+            }
+        }
+    }
+
+    private void readValue(PathNode node, DirectBuffer document)
+    {
+        final int offset = reader.getOffset();
+
+        if (node.hasChildren() && isType(document, offset, MsgPackType.MAP))
+        {
+            final int size = reader.readMapHeader();
+            for (int i = 0; i < size; i++)
+            {
+                final PathNode child = readKey(node, document);
+                if (child != null)
+                {
+                    readValue(child, document);
+                }
+                else
+                {
+                    reader.skipValue();
+                }
+            }
+        }
+        else
+        {
+            reader.skipValue();
+        }
+
+        final int length = reader.getOffset() - offset;
+
+        final int[] mappingIndexes = node.getMappingIndexes();
+        for (int i = 0; i < mappingIndexes.length; i++)
+        {
+            valueOffsets[mappingIndexes[i]] = offset;
+            valueLengths[mappingIndexes[i]] = length;
+        }
+    }
+
+    /**
+     * Reads the next key of a map.
+     *
+     * @return the matching child node or <code>null</code>
+     */
+    private PathNode readKey(PathNode node, DirectBuffer document)
+    {
+        PathNode child = null;
+
+        if (isType(document, reader.getOffset(), MsgPackType.STRING))
+        {
+            final int keyLength = reader.readStringLength();
+            final int keyOffset = reader.getOffset();
+            reader.skipBytes(keyLength);
+
+            child = node.findChild(document, keyOffset, keyLength);
+        }
+        else
+        {
+            reader.skipValue();
+        }
+        return child;
+    }
+
+    private void writeTargetNode(PathNode node, DirectBuffer document)
+    {
+        final PathNode[] children = node.getChildren();
+
+        writer.writeMapHeader(children.length);
+
+        for (PathNode child : children)
+        {
+            writer.writeString(child.getKey());
+
+            if (child.isLeaf())
+            {
+                final int mappingIndex = child.getMappingIndex();
+                writer.writeRaw(document, valueOffsets[mappingIndex], valueLengths[mappingIndex]);
+            }
+            else
+            {
+                writeTargetNode(child, document);
+            }
+        }
+    }
+
+    private int estimateLength(PathNode node)
+    {
+        int length = MAX_HEADER_LENGTH;
+
+        for (PathNode child : node.getChildren())
+        {
+            length += MAX_HEADER_LENGTH + child.getKey().capacity();
+
+            if (child.isLeaf())
+            {
+                length += valueLengths[child.getMappingIndex()];
+            }
+            else
+            {
+                length += estimateLength(child);
+            }
+        }
+        return length;
+    }
+
+    private static boolean isType(DirectBuffer document, int offset, MsgPackType type)
+    {
+        return offset < document.capacity() && MsgPackFormat.valueOf(document.getByte(offset)).getType() == type;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsArray;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.zeebe.model.bpmn.BpmnModelApi;
+import io.zeebe.model.bpmn.ValidationResult;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Parses and validates the BPMN resources of deployments. The work is done by
+ * the given executor, so that large deployments don't block the actor thread
+ * of the stream processor.
+ */
+public class BpmnDeploymentParser
+{
+    private final ThreadLocal<BpmnModelApi> bpmn = ThreadLocal.withInitial(BpmnModelApi::new);
+
+    private final Executor executor;
+
+    public BpmnDeploymentParser(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Parses the given resource asynchronously. The resource is copied, so
+     * that the given buffer can be reused afterwards.
+     */
+    public CompletableFuture<ParsedDeployment> parseAsync(DirectBuffer bpmnXml)
+    {
+        final DirectBuffer resource = new UnsafeBuffer(bufferAsArray(bpmnXml));
+
+        return CompletableFuture.supplyAsync(() -> parse(resource), executor);
+    }
+
+    public ParsedDeployment parse(DirectBuffer bpmnXml)
+    {
+        final ParsedDeployment deployment = new ParsedDeployment();
+
+        try
+        {
+            final BpmnModelApi bpmnModelApi = bpmn.get();
+
+            final WorkflowDefinition definition = bpmnModelApi.readFromBuffer(bpmnXml);
+            final ValidationResult validationResult = bpmnModelApi.validate(definition);
+
+            if (!validationResult.hasErrors())
+            {
+                deployment.definition = definition;
+            }
+
+            if (validationResult.hasErrors() || validationResult.hasWarnings())
+            {
+                deployment.errorMessage = validationResult.format();
+            }
+        }
+        catch (Exception e)
+        {
+            deployment.errorMessage = generateErrorMessage(e);
+        }
+
+        return deployment;
+    }
+
+    protected String generateErrorMessage(final Exception e)
+    {
+        final StringWriter stacktraceWriter = new StringWriter();
+
+        e.printStackTrace(new PrintWriter(stacktraceWriter));
+
+        return String.format("Failed to deploy BPMN model: %s", stacktraceWriter);
+    }
+
+    public static class ParsedDeployment
+    {
+        private WorkflowDefinition definition;
+        private String errorMessage;
+
+        /**
+         * @return the parsed definition or <code>null</code> if the resource
+         *         is not valid
+         */
+        public WorkflowDefinition getDefinition()
+        {
+            return definition;
+        }
+
+        public boolean isValid()
+        {
+            return definition != null;
+        }
+
+        /**
+         * @return the validation errors / warnings or <code>null</code>
+         */
+        public String getErrorMessage()
+        {
+            return errorMessage;
+        }
+    }
+
+}
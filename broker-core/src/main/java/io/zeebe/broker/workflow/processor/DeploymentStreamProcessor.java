@@ -20,20 +20,19 @@ package io.zeebe.broker.workflow.processor;
 import static io.zeebe.protocol.clientapi.EventType.DEPLOYMENT_EVENT;
 import static org.agrona.BitUtil.SIZE_OF_CHAR;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
 import io.zeebe.broker.workflow.data.*;
+import io.zeebe.broker.workflow.map.ParsedWorkflowRegistry;
+import io.zeebe.broker.workflow.processor.BpmnDeploymentParser.ParsedDeployment;
 import io.zeebe.logstreams.log.*;
 import io.zeebe.logstreams.processor.*;
 import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.map.Bytes2LongZbMap;
-import io.zeebe.model.bpmn.BpmnModelApi;
-import io.zeebe.model.bpmn.ValidationResult;
 import io.zeebe.model.bpmn.impl.ZeebeConstraints;
 import io.zeebe.model.bpmn.instance.Workflow;
 import io.zeebe.model.bpmn.instance.WorkflowDefinition;
@@ -42,6 +41,17 @@ import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import org.agrona.DirectBuffer;
 
+/**
+ * Creates deployments. The BPMN resource is parsed and validated by the
+ * {@link BpmnDeploymentParser} on a separate thread. Meanwhile, the
+ * processor waits in {@link #executeSideEffects()} until the result is
+ * available, without blocking the actor thread.
+ * <p>
+ * On reprocessing, the side effects are not executed and the state is updated
+ * directly after the event is processed. Since the processor can't wait there,
+ * the resource is parsed on the actor thread instead of waiting for the
+ * separate thread.
+ */
 public class DeploymentStreamProcessor implements StreamProcessor, EventProcessor
 {
     protected final BrokerEventMetadata sourceEventMetadata = new BrokerEventMetadata();
@@ -55,10 +65,14 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     protected final Bytes2LongZbMap map;
     protected final ZbMapSnapshotSupport<Bytes2LongZbMap> indexSnapshotSupport;
 
-    protected final BpmnModelApi bpmn = new BpmnModelApi();
+    protected final BpmnDeploymentParser deploymentParser;
+    protected final ParsedWorkflowRegistry parsedWorkflowRegistry;
 
     protected final ArrayList<DeployedWorkflow> deployedWorkflows = new ArrayList<>();
 
+    protected CompletableFuture<ParsedDeployment> pendingDeployment;
+    protected boolean isDeploymentResolved;
+
     protected DirectBuffer logStreamTopicName;
     protected int logStreamPartitionId;
 
@@ -69,9 +83,14 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     protected long eventKey;
     protected long eventPosition;
 
-    public DeploymentStreamProcessor(CommandResponseWriter responseWriter)
+    public DeploymentStreamProcessor(
+            CommandResponseWriter responseWriter,
+            BpmnDeploymentParser deploymentParser,
+            ParsedWorkflowRegistry parsedWorkflowRegistry)
     {
         this.responseWriter = responseWriter;
+        this.deploymentParser = deploymentParser;
+        this.parsedWorkflowRegistry = parsedWorkflowRegistry;
 
         this.map = new Bytes2LongZbMap(ZeebeConstraints.ID_MAX_LENGTH * SIZE_OF_CHAR);
         this.indexSnapshotSupport = new ZbMapSnapshotSupport<>(map);
@@ -138,37 +157,55 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     public void afterEvent()
     {
         deployedWorkflows.clear();
+        pendingDeployment = null;
     }
 
     @Override
     public void processEvent()
     {
-        try
+        isDeploymentResolved = false;
+        pendingDeployment = deploymentParser.parseAsync(deploymentEvent.getBpmnXml());
+    }
+
+    /**
+     * Applies the result of the parser. If the result is not available yet
+     * then the event is reprocessed (no side effects are executed) and the
+     * resource is parsed on the current thread.
+     */
+    protected void resolveDeployment()
+    {
+        if (!isDeploymentResolved)
         {
-            final WorkflowDefinition definition = bpmn.readFromBuffer(deploymentEvent.getBpmnXml());
-            final ValidationResult validationResult = bpmn.validate(definition);
+            final ParsedDeployment deployment;
+
+            if (pendingDeployment.isDone())
+            {
+                deployment = pendingDeployment.join();
+            }
+            else
+            {
+                pendingDeployment.cancel(false);
+                deployment = deploymentParser.parse(deploymentEvent.getBpmnXml());
+            }
 
-            if (!validationResult.hasErrors())
+            if (deployment.isValid())
             {
                 deploymentEvent.setState(DeploymentState.DEPLOYMENT_CREATED);
 
-                collectDeployedWorkflows(definition);
+                collectDeployedWorkflows(deployment.getDefinition());
             }
 
-            if (validationResult.hasErrors() || validationResult.hasWarnings())
+            if (deployment.getErrorMessage() != null)
             {
-                deploymentEvent.setErrorMessage(validationResult.format());
+                deploymentEvent.setErrorMessage(deployment.getErrorMessage());
             }
-        }
-        catch (Exception e)
-        {
-            final String errorMessage = generateErrorMessage(e);
-            deploymentEvent.setErrorMessage(errorMessage);
-        }
 
-        if (deployedWorkflows.isEmpty())
-        {
-            deploymentEvent.setState(DeploymentState.DEPLOYMENT_REJECTED);
+            if (deployedWorkflows.isEmpty())
+            {
+                deploymentEvent.setState(DeploymentState.DEPLOYMENT_REJECTED);
+            }
+
+            isDeploymentResolved = true;
         }
     }
 
@@ -186,21 +223,20 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
             .setBpmnProcessId(bpmnProcessId)
             .setVersion(version);
 
-        deployedWorkflows.add(new DeployedWorkflow(bpmnProcessId, version));
-    }
-
-    protected String generateErrorMessage(final Exception e)
-    {
-        final StringWriter stacktraceWriter = new StringWriter();
-
-        e.printStackTrace(new PrintWriter(stacktraceWriter));
-
-        return String.format("Failed to deploy BPMN model: %s", stacktraceWriter);
+        deployedWorkflows.add(new DeployedWorkflow(bpmnProcessId, version, workflow));
     }
 
     @Override
     public boolean executeSideEffects()
     {
+        if (!pendingDeployment.isDone())
+        {
+            // try again on next invocation
+            return false;
+        }
+
+        resolveDeployment();
+
         return responseWriter
                 .topicName(logStreamTopicName)
                 .partitionId(logStreamPartitionId)
@@ -213,6 +249,8 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     @Override
     public long writeEvent(LogStreamWriter writer)
     {
+        resolveDeployment();
+
         logStreamBatchWriter
             .producerId(streamProcessorId)
             .sourceEvent(logStreamTopicName, logStreamPartitionId, eventPosition);
@@ -258,11 +296,16 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     @Override
     public void updateState()
     {
+        resolveDeployment();
+
         for (int i = 0; i < deployedWorkflows.size(); i++)
         {
             final DeployedWorkflow deployedWorkflow = deployedWorkflows.get(i);
 
             map.put(deployedWorkflow.getBpmnProcessId().byteArray(), deployedWorkflow.getVersion());
+
+            // the workflow instance processor takes the parsed workflow when it processes the workflow event
+            parsedWorkflowRegistry.register(eventKey, deployedWorkflow.getWorkflow());
         }
     }
 
@@ -270,11 +313,18 @@ public class DeploymentStreamProcessor implements StreamProcessor, EventProcesso
     {
         private final DirectBuffer bpmnProcessId;
         private final int version;
+        private final Workflow workflow;
 
-        DeployedWorkflow(DirectBuffer bpmnProcessId, int version)
+        DeployedWorkflow(DirectBuffer bpmnProcessId, int version, Workflow workflow)
         {
             this.bpmnProcessId = bpmnProcessId;
             this.version = version;
+            this.workflow = workflow;
+        }
+
+        public Workflow getWorkflow()
+        {
+            return workflow;
         }
 
         public DirectBuffer getBpmnProcessId()
@@ -0,0 +1,169 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+import io.zeebe.broker.workflow.map.PayloadCache;
+import io.zeebe.broker.workflow.map.WorkflowDeploymentCache;
+import io.zeebe.broker.workflow.map.WorkflowInstanceIndex;
+import org.agrona.DirectBuffer;
+
+/**
+ * Collects the index entries of the workflow instances which match a query
+ * from the indexes of the {@link WorkflowInstanceStreamProcessor}. Must be
+ * invoked on the thread of the stream processor. The query uses its own view
+ * on the index so that it does not interfere with an event which is currently
+ * processed. It does not read the log, the events of the collected instances
+ * are read by the {@link WorkflowInstanceQueryReader} on another thread.
+ */
+public class WorkflowInstanceQuery
+{
+    protected final WorkflowInstanceIndex workflowInstanceIndex;
+    protected final WorkflowInstanceIndex.View instanceView;
+    protected final WorkflowDeploymentCache workflowDeploymentCache;
+    protected final PayloadCache payloadCache;
+
+    public WorkflowInstanceQuery(WorkflowInstanceIndex workflowInstanceIndex, WorkflowDeploymentCache workflowDeploymentCache, PayloadCache payloadCache)
+    {
+        this.workflowInstanceIndex = workflowInstanceIndex;
+        this.instanceView = workflowInstanceIndex.newView();
+        this.workflowDeploymentCache = workflowDeploymentCache;
+        this.payloadCache = payloadCache;
+    }
+
+    public void collect(WorkflowInstanceQueryRequest request, WorkflowInstanceQueryPage page)
+    {
+        final long workflowInstanceKey = request.getWorkflowInstanceKey();
+        final DirectBuffer bpmnProcessId = request.getBpmnProcessId();
+
+        if (workflowInstanceKey >= 0)
+        {
+            if (instanceView.wrapWorkflowInstanceKey(workflowInstanceKey).isActive())
+            {
+                addWorkflowInstance(page, true);
+            }
+        }
+        else if (bpmnProcessId.capacity() > 0)
+        {
+            if (request.getLimit() <= 0)
+            {
+                throw new IllegalArgumentException("Limit must be greater than 0.");
+            }
+
+            listWorkflowInstances(request, page);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Query must contain a workflow instance key or a bpmn process id.");
+        }
+    }
+
+    private void listWorkflowInstances(WorkflowInstanceQueryRequest request, WorkflowInstanceQueryPage page)
+    {
+        final DirectBuffer bpmnProcessId = request.getBpmnProcessId();
+        final int requestedVersion = request.getVersion();
+
+        long cursor = request.getCursor();
+        long cursorWorkflowKey = -1L;
+
+        if (cursor >= 0)
+        {
+            // continue with the workflow of the cursor instance
+            cursorWorkflowKey = instanceView.wrapWorkflowInstanceKey(cursor).getWorkflowKey();
+            if (cursorWorkflowKey < 0)
+            {
+                throw new IllegalArgumentException("Invalid cursor: workflow instance with key " + cursor + " is not active anymore.");
+            }
+        }
+
+        int version = requestedVersion > 0 ? requestedVersion : 1;
+        long workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version);
+
+        if (workflowKey < 0 && requestedVersion > 0)
+        {
+            throw new IllegalArgumentException(String.format("Workflow with id '%s' and version '%d' not found.", bufferAsString(bpmnProcessId), requestedVersion));
+        }
+
+        // skip the workflows before the cursor
+        if (cursorWorkflowKey >= 0)
+        {
+            while (workflowKey >= 0 && workflowKey != cursorWorkflowKey && requestedVersion <= 0)
+            {
+                version += 1;
+                workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version);
+            }
+
+            if (workflowKey != cursorWorkflowKey)
+            {
+                throw new IllegalArgumentException("Invalid cursor: workflow instance with key " + cursor + " does not belong to the requested workflow.");
+            }
+        }
+
+        while (workflowKey >= 0)
+        {
+            long instanceKey = cursor >= 0 ? cursor : workflowInstanceIndex.getFirstWorkflowInstanceKey(workflowKey);
+            cursor = -1L;
+
+            while (instanceKey >= 0)
+            {
+                if (page.isFull())
+                {
+                    page.setNextCursor(instanceKey);
+                    return;
+                }
+
+                instanceView.wrapWorkflowInstanceKey(instanceKey);
+                addWorkflowInstance(page, false);
+
+                instanceKey = instanceView.getNextWorkflowInstanceKey();
+            }
+
+            if (requestedVersion > 0)
+            {
+                break;
+            }
+
+            version += 1;
+            workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version);
+        }
+    }
+
+    private void addWorkflowInstance(WorkflowInstanceQueryPage page, boolean withPayload)
+    {
+        long payloadPosition = -1L;
+
+        if (withPayload)
+        {
+            payloadPosition = payloadCache.getPayloadPosition(instanceView.getKey());
+            if (payloadPosition < 0)
+            {
+                payloadPosition = instanceView.getPosition();
+            }
+        }
+
+        page.add(
+            instanceView.getKey(),
+            instanceView.getWorkflowKey(),
+            instanceView.getActivityInstanceKey(),
+            instanceView.getTokenCount(),
+            instanceView.getPosition(),
+            payloadPosition);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryRequest;
+
+/**
+ * The index entries of the workflow instances which are returned by a query.
+ * The entries are collected on the thread of the stream processor, the events
+ * of the instances are read afterwards by the {@link WorkflowInstanceQueryReader}.
+ */
+public class WorkflowInstanceQueryPage
+{
+    protected final int capacity;
+
+    protected final long[] workflowInstanceKeys;
+    protected final long[] workflowKeys;
+    protected final long[] activityInstanceKeys;
+    protected final int[] tokenCounts;
+    protected final long[] positions;
+    protected final long[] payloadPositions;
+
+    protected int size;
+    protected long nextCursor = -1L;
+
+    public WorkflowInstanceQueryPage(int limit)
+    {
+        this.capacity = Math.max(1, Math.min(limit, WorkflowInstanceQueryRequest.MAX_LIMIT));
+
+        this.workflowInstanceKeys = new long[capacity];
+        this.workflowKeys = new long[capacity];
+        this.activityInstanceKeys = new long[capacity];
+        this.tokenCounts = new int[capacity];
+        this.positions = new long[capacity];
+        this.payloadPositions = new long[capacity];
+    }
+
+    /**
+     * @param payloadPosition
+     *            the position of the event which contains the payload of the
+     *            instance, or <code>-1</code> if the payload is not requested
+     */
+    public void add(long workflowInstanceKey, long workflowKey, long activityInstanceKey, int tokenCount, long position, long payloadPosition)
+    {
+        workflowInstanceKeys[size] = workflowInstanceKey;
+        workflowKeys[size] = workflowKey;
+        activityInstanceKeys[size] = activityInstanceKey;
+        tokenCounts[size] = tokenCount;
+        positions[size] = position;
+        payloadPositions[size] = payloadPosition;
+
+        size += 1;
+    }
+
+    public boolean isFull()
+    {
+        return size == capacity;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long getWorkflowInstanceKey(int index)
+    {
+        return workflowInstanceKeys[index];
+    }
+
+    public long getWorkflowKey(int index)
+    {
+        return workflowKeys[index];
+    }
+
+    public long getActivityInstanceKey(int index)
+    {
+        return activityInstanceKeys[index];
+    }
+
+    public int getTokenCount(int index)
+    {
+        return tokenCounts[index];
+    }
+
+    public long getPosition(int index)
+    {
+        return positions[index];
+    }
+
+    public long getPayloadPosition(int index)
+    {
+        return payloadPositions[index];
+    }
+
+    public long getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
+}
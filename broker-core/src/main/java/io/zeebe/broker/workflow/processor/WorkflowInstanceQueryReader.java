@@ -0,0 +1,94 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceInfo;
+import io.zeebe.broker.workflow.data.WorkflowInstanceQueryResult;
+import io.zeebe.logstreams.log.*;
+
+/**
+ * Reads the events of the workflow instances which are collected by a
+ * {@link WorkflowInstanceQuery} and writes the query result. Uses its own log
+ * stream reader, so that the events are not read on the thread of the stream
+ * processor.
+ */
+public class WorkflowInstanceQueryReader implements AutoCloseable
+{
+    protected final WorkflowInstanceEvent workflowInstanceEvent = new WorkflowInstanceEvent();
+
+    protected final LogStreamReader logStreamReader = new BufferedLogStreamReader();
+
+    public WorkflowInstanceQueryReader(LogStream logStream)
+    {
+        logStreamReader.wrap(logStream);
+    }
+
+    public void read(WorkflowInstanceQueryPage page, WorkflowInstanceQueryResult result)
+    {
+        for (int i = 0; i < page.size(); i++)
+        {
+            final WorkflowInstanceInfo info = result.workflowInstances().add()
+                .setWorkflowInstanceKey(page.getWorkflowInstanceKey(i))
+                .setWorkflowKey(page.getWorkflowKey(i))
+                .setActivityInstanceKey(page.getActivityInstanceKey(i))
+                .setActiveTokenCount(page.getTokenCount(i));
+
+            if (readWorkflowInstanceEvent(page.getPosition(i)))
+            {
+                info.setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
+                    .setVersion(workflowInstanceEvent.getVersion());
+            }
+
+            // the activity instance key is the position of the activity event
+            final long activityInstanceKey = page.getActivityInstanceKey(i);
+            if (activityInstanceKey >= 0 && readWorkflowInstanceEvent(activityInstanceKey))
+            {
+                info.setActivityId(workflowInstanceEvent.getActivityId());
+            }
+
+            final long payloadPosition = page.getPayloadPosition(i);
+            if (payloadPosition >= 0 && readWorkflowInstanceEvent(payloadPosition))
+            {
+                info.setPayload(workflowInstanceEvent.getPayload());
+            }
+        }
+
+        result.setNextCursor(page.getNextCursor());
+    }
+
+    private boolean readWorkflowInstanceEvent(long position)
+    {
+        final boolean found = logStreamReader.seek(position);
+        if (found && logStreamReader.hasNext())
+        {
+            final LoggedEvent event = logStreamReader.next();
+
+            workflowInstanceEvent.reset();
+            event.readValue(workflowInstanceEvent);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close()
+    {
+        logStreamReader.close();
+    }
+}
@@ -22,10 +22,14 @@ import static io.zeebe.broker.util.PayloadUtil.isValidPayload;
 import static io.zeebe.protocol.clientapi.EventType.TASK_EVENT;
 import static io.zeebe.protocol.clientapi.EventType.WORKFLOW_INSTANCE_EVENT;
 
+import java.io.InputStream;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.VersionedSnapshotSupport;
+import io.zeebe.broker.logstreams.processor.ProcessingLagPriority;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskHeaders;
 import io.zeebe.broker.task.data.TaskState;
@@ -33,6 +37,8 @@ import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
 import io.zeebe.broker.workflow.data.*;
 import io.zeebe.broker.workflow.map.*;
 import io.zeebe.broker.workflow.map.DeployedWorkflow;
+import io.zeebe.broker.workflow.mapping.MappingPlan;
+import io.zeebe.broker.workflow.mapping.MappingPlanProcessor;
 import io.zeebe.logstreams.log.*;
 import io.zeebe.logstreams.log.LogStreamBatchWriter.LogEntryBuilder;
 import io.zeebe.logstreams.processor.*;
@@ -40,13 +46,12 @@ import io.zeebe.logstreams.snapshot.ComposedZbMapSnapshot;
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.model.bpmn.BpmnAspect;
 import io.zeebe.model.bpmn.instance.*;
-import io.zeebe.msgpack.mapping.*;
+import io.zeebe.msgpack.mapping.MappingException;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
-import io.zeebe.util.actor.Actor;
+import io.zeebe.util.DeferredCommandContext;
 import org.agrona.DirectBuffer;
-import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 public class WorkflowInstanceStreamProcessor implements StreamProcessor
@@ -59,6 +64,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final CreateWorkflowInstanceEventProcessor createWorkflowInstanceEventProcessor = new CreateWorkflowInstanceEventProcessor();
     protected final WorkflowInstanceCreatedEventProcessor workflowInstanceCreatedEventProcessor = new WorkflowInstanceCreatedEventProcessor();
     protected final CancelWorkflowInstanceProcessor cancelWorkflowInstanceProcessor = new CancelWorkflowInstanceProcessor();
+    protected final CancelWorkflowInstancesProcessor cancelWorkflowInstancesProcessor = new CancelWorkflowInstancesProcessor();
+    protected final WorkflowInstancesCancelingProcessor workflowInstancesCancelingProcessor;
 
     protected final UpdatePayloadProcessor updatePayloadProcessor = new UpdatePayloadProcessor();
 
@@ -85,6 +92,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     protected final WorkflowEvent workflowEvent = new WorkflowEvent();
     protected final WorkflowInstanceEvent workflowInstanceEvent = new WorkflowInstanceEvent();
+    protected final WorkflowInstanceEvent activityInstanceEvent = new WorkflowInstanceEvent();
     protected final TaskEvent taskEvent = new TaskEvent();
 
     // internal //////////////////////////////////////
@@ -95,8 +103,19 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final ActivityInstanceMap activityInstanceMap;
     protected final WorkflowDeploymentCache workflowDeploymentCache;
     protected final PayloadCache payloadCache;
+    protected final ParsedWorkflowRegistry parsedWorkflowRegistry;
+    protected final WorkflowInstanceQuery workflowInstanceQuery;
+
+    /**
+     * Version 2: the instance index contains the workflow key and the instances
+     * of a workflow are linked
+     */
+    public static final int SNAPSHOT_FORMAT_VERSION = 2;
 
     protected final ComposedZbMapSnapshot composedSnapshot;
+    protected final VersionedSnapshotSupport versionedSnapshot;
+
+    protected DeferredCommandContext cmdQueue;
 
     protected LogStreamReader logStreamReader;
     protected LogStreamBatchWriter logStreamBatchWriter;
@@ -107,16 +126,21 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected long eventKey;
     protected long eventPosition;
 
-    protected final MappingProcessor payloadMappingProcessor;
+    protected final ProcessingLagPriority processingLagPriority = new ProcessingLagPriority();
+
+    protected final MappingPlanProcessor payloadMappingProcessor;
 
     protected LogStream targetStream;
 
     public WorkflowInstanceStreamProcessor(
             CommandResponseWriter responseWriter,
+            ParsedWorkflowRegistry parsedWorkflowRegistry,
             int deploymentCacheSize,
-            int payloadCacheSize)
+            int payloadCacheSize,
+            int cancelBatchSize)
     {
         this.responseWriter = responseWriter;
+        this.parsedWorkflowRegistry = parsedWorkflowRegistry;
         this.logStreamReader = new BufferedLogStreamReader();
 
         this.workflowDeploymentCache = new WorkflowDeploymentCache(deploymentCacheSize, logStreamReader);
@@ -124,27 +148,51 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
         this.workflowInstanceIndex = new WorkflowInstanceIndex();
         this.activityInstanceMap = new ActivityInstanceMap();
+        this.workflowInstanceQuery = new WorkflowInstanceQuery(workflowInstanceIndex, workflowDeploymentCache, payloadCache);
+        this.workflowInstancesCancelingProcessor = new WorkflowInstancesCancelingProcessor(cancelBatchSize);
 
-        this.payloadMappingProcessor = new MappingProcessor(4096);
+        this.payloadMappingProcessor = new MappingPlanProcessor(4096);
 
         this.composedSnapshot = new ComposedZbMapSnapshot(
             workflowInstanceIndex.getSnapshotSupport(),
+            workflowInstanceIndex.getWorkflowSnapshotSupport(),
             activityInstanceMap.getSnapshotSupport(),
             workflowDeploymentCache.getSnapshotSupport(),
             payloadCache.getSnapshotSupport());
 
+        this.versionedSnapshot = new VersionedSnapshotSupport(composedSnapshot, SNAPSHOT_FORMAT_VERSION, this::recoverFromLegacySnapshot);
+    }
+
+    /**
+     * Recovers from a snapshot of version 1 which has no header. The instances
+     * of the legacy index are linked to their workflow when they are updated
+     * the next time.
+     */
+    protected void recoverFromLegacySnapshot(InputStream inputStream) throws Exception
+    {
+        try (WorkflowInstanceIndex.LegacyIndex legacyIndex = workflowInstanceIndex.newLegacyIndex())
+        {
+            final ComposedZbMapSnapshot legacySnapshot = new ComposedZbMapSnapshot(
+                legacyIndex.getSnapshotSupport(),
+                activityInstanceMap.getSnapshotSupport(),
+                workflowDeploymentCache.getSnapshotSupport(),
+                payloadCache.getSnapshotSupport());
+
+            legacySnapshot.recoverFromSnapshot(inputStream);
+            legacyIndex.migrate();
+        }
     }
 
     @Override
     public int getPriority(long now)
     {
-        return Actor.PRIORITY_HIGH;
+        return processingLagPriority.getPriority();
     }
 
     @Override
     public SnapshotSupport getStateResource()
     {
-        return composedSnapshot;
+        return versionedSnapshot;
     }
 
     @Override
@@ -154,6 +202,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         this.logStreamTopicName = sourceStream.getTopicName();
         this.logStreamPartitionId = sourceStream.getPartitionId();
         this.streamProcessorId = context.getId();
+        this.cmdQueue = context.getStreamProcessorCmdQueue();
+        this.processingLagPriority.wrap(sourceStream);
 
         this.logStreamReader.wrap(sourceStream);
         this.logStreamBatchWriter = new LogStreamBatchWriterImpl(context.getTargetStream());
@@ -171,6 +221,35 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         logStreamReader.close();
     }
 
+    /**
+     * Collects the active workflow instances which match the query. The page
+     * is written on the thread of the stream processor, before the returned
+     * future is completed. The events of the instances are not read here, see
+     * {@link WorkflowInstanceQueryReader}.
+     */
+    public CompletableFuture<Void> queryWorkflowInstances(WorkflowInstanceQueryRequest request, WorkflowInstanceQueryPage page)
+    {
+        if (cmdQueue == null)
+        {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Workflow instance stream processor is not open."));
+            return future;
+        }
+
+        return cmdQueue.runAsync(future ->
+        {
+            try
+            {
+                workflowInstanceQuery.collect(request, page);
+                future.complete(null);
+            }
+            catch (Exception e)
+            {
+                future.completeExceptionally(e);
+            }
+        });
+    }
+
     public static MetadataFilter eventFilter()
     {
         return m -> m.getEventType() == EventType.WORKFLOW_INSTANCE_EVENT
@@ -185,6 +264,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
         eventKey = event.getKey();
         eventPosition = event.getPosition();
+        processingLagPriority.onEvent(eventPosition);
 
         sourceEventMetadata.reset();
         event.readMetadata(sourceEventMetadata);
@@ -237,6 +317,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 eventProcessor = cancelWorkflowInstanceProcessor;
                 break;
 
+            case CANCEL_WORKFLOW_INSTANCES:
+                eventProcessor = cancelWorkflowInstancesProcessor;
+                break;
+
+            case WORKFLOW_INSTANCES_CANCELING:
+                eventProcessor = workflowInstancesCancelingProcessor;
+                break;
+
             case SEQUENCE_FLOW_TAKEN:
                 eventProcessor = sequenceFlowTakenEventProcessor;
                 break;
@@ -322,17 +410,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
-    protected <T extends FlowElement> T getCurrentActivity()
+    protected DeployedWorkflow getCurrentWorkflow()
     {
         final long workflowKey = workflowInstanceEvent.getWorkflowKey();
         final DeployedWorkflow deployedWorkflow = workflowDeploymentCache.getWorkflow(workflowKey);
 
         if (deployedWorkflow != null)
         {
-            final DirectBuffer currentActivityId = workflowInstanceEvent.getActivityId();
-
-            final Workflow workflow = deployedWorkflow.getWorkflow();
-            return workflow.findFlowElementById(currentActivityId);
+            return deployedWorkflow;
         }
         else
         {
@@ -340,6 +425,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
+    protected <T extends FlowElement> T getCurrentActivity()
+    {
+        final DirectBuffer currentActivityId = workflowInstanceEvent.getActivityId();
+
+        final Workflow workflow = getCurrentWorkflow().getWorkflow();
+        return workflow.findFlowElementById(currentActivityId);
+    }
+
     protected long writeWorkflowEvent(LogStreamWriter writer)
     {
         targetEventMetadata.reset();
@@ -370,6 +463,78 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 .tryWrite();
     }
 
+    protected void writeWorkflowInstanceEvent(LogEntryBuilder logEntryBuilder, long key)
+    {
+        targetEventMetadata.reset();
+        targetEventMetadata
+                .protocolVersion(Protocol.PROTOCOL_VERSION)
+                .raftTermId(targetStream.getTerm())
+                .eventType(WORKFLOW_INSTANCE_EVENT);
+
+        logEntryBuilder
+            .key(key)
+            .metadataWriter(targetEventMetadata)
+            .valueWriter(workflowInstanceEvent)
+            .done();
+    }
+
+    /**
+     * Writes the cancel command of the task of the activity instance which is
+     * currently wrapped by the activity instance map.
+     */
+    protected void writeCancelTaskEvent(LogEntryBuilder logEntryBuilder, long workflowInstanceKey, long activityInstanceKey, long taskKey)
+    {
+        targetEventMetadata.reset();
+        targetEventMetadata
+            .protocolVersion(Protocol.PROTOCOL_VERSION)
+            .raftTermId(targetStream.getTerm())
+            .eventType(TASK_EVENT);
+
+        taskEvent.reset();
+        taskEvent
+            .setState(TaskState.CANCEL)
+            .setType(EMPTY_TASK_TYPE)
+            .headers()
+                .setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
+                .setWorkflowDefinitionVersion(workflowInstanceEvent.getVersion())
+                .setWorkflowInstanceKey(workflowInstanceKey)
+                .setActivityId(activityInstanceMap.getActivityId())
+                .setActivityInstanceKey(activityInstanceKey);
+
+        logEntryBuilder
+            .key(taskKey)
+            .metadataWriter(targetEventMetadata)
+            .valueWriter(taskEvent)
+            .done();
+    }
+
+    /**
+     * Writes the terminated event of the activity instance which is currently
+     * wrapped by the activity instance map.
+     */
+    protected void writeTerminateActivityInstanceEvent(LogEntryBuilder logEntryBuilder, long workflowInstanceKey, long activityInstanceKey)
+    {
+        targetEventMetadata.reset();
+        targetEventMetadata
+                .protocolVersion(Protocol.PROTOCOL_VERSION)
+                .raftTermId(targetStream.getTerm())
+                .eventType(WORKFLOW_INSTANCE_EVENT);
+
+        activityInstanceEvent.reset();
+        activityInstanceEvent
+            .setState(WorkflowInstanceState.ACTIVITY_TERMINATED)
+            .setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
+            .setVersion(workflowInstanceEvent.getVersion())
+            .setWorkflowInstanceKey(workflowInstanceKey)
+            .setActivityId(activityInstanceMap.getActivityId());
+
+        logEntryBuilder
+            .key(activityInstanceKey)
+            .metadataWriter(targetEventMetadata)
+            .valueWriter(activityInstanceEvent)
+            .done();
+    }
+
     protected boolean sendWorkflowInstanceResponse()
     {
         return responseWriter
@@ -399,6 +564,12 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             final DirectBuffer bpmnProcessId = workflowEvent.getBpmnProcessId();
 
             workflowDeploymentCache.addDeployedWorkflow(eventKey, bpmnProcessId, version);
+
+            final Workflow workflow = parsedWorkflowRegistry.take(workflowEvent.getDeploymentKey());
+            if (workflow != null)
+            {
+                workflowDeploymentCache.addParsedWorkflow(eventKey, workflow, version);
+            }
         }
     }
 
@@ -494,7 +665,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         public void updateState()
         {
             workflowInstanceIndex
-                .newWorkflowInstance(eventKey)
+                .newWorkflowInstance(eventKey, workflowInstanceEvent.getWorkflowKey())
                 .setPosition(eventPosition)
                 .setActiveTokenCount(1)
                 .setActivityKey(-1L)
@@ -572,6 +743,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             {
                 workflowInstanceIndex
                     .setActiveTokenCount(activeTokenCount - 1)
+                    .setWorkflowKey(workflowInstanceEvent.getWorkflowKey())
                     .write();
             }
         }
@@ -625,7 +797,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
                 try
                 {
-                    setWorkflowInstancePayload(serviceTask.getInputOutputMapping().getInputMappings());
+                    setWorkflowInstancePayload(getCurrentWorkflow().getInputMappingPlan(serviceTask));
                 }
                 catch (Exception e)
                 {
@@ -641,15 +813,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             }
         }
 
-        private void setWorkflowInstancePayload(Mapping[] mappings)
+        private void setWorkflowInstancePayload(MappingPlan mappingPlan)
         {
             sourcePayload.wrap(workflowInstanceEvent.getPayload());
             // only if we have no default mapping we have to use the mapping processor
-            if (mappings.length > 0)
+            if (!mappingPlan.isEmpty())
             {
-                final int resultLen = payloadMappingProcessor.extract(sourcePayload, mappings);
-                final MutableDirectBuffer buffer = payloadMappingProcessor.getResultBuffer();
-                workflowInstanceEvent.setPayload(buffer, 0, resultLen);
+                final DirectBuffer result = payloadMappingProcessor.extract(mappingPlan, sourcePayload);
+                workflowInstanceEvent.setPayload(result, 0, result.capacity());
             }
         }
 
@@ -665,6 +836,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             workflowInstanceIndex
                 .wrapWorkflowInstanceKey(workflowInstanceEvent.getWorkflowInstanceKey())
                 .setActivityKey(eventKey)
+                .setWorkflowKey(workflowInstanceEvent.getWorkflowKey())
                 .write();
 
             activityInstanceMap
@@ -818,23 +990,22 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
             workflowInstanceEvent.setState(WorkflowInstanceState.ACTIVITY_COMPLETED);
 
-            setWorkflowInstancePayload(serviceTask.getInputOutputMapping().getOutputMappings());
+            setWorkflowInstancePayload(getCurrentWorkflow().getOutputMappingPlan(serviceTask));
         }
 
-        private void setWorkflowInstancePayload(Mapping[] mappings)
+        private void setWorkflowInstancePayload(MappingPlan mappingPlan)
         {
             final DirectBuffer workflowInstancePayload = payloadCache.getPayload(workflowInstanceEvent.getWorkflowInstanceKey());
             final DirectBuffer taskPayload = workflowInstanceEvent.getPayload();
             final boolean isNilPayload = isNilPayload(taskPayload);
-            if (mappings.length > 0)
+            if (!mappingPlan.isEmpty())
             {
                 if (isNilPayload)
                 {
                     throw new MappingException(INCIDENT_ERROR_MSG_MISSING_TASK_PAYLOAD_ON_OUT_MAPPING);
                 }
-                final int resultLen = payloadMappingProcessor.merge(taskPayload, workflowInstancePayload, mappings);
-                final MutableDirectBuffer buffer = payloadMappingProcessor.getResultBuffer();
-                workflowInstanceEvent.setPayload(buffer, 0, resultLen);
+                final DirectBuffer result = payloadMappingProcessor.merge(mappingPlan, taskPayload, workflowInstancePayload);
+                workflowInstanceEvent.setPayload(result, 0, result.capacity());
             }
             else if (isNilPayload)
             {
@@ -855,6 +1026,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             workflowInstanceIndex
                 .wrapWorkflowInstanceKey(workflowInstanceEvent.getWorkflowInstanceKey())
                 .setActivityKey(-1L)
+                .setWorkflowKey(workflowInstanceEvent.getWorkflowKey())
                 .write();
 
             activityInstanceMap.remove(eventKey);
@@ -863,8 +1035,6 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     private final class CancelWorkflowInstanceProcessor implements EventProcessor
     {
-        private final WorkflowInstanceEvent activityInstanceEvent = new WorkflowInstanceEvent();
-
         private boolean isCanceled;
         private long activityInstanceKey;
         private long taskKey;
@@ -904,97 +1074,228 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
             if (taskKey > 0)
             {
-                writeCancelTaskEvent(logStreamBatchWriter.event(), taskKey);
+                writeCancelTaskEvent(logStreamBatchWriter.event(), eventKey, activityInstanceKey, taskKey);
             }
 
             if (activityInstanceKey > 0)
             {
-                writeTerminateActivityInstanceEvent(logStreamBatchWriter.event(), activityInstanceKey);
+                writeTerminateActivityInstanceEvent(logStreamBatchWriter.event(), eventKey, activityInstanceKey);
             }
 
-            writeWorklowInstanceEvent(logStreamBatchWriter.event());
+            writeWorkflowInstanceEvent(logStreamBatchWriter.event(), eventKey);
 
             return logStreamBatchWriter.tryWrite();
         }
 
-        private void writeWorklowInstanceEvent(LogEntryBuilder logEntryBuilder)
+        @Override
+        public boolean executeSideEffects()
         {
-            targetEventMetadata.reset();
-            targetEventMetadata
-                    .protocolVersion(Protocol.PROTOCOL_VERSION)
-                    .raftTermId(targetStream.getTerm())
-                    .eventType(WORKFLOW_INSTANCE_EVENT);
+            return sendWorkflowInstanceResponse();
+        }
 
-            logEntryBuilder
-                .key(eventKey)
-                .metadataWriter(targetEventMetadata)
-                .valueWriter(workflowInstanceEvent)
-                .done();
+        @Override
+        public void updateState()
+        {
+            if (isCanceled)
+            {
+                workflowInstanceIndex.remove(eventKey);
+                payloadCache.remove(eventKey);
+                activityInstanceMap.remove(activityInstanceKey);
+            }
         }
+    }
 
-        private void writeCancelTaskEvent(LogEntryBuilder logEntryBuilder, long taskKey)
+    private final class CancelWorkflowInstancesProcessor implements EventProcessor
+    {
+        @Override
+        public void processEvent()
         {
-            targetEventMetadata.reset();
-            targetEventMetadata
-                .protocolVersion(Protocol.PROTOCOL_VERSION)
-                .raftTermId(targetStream.getTerm())
-                .eventType(TASK_EVENT);
+            final DirectBuffer bpmnProcessId = workflowInstanceEvent.getBpmnProcessId();
+            final int version = workflowInstanceEvent.getVersion();
 
-            taskEvent.reset();
-            taskEvent
-                .setState(TaskState.CANCEL)
-                .setType(EMPTY_TASK_TYPE)
-                .headers()
-                    .setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
-                    .setWorkflowDefinitionVersion(workflowInstanceEvent.getVersion())
-                    .setWorkflowInstanceKey(eventKey)
-                    .setActivityId(activityInstanceMap.getActivityId())
-                    .setActivityInstanceKey(activityInstanceKey);
+            long workflowKey = -1L;
+            if (bpmnProcessId.capacity() > 0)
+            {
+                workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version > 0 ? version : 1);
+            }
 
-            logEntryBuilder
-                .key(taskKey)
-                .metadataWriter(targetEventMetadata)
-                .valueWriter(taskEvent)
-                .done();
+            if (workflowKey >= 0)
+            {
+                // the instances are canceled in batches by processing the canceling event
+                workflowInstanceEvent
+                    .setState(WorkflowInstanceState.WORKFLOW_INSTANCES_CANCELING)
+                    .setCanceledInstances(0);
+            }
+            else
+            {
+                workflowInstanceEvent.setState(WorkflowInstanceState.CANCEL_WORKFLOW_INSTANCES_REJECTED);
+            }
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            return sendWorkflowInstanceResponse();
+        }
+
+        @Override
+        public long writeEvent(LogStreamWriter writer)
+        {
+            return writeWorkflowEvent(writer.key(eventKey));
         }
+    }
+
+    /**
+     * Cancels the next batch of active instances of the workflow (i.e. all
+     * versions or the given one). The instances are taken from the index, so
+     * that the events don't have to be looked up in the log. Writes the next
+     * canceling event if more instances are active, so that other events can
+     * be processed in between.
+     */
+    private final class WorkflowInstancesCancelingProcessor implements EventProcessor
+    {
+        private final WorkflowInstanceIndex.View instanceView = workflowInstanceIndex.newView();
+        private final WorkflowInstanceEvent progressEvent = new WorkflowInstanceEvent();
+
+        private final long[] workflowInstanceKeys;
+        private final long[] workflowKeys;
+        private final int[] versions;
+        private final long[] activityInstanceKeys;
+        private final long[] taskKeys;
+
+        private int instanceCount;
 
-        private void writeTerminateActivityInstanceEvent(LogEntryBuilder logEntryBuilder, long activityInstanceKey)
+        WorkflowInstancesCancelingProcessor(int batchSize)
         {
+            workflowInstanceKeys = new long[batchSize];
+            workflowKeys = new long[batchSize];
+            versions = new int[batchSize];
+            activityInstanceKeys = new long[batchSize];
+            taskKeys = new long[batchSize];
+        }
+
+        @Override
+        public void processEvent()
+        {
+            instanceCount = 0;
+
+            final DirectBuffer bpmnProcessId = workflowInstanceEvent.getBpmnProcessId();
+            final int requestedVersion = workflowInstanceEvent.getVersion();
+
+            int version = requestedVersion > 0 ? requestedVersion : 1;
+            long workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version);
+
+            boolean hasMoreInstances = false;
+
+            while (workflowKey >= 0 && !hasMoreInstances)
+            {
+                long instanceKey = workflowInstanceIndex.getFirstWorkflowInstanceKey(workflowKey);
+
+                while (instanceKey >= 0 && !hasMoreInstances)
+                {
+                    instanceView.wrapWorkflowInstanceKey(instanceKey);
+
+                    if (instanceCount == workflowInstanceKeys.length)
+                    {
+                        hasMoreInstances = true;
+                    }
+                    else if (instanceView.getTokenCount() > 0)
+                    {
+                        final long activityInstanceKey = instanceView.getActivityInstanceKey();
+
+                        workflowInstanceKeys[instanceCount] = instanceKey;
+                        workflowKeys[instanceCount] = workflowKey;
+                        versions[instanceCount] = version;
+                        activityInstanceKeys[instanceCount] = activityInstanceKey;
+                        taskKeys[instanceCount] = activityInstanceMap.wrapActivityInstanceKey(activityInstanceKey).getTaskKey();
+
+                        instanceCount += 1;
+                    }
+
+                    instanceKey = instanceView.getNextWorkflowInstanceKey();
+                }
+
+                if (requestedVersion > 0)
+                {
+                    break;
+                }
+
+                version += 1;
+                workflowKey = workflowDeploymentCache.getWorkflowKeyByIdAndVersion(bpmnProcessId, version);
+            }
+
+            final WorkflowInstanceState nextState = hasMoreInstances ? WorkflowInstanceState.WORKFLOW_INSTANCES_CANCELING : WorkflowInstanceState.WORKFLOW_INSTANCES_CANCELED;
+
+            progressEvent.reset();
+            progressEvent
+                .setState(nextState)
+                .setBpmnProcessId(bpmnProcessId)
+                .setVersion(requestedVersion)
+                .setCanceledInstances(workflowInstanceEvent.getCanceledInstances() + instanceCount);
+        }
+
+        @Override
+        public long writeEvent(LogStreamWriter writer)
+        {
+            final DirectBuffer bpmnProcessId = progressEvent.getBpmnProcessId();
+
+            logStreamBatchWriter
+                .producerId(streamProcessorId)
+                .sourceEvent(logStreamTopicName, logStreamPartitionId, eventPosition);
+
+            for (int i = 0; i < instanceCount; i++)
+            {
+                final long workflowInstanceKey = workflowInstanceKeys[i];
+                final long activityInstanceKey = activityInstanceKeys[i];
+
+                workflowInstanceEvent.reset();
+                workflowInstanceEvent
+                    .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_CANCELED)
+                    .setBpmnProcessId(bpmnProcessId)
+                    .setVersion(versions[i])
+                    .setWorkflowKey(workflowKeys[i])
+                    .setWorkflowInstanceKey(workflowInstanceKey);
+
+                activityInstanceMap.wrapActivityInstanceKey(activityInstanceKey);
+
+                if (taskKeys[i] > 0)
+                {
+                    writeCancelTaskEvent(logStreamBatchWriter.event(), workflowInstanceKey, activityInstanceKey, taskKeys[i]);
+                }
+
+                if (activityInstanceKey > 0)
+                {
+                    writeTerminateActivityInstanceEvent(logStreamBatchWriter.event(), workflowInstanceKey, activityInstanceKey);
+                }
+
+                writeWorkflowInstanceEvent(logStreamBatchWriter.event(), workflowInstanceKey);
+            }
+
             targetEventMetadata.reset();
             targetEventMetadata
                     .protocolVersion(Protocol.PROTOCOL_VERSION)
                     .raftTermId(targetStream.getTerm())
                     .eventType(WORKFLOW_INSTANCE_EVENT);
 
-            activityInstanceEvent.reset();
-            activityInstanceEvent
-                .setState(WorkflowInstanceState.ACTIVITY_TERMINATED)
-                .setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
-                .setVersion(workflowInstanceEvent.getVersion())
-                .setWorkflowInstanceKey(eventKey)
-                .setActivityId(activityInstanceMap.getActivityId());
-
-            logEntryBuilder
-                .key(activityInstanceKey)
+            logStreamBatchWriter.event()
+                .key(eventKey)
                 .metadataWriter(targetEventMetadata)
-                .valueWriter(activityInstanceEvent)
+                .valueWriter(progressEvent)
                 .done();
-        }
 
-        @Override
-        public boolean executeSideEffects()
-        {
-            return sendWorkflowInstanceResponse();
+            return logStreamBatchWriter.tryWrite();
         }
 
         @Override
         public void updateState()
         {
-            if (isCanceled)
+            for (int i = 0; i < instanceCount; i++)
             {
-                workflowInstanceIndex.remove(eventKey);
-                payloadCache.remove(eventKey);
-                activityInstanceMap.remove(activityInstanceKey);
+                final long workflowInstanceKey = workflowInstanceKeys[i];
+
+                workflowInstanceIndex.remove(workflowInstanceKey);
+                payloadCache.remove(workflowInstanceKey);
+                activityInstanceMap.remove(activityInstanceKeys[i]);
             }
         }
     }
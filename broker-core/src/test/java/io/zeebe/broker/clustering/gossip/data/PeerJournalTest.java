@@ -0,0 +1,149 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.zeebe.clustering.gossip.PeerState;
+
+public class PeerJournalTest
+{
+    private static final int PEER_CAPACITY = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp()
+    {
+        file = new File(tempFolder.getRoot(), "gossip.journal");
+    }
+
+    @Test
+    public void shouldRestoreLatestStateOfEachPeer() throws Exception
+    {
+        // given
+        final PeerJournal journal = open(1024 * 1024);
+
+        journal.append(peer(51016).alive());
+        journal.append(peer(52016).alive());
+        journal.append(peer(51016).suspect());
+
+        journal.close();
+
+        // when
+        final PeerJournal reopenedJournal = open(1024 * 1024);
+
+        // then
+        assertThat(states(reopenedJournal)).containsExactly(PeerState.SUSPECT, PeerState.ALIVE);
+
+        reopenedJournal.close();
+    }
+
+    @Test
+    public void shouldCompactJournal() throws Exception
+    {
+        // given
+        final PeerJournal journal = open(512);
+
+        // when
+        for (int i = 0; i < 100; i++)
+        {
+            journal.append(peer(51016).alive());
+            journal.append(peer(52016).suspect());
+        }
+        journal.append(peer(52016).dead());
+        journal.close();
+
+        // then only the latest records are kept
+        assertThat(file.length()).isLessThan(4 * 512);
+
+        final PeerJournal reopenedJournal = open(512);
+        assertThat(states(reopenedJournal)).containsExactly(PeerState.ALIVE, PeerState.DEAD);
+
+        reopenedJournal.close();
+    }
+
+    @Test
+    public void shouldDiscardTornRecord() throws Exception
+    {
+        // given
+        final PeerJournal journal = open(1024 * 1024);
+        journal.append(peer(51016).alive());
+        journal.close();
+
+        final long length = file.length();
+
+        // when a record is partially written
+        try (FileOutputStream os = new FileOutputStream(file, true))
+        {
+            os.write(new byte[] {64, 0, 0, 0, 1, 2});
+        }
+
+        // then
+        final PeerJournal reopenedJournal = open(1024 * 1024);
+        assertThat(states(reopenedJournal)).containsExactly(PeerState.ALIVE);
+        assertThat(file.length()).isEqualTo(length);
+
+        reopenedJournal.append(peer(52016).alive());
+        reopenedJournal.close();
+
+        final PeerJournal journalWithAppendedRecord = open(1024 * 1024);
+        assertThat(states(journalWithAppendedRecord)).containsExactly(PeerState.ALIVE, PeerState.ALIVE);
+
+        journalWithAppendedRecord.close();
+    }
+
+    protected PeerJournal open(final int size) throws Exception
+    {
+        final PeerJournal journal = new PeerJournal(file, size, PEER_CAPACITY);
+        journal.open();
+        return journal;
+    }
+
+    protected static List<PeerState> states(final PeerJournal journal)
+    {
+        final List<PeerState> states = new ArrayList<>();
+        for (final Peer peer : journal.getPeers())
+        {
+            states.add(peer.state());
+        }
+        return states;
+    }
+
+    protected static Peer peer(final int port)
+    {
+        final Peer peer = new Peer();
+        peer.managementEndpoint().host("localhost").port(port);
+        peer.heartbeat().generation(1).version(1);
+        return peer;
+    }
+
+}
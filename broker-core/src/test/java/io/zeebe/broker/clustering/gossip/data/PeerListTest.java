@@ -0,0 +1,107 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.clustering.gossip.PeerState;
+
+public class PeerListTest
+{
+    protected PeerList peers;
+    protected List<PeerState> stateChanges;
+
+    @Before
+    public void setUp()
+    {
+        peers = new PeerList(4);
+        peers.append(peer(1));
+
+        stateChanges = new ArrayList<>();
+        peers.registerListener(new PeerListListener()
+        {
+            @Override
+            public void onPeerJoin(Peer peer)
+            {
+            }
+
+            @Override
+            public void onPeerStateChange(Peer peer)
+            {
+                stateChanges.add(peer.state());
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotifyStateChangeOnMerge()
+    {
+        // given
+        final PeerList updates = new PeerList(4);
+        updates.append(peer(1).suspect());
+
+        // when
+        peers.merge(updates.iterator());
+
+        // then
+        assertThat(stateChanges).containsExactly(PeerState.SUSPECT);
+    }
+
+    @Test
+    public void shouldNotNotifyStateChangeOnHeartbeat()
+    {
+        // given
+        final PeerList updates = new PeerList(4);
+        updates.append(peer(2));
+
+        // when
+        peers.merge(updates.iterator());
+
+        // then
+        assertThat(stateChanges).isEmpty();
+    }
+
+    @Test
+    public void shouldNotifyChangedState()
+    {
+        // given
+        final Peer peer = new Peer();
+        peers.get(0, peer);
+
+        // when
+        peers.setChangedState(0, peer.dead());
+
+        // then
+        assertThat(stateChanges).containsExactly(PeerState.DEAD);
+    }
+
+    protected static Peer peer(int heartbeatVersion)
+    {
+        final Peer peer = new Peer().alive();
+        peer.managementEndpoint().host("localhost").port(51016);
+        peer.heartbeat().generation(1).version(heartbeatVersion);
+        return peer;
+    }
+
+}
@@ -25,11 +25,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Iterator;
 
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 
 import io.zeebe.broker.clustering.gossip.data.Peer;
 import io.zeebe.broker.clustering.gossip.data.PeerList;
 import io.zeebe.broker.clustering.gossip.data.RaftMembership;
+import io.zeebe.clustering.gossip.GossipDecoder;
+import io.zeebe.clustering.gossip.MessageHeaderEncoder;
 import io.zeebe.clustering.gossip.PeerState;
 import io.zeebe.clustering.gossip.RaftMembershipState;
 import io.zeebe.test.util.BufferWriterUtil;
@@ -97,6 +100,33 @@ public class GossipMessageTest
             .hasSameElementsAs(expected);
     }
 
+    @Test
+    public void shouldSkipGossipOfUnknownVersion()
+    {
+        // given
+        final PeerList peers = new PeerList(1);
+        peers.append(
+            new Peer()
+                .alive()
+        );
+
+        final GossipRequest gossipRequest = new GossipRequest()
+            .peers(peers);
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[gossipRequest.getLength()]);
+        gossipRequest.write(buffer, 0);
+
+        new MessageHeaderEncoder().wrap(buffer, 0)
+            .version(GossipDecoder.SCHEMA_VERSION + 1);
+
+        // when
+        final GossipRequest actual = new GossipRequest();
+        actual.wrap(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(actual.peers().hasNext()).isFalse();
+    }
+
     @Test
     public void testProbeRequest()
     {
@@ -154,6 +184,8 @@ public class GossipMessageTest
                     .state(RaftMembershipState.LEADER)
             );
 
+        final DirectBuffer zone = wrapString("zone-a");
+        peer.zone(zone, 0, zone.capacity());
 
         final Peer actual = BufferWriterUtil.writeAndRead(peer);
         assertThat(actual)
@@ -168,6 +200,8 @@ public class GossipMessageTest
 
         assertThat(actual.raftMemberships())
             .hasSameElementsAs(peer.raftMemberships());
+
+        assertThat(actual.isInSameZone(peer)).isTrue();
     }
 
 }
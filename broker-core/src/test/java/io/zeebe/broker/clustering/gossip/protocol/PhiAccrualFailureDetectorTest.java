@@ -0,0 +1,131 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.transport.SocketAddress;
+
+public class PhiAccrualFailureDetectorTest
+{
+    private static final SocketAddress PEER = new SocketAddress("localhost", 51016);
+    private static final SocketAddress OTHER_PEER = new SocketAddress("localhost", 51026);
+
+    private PhiAccrualFailureDetector failureDetector;
+
+    @Before
+    public void setUp()
+    {
+        failureDetector = new PhiAccrualFailureDetector(100, 3, 100, 0);
+    }
+
+    @Test
+    public void shouldNotBeAvailableWithoutEnoughHeartbeats()
+    {
+        // given
+        failureDetector.heartbeat(PEER, 1000);
+        failureDetector.heartbeat(PEER, 2000);
+        failureDetector.heartbeat(PEER, 3000);
+
+        // then
+        assertThat(failureDetector.isAvailable(PEER)).isFalse();
+        assertThat(failureDetector.phi(PEER, 60_000)).isEqualTo(0.0);
+        assertThat(failureDetector.isAvailable(OTHER_PEER)).isFalse();
+    }
+
+    @Test
+    public void shouldIncreasePhiWhileHeartbeatsAreMissing()
+    {
+        // given
+        heartbeats(PEER, 0, 1000, 10);
+
+        // when
+        final double phiOnTime = failureDetector.phi(PEER, 10_000);
+        final double phiLate = failureDetector.phi(PEER, 10_500);
+        final double phiMissing = failureDetector.phi(PEER, 12_000);
+
+        // then
+        assertThat(failureDetector.isAvailable(PEER)).isTrue();
+        assertThat(phiOnTime).isLessThan(1.0);
+        assertThat(phiLate).isGreaterThan(phiOnTime);
+        assertThat(phiMissing).isGreaterThan(8.0);
+    }
+
+    @Test
+    public void shouldAdaptToIrregularHeartbeats()
+    {
+        // given
+        heartbeats(PEER, 0, 1000, 10);
+
+        long time = 0;
+        for (int i = 0; i < 10; i++)
+        {
+            time += i % 2 == 0 ? 500 : 2500;
+            failureDetector.heartbeat(OTHER_PEER, time);
+        }
+
+        // when
+        final double phiRegular = failureDetector.phi(PEER, 10_000 + 2_500);
+        final double phiIrregular = failureDetector.phi(OTHER_PEER, time + 2_500);
+
+        // then
+        assertThat(phiIrregular).isLessThan(phiRegular);
+    }
+
+    @Test
+    public void shouldToleratePause()
+    {
+        // given
+        final PhiAccrualFailureDetector pauseTolerant = new PhiAccrualFailureDetector(100, 3, 100, 3000);
+
+        for (int i = 0; i <= 10; i++)
+        {
+            failureDetector.heartbeat(PEER, i * 1000);
+            pauseTolerant.heartbeat(PEER, i * 1000);
+        }
+
+        // then
+        assertThat(pauseTolerant.phi(PEER, 13_000)).isLessThan(1.0);
+        assertThat(failureDetector.phi(PEER, 13_000)).isGreaterThan(8.0);
+    }
+
+    @Test
+    public void shouldForgetHeartbeatsOfRemovedPeer()
+    {
+        // given
+        heartbeats(PEER, 0, 1000, 10);
+
+        // when
+        failureDetector.remove(PEER);
+
+        // then
+        assertThat(failureDetector.isAvailable(PEER)).isFalse();
+        assertThat(failureDetector.phi(PEER, 60_000)).isEqualTo(0.0);
+    }
+
+    protected void heartbeats(SocketAddress peer, long start, long interval, int count)
+    {
+        for (int i = 0; i <= count; i++)
+        {
+            failureDetector.heartbeat(peer, start + i * interval);
+        }
+    }
+}
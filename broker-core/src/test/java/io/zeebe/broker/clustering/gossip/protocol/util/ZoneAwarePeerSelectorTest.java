@@ -0,0 +1,209 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.gossip.protocol.util;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.agrona.DirectBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.broker.clustering.gossip.data.Peer;
+import io.zeebe.broker.clustering.gossip.data.PeerList;
+
+public class ZoneAwarePeerSelectorTest
+{
+    protected static final int SELECTIONS = 1000;
+
+    protected PeerList peers;
+    protected Peer localPeer;
+    protected ZoneAwarePeerSelector selector;
+
+    @Before
+    public void setUp()
+    {
+        peers = new PeerList(16);
+
+        localPeer = peer(0, "a");
+        peers.insert(localPeer);
+
+        peers.insert(peer(1, "a"));
+        peers.insert(peer(2, "a"));
+        peers.insert(peer(3, "b"));
+    }
+
+    @After
+    public void tearDown()
+    {
+        selector.close();
+        peers.close();
+    }
+
+    @Test
+    public void shouldOnlySelectPeersOfOwnZoneWithoutCrossZoneRatio()
+    {
+        // given
+        selector = new ZoneAwarePeerSelector(peers, localPeer, 0.0);
+
+        final Peer selected = new Peer();
+        final Set<Integer> selectedPorts = new HashSet<>();
+
+        // when
+        for (int i = 0; i < SELECTIONS; i++)
+        {
+            assertThat(selector.next(selected, new Peer[] { localPeer })).isTrue();
+            selectedPorts.add(selected.managementEndpoint().port());
+        }
+
+        // then
+        assertThat(selectedPorts).containsOnly(port(1), port(2));
+    }
+
+    @Test
+    public void shouldSelectPeersOfOtherZonesIfOwnZoneIsExhausted()
+    {
+        // given
+        selector = new ZoneAwarePeerSelector(peers, localPeer, 0.0);
+
+        final Peer[] targets = { new Peer(), new Peer(), new Peer(), new Peer() };
+
+        // when
+        final int count = selector.next(targets.length, targets, new Peer[] { localPeer });
+
+        // then
+        assertThat(count).isEqualTo(3);
+
+        final Set<Integer> selectedPorts = new HashSet<>();
+        for (int i = 0; i < count; i++)
+        {
+            selectedPorts.add(targets[i].managementEndpoint().port());
+        }
+
+        assertThat(selectedPorts).containsOnly(port(1), port(2), port(3));
+    }
+
+    @Test
+    public void shouldNotSelectDeadPeers()
+    {
+        // given
+        selector = new ZoneAwarePeerSelector(peers, localPeer, 0.5);
+
+        final Peer peer = new Peer();
+        for (int i = 1; i <= 3; i++)
+        {
+            final int idx = peers.find(peer(i, null));
+            peers.get(idx, peer);
+
+            if (i != 2)
+            {
+                peers.setChangedState(idx, peer.dead());
+            }
+        }
+
+        final Peer selected = new Peer();
+
+        // when
+        for (int i = 0; i < SELECTIONS; i++)
+        {
+            assertThat(selector.next(selected, new Peer[] { localPeer })).isTrue();
+
+            // then
+            assertThat(selected.managementEndpoint().port()).isEqualTo(port(2));
+        }
+    }
+
+    @Test
+    public void shouldSelectPeerAfterZoneChange()
+    {
+        // given
+        selector = new ZoneAwarePeerSelector(peers, localPeer, 0.0);
+
+        final PeerList updates = new PeerList(1);
+        final Peer update = peer(3, "a");
+        update.heartbeat().version(1);
+        updates.append(update);
+
+        // when
+        peers.merge(updates.iterator());
+
+        // then
+        final Peer[] targets = { new Peer(), new Peer(), new Peer() };
+        final int count = selector.next(2, targets, new Peer[] { localPeer, peer(1, null) });
+
+        assertThat(count).isEqualTo(2);
+        assertThat(targets[0].isInSameZone(localPeer)).isTrue();
+        assertThat(targets[1].isInSameZone(localPeer)).isTrue();
+    }
+
+    @Test
+    public void shouldSelectPeerAfterStateChangesOfMiddlePeer()
+    {
+        // given
+        peers.insert(peer(4, "a"));
+
+        selector = new ZoneAwarePeerSelector(peers, localPeer, 0.0);
+
+        final Peer peer = new Peer();
+        final int idx = peers.find(peer(2, null));
+        peers.get(idx, peer);
+
+        // when
+        peers.setChangedState(idx, peer.dead());
+        peers.setChangedState(idx, peer.alive());
+
+        // then
+        final Peer[] targets = { new Peer(), new Peer(), new Peer(), new Peer() };
+        final int count = selector.next(4, targets, new Peer[] { localPeer });
+
+        assertThat(count).isEqualTo(3);
+
+        final Set<Integer> selectedPorts = new HashSet<>();
+        for (int i = 0; i < count; i++)
+        {
+            selectedPorts.add(targets[i].managementEndpoint().port());
+        }
+
+        assertThat(selectedPorts).containsOnly(port(1), port(2), port(4));
+    }
+
+    protected static Peer peer(int id, String zone)
+    {
+        final Peer peer = new Peer().alive();
+        peer.managementEndpoint().host("localhost").port(port(id));
+        peer.heartbeat().generation(1).version(0);
+
+        if (zone != null)
+        {
+            final DirectBuffer zoneBuffer = wrapString(zone);
+            peer.zone(zoneBuffer, 0, zoneBuffer.capacity());
+        }
+
+        return peer;
+    }
+
+    protected static int port(int id)
+    {
+        return 51016 + id;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkRequest;
+import io.zeebe.broker.clustering.management.message.FetchSnapshotChunkResponse;
+import io.zeebe.broker.clustering.management.message.ListSnapshotsResponse;
+import io.zeebe.broker.logstreams.ReplicableSnapshots;
+import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotWriter;
+
+public class SnapshotProviderTest
+{
+    private static final String LOG_NAME = "test-topic.0";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private SnapshotStorage snapshotStorage;
+    private ReplicableSnapshots replicableSnapshots;
+    private LogStream logStream;
+    private SnapshotProvider snapshotProvider;
+
+    @Before
+    public void setUp()
+    {
+        snapshotStorage = LogStreams.createFsSnapshotStore(tempFolder.getRoot().getAbsolutePath()).build();
+
+        logStream = mock(LogStream.class);
+        when(logStream.getLogName()).thenReturn(LOG_NAME);
+
+        replicableSnapshots = mock(ReplicableSnapshots.class);
+        when(replicableSnapshots.getReplicableSnapshots(LOG_NAME)).thenReturn(Arrays.asList("processor", "other-processor"));
+
+        snapshotProvider = new SnapshotProvider(snapshotStorage, replicableSnapshots);
+    }
+
+    @Test
+    public void shouldListReplicableSnapshots() throws Exception
+    {
+        // given
+        writeSnapshot("processor", 10L, new byte[] { 1, 2, 3 });
+        writeSnapshot("unregistered", 20L, new byte[] { 1, 2, 3 });
+
+        final ListSnapshotsResponse response = new ListSnapshotsResponse();
+
+        // when
+        snapshotProvider.listSnapshots(logStream, response);
+
+        // then only the existing and registered snapshots are listed
+        assertThat(response.size()).isEqualTo(1);
+        assertThat(response.name(0)).isEqualTo("processor");
+        assertThat(response.position(0)).isEqualTo(10L);
+    }
+
+    @Test
+    public void shouldReadSnapshotInChunks() throws Exception
+    {
+        // given
+        final byte[] data = new byte[FetchSnapshotChunkResponse.MAX_CHUNK_SIZE + 100];
+        Arrays.fill(data, (byte) 7);
+        data[data.length - 1] = 8;
+
+        writeSnapshot("processor", 10L, data);
+
+        final FetchSnapshotChunkRequest request = new FetchSnapshotChunkRequest()
+            .name("processor")
+            .position(10L);
+        final FetchSnapshotChunkResponse response = new FetchSnapshotChunkResponse();
+
+        // when
+        snapshotProvider.readChunk(logStream, request, response);
+
+        // then
+        assertThat(response.position()).isEqualTo(10L);
+        assertThat(response.lastChunk()).isFalse();
+        assertThat(response.data().capacity()).isEqualTo(FetchSnapshotChunkResponse.MAX_CHUNK_SIZE);
+
+        // when
+        response.reset();
+        request.chunkOffset(FetchSnapshotChunkResponse.MAX_CHUNK_SIZE);
+        snapshotProvider.readChunk(logStream, request, response);
+
+        // then
+        assertThat(response.position()).isEqualTo(10L);
+        assertThat(response.lastChunk()).isTrue();
+        assertThat(response.data().capacity()).isEqualTo(100);
+        assertThat(response.data().getByte(99)).isEqualTo((byte) 8);
+    }
+
+    @Test
+    public void shouldNotReadReplacedSnapshot() throws Exception
+    {
+        // given
+        writeSnapshot("processor", 10L, "first".getBytes(StandardCharsets.UTF_8));
+        writeSnapshot("processor", 20L, "second".getBytes(StandardCharsets.UTF_8));
+
+        final FetchSnapshotChunkRequest request = new FetchSnapshotChunkRequest()
+            .name("processor")
+            .position(10L);
+        final FetchSnapshotChunkResponse response = new FetchSnapshotChunkResponse();
+
+        // when
+        snapshotProvider.readChunk(logStream, request, response);
+
+        // then the follower learns the position of the new snapshot
+        assertThat(response.position()).isEqualTo(20L);
+        assertThat(response.data().capacity()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotReadUnregisteredSnapshot() throws Exception
+    {
+        // given
+        writeSnapshot("processor", 10L, new byte[] { 1, 2, 3 });
+        when(replicableSnapshots.getReplicableSnapshots(LOG_NAME)).thenReturn(Collections.emptyList());
+
+        final FetchSnapshotChunkRequest request = new FetchSnapshotChunkRequest()
+            .name("processor")
+            .position(10L);
+        final FetchSnapshotChunkResponse response = new FetchSnapshotChunkResponse();
+
+        // when
+        snapshotProvider.readChunk(logStream, request, response);
+
+        // then
+        assertThat(response.position()).isEqualTo(-1L);
+        assertThat(response.data().capacity()).isEqualTo(0);
+    }
+
+    private void writeSnapshot(String name, long position, byte[] data) throws Exception
+    {
+        final SnapshotWriter writer = snapshotStorage.createSnapshot(name, position);
+        writer.getOutputStream().write(data);
+        writer.commit();
+    }
+}
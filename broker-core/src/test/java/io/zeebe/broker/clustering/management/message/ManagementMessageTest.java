@@ -19,6 +19,7 @@ package io.zeebe.broker.clustering.management.message;
 
 import static io.zeebe.test.util.BufferWriterUtil.*;
 import static io.zeebe.util.buffer.BufferUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
 
@@ -52,6 +53,43 @@ public class ManagementMessageTest
         );
     }
 
+    @Test
+    public void testInvitationBatchRequest()
+    {
+        final InvitationBatchRequest batch = new InvitationBatchRequest();
+
+        batch.add()
+            .topicName(TOPIC_NAME)
+            .partitionId(111)
+            .term(222)
+            .members(Arrays.asList(new SocketAddress("localhost", 8001)));
+
+        batch.add()
+            .topicName(TOPIC_NAME)
+            .partitionId(333)
+            .term(444)
+            .members(Arrays.asList(
+                new SocketAddress("localhost", 8001),
+                new SocketAddress("localhost", 8002)
+            ));
+
+        final InvitationBatchRequest actual = writeAndRead(batch);
+
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.get(0)).isEqualToComparingOnlyGivenFields(batch.get(0),
+            "topicName",
+            "partitionId",
+            "term",
+            "members"
+        );
+        assertThat(actual.get(1)).isEqualToComparingOnlyGivenFields(batch.get(1),
+            "topicName",
+            "partitionId",
+            "term",
+            "members"
+        );
+    }
+
     @Test
     public void testInvitationResponse()
     {
@@ -63,5 +101,57 @@ public class ManagementMessageTest
         );
     }
 
+    @Test
+    public void testListSnapshotsResponse()
+    {
+        final ListSnapshotsResponse response = new ListSnapshotsResponse()
+            .add("workflow.default.processor.instance", 111L)
+            .add("workflow.default.processor.incident", 222L);
+
+        final ListSnapshotsResponse actual = writeAndRead(response);
+
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.name(0)).isEqualTo("workflow.default.processor.instance");
+        assertThat(actual.position(0)).isEqualTo(111L);
+        assertThat(actual.name(1)).isEqualTo("workflow.default.processor.incident");
+        assertThat(actual.position(1)).isEqualTo(222L);
+    }
+
+    @Test
+    public void testFetchSnapshotChunkRequest()
+    {
+        final FetchSnapshotChunkRequest request = new FetchSnapshotChunkRequest()
+            .topicName(TOPIC_NAME)
+            .partitionId(111)
+            .name("workflow.default.processor.instance")
+            .position(222L)
+            .chunkOffset(333L);
+
+        assertEqualFieldsAfterWriteAndRead(request,
+            "topicName",
+            "partitionId",
+            "name",
+            "position",
+            "chunkOffset"
+        );
+    }
+
+    @Test
+    public void testFetchSnapshotChunkResponse()
+    {
+        final DirectBuffer data = wrapString("snapshot-data");
+
+        final FetchSnapshotChunkResponse response = new FetchSnapshotChunkResponse()
+            .position(111L)
+            .lastChunk(true)
+            .data(data, 0, data.capacity());
+
+        assertEqualFieldsAfterWriteAndRead(response,
+            "position",
+            "lastChunk",
+            "data"
+        );
+    }
+
 
 }
@@ -0,0 +1,160 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.raft;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.agrona.DirectBuffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.zeebe.transport.SocketAddress;
+
+public class RaftMetadataJournalTest
+{
+    private static final DirectBuffer TOPIC_NAME = wrapString("test-topic");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp()
+    {
+        directory = tempFolder.getRoot();
+    }
+
+    @Test
+    public void shouldRestoreLatestMetadataOfEachPartition()
+    {
+        // given
+        final RaftMetadataJournal journal = new RaftMetadataJournal(directory, 1024 * 1024);
+
+        journal.append(configuration(0, 8001));
+        journal.append(configuration(1, 8002));
+        journal.flush(journal.append(configuration(0, 8003)));
+
+        journal.close();
+
+        // when
+        final RaftMetadataJournal reopenedJournal = new RaftMetadataJournal(directory, 1024 * 1024);
+
+        // then
+        assertThat(reopenedJournal.getStorages()).hasSize(2);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 0).getVotedFor().port()).isEqualTo(8003);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 1).getVotedFor().port()).isEqualTo(8002);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 1).getMembers()).hasSize(2);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 2)).isNull();
+
+        reopenedJournal.close();
+    }
+
+    @Test
+    public void shouldCompactJournalWhenFull()
+    {
+        // given
+        final RaftMetadataJournal journal = new RaftMetadataJournal(directory, 512);
+
+        // when
+        long record = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            journal.append(configuration(0, 8000 + i));
+            record = journal.append(configuration(1, 9000 + i));
+        }
+        journal.flush(record);
+        journal.close();
+
+        // then only the latest records are kept
+        assertThat(new File(directory, RaftMetadataJournal.FILE_NAME).length()).isLessThan(4 * 512);
+
+        final RaftMetadataJournal reopenedJournal = new RaftMetadataJournal(directory, 512);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 0).getVotedFor().port()).isEqualTo(8099);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 1).getVotedFor().port()).isEqualTo(9099);
+
+        reopenedJournal.close();
+    }
+
+    @Test
+    public void shouldIgnoreRecordWithInvalidChecksum() throws Exception
+    {
+        // given
+        final RaftMetadataJournal journal = new RaftMetadataJournal(directory, 1024 * 1024);
+        journal.append(configuration(0, 8001));
+        journal.flush(journal.append(configuration(0, 8002)));
+        journal.close();
+
+        // when the last record is corrupted
+        final File file = new File(directory, RaftMetadataJournal.FILE_NAME);
+        final int firstRecordLength = firstRecordLength(file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            final long payloadOffset = firstRecordLength + RaftMetadataJournal.HEADER_LENGTH;
+            raf.seek(payloadOffset);
+            final int value = raf.read();
+            raf.seek(payloadOffset);
+            raf.write(value + 1);
+        }
+
+        // then
+        final RaftMetadataJournal reopenedJournal = new RaftMetadataJournal(directory, 1024 * 1024);
+        assertThat(reopenedJournal.getStorage(TOPIC_NAME, 0).getVotedFor().port()).isEqualTo(8001);
+
+        reopenedJournal.close();
+    }
+
+    protected int firstRecordLength(final File file) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            final byte[] lengthBytes = new byte[4];
+            raf.readFully(lengthBytes);
+
+            final int payloadLength = ByteBuffer.wrap(lengthBytes).order(ByteOrder.nativeOrder()).getInt();
+            final int recordLength = RaftMetadataJournal.HEADER_LENGTH + payloadLength;
+            return (recordLength + RaftMetadataJournal.RECORD_ALIGNMENT - 1) & ~(RaftMetadataJournal.RECORD_ALIGNMENT - 1);
+        }
+    }
+
+    protected RaftConfiguration configuration(final int partitionId, final int votedForPort)
+    {
+        final RaftConfiguration configuration = new RaftConfiguration();
+        configuration.setTopicName(TOPIC_NAME);
+        configuration.setPartitionId(partitionId);
+        configuration.setLogDirectory("/logs/" + partitionId);
+        configuration.setTerm(votedForPort);
+        configuration.setVotedFor(new SocketAddress("localhost", votedForPort));
+        configuration.setMembers(Arrays.asList(
+            new SocketAddress("localhost", 7001),
+            new SocketAddress("localhost", 7002)
+        ));
+
+        return configuration;
+    }
+}
@@ -133,6 +133,54 @@ public class TopicSubscriptionAcknowledgementTest
         assertThat(firstEvent.get().position()).isEqualTo(events.get(1).position());
     }
 
+    @Test
+    public void shouldResumeAfterLatestOfCoalescedAcknowledgements()
+    {
+        // given
+        createTask();
+        createTask();
+
+        final List<SubscribedEvent> events = apiRule
+                .subscribedEvents()
+                .limit(3L)
+                .collect(Collectors.toList());
+
+        // the acknowledgements are applied in memory and written to the log when the subscription is closed
+        acknowledge(events.get(0).position());
+        acknowledge(events.get(1).position());
+
+        closeSubscription();
+
+        apiRule.moveMessageStreamToTail();
+
+        // when
+        openSubscription();
+
+        // then
+        final Optional<SubscribedEvent> firstEvent = apiRule
+                .subscribedEvents()
+                .findFirst();
+
+        assertThat(firstEvent).isPresent();
+        assertThat(firstEvent.get().position()).isEqualTo(events.get(2).position());
+    }
+
+    protected void acknowledge(long position)
+    {
+        final ExecuteCommandResponse response = apiRule.createCmdRequest()
+            .eventTypeSubscription()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .command()
+                .put("name", SUBSCRIPTION_NAME)
+                .put("state", "ACKNOWLEDGE")
+                .put("ackPosition", position)
+                .done()
+            .sendAndAwait();
+
+        assertThat(response.getEvent()).containsEntry("state", "ACKNOWLEDGED");
+    }
+
     @Test
     public void shouldResumeAtTailOnLongMaxAckPosition()
     {
@@ -0,0 +1,148 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event;
+
+import static io.zeebe.logstreams.log.LogStream.DEFAULT_PARTITION_ID;
+import static io.zeebe.logstreams.log.LogStream.DEFAULT_TOPIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.zeebe.broker.test.EmbeddedBrokerRule;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.test.broker.protocol.clientapi.ClientApiRule;
+import io.zeebe.test.broker.protocol.clientapi.ErrorResponse;
+import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandRequest;
+import io.zeebe.test.broker.protocol.clientapi.SubscribedEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TopicSubscriptionFilterTest
+{
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule();
+    public ClientApiRule apiRule = new ClientApiRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(brokerRule).around(apiRule);
+
+    @Test
+    public void shouldPushOnlyMatchingEvents()
+    {
+        // given
+        final long firstTaskKey = createTask("foo");
+        createTask("bar");
+        final long secondTaskKey = createTask("foo");
+
+        // when
+        openTopicSubscription(filter("TASK_EVENT", "CREATED", "foo")).await();
+
+        // then
+        final List<SubscribedEvent> events = apiRule.subscribedEvents()
+            .limit(2)
+            .collect(Collectors.toList());
+
+        assertThat(events).extracting(SubscribedEvent::eventType).containsOnly(EventType.TASK_EVENT);
+        assertThat(events).extracting(SubscribedEvent::key).containsExactly(firstTaskKey, secondTaskKey);
+        assertThat(events).extracting(e -> e.event().get("state")).containsOnly("CREATED");
+        assertThat(events).extracting(e -> e.event().get("type")).containsOnly("foo");
+    }
+
+    @Test
+    public void shouldPushEventsMatchingAnyFilter()
+    {
+        // given
+        final long fooTaskKey = createTask("foo");
+        final long barTaskKey = createTask("bar");
+        createTask("baz");
+
+        // when
+        openTopicSubscription(filter("TASK_EVENT", "CREATED", "bar"), filter("TASK_EVENT", "CREATED", "foo")).await();
+
+        // then
+        final List<Long> taskKeys = apiRule.subscribedEvents()
+            .limit(2)
+            .map(SubscribedEvent::key)
+            .collect(Collectors.toList());
+
+        assertThat(taskKeys).containsExactly(fooTaskKey, barTaskKey);
+    }
+
+    @Test
+    public void shouldRejectUnknownEventType()
+    {
+        // when
+        final ErrorResponse errorResponse = openTopicSubscription(filter("FOO_EVENT", null, null)).awaitError();
+
+        // then
+        assertThat(errorResponse.getErrorCode()).isEqualTo(ErrorCode.REQUEST_PROCESSING_FAILURE);
+        assertThat(errorResponse.getErrorData())
+            .isEqualTo("Cannot open topic subscription test. Unknown event type 'FOO_EVENT' in subscription filter.");
+    }
+
+    @SafeVarargs
+    private final ExecuteCommandRequest openTopicSubscription(Map<String, Object>... filters)
+    {
+        return apiRule.createCmdRequest()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .eventTypeSubscriber()
+            .command()
+                .put("startPosition", 0)
+                .put("name", "test")
+                .put("state", "SUBSCRIBE")
+                .put("filters", Arrays.asList(filters))
+                .done()
+            .send();
+    }
+
+    private static Map<String, Object> filter(String eventType, String state, String taskType)
+    {
+        final Map<String, Object> filter = new HashMap<>();
+        filter.put("eventType", eventType);
+        if (state != null)
+        {
+            filter.put("state", state);
+        }
+        if (taskType != null)
+        {
+            filter.put("taskType", taskType);
+        }
+        return filter;
+    }
+
+    private long createTask(String type)
+    {
+        return apiRule.createCmdRequest()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .eventTypeTask()
+            .command()
+                .put("state", "CREATE")
+                .put("type", type)
+                .put("retries", 1)
+                .done()
+            .sendAndAwait()
+            .key();
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.zeebe.broker.event.TopicSubscriptionServiceNames;
+import io.zeebe.broker.transport.clientapi.BufferingServerOutput;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.processor.StreamProcessorController;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.servicecontainer.ServiceBuilder;
+import io.zeebe.servicecontainer.ServiceName;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.test.broker.protocol.MsgPackHelper;
+import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandResponse;
+import io.zeebe.test.util.FluentAnswer;
+import io.zeebe.test.util.FluentMock;
+import io.zeebe.transport.impl.RequestResponseHeaderDescriptor;
+import io.zeebe.transport.impl.TransportHeaderDescriptor;
+import io.zeebe.util.DeferredCommandContext;
+
+public class FollowerSubscriptionManagerTest
+{
+    private static final ServiceName<LogStream> LOG_STREAM_SERVICE_NAME = ServiceName.newServiceName("mock-log-stream", LogStream.class);
+
+    private static final DirectBuffer LOG_STREAM_TOPIC_NAME = wrapString("test-topic");
+    private static final int LOG_STREAM_PARTITION_ID = 1;
+
+    private static final String SUBSCRIPTION_NAME = "foo";
+    private static final ServiceName<StreamProcessorController> PUSH_SERVICE_NAME =
+            TopicSubscriptionServiceNames.subscriptionPushServiceName(LOG_STREAM_SERVICE_NAME.getName(), SUBSCRIPTION_NAME);
+
+    private static final int CHANNEL_ID = 3;
+    private static final long REQUEST_ID = 5L;
+
+    @FluentMock
+    private ServiceStartContext mockServiceContext;
+
+    @FluentMock
+    private ServiceBuilder<Object> mockServiceBuilder;
+
+    @Mock
+    private LogStream mockLogStream;
+
+    @Mock
+    private LogStreamReader mockLogStreamReader;
+
+    private SubscribedEventWriter mockEventWriter;
+
+    private final MsgPackHelper msgPackHelper = new MsgPackHelper();
+
+    private BufferingServerOutput serverOutput;
+    private DeferredCommandContext cmdContext;
+    private FollowerSubscriptionManager manager;
+
+    @Before
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        when(mockServiceBuilder.install()).thenReturn(CompletableFuture.completedFuture(null));
+        when(mockServiceContext.createService(any(), any())).thenReturn(mockServiceBuilder);
+        when(mockServiceContext.removeService(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        when(mockLogStream.getTopicName()).thenReturn(LOG_STREAM_TOPIC_NAME);
+        when(mockLogStream.getPartitionId()).thenReturn(LOG_STREAM_PARTITION_ID);
+
+        mockEventWriter = mock(SubscribedEventWriter.class, new FluentAnswer());
+        when(mockEventWriter.tryWriteMessage(anyInt())).thenReturn(true);
+
+        serverOutput = new BufferingServerOutput();
+        cmdContext = new DeferredCommandContext();
+
+        manager = new FollowerSubscriptionManager(
+                LOG_STREAM_SERVICE_NAME,
+                mockLogStream,
+                mockServiceContext,
+                cmdContext,
+                new CommandResponseWriter(serverOutput),
+                new ErrorResponseWriter(serverOutput),
+                () -> mockEventWriter);
+    }
+
+    @Test
+    public void shouldOpenReadOnlySubscription()
+    {
+        // when
+        subscribe(true);
+
+        // then
+        verify(mockServiceContext).createService(eq(PUSH_SERVICE_NAME), any());
+
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ExecuteCommandResponse response = getCommandResponse(0);
+        assertThat(response.key()).isEqualTo(0L);
+        assertThat(response.getEvent())
+            .containsEntry("name", SUBSCRIPTION_NAME)
+            .containsEntry("state", "SUBSCRIBED");
+
+        assertThat(getPushProcessor()).isNotNull();
+    }
+
+    @Test
+    public void shouldRejectSubscriptionWhichIsNotReadOnly()
+    {
+        // when
+        subscribe(false);
+
+        // then
+        verify(mockServiceContext, never()).createService(any(), any());
+
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorResponse = serverOutput.getAsErrorResponse(0);
+        assertThat(errorResponse.errorCode()).isEqualTo(ErrorCode.TOPIC_NOT_FOUND);
+    }
+
+    @Test
+    public void shouldPushOnlyCommittedEvents()
+    {
+        // given
+        subscribe(true);
+
+        final TopicSubscriptionPushProcessor processor = getPushProcessor();
+        openPushProcessor(processor);
+
+        final LoggedEvent event = mock(LoggedEvent.class);
+        when(event.getPosition()).thenReturn(10L);
+
+        when(mockLogStream.getCommitPosition()).thenReturn(9L);
+
+        assertThat(processor.onEvent(event)).isNotNull();
+
+        // when
+        final boolean pushedBeforeCommit = processor.executeSideEffects();
+
+        when(mockLogStream.getCommitPosition()).thenReturn(10L);
+
+        final boolean pushedAfterCommit = processor.executeSideEffects();
+
+        // then
+        assertThat(pushedBeforeCommit).isFalse();
+        assertThat(pushedAfterCommit).isTrue();
+
+        verify(mockEventWriter, times(1)).tryWriteMessage(CHANNEL_ID);
+    }
+
+    @Test
+    public void shouldAcknowledgeWithoutWritingToLog()
+    {
+        // given
+        subscribe(true);
+
+        // when
+        acknowledge(SUBSCRIPTION_NAME, 5L);
+
+        // then
+        assertThat(serverOutput.getSentResponses()).hasSize(2);
+
+        final ExecuteCommandResponse response = getCommandResponse(1);
+        assertThat(response.getEvent())
+            .containsEntry("name", SUBSCRIPTION_NAME)
+            .containsEntry("state", "ACKNOWLEDGED");
+
+        assertThat(getPushProcessor().getLastAckedPosition()).isEqualTo(5L);
+    }
+
+    @Test
+    public void shouldRejectAcknowledgementOfUnknownSubscription()
+    {
+        // when
+        acknowledge("bar", 5L);
+
+        // then
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorResponse = serverOutput.getAsErrorResponse(0);
+        assertThat(errorResponse.errorCode()).isEqualTo(ErrorCode.TOPIC_NOT_FOUND);
+    }
+
+    @Test
+    public void shouldCloseSubscriptionOnChannelClose()
+    {
+        // given
+        subscribe(true);
+
+        // when
+        manager.onClientChannelClose(CHANNEL_ID);
+
+        // then
+        verify(mockServiceContext).removeService(PUSH_SERVICE_NAME);
+
+        assertThat(getPushProcessor()).isNull();
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionOfOtherChannel()
+    {
+        // given
+        subscribe(true);
+
+        // when
+        manager.onClientChannelClose(CHANNEL_ID + 1);
+
+        // then
+        verify(mockServiceContext, never()).removeService(any());
+
+        assertThat(getPushProcessor()).isNotNull();
+    }
+
+    @Test
+    public void shouldCloseSubscription()
+    {
+        // given
+        subscribe(true);
+
+        // when
+        final CompletableFuture<Void> future = manager.closePushProcessorAsync(0L);
+
+        // then
+        assertThat(future).isCompleted();
+        verify(mockServiceContext).removeService(PUSH_SERVICE_NAME);
+    }
+
+    protected void subscribe(boolean readOnly)
+    {
+        final Map<String, Object> command = new HashMap<>();
+        command.put("state", "SUBSCRIBE");
+        command.put("name", SUBSCRIPTION_NAME);
+        command.put("startPosition", 0L);
+        command.put("prefetchCapacity", 10);
+        command.put("readOnly", readOnly);
+
+        manager.onCommand(EventType.SUBSCRIBER_EVENT, CHANNEL_ID, REQUEST_ID, encode(command));
+
+        // the subscription is registered when the push processor service is installed
+        cmdContext.doWork();
+    }
+
+    protected void acknowledge(String subscriptionName, long ackPosition)
+    {
+        final Map<String, Object> command = new HashMap<>();
+        command.put("state", "ACKNOWLEDGE");
+        command.put("name", subscriptionName);
+        command.put("ackPosition", ackPosition);
+
+        manager.onCommand(EventType.SUBSCRIPTION_EVENT, CHANNEL_ID, REQUEST_ID, encode(command));
+    }
+
+    protected TopicSubscriptionPushProcessor getPushProcessor()
+    {
+        return manager.subscriptionRegistry.getProcessorByName(wrapString(SUBSCRIPTION_NAME));
+    }
+
+    protected void openPushProcessor(TopicSubscriptionPushProcessor processor)
+    {
+        final StreamProcessorContext context = new StreamProcessorContext();
+        context.setSourceStream(mockLogStream);
+        context.setSourceLogStreamReader(mockLogStreamReader);
+
+        processor.onOpen(context);
+    }
+
+    protected DirectBuffer encode(Map<String, Object> command)
+    {
+        return new UnsafeBuffer(msgPackHelper.encodeAsMsgPack(command));
+    }
+
+    protected ExecuteCommandResponse getCommandResponse(int index)
+    {
+        final DirectBuffer sentResponse = serverOutput.getSentResponses().get(index);
+        final int offset = TransportHeaderDescriptor.HEADER_LENGTH + RequestResponseHeaderDescriptor.HEADER_LENGTH;
+
+        final ExecuteCommandResponse response = new ExecuteCommandResponse(msgPackHelper);
+        response.wrap(sentResponse, offset, sentResponse.capacity() - offset);
+        return response;
+    }
+}
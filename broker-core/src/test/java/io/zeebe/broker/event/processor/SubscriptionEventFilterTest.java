@@ -0,0 +1,103 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.broker.event.processor.SubscriptionEventFilter.Entry;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.test.broker.protocol.MsgPackHelper;
+
+public class SubscriptionEventFilterTest
+{
+    private final DirectBuffer value = new UnsafeBuffer(new MsgPackHelper().encodeAsMsgPack(Collections.singletonMap("state", "CREATED")));
+
+    private final BrokerEventMetadata metadata = new BrokerEventMetadata();
+
+    private SubscriptionEventFilter filter;
+
+    @Before
+    public void setUp()
+    {
+        filter = new SubscriptionEventFilter(new Entry[] { new Entry(EventType.TASK_EVENT, wrapString("CREATED"), null, null) });
+
+        metadata.eventType(EventType.TASK_EVENT);
+    }
+
+    @Test
+    public void shouldApplyToMatchingValue()
+    {
+        // given
+        final LoggedEvent event = eventWithValueLength(value.capacity());
+
+        // when
+        final boolean applies = filter.applies(metadata) && filter.applies(event);
+
+        // then
+        assertThat(applies).isTrue();
+    }
+
+    @Test
+    public void shouldNotApplyToEmptyValue()
+    {
+        // given
+        final LoggedEvent event = eventWithValueLength(0);
+
+        // when
+        final boolean applies = filter.applies(metadata) && filter.applies(event);
+
+        // then
+        assertThat(applies).isFalse();
+    }
+
+    @Test
+    public void shouldNotApplyToTruncatedValue()
+    {
+        // given
+        final LoggedEvent event = eventWithValueLength(value.capacity() - 3);
+
+        // when
+        final boolean applies = filter.applies(metadata) && filter.applies(event);
+
+        // then
+        assertThat(applies).isFalse();
+    }
+
+    protected LoggedEvent eventWithValueLength(int length)
+    {
+        final LoggedEvent event = mock(LoggedEvent.class);
+
+        when(event.getValueBuffer()).thenReturn(value);
+        when(event.getValueOffset()).thenReturn(0);
+        when(event.getValueLength()).thenReturn(length);
+
+        return event;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogDirectoryPlacementTest
+{
+    private static final String[] DIRECTORIES = { "/data/disk1", "/data/disk2", "/data/disk3" };
+
+    private static final long GB = 1024L * 1024L * 1024L;
+
+    private Map<String, Long> usableSpace;
+    private LogDirectoryPlacement placement;
+
+    @Before
+    public void setUp()
+    {
+        usableSpace = new HashMap<>();
+        for (String directory : DIRECTORIES)
+        {
+            usableSpace.put(directory, 100 * GB);
+        }
+
+        placement = new LogDirectoryPlacement(DIRECTORIES, GB)
+        {
+            @Override
+            protected long getUsableSpace(File directory)
+            {
+                return usableSpace.get(directory.getPath());
+            }
+        };
+    }
+
+    @Test
+    public void shouldUseAllDirectories()
+    {
+        // when
+        for (int i = 0; i < 6; i++)
+        {
+            placement.selectDirectory("default-topic." + i);
+        }
+
+        // then
+        for (String directory : DIRECTORIES)
+        {
+            assertThat(placement.getAssignedPartitions(directory)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void shouldConsiderRecoveredPartitions()
+    {
+        // given
+        placement.onPartitionAssigned("/data/disk1/default-topic.0");
+        placement.onPartitionAssigned("/data/disk2/default-topic.1");
+
+        // when
+        final String directory = placement.selectDirectory("default-topic.2");
+
+        // then
+        assertThat(directory).isEqualTo("/data/disk3/default-topic.2");
+    }
+
+    @Test
+    public void shouldCountReassignedPartitionOnce()
+    {
+        // given
+        final String directory = placement.selectDirectory("default-topic.0");
+
+        // when
+        placement.onPartitionAssigned(directory);
+
+        // then
+        assertThat(placement.getAssignedPartitions(directory)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCountRemovedPartition()
+    {
+        // given
+        final String directory = placement.selectDirectory("default-topic.0");
+
+        // when
+        placement.onPartitionRemoved(directory);
+
+        // then
+        assertThat(placement.getAssignedPartitions(directory)).isEqualTo(0);
+        assertThat(placement.selectDirectory("default-topic.1")).isEqualTo("/data/disk1/default-topic.1");
+    }
+
+    @Test
+    public void shouldAvoidDiskWithLowFreeSpace()
+    {
+        // given
+        usableSpace.put("/data/disk1", GB / 2);
+
+        // when
+        placement.selectDirectory("default-topic.0");
+        placement.selectDirectory("default-topic.1");
+        placement.selectDirectory("default-topic.2");
+
+        // then
+        assertThat(placement.getAssignedPartitions("/data/disk1")).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldPreferDiskWithMoreFreeSpace()
+    {
+        // given
+        usableSpace.put("/data/disk2", 200 * GB);
+
+        // when
+        final String directory = placement.selectDirectory("default-topic.0");
+
+        // then
+        assertThat(directory).isEqualTo("/data/disk2/default-topic.0");
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalSnapshotSupportTest
+{
+    private static final int BLOCK_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private ByteArrayState state;
+    private IncrementalSnapshotSupport snapshotSupport;
+
+    @Before
+    public void setUp()
+    {
+        state = new ByteArrayState();
+        snapshotSupport = createSnapshotSupport(state, 3);
+    }
+
+    private IncrementalSnapshotSupport createSnapshotSupport(ByteArrayState state, int fullSnapshotInterval)
+    {
+        return createSnapshotSupport(state, fullSnapshotInterval, true);
+    }
+
+    private IncrementalSnapshotSupport createSnapshotSupport(ByteArrayState state, int fullSnapshotInterval, boolean incremental)
+    {
+        return new IncrementalSnapshotSupport(state, tempFolder.getRoot().getAbsolutePath(), "processor", BLOCK_SIZE, fullSnapshotInterval, incremental);
+    }
+
+    @Test
+    public void shouldWriteOnlyChangedBlocks() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        final byte[] fullSnapshot = snapshot(snapshotSupport);
+
+        // when
+        state.bytes[BLOCK_SIZE * 4 + 3] = 2;
+        final byte[] deltaSnapshot = snapshot(snapshotSupport);
+
+        // then
+        assertThat(fullSnapshot.length).isLessThan(BLOCK_SIZE);
+        assertThat(deltaSnapshot.length).isGreaterThanOrEqualTo(BLOCK_SIZE).isLessThan(BLOCK_SIZE * 2);
+    }
+
+    @Test
+    public void shouldRecoverFromDeltaSnapshot() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshot(snapshotSupport);
+
+        state.bytes = Arrays.copyOf(state.bytes, BLOCK_SIZE * 11 + 5);
+        state.bytes[3] = 7;
+        state.bytes[BLOCK_SIZE * 11 + 2] = 9;
+        final byte[] expectedState = state.bytes.clone();
+
+        final byte[] deltaSnapshot = snapshot(snapshotSupport);
+
+        // when
+        final ByteArrayState recoveredState = new ByteArrayState();
+        createSnapshotSupport(recoveredState, 3).recoverFromSnapshot(new ByteArrayInputStream(deltaSnapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(expectedState);
+    }
+
+    @Test
+    public void shouldRecoverFromDeltaSnapshotOfShrunkState() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshot(snapshotSupport);
+
+        state.bytes = Arrays.copyOf(state.bytes, BLOCK_SIZE * 3 + 1);
+        final byte[] expectedState = state.bytes.clone();
+
+        final byte[] deltaSnapshot = snapshot(snapshotSupport);
+
+        // when
+        final ByteArrayState recoveredState = new ByteArrayState();
+        createSnapshotSupport(recoveredState, 3).recoverFromSnapshot(new ByteArrayInputStream(deltaSnapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(expectedState);
+    }
+
+    @Test
+    public void shouldRecoverFromFullSnapshotLargerThanBlock() throws Exception
+    {
+        // given
+        state.bytes = new byte[BLOCK_SIZE * 5 + 17];
+        new Random(42).nextBytes(state.bytes);
+        final byte[] expectedState = state.bytes.clone();
+
+        final byte[] fullSnapshot = snapshot(snapshotSupport);
+
+        // when
+        final ByteArrayState recoveredState = new ByteArrayState();
+        createSnapshotSupport(recoveredState, 3).recoverFromSnapshot(new ByteArrayInputStream(fullSnapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(expectedState);
+    }
+
+    @Test
+    public void shouldWriteDeltaSnapshotAfterRecovery() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        final byte[] fullSnapshot = snapshot(snapshotSupport);
+
+        final ByteArrayState recoveredState = new ByteArrayState();
+        final IncrementalSnapshotSupport recoveredSnapshotSupport = createSnapshotSupport(recoveredState, 3);
+        recoveredSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(fullSnapshot));
+
+        // when
+        recoveredState.bytes[BLOCK_SIZE * 2] = 5;
+        final byte[] deltaSnapshot = snapshot(recoveredSnapshotSupport);
+
+        // then
+        assertThat(recoveredSnapshotSupport.getBaseId()).isEqualTo(snapshotSupport.getBaseId());
+        assertThat(deltaSnapshot.length).isGreaterThanOrEqualTo(BLOCK_SIZE).isLessThan(BLOCK_SIZE * 2);
+    }
+
+    @Test
+    public void shouldWriteFullSnapshotPeriodically() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshot(snapshotSupport);
+        final long firstBaseId = snapshotSupport.getBaseId();
+
+        // when
+        for (int i = 0; i < 4; i++)
+        {
+            state.bytes[0] = (byte) i;
+            snapshot(snapshotSupport);
+        }
+
+        // then
+        assertThat(snapshotSupport.getBaseId()).isEqualTo(firstBaseId + 1);
+    }
+
+    @Test
+    public void shouldKeepOnlyTheLastTwoBaseFiles() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshotSupport = createSnapshotSupport(state, 0);
+
+        // when
+        for (int i = 0; i < 5; i++)
+        {
+            snapshot(snapshotSupport);
+        }
+
+        // then
+        assertThat(tempFolder.getRoot().list()).containsOnly("processor.3.base", "processor.4.base");
+    }
+
+    @Test
+    public void shouldWriteFullSnapshotIfDeltaIsLarge() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshot(snapshotSupport);
+        final long firstBaseId = snapshotSupport.getBaseId();
+
+        // when
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 2);
+        snapshot(snapshotSupport);
+        final byte[] snapshot = snapshot(snapshotSupport);
+
+        // then
+        assertThat(snapshotSupport.getBaseId()).isEqualTo(firstBaseId + 1);
+        assertThat(snapshot.length).isLessThan(BLOCK_SIZE);
+    }
+
+    @Test
+    public void shouldKeepBaseFileOfCommittedSnapshot() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshotSupport = createSnapshotSupport(state, 0);
+
+        final byte[] committedSnapshot = snapshot(snapshotSupport);
+
+        final SnapshotStorage snapshotStorage = mock(SnapshotStorage.class);
+        final ReadableSnapshot readableSnapshot = mock(ReadableSnapshot.class);
+        when(readableSnapshot.getData()).thenAnswer(i -> new ByteArrayInputStream(committedSnapshot));
+        when(snapshotStorage.getLastSnapshot("processor")).thenReturn(readableSnapshot);
+
+        snapshotSupport.snapshotStorage(snapshotStorage);
+
+        // when
+        for (int i = 0; i < 4; i++)
+        {
+            snapshot(snapshotSupport);
+        }
+
+        // then
+        assertThat(tempFolder.getRoot().list()).containsOnly("processor.0.base", "processor.4.base");
+    }
+
+    @Test
+    public void shouldRecoverFromPlainSnapshot() throws Exception
+    {
+        // given
+        state.bytes = new byte[BLOCK_SIZE * 3 + 5];
+        new Random(42).nextBytes(state.bytes);
+        final byte[] expectedState = state.bytes.clone();
+
+        final byte[] plainSnapshot = snapshot(createSnapshotSupport(state, 3, false));
+
+        // when
+        final ByteArrayState recoveredState = new ByteArrayState();
+        final IncrementalSnapshotSupport recoveredSnapshotSupport = createSnapshotSupport(recoveredState, 3);
+        recoveredSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(plainSnapshot));
+
+        // then
+        assertThat(plainSnapshot).isEqualTo(expectedState);
+        assertThat(recoveredState.bytes).isEqualTo(expectedState);
+        assertThat(recoveredSnapshotSupport.getBaseId()).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldRecoverFromEmptyPlainSnapshot() throws Exception
+    {
+        // given
+        final ByteArrayState recoveredState = new ByteArrayState();
+        recoveredState.bytes = filledArray(3, (byte) 1);
+
+        // when
+        createSnapshotSupport(recoveredState, 3).recoverFromSnapshot(new ByteArrayInputStream(new byte[0]));
+
+        // then
+        assertThat(recoveredState.bytes).isEmpty();
+    }
+
+    @Test
+    public void shouldRecoverFromIncrementalSnapshotIfDisabled() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        snapshot(snapshotSupport);
+
+        state.bytes[BLOCK_SIZE * 4] = 3;
+        final byte[] expectedState = state.bytes.clone();
+        final byte[] deltaSnapshot = snapshot(snapshotSupport);
+
+        // when
+        final ByteArrayState recoveredState = new ByteArrayState();
+        createSnapshotSupport(recoveredState, 3, false).recoverFromSnapshot(new ByteArrayInputStream(deltaSnapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(expectedState);
+    }
+
+    @Test
+    public void shouldDeleteBaseFilesIfDisabled() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        final byte[] fullSnapshot = snapshot(snapshotSupport);
+
+        final ByteArrayState recoveredState = new ByteArrayState();
+        final IncrementalSnapshotSupport recoveredSnapshotSupport = createSnapshotSupport(recoveredState, 3, false);
+        recoveredSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(fullSnapshot));
+
+        // when
+        snapshot(recoveredSnapshotSupport);
+        final String[] filesAfterFirstSnapshot = tempFolder.getRoot().list();
+
+        snapshot(recoveredSnapshotSupport);
+
+        // then
+        assertThat(filesAfterFirstSnapshot).containsOnly("processor.0.base");
+        assertThat(tempFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotRecoverFromUnsupportedFormatVersion() throws Exception
+    {
+        // given
+        state.bytes = filledArray(BLOCK_SIZE * 10, (byte) 1);
+        final byte[] fullSnapshot = snapshot(snapshotSupport);
+
+        // the format version follows the magic
+        fullSnapshot[Long.BYTES + Integer.BYTES - 1] = 99;
+
+        // then
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("format version");
+
+        // when
+        createSnapshotSupport(new ByteArrayState(), 3).recoverFromSnapshot(new ByteArrayInputStream(fullSnapshot));
+    }
+
+    private static byte[] snapshot(SnapshotSupport snapshotSupport) throws Exception
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshotSupport.writeSnapshot(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] filledArray(int length, byte value)
+    {
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    protected static class ByteArrayState implements SnapshotSupport
+    {
+        protected byte[] bytes = new byte[0];
+
+        @Override
+        public void writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            outputStream.write(bytes);
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[7];
+            int read;
+            while ((read = inputStream.read(chunk)) > 0)
+            {
+                buffer.write(chunk, 0, read);
+            }
+            bytes = buffer.toByteArray();
+        }
+
+        @Override
+        public void reset()
+        {
+            bytes = new byte[0];
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.util.actor.Actor;
+import io.zeebe.util.time.ClockUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessingLagPriorityTest
+{
+    private LogStream logStream;
+    private ProcessingLagPriority priority;
+
+    @Before
+    public void setUp()
+    {
+        ClockUtil.setCurrentTime(1000L);
+
+        logStream = mock(LogStream.class);
+
+        priority = new ProcessingLagPriority(100L);
+        priority.wrap(logStream);
+    }
+
+    @After
+    public void tearDown()
+    {
+        ClockUtil.reset();
+    }
+
+    @Test
+    public void shouldHaveHighPriorityWithBacklogBeforeFirstEvent()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(10L);
+
+        // then
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_HIGH);
+    }
+
+    @Test
+    public void shouldHaveLowPriorityWithoutEvents()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(-1L);
+
+        // then
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_LOW);
+    }
+
+    @Test
+    public void shouldHaveHighPriorityWithBacklog()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(10L);
+
+        // when
+        priority.onEvent(5L);
+
+        // then
+        assertThat(priority.hasBacklog()).isTrue();
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_HIGH);
+    }
+
+    @Test
+    public void shouldHaveHighPriorityWithBacklogIfIdle()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(10L);
+        priority.onEvent(5L);
+
+        // when
+        ClockUtil.setCurrentTime(1200L);
+
+        // then
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_HIGH);
+    }
+
+    @Test
+    public void shouldHaveHighPriorityIfCaughtUpRecently()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(10L);
+
+        // when
+        priority.onEvent(10L);
+
+        // then
+        assertThat(priority.hasBacklog()).isFalse();
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_HIGH);
+    }
+
+    @Test
+    public void shouldHaveLowPriorityIfCaughtUpAndIdle()
+    {
+        // given
+        when(logStream.getCommitPosition()).thenReturn(10L);
+        priority.onEvent(10L);
+
+        // when
+        ClockUtil.setCurrentTime(1200L);
+
+        // then
+        assertThat(priority.getPriority()).isEqualTo(Actor.PRIORITY_LOW);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.util.time.ClockUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamProcessorRecoveryMetricsTest
+{
+    private StreamProcessorRecoveryMetrics metrics;
+
+    @Before
+    public void setUp()
+    {
+        ClockUtil.setCurrentTime(1000L);
+
+        metrics = new StreamProcessorRecoveryMetrics("processor");
+    }
+
+    @After
+    public void tearDown()
+    {
+        ClockUtil.reset();
+    }
+
+    @Test
+    public void shouldMeasureSnapshotRecoveryAndReprocessing() throws Exception
+    {
+        // given
+        final SnapshotSupport snapshotSupport = metrics.wrap(new SnapshotSupport()
+        {
+            @Override
+            public void writeSnapshot(OutputStream outputStream)
+            {
+            }
+
+            @Override
+            public void recoverFromSnapshot(InputStream inputStream)
+            {
+                ClockUtil.setCurrentTime(ClockUtil.getCurrentTimeInMillis() + 300L);
+            }
+
+            @Override
+            public void reset()
+            {
+            }
+        });
+
+        // when
+        metrics.onRecoveryStarted();
+
+        ClockUtil.setCurrentTime(1100L);
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(new byte[0]));
+        ClockUtil.setCurrentTime(2000L);
+
+        metrics.onRecoveryCompleted();
+
+        // then
+        assertThat(metrics.getSnapshotRecoveryDuration()).isEqualTo(300L);
+        assertThat(metrics.getTotalRecoveryDuration()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void shouldIgnoreCompletionIfNotStarted()
+    {
+        // when
+        metrics.onRecoveryCompleted();
+
+        // then
+        assertThat(metrics.getTotalRecoveryDuration()).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldDelegateSnapshotWrites() throws Exception
+    {
+        // given
+        final SnapshotSupport delegate = mock(SnapshotSupport.class);
+        final OutputStream outputStream = mock(OutputStream.class);
+
+        // when
+        metrics.wrap(delegate).writeSnapshot(outputStream);
+
+        // then
+        verify(delegate).writeSnapshot(outputStream);
+    }
+}
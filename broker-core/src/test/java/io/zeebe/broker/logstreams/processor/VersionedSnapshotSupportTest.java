@@ -0,0 +1,102 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.*;
+
+import io.zeebe.broker.logstreams.processor.IncrementalSnapshotSupportTest.ByteArrayState;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class VersionedSnapshotSupportTest
+{
+    private static final byte[] STATE = new byte[] {1, 2, 3, 4, 5, 6, 7, 8};
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private ByteArrayState state;
+    private ByteArrayState legacyState;
+
+    @Before
+    public void setUp()
+    {
+        state = new ByteArrayState();
+        legacyState = new ByteArrayState();
+    }
+
+    @Test
+    public void shouldRecoverFromVersionedSnapshot() throws Exception
+    {
+        // given
+        state.bytes = STATE;
+        final byte[] snapshot = snapshot(new VersionedSnapshotSupport(state, 2, legacyState::recoverFromSnapshot));
+
+        final ByteArrayState recoveredState = new ByteArrayState();
+
+        // when
+        new VersionedSnapshotSupport(recoveredState, 2, legacyState::recoverFromSnapshot).recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(STATE);
+        assertThat(legacyState.bytes).isEmpty();
+    }
+
+    @Test
+    public void shouldRecoverFromLegacySnapshot() throws Exception
+    {
+        // given
+        final VersionedSnapshotSupport snapshotSupport = new VersionedSnapshotSupport(state, 2, legacyState::recoverFromSnapshot);
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(STATE));
+
+        // then
+        assertThat(legacyState.bytes).isEqualTo(STATE);
+        assertThat(state.bytes).isEmpty();
+    }
+
+    @Test
+    public void shouldFailToRecoverFromSnapshotWithOtherVersion() throws Exception
+    {
+        // given
+        state.bytes = STATE;
+        final byte[] snapshot = snapshot(new VersionedSnapshotSupport(state, 3, legacyState::recoverFromSnapshot));
+
+        final VersionedSnapshotSupport snapshotSupport = new VersionedSnapshotSupport(new ByteArrayState(), 2, legacyState::recoverFromSnapshot);
+
+        // then
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Expected format version 2 but found 3");
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+    }
+
+    private static byte[] snapshot(SnapshotSupport snapshotSupport) throws Exception
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshotSupport.writeSnapshot(outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.zeebe.util.actor.ActorScheduler;
+import org.junit.Test;
+
+public class ActorGroupsTest
+{
+    private final ActorScheduler defaultScheduler = mock(ActorScheduler.class);
+    private final ActorScheduler partitionScheduler1 = mock(ActorScheduler.class);
+    private final ActorScheduler partitionScheduler2 = mock(ActorScheduler.class);
+    private final ActorScheduler ioScheduler = mock(ActorScheduler.class);
+
+    @Test
+    public void shouldAssignPartitionToSameRunner()
+    {
+        // given
+        final ActorGroups actorGroups = new ActorGroups(defaultScheduler, new ActorScheduler[] {partitionScheduler1, partitionScheduler2}, ioScheduler);
+
+        // then
+        assertThat(actorGroups.getPartitionScheduler(0)).isSameAs(partitionScheduler1);
+        assertThat(actorGroups.getPartitionScheduler(1)).isSameAs(partitionScheduler2);
+        assertThat(actorGroups.getPartitionScheduler(2)).isSameAs(partitionScheduler1);
+        assertThat(actorGroups.getPartitionScheduler(3)).isSameAs(partitionScheduler2);
+        assertThat(actorGroups.getIoScheduler()).isSameAs(ioScheduler);
+    }
+
+    @Test
+    public void shouldFallBackToDefaultScheduler()
+    {
+        // given
+        final ActorGroups actorGroups = new ActorGroups(defaultScheduler, new ActorScheduler[0], null);
+
+        // then
+        assertThat(actorGroups.getPartitionScheduler(1)).isSameAs(defaultScheduler);
+        assertThat(actorGroups.getIoScheduler()).isSameAs(defaultScheduler);
+    }
+
+    @Test
+    public void shouldNotCloseDefaultScheduler()
+    {
+        // given
+        final ActorGroups actorGroups = new ActorGroups(defaultScheduler, new ActorScheduler[] {partitionScheduler1}, ioScheduler);
+
+        // when
+        actorGroups.close();
+
+        // then
+        verify(partitionScheduler1).close();
+        verify(ioScheduler).close();
+        verify(defaultScheduler, never()).close();
+    }
+}
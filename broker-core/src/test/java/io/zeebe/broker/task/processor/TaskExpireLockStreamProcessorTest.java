@@ -39,6 +39,7 @@ import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LogStreamWriter;
 import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
 import io.zeebe.logstreams.processor.StreamProcessorContext;
 import io.zeebe.util.time.ClockUtil;
 import org.junit.After;
@@ -238,6 +239,154 @@ public class TaskExpireLockStreamProcessorTest
         assertThat(mockController.getWrittenEvents()).isEmpty();
     }
 
+    @Test
+    public void shouldRetryFailedTaskAfterBackoff()
+    {
+        // given
+        ClockUtil.setCurrentTime(LOCK_TIME);
+
+        final LoggedEvent failedEvent = mockController.buildLoggedEvent(2L, event -> event
+                .setState(TaskState.FAILED)
+                .setRetries(2)
+                .setRetryBackoff(1000L)
+                .setRetryTime(LOCK_TIME + 1000L));
+
+        mockController.processEvent(failedEvent);
+
+        when(mockTargetLogStreamReader.seek(INITIAL_POSITION)).thenReturn(true);
+        when(mockTargetLogStreamReader.hasNext()).thenReturn(true);
+        when(mockTargetLogStreamReader.next()).thenReturn(failedEvent);
+
+        // when
+        ClockUtil.setCurrentTime(LOCK_TIME + 1000L);
+
+        streamProcessor.checkLockExpirationAsync();
+        mockController.drainCommandQueue();
+
+        // then
+        assertThat(mockController.getWrittenEvents()).hasSize(1);
+
+        final TaskEvent taskEvent = mockController.getLastWrittenEvent().getValue();
+        assertThat(taskEvent.getState()).isEqualTo(TaskState.UPDATE_RETRIES);
+        assertThat(taskEvent.getRetries()).isEqualTo(2);
+        assertThat(taskEvent.getRetryBackoff()).isEqualTo(0L);
+        assertThat(taskEvent.getRetryTime()).isEqualTo(Protocol.INSTANT_NULL_VALUE);
+
+        verify(mockLogStreamWriter).key(2L);
+    }
+
+    @Test
+    public void shouldRetryFailedTaskAtRetryTimeOfEvent()
+    {
+        // given
+        ClockUtil.setCurrentTime(LOCK_TIME);
+
+        // the failed event is processed (again) after a part of the backoff elapsed
+        final LoggedEvent failedEvent = mockController.buildLoggedEvent(2L, event -> event
+                .setState(TaskState.FAILED)
+                .setRetries(2)
+                .setRetryBackoff(1000L)
+                .setRetryTime(LOCK_TIME - 500L));
+
+        mockController.processEvent(failedEvent);
+
+        when(mockTargetLogStreamReader.seek(INITIAL_POSITION)).thenReturn(true);
+        when(mockTargetLogStreamReader.hasNext()).thenReturn(true);
+        when(mockTargetLogStreamReader.next()).thenReturn(failedEvent);
+
+        // when
+        ClockUtil.setCurrentTime(LOCK_TIME + 500L);
+
+        streamProcessor.checkLockExpirationAsync();
+        mockController.drainCommandQueue();
+
+        // then
+        assertThat(mockController.getWrittenEvents()).hasSize(1);
+        assertThat(mockController.getLastWrittenEvent().getValue().getState()).isEqualTo(TaskState.UPDATE_RETRIES);
+    }
+
+    @Test
+    public void shouldNotRetryFailedTaskBeforeBackoff()
+    {
+        // given
+        ClockUtil.setCurrentTime(LOCK_TIME);
+
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.FAILED)
+                .setRetries(2)
+                .setRetryBackoff(1000L)
+                .setRetryTime(LOCK_TIME + 1000L));
+
+        // when
+        ClockUtil.setCurrentTime(LOCK_TIME + 999L);
+
+        streamProcessor.checkLockExpirationAsync();
+        mockController.drainCommandQueue();
+
+        // then
+        assertThat(mockController.getWrittenEvents()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotRetryFailedTaskIfRetriesUpdated()
+    {
+        // given
+        ClockUtil.setCurrentTime(LOCK_TIME);
+
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.FAILED)
+                .setRetries(2)
+                .setRetryBackoff(1000L)
+                .setRetryTime(LOCK_TIME + 1000L));
+
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.RETRIES_UPDATED)
+                .setRetries(3));
+
+        // when
+        ClockUtil.setCurrentTime(LOCK_TIME + 1000L);
+
+        streamProcessor.checkLockExpirationAsync();
+        mockController.drainCommandQueue();
+
+        // then
+        assertThat(mockController.getWrittenEvents()).isEmpty();
+    }
+
+    @Test
+    public void shouldProcessOwnUpdateRetriesEvent()
+    {
+        // given
+        final LoggedEvent updateRetriesEvent = mockController.buildLoggedEvent(2L, event -> event
+                .setState(TaskState.UPDATE_RETRIES)
+                .setRetries(2));
+
+        when(updateRetriesEvent.getProducerId()).thenReturn(STREAM_PROCESSOR_ID);
+
+        // when
+        final EventProcessor eventProcessor = streamProcessor.onEvent(updateRetriesEvent);
+
+        // then
+        assertThat(eventProcessor).isNotNull();
+    }
+
+    @Test
+    public void shouldIgnoreUpdateRetriesEventOfClient()
+    {
+        // given
+        final LoggedEvent updateRetriesEvent = mockController.buildLoggedEvent(2L, event -> event
+                .setState(TaskState.UPDATE_RETRIES)
+                .setRetries(2));
+
+        when(updateRetriesEvent.getProducerId()).thenReturn(-1);
+
+        // when
+        final EventProcessor eventProcessor = streamProcessor.onEvent(updateRetriesEvent);
+
+        // then
+        assertThat(eventProcessor).isNull();
+    }
+
     @Test
     public void shouldNotExpireLockIfAlreadyExpired()
     {
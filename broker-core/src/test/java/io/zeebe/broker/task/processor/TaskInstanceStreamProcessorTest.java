@@ -312,6 +312,54 @@ public class TaskInstanceStreamProcessorTest
         verify(mockResponseWriter, times(2)).tryWriteResponse(anyInt(), anyLong());
     }
 
+    @Test
+    public void shouldSetRetryTimeOfFailedTaskWithRetryBackoff() throws InterruptedException, ExecutionException
+    {
+        // given
+        mockController.processEvent(2L, event ->
+            event.setState(TaskState.CREATE));
+
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.LOCK)
+                .setLockTime(lockTime)
+                .setLockOwner(wrapString("owner")));
+
+        // when
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.FAIL)
+                .setLockOwner(wrapString("owner"))
+                .setRetries(2)
+                .setRetryBackoff(1000L));
+
+        // then
+        final TaskEvent failedEvent = mockController.getLastWrittenEventValue();
+        assertThat(failedEvent.getState()).isEqualTo(TaskState.FAILED);
+        assertThat(failedEvent.getRetryTime()).isEqualTo(now.toEpochMilli() + 1000L);
+    }
+
+    @Test
+    public void shouldNotSetRetryTimeOfFailedTaskWithoutRetries() throws InterruptedException, ExecutionException
+    {
+        // given
+        mockController.processEvent(2L, event ->
+            event.setState(TaskState.CREATE));
+
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.LOCK)
+                .setLockTime(lockTime)
+                .setLockOwner(wrapString("owner")));
+
+        // when
+        mockController.processEvent(2L, event -> event
+                .setState(TaskState.FAIL)
+                .setLockOwner(wrapString("owner"))
+                .setRetries(0)
+                .setRetryBackoff(1000L));
+
+        // then
+        assertThat(mockController.getLastWrittenEventValue().getRetryTime()).isEqualTo(Protocol.INSTANT_NULL_VALUE);
+    }
+
     @Test
     public void shouldExpireTaskLock()
     {
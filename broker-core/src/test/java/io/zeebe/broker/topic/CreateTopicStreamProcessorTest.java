@@ -39,6 +39,7 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.MockitoAnnotations;
 
 import io.zeebe.broker.clustering.management.Partition;
+import io.zeebe.broker.clustering.management.PartitionListener;
 import io.zeebe.broker.clustering.management.PartitionManager;
 import io.zeebe.broker.system.log.CreateTopicStreamProcessor;
 import io.zeebe.broker.system.log.PartitionEvent;
@@ -186,6 +187,31 @@ public class CreateTopicStreamProcessorTest
         assertThat(partitionEventsInState(PartitionState.CREATE).count()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldCompletePartitionWhenLeaderBecomesKnown()
+    {
+        // given
+        final CreateTopicStreamProcessor streamProcessor = new CreateTopicStreamProcessor(responseWriter, partitionManager);
+        final StreamProcessorControl processorControl = streams.runStreamProcessor(STREAM_NAME, streamProcessor);
+        processorControl.unblock();
+
+        streams.newEvent(STREAM_NAME)
+            .event(createTopic("foo", 2))
+            .write();
+
+        waitUntil(() -> partitionEventsInState(PartitionState.CREATING).count() == 2);
+
+        // when
+        partitionManager.announcePartitionLeader("foo", 0);
+        partitionManager.announcePartitionLeader("foo", 1);
+
+        // then
+        waitUntil(() -> topicEventsInState(TopicState.CREATED).findFirst().isPresent());
+
+        assertThat(partitionEventsInState(PartitionState.CREATE_COMPLETE).count()).isEqualTo(2);
+        assertThat(partitionEventsInState(PartitionState.CREATED).count()).isEqualTo(2);
+    }
+
     @Test
     @Ignore("https://github.com/zeebe-io/zeebe/issues/415")
     public void shouldNotResendPartitionRequestOnRecovery() throws InterruptedException
@@ -248,6 +274,7 @@ public class CreateTopicStreamProcessorTest
 
         protected AtomicInteger partitionRequests = new AtomicInteger(0);
         protected List<Partition> currentPartitions = new CopyOnWriteArrayList<>();
+        protected List<PartitionListener> partitionListeners = new CopyOnWriteArrayList<>();
 
         @Override
         public void createPartitionAsync(DirectBuffer topicName, int partitionId)
@@ -266,6 +293,25 @@ public class CreateTopicStreamProcessorTest
             return currentPartitions.iterator();
         }
 
+        @Override
+        public void addPartitionListener(PartitionListener listener)
+        {
+            partitionListeners.add(listener);
+        }
+
+        @Override
+        public void removePartitionListener(PartitionListener listener)
+        {
+            partitionListeners.remove(listener);
+        }
+
+        public void announcePartitionLeader(String topicName, int partitionId)
+        {
+            makePartitionAvailable(topicName, partitionId);
+
+            partitionListeners.forEach(l -> l.onPartitionLeader(BufferUtil.wrapString(topicName), partitionId));
+        }
+
         public void makePartitionAvailable(String topicName, int partitionId)
         {
             this.currentPartitions.add(new Partition()
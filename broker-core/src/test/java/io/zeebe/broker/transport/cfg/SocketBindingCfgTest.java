@@ -0,0 +1,54 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.cfg;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class SocketBindingCfgTest
+{
+
+    @Test
+    public void shouldAdvertiseBoundAddressByDefault()
+    {
+        // given
+        final SocketBindingCfg cfg = new SocketBindingCfg();
+        cfg.port = 51016;
+
+        // then
+        assertThat(cfg.getAdvertisedHost("0.0.0.0")).isEqualTo("0.0.0.0");
+        assertThat(cfg.getAdvertisedPort()).isEqualTo(51016);
+    }
+
+    @Test
+    public void shouldAdvertiseConfiguredAddress()
+    {
+        // given
+        final SocketBindingCfg cfg = new SocketBindingCfg();
+        cfg.host = "localhost";
+        cfg.port = 51016;
+        cfg.advertisedHost = "broker-1";
+        cfg.advertisedPort = 61016;
+
+        // then
+        assertThat(cfg.getAdvertisedHost("0.0.0.0")).isEqualTo("broker-1");
+        assertThat(cfg.getAdvertisedPort()).isEqualTo(61016);
+    }
+
+}
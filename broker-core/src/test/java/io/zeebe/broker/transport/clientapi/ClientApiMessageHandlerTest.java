@@ -23,6 +23,8 @@ import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +56,7 @@ public class ClientApiMessageHandlerTest
 {
     private static final int REQUEST_ID = 5;
     private static final int RAFT_TERM = 10;
+    private static final int MAX_UNCOMMITTED_COMMANDS = 2;
     protected static final RemoteAddress DEFAULT_ADDRESS = new RemoteAddress(21, new SocketAddress("foo", 4242));
 
     protected static final DirectBuffer LOG_STREAM_TOPIC_NAME = wrapString("test-topic");
@@ -89,6 +92,9 @@ public class ClientApiMessageHandlerTest
     @Mock
     private Dispatcher mockControlMessageDispatcher;
 
+    @Mock
+    private ReadOnlyCommandHandler mockReadOnlyCommandHandler;
+
     @Rule
     public TemporaryFolder tempFolder = new TemporaryFolder();
 
@@ -111,7 +117,7 @@ public class ClientApiMessageHandlerTest
 
         logStream.openAsync();
 
-        messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher);
+        messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher, MAX_UNCOMMITTED_COMMANDS);
 
         messageHandler.addStream(logStream);
         logStream.setTerm(RAFT_TERM);
@@ -259,6 +265,109 @@ public class ClientApiMessageHandlerTest
         assertThat(errorDecoder.errorData()).isEqualTo("Cannot execute command. Topic with name 'unknown-topic' and partition id '1' not found");
     }
 
+    @Test
+    public void shouldPassSubscriptionCommandToReadOnlyCommandHandlerIfNotLeader()
+    {
+        // given
+        final DirectBuffer followerTopicName = wrapString("follower-topic");
+
+        when(mockReadOnlyCommandHandler.onCommand(any(), anyInt(), any(), any(), any(), anyInt(), anyInt())).thenReturn(true);
+        messageHandler.setReadOnlyCommandHandler(mockReadOnlyCommandHandler);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, followerTopicName, LOG_STREAM_PARTITION_ID, null, EventType.SUBSCRIBER_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+        assertThat(serverOutput.getSentResponses()).isEmpty();
+
+        verify(mockReadOnlyCommandHandler).onCommand(eq(followerTopicName), eq(LOG_STREAM_PARTITION_ID), eq(EventType.SUBSCRIBER_EVENT), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldSendErrorMessageIfReadOnlyCommandHandlerDoesNotHandleCommand()
+    {
+        // given
+        when(mockReadOnlyCommandHandler.onCommand(any(), anyInt(), any(), any(), any(), anyInt(), anyInt())).thenReturn(false);
+        messageHandler.setReadOnlyCommandHandler(mockReadOnlyCommandHandler);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, wrapString("unknown-topic"), LOG_STREAM_PARTITION_ID, null, EventType.SUBSCRIBER_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.TOPIC_NOT_FOUND);
+    }
+
+    @Test
+    public void shouldNotPassTaskCommandToReadOnlyCommandHandler()
+    {
+        // given
+        messageHandler.setReadOnlyCommandHandler(mockReadOnlyCommandHandler);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, wrapString("unknown-topic"), LOG_STREAM_PARTITION_ID, null, EventType.TASK_EVENT);
+
+        // when
+        messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        verify(mockReadOnlyCommandHandler, never()).onCommand(any(), anyInt(), any(), any(), any(), anyInt(), anyInt());
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.TOPIC_NOT_FOUND);
+    }
+
+    @Test
+    public void shouldNotPassSubscriberCommandOfLeaderToReadOnlyCommandHandler()
+    {
+        // given
+        messageHandler.setReadOnlyCommandHandler(mockReadOnlyCommandHandler);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, null, EventType.SUBSCRIBER_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        // the command is handled by the leader
+        verify(mockReadOnlyCommandHandler, never()).onCommand(any(), anyInt(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldRejectCommandIfTooManyCommandsAreUncommitted()
+    {
+        // given
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, null, EventType.TASK_EVENT);
+
+        for (int i = 0; i < MAX_UNCOMMITTED_COMMANDS; i++)
+        {
+            messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+        }
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        final List<DirectBuffer> sentResponses = serverOutput.getSentResponses();
+        assertThat(sentResponses).hasSize(1);
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.REQUEST_WRITE_FAILURE);
+        assertThat(errorDecoder.errorData()).isEqualTo("Resource exhausted: Cannot execute command. Partition '1' of topic 'test-topic' is exhausted; too many uncommitted commands.");
+    }
+
     @Test
     public void shouldNotHandleUnkownRequest() throws InterruptedException, ExecutionException
     {
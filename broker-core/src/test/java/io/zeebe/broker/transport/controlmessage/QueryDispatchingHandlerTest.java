@@ -0,0 +1,143 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import static io.zeebe.broker.test.MsgPackUtil.encodeMsgPack;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.agrona.DirectBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.zeebe.broker.transport.clientapi.BufferingServerOutput;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+
+public class QueryDispatchingHandlerTest
+{
+    private static final DirectBuffer QUERY = wrapString("foo");
+
+    @Mock
+    private ControlMessageHandler defaultHandler;
+
+    @Mock
+    private ControlMessageHandler queryHandler;
+
+    private BufferingServerOutput output;
+    private QueryDispatchingHandler handler;
+
+    private final BrokerEventMetadata metadata = new BrokerEventMetadata();
+
+    @Before
+    public void init()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        when(defaultHandler.getMessageType()).thenReturn(ControlMessageType.REQUEST_TOPOLOGY);
+        when(defaultHandler.handle(any(DirectBuffer.class), any(BrokerEventMetadata.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(queryHandler.handle(any(DirectBuffer.class), any(BrokerEventMetadata.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        output = new BufferingServerOutput();
+        handler = new QueryDispatchingHandler(output, defaultHandler)
+            .query(QUERY, queryHandler);
+    }
+
+    @Test
+    public void shouldHaveMessageTypeOfDefaultHandler()
+    {
+        assertThat(handler.getMessageType()).isEqualTo(ControlMessageType.REQUEST_TOPOLOGY);
+    }
+
+    @Test
+    public void shouldDispatchRequestWithoutQueryToDefaultHandler()
+    {
+        // given
+        final DirectBuffer request = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(1);
+            w.writeString(wrapString("knownVersion"));
+            w.writeInteger(3);
+        });
+
+        // when
+        handler.handle(request, metadata);
+
+        // then
+        verify(defaultHandler).handle(request, metadata);
+        verify(queryHandler, never()).handle(any(DirectBuffer.class), any(BrokerEventMetadata.class));
+    }
+
+    @Test
+    public void shouldDispatchRequestWithQueryToQueryHandler()
+    {
+        // given
+        final DirectBuffer request = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(wrapString("query"));
+            w.writeString(QUERY);
+            w.writeString(wrapString("limit"));
+            w.writeInteger(10);
+        });
+
+        // when
+        handler.handle(request, metadata);
+
+        // then
+        verify(queryHandler).handle(request, metadata);
+        verify(defaultHandler, never()).handle(any(DirectBuffer.class), any(BrokerEventMetadata.class));
+    }
+
+    @Test
+    public void shouldRejectRequestWithUnknownQuery()
+    {
+        // given
+        final DirectBuffer request = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(1);
+            w.writeString(wrapString("query"));
+            w.writeString(wrapString("bar"));
+        });
+
+        // when
+        final CompletableFuture<Void> future = handler.handle(request, metadata);
+
+        // then
+        assertThat(future).isCompleted();
+
+        verify(defaultHandler, never()).handle(any(DirectBuffer.class), any(BrokerEventMetadata.class));
+        verify(queryHandler, never()).handle(any(DirectBuffer.class), any(BrokerEventMetadata.class));
+
+        assertThat(output.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorResponse = output.getAsErrorResponse(0);
+        assertThat(errorResponse.errorCode()).isEqualTo(ErrorCode.MESSAGE_NOT_SUPPORTED);
+        assertThat(errorResponse.errorData()).isEqualTo("Cannot handle control message with type 'REQUEST_TOPOLOGY' and query 'bar'.");
+    }
+}
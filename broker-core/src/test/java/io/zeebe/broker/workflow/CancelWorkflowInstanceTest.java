@@ -184,6 +184,101 @@ public class CancelWorkflowInstanceTest
         testClient.receiveSingleEvent(workflowInstanceEvents("CANCEL_WORKFLOW_INSTANCE_REJECTED"));
     }
 
+    @Test
+    public void shouldCancelAllWorkflowInstancesInBatches()
+    {
+        // given
+        testClient.deploy(WORKFLOW);
+
+        final int instanceCount = 40;
+        for (int i = 0; i < instanceCount; i++)
+        {
+            testClient.createWorkflowInstance("process");
+        }
+
+        testClient.receiveEvents(workflowInstanceEvents("ACTIVITY_ACTIVATED")).limit(instanceCount).count();
+
+        // when
+        final ExecuteCommandResponse response = cancelWorkflowInstances("process");
+
+        // then
+        assertThat(response.getEvent())
+            .containsEntry("state", "WORKFLOW_INSTANCES_CANCELING")
+            .containsEntry(PROP_CANCELED_INSTANCES, 0);
+
+        final SubscribedEvent canceledEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCES_CANCELED"));
+        assertThat(canceledEvent.key()).isEqualTo(response.key());
+        assertThat(canceledEvent.event()).containsEntry(PROP_CANCELED_INSTANCES, instanceCount);
+
+        final List<Object> progress = testClient.receiveEvents(workflowInstanceEvents("WORKFLOW_INSTANCES_CANCELING"))
+            .limit(2)
+            .map(e -> e.event().get(PROP_CANCELED_INSTANCES))
+            .collect(Collectors.toList());
+        assertThat(progress).containsExactly(0, 32);
+
+        assertThat(testClient.receiveEvents(workflowInstanceEvents("WORKFLOW_INSTANCE_CANCELED")).limit(instanceCount).count()).isEqualTo(instanceCount);
+        assertThat(testClient.receiveEvents(taskEvents("CANCELED")).limit(instanceCount).count()).isEqualTo(instanceCount);
+    }
+
+    @Test
+    public void shouldCancelAllWorkflowInstancesOfVersion()
+    {
+        // given
+        testClient.deploy(WORKFLOW);
+        testClient.createWorkflowInstance("process");
+
+        testClient.deploy(WORKFLOW);
+        final long workflowInstanceKey = testClient.createWorkflowInstance("process");
+
+        testClient.receiveEvents(workflowInstanceEvents("ACTIVITY_ACTIVATED")).limit(2).count();
+
+        // when
+        apiRule.createCmdRequest()
+            .topicName(ClientApiRule.DEFAULT_TOPIC_NAME)
+            .partitionId(ClientApiRule.DEFAULT_PARTITION_ID)
+            .eventTypeWorkflow()
+            .command()
+                .put("state", "CANCEL_WORKFLOW_INSTANCES")
+                .put(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+                .put(PROP_WORKFLOW_VERSION, 2)
+            .done()
+            .sendAndAwait();
+
+        // then
+        final SubscribedEvent canceledEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCES_CANCELED"));
+        assertThat(canceledEvent.event()).containsEntry(PROP_CANCELED_INSTANCES, 1);
+
+        final SubscribedEvent workflowInstanceCanceledEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCE_CANCELED"));
+        assertThat(workflowInstanceCanceledEvent.key()).isEqualTo(workflowInstanceKey);
+        assertThat(workflowInstanceCanceledEvent.event())
+            .containsEntry(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+            .containsEntry(PROP_WORKFLOW_VERSION, 2)
+            .containsEntry(PROP_WORKFLOW_INSTANCE_KEY, workflowInstanceKey);
+    }
+
+    @Test
+    public void shouldRejectCancelAllInstancesOfNonExistingWorkflow()
+    {
+        // when
+        final ExecuteCommandResponse response = cancelWorkflowInstances("unknown");
+
+        // then
+        assertThat(response.getEvent()).containsEntry("state", "CANCEL_WORKFLOW_INSTANCES_REJECTED");
+    }
+
+    private ExecuteCommandResponse cancelWorkflowInstances(final String bpmnProcessId)
+    {
+        return apiRule.createCmdRequest()
+            .topicName(ClientApiRule.DEFAULT_TOPIC_NAME)
+            .partitionId(ClientApiRule.DEFAULT_PARTITION_ID)
+            .eventTypeWorkflow()
+            .command()
+                .put("state", "CANCEL_WORKFLOW_INSTANCES")
+                .put(PROP_WORKFLOW_BPMN_PROCESS_ID, bpmnProcessId)
+            .done()
+            .sendAndAwait();
+    }
+
     private ExecuteCommandResponse cancelWorkflowInstance(final long workflowInstanceKey)
     {
         return apiRule.createCmdRequest()
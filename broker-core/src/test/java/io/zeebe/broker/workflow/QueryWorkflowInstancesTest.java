@@ -0,0 +1,215 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow;
+
+import static io.zeebe.broker.test.MsgPackUtil.MSGPACK_PAYLOAD;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.*;
+import static io.zeebe.test.broker.protocol.clientapi.ClientApiRule.DEFAULT_PARTITION_ID;
+import static io.zeebe.test.broker.protocol.clientapi.ClientApiRule.DEFAULT_TOPIC_NAME;
+import static io.zeebe.test.broker.protocol.clientapi.TestTopicClient.workflowInstanceEvents;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.zeebe.broker.test.EmbeddedBrokerRule;
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.test.broker.protocol.clientapi.*;
+import org.junit.*;
+import org.junit.rules.RuleChain;
+
+public class QueryWorkflowInstancesTest
+{
+    private static final WorkflowDefinition WORKFLOW = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .serviceTask("task", t -> t.taskType("test"))
+            .endEvent()
+            .done();
+
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule();
+    public ClientApiRule apiRule = new ClientApiRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(brokerRule).around(apiRule);
+
+    private TestTopicClient testClient;
+
+    @Before
+    public void init()
+    {
+        testClient = apiRule.topic();
+    }
+
+    @Test
+    public void shouldQueryWorkflowInstanceByKey()
+    {
+        // given
+        testClient.deploy(WORKFLOW);
+
+        final long workflowInstanceKey = testClient.createWorkflowInstance("process", MSGPACK_PAYLOAD);
+
+        testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_ACTIVATED"));
+
+        // when
+        final Map<String, Object> query = new HashMap<>();
+        query.put(PROP_WORKFLOW_INSTANCE_KEY, workflowInstanceKey);
+
+        final List<Map<String, Object>> workflowInstances = workflowInstances(queryWorkflowInstances(query));
+
+        // then
+        assertThat(workflowInstances).hasSize(1);
+
+        final Map<String, Object> workflowInstance = workflowInstances.get(0);
+        assertThat(workflowInstance)
+            .containsEntry(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+            .containsEntry(PROP_WORKFLOW_VERSION, 1)
+            .containsEntry(PROP_WORKFLOW_ACTIVITY_ID, "task")
+            .containsEntry("activeTokenCount", 1);
+        assertThat(asLong(workflowInstance.get(PROP_WORKFLOW_INSTANCE_KEY))).isEqualTo(workflowInstanceKey);
+        assertThat((byte[]) workflowInstance.get(PROP_WORKFLOW_PAYLOAD)).isEqualTo(MSGPACK_PAYLOAD);
+    }
+
+    @Test
+    public void shouldNotReturnCanceledWorkflowInstance()
+    {
+        // given
+        testClient.deploy(WORKFLOW);
+
+        final long workflowInstanceKey = testClient.createWorkflowInstance("process");
+
+        testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_ACTIVATED"));
+
+        apiRule.createCmdRequest()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .eventTypeWorkflow()
+            .key(workflowInstanceKey)
+            .command()
+                .put(PROP_STATE, "CANCEL_WORKFLOW_INSTANCE")
+            .done()
+            .sendAndAwait();
+
+        // when
+        final Map<String, Object> query = new HashMap<>();
+        query.put(PROP_WORKFLOW_INSTANCE_KEY, workflowInstanceKey);
+
+        final List<Map<String, Object>> workflowInstances = workflowInstances(queryWorkflowInstances(query));
+
+        // then
+        assertThat(workflowInstances).isEmpty();
+    }
+
+    @Test
+    public void shouldListWorkflowInstancesByBpmnProcessId()
+    {
+        // given
+        testClient.deploy(WORKFLOW);
+
+        final long firstKey = testClient.createWorkflowInstance("process");
+        final long secondKey = testClient.createWorkflowInstance("process");
+        final long thirdKey = testClient.createWorkflowInstance("process");
+
+        testClient.receiveEvents(workflowInstanceEvents("ACTIVITY_ACTIVATED")).limit(3).count();
+
+        // when
+        final Map<String, Object> query = new HashMap<>();
+        query.put(PROP_WORKFLOW_BPMN_PROCESS_ID, "process");
+        query.put("limit", 2);
+
+        final ControlMessageResponse firstPage = queryWorkflowInstances(query);
+
+        query.put("cursor", firstPage.getData().get("nextCursor"));
+
+        final ControlMessageResponse secondPage = queryWorkflowInstances(query);
+
+        // then
+        assertThat(workflowInstances(firstPage)).hasSize(2);
+        assertThat(workflowInstances(secondPage)).hasSize(1);
+        assertThat(asLong(secondPage.getData().get("nextCursor"))).isEqualTo(-1L);
+
+        final List<Long> keys = workflowInstances(firstPage).stream()
+            .map(i -> asLong(i.get(PROP_WORKFLOW_INSTANCE_KEY)))
+            .collect(Collectors.toList());
+        keys.add(asLong(workflowInstances(secondPage).get(0).get(PROP_WORKFLOW_INSTANCE_KEY)));
+
+        assertThat(keys).containsExactlyInAnyOrder(firstKey, secondKey, thirdKey);
+    }
+
+    @Test
+    public void shouldRejectQueryWithoutKeyAndBpmnProcessId()
+    {
+        // when
+        final ErrorResponse error = apiRule.createControlMessageRequest()
+            .messageType(ControlMessageType.REQUEST_TOPOLOGY)
+            .data()
+                .put("query", "workflowInstances")
+                .put("topicName", DEFAULT_TOPIC_NAME)
+                .put("partitionId", DEFAULT_PARTITION_ID)
+                .done()
+            .send().awaitError();
+
+        // then
+        assertThat(error.getErrorCode()).isEqualTo(ErrorCode.REQUEST_PROCESSING_FAILURE);
+        assertThat(error.getErrorData()).isEqualTo("Cannot query workflow instances. Query must contain a workflow instance key or a bpmn process id.");
+    }
+
+    @Test
+    public void shouldStillAnswerTopologyRequest()
+    {
+        // when
+        final ControlMessageResponse response = apiRule.createControlMessageRequest()
+            .messageType(ControlMessageType.REQUEST_TOPOLOGY)
+            .data()
+                .done()
+            .send().await();
+
+        // then
+        assertThat(response.getData()).containsKeys("brokers", "topicLeaders");
+        assertThat(response.getData()).doesNotContainKey("workflowInstances");
+    }
+
+    private ControlMessageResponse queryWorkflowInstances(Map<String, Object> query)
+    {
+        final Map<String, Object> data = new HashMap<>(query);
+        data.put("query", "workflowInstances");
+        data.put("topicName", DEFAULT_TOPIC_NAME);
+        data.put("partitionId", DEFAULT_PARTITION_ID);
+
+        return apiRule.createControlMessageRequest()
+            .messageType(ControlMessageType.REQUEST_TOPOLOGY)
+            .data(data)
+            .send()
+            .await();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> workflowInstances(ControlMessageResponse response)
+    {
+        return (List<Map<String, Object>>) response.getData().get("workflowInstances");
+    }
+
+    private static long asLong(Object value)
+    {
+        return ((Number) value).longValue();
+    }
+}
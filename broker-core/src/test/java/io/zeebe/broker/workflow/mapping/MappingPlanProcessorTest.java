@@ -0,0 +1,232 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.mapping;
+
+import static io.zeebe.broker.test.MsgPackUtil.JSON_MAPPER;
+import static io.zeebe.broker.test.MsgPackUtil.MSGPACK_MAPPER;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsArray;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.ServiceTask;
+import io.zeebe.model.bpmn.instance.Workflow;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.msgpack.mapping.MappingException;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class MappingPlanProcessorTest
+{
+    private static final String DOCUMENT = "{'foo':'bar', 'obj':{'a':1, 'b':{'c':true}}, 'arr':[1, 2]}";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final MappingPlanProcessor processor = new MappingPlanProcessor(16);
+
+    @Test
+    public void shouldCompileSimplePaths()
+    {
+        // given
+        final MappingPlan plan = inputMappings(
+            "$.foo", "$.x",
+            "$.obj.b.c", "$.y.z");
+
+        // then
+        assertThat(plan.isCompiled()).isTrue();
+        assertThat(plan.hasRootTarget()).isFalse();
+        assertThat(plan.hasOnlyTopLevelTargets()).isFalse();
+    }
+
+    @Test
+    public void shouldNotCompileComplexPaths()
+    {
+        // given
+        final MappingPlan plan = inputMappings("$.arr[0]", "$.x");
+
+        // then
+        assertThat(plan.isCompiled()).isFalse();
+    }
+
+    @Test
+    public void shouldProjectRootWithoutCopy()
+    {
+        // given
+        final MappingPlan plan = inputMappings("$.obj", "$");
+        final DirectBuffer document = msgPack(DOCUMENT);
+
+        // when
+        final DirectBuffer result = processor.extract(plan, document);
+
+        // then
+        assertThat(result.addressOffset()).isGreaterThan(document.addressOffset());
+        assertThat(json(result)).isEqualTo(json("{'a':1, 'b':{'c':true}}"));
+    }
+
+    @Test
+    public void shouldExtractMultipleValuesInOnePass()
+    {
+        // given
+        final MappingPlan plan = inputMappings(
+            "$.foo", "$.x",
+            "$.obj.a", "$.y.a",
+            "$.obj.b", "$.y.b");
+
+        // when
+        final DirectBuffer result = processor.extract(plan, msgPack(DOCUMENT));
+
+        // then
+        assertThat(json(result)).isEqualTo(json("{'x':'bar', 'y':{'a':1, 'b':{'c':true}}}"));
+    }
+
+    @Test
+    public void shouldExtractDocumentLargerThanInitialBuffer()
+    {
+        // given
+        final MappingPlan plan = inputMappings("$", "$.copy");
+
+        // when
+        final DirectBuffer result = processor.extract(plan, msgPack(DOCUMENT));
+
+        // then
+        assertThat(json(result)).isEqualTo(json("{'copy':" + DOCUMENT + "}"));
+    }
+
+    @Test
+    public void shouldMergeIntoTargetDocument()
+    {
+        // given
+        final MappingPlan plan = outputMappings(
+            "$.obj.a", "$.foo",
+            "$.obj.b", "$.result");
+
+        // when
+        final DirectBuffer result = processor.merge(plan, msgPack(DOCUMENT), msgPack("{'foo':'old', 'other':2}"));
+
+        // then
+        assertThat(json(result)).isEqualTo(json("{'foo':1, 'other':2, 'result':{'c':true}}"));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoDataFound()
+    {
+        // given
+        final MappingPlan plan = inputMappings(
+            "$.foo", "$.x",
+            "$.obj.notExisting", "$.y");
+
+        // then
+        thrown.expect(MappingException.class);
+        thrown.expectMessage("No data found for query $.obj.notExisting.");
+
+        // when
+        processor.extract(plan, msgPack(DOCUMENT));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfProjectionIsNotAMap()
+    {
+        // given
+        final MappingPlan plan = inputMappings("$.foo", "$");
+
+        // then
+        thrown.expect(MappingException.class);
+        thrown.expectMessage(MappingPlanProcessor.NON_MAP_RESULT_MSG);
+
+        // when
+        processor.extract(plan, msgPack(DOCUMENT));
+    }
+
+    private static MappingPlan inputMappings(String... sourceTargetPairs)
+    {
+        return MappingPlan.compile(serviceTask(sourceTargetPairs, true).getInputOutputMapping().getInputMappings());
+    }
+
+    private static MappingPlan outputMappings(String... sourceTargetPairs)
+    {
+        return MappingPlan.compile(serviceTask(sourceTargetPairs, false).getInputOutputMapping().getOutputMappings());
+    }
+
+    private static ServiceTask serviceTask(String[] sourceTargetPairs, boolean isInput)
+    {
+        final WorkflowDefinition definition = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .serviceTask("service", t ->
+            {
+                t.taskType("test");
+
+                for (int i = 0; i < sourceTargetPairs.length; i += 2)
+                {
+                    if (isInput)
+                    {
+                        t.input(sourceTargetPairs[i], sourceTargetPairs[i + 1]);
+                    }
+                    else
+                    {
+                        t.output(sourceTargetPairs[i], sourceTargetPairs[i + 1]);
+                    }
+                }
+            })
+            .endEvent()
+            .done();
+
+        final Workflow workflow = definition.getWorkflows().iterator().next();
+        return workflow.findFlowElementById(wrapString("service"));
+    }
+
+    private static DirectBuffer msgPack(String json)
+    {
+        try
+        {
+            return new UnsafeBuffer(MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree(json)));
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object json(DirectBuffer msgPack)
+    {
+        try
+        {
+            return MSGPACK_MAPPER.readTree(bufferAsArray(msgPack));
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object json(String json)
+    {
+        try
+        {
+            return JSON_MAPPER.readTree(json);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -17,9 +17,11 @@ package io.zeebe.client;
 
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.WorkflowInstanceEvent;
+import io.zeebe.client.workflow.cmd.CancelWorkflowInstancesCommand;
 import io.zeebe.client.workflow.cmd.CreateDeploymentCommand;
 import io.zeebe.client.workflow.cmd.CreateWorkflowInstanceCommand;
 import io.zeebe.client.workflow.cmd.UpdatePayloadCommand;
+import io.zeebe.client.workflow.cmd.WorkflowInstanceQueryCommand;
 
 /**
  * Provides access to APIs revolving around workflow events.
@@ -48,6 +50,16 @@ public interface WorkflowsClient
      */
     Request<WorkflowInstanceEvent> cancel(WorkflowInstanceEvent baseEvent);
 
+    /**
+     * Cancel all active instances of a workflow on a partition. The broker
+     * cancels the instances in batches, the progress can be followed by a
+     * topic subscription.
+     *
+     * @param topic the topic of the workflow instances
+     * @param partitionId the partition of the workflow instances
+     */
+    CancelWorkflowInstancesCommand cancelAll(String topic, int partitionId);
+
     /**
      * Update the payload of a workflow instance.
      *
@@ -56,4 +68,12 @@ public interface WorkflowsClient
      *   ACTIVITY_READY, ACTIVITY_ACTIVATED, ACTIVITY_COMPLETING
      */
     UpdatePayloadCommand updatePayload(WorkflowInstanceEvent baseEvent);
+
+    /**
+     * Query the active workflow instances of a partition.
+     *
+     * @param topic the topic of the workflow instances
+     * @param partitionId the partition of the workflow instances
+     */
+    WorkflowInstanceQueryCommand query(String topic, int partitionId);
 }
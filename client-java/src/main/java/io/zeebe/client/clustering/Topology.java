@@ -22,5 +22,11 @@ public interface Topology
 {
     RemoteAddress getLeaderForTopic(Partition topic);
 
+    /**
+     * @return a randomly selected follower of the given partition, or the
+     *         leader if no follower is known
+     */
+    RemoteAddress getFollowerForTopic(Partition topic);
+
     RemoteAddress getRandomBroker();
 }
@@ -56,6 +56,7 @@ public class ClientTopologyController
     protected final Consumer<TopologyResponse> successCallback;
     protected final Consumer<Exception> failureCallback;
 
+    protected final RequestTopologyCmdImpl topologyRequest = new RequestTopologyCmdImpl(null);
     protected final ControlMessageRequestHandler requestHandler;
 
     public ClientTopologyController(
@@ -66,7 +67,7 @@ public class ClientTopologyController
     {
         output = clientTransport.getOutput();
         this.requestHandler = new ControlMessageRequestHandler(objectMapper);
-        requestHandler.configure(new RequestTopologyCmdImpl(null));
+        requestHandler.configure(topologyRequest);
 
         stateMachine = StateMachine.builder(Context::new)
             .initialState(initState)
@@ -80,11 +81,23 @@ public class ClientTopologyController
     }
 
     public ClientTopologyController triggerRefresh(final RemoteAddress socketAddress)
+    {
+        return triggerRefresh(socketAddress, RequestTopologyCmdImpl.UNKNOWN_VERSION);
+    }
+
+    /**
+     * Requests the topology from the given broker. If the version of the
+     * broker's topology is known, then the broker responds when the topology
+     * differs from this version, or with the unchanged topology after a hold time.
+     */
+    public ClientTopologyController triggerRefresh(final RemoteAddress socketAddress, final long knownVersion)
     {
         ensureNotNull("socketAddress", socketAddress);
 
         stateMachine.reset();
 
+        requestHandler.configure(topologyRequest.knownVersion(knownVersion));
+
         final Context context = stateMachine.getContext();
         context.remoteAddress = socketAddress;
 
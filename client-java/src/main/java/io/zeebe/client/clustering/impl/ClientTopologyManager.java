@@ -32,13 +32,22 @@ import io.zeebe.util.actor.Actor;
 import io.zeebe.util.time.ClockUtil;
 
 
+/**
+ * Keeps the topology of the cluster up to date. Besides the periodic refresh,
+ * a topology request is continuously held by a broker which responds as soon as
+ * its topology changes (e.g. a new leader of a partition), so that changes are
+ * applied without waiting for the next refresh. The periodic refresh is a fallback
+ * if the notifications are not available.
+ */
 public class ClientTopologyManager implements Actor
 {
     public static final long REFRESH_INTERVAL = Duration.ofSeconds(10).toMillis();
+    public static final long TOPOLOGY_CHANGE_RETRY_BACKOFF = Duration.ofSeconds(1).toMillis();
 
     protected final DeferredCommandContext commandContext = new DeferredCommandContext();
 
     protected final ClientTopologyController clientTopologyController;
+    protected final ClientTopologyController topologyChangeController;
     protected final List<CompletableFuture<Void>> refreshFutures;
 
     protected TopologyImpl topology;
@@ -47,6 +56,13 @@ public class ClientTopologyManager implements Actor
 
     protected long nextRequestTimestamp = 0L;
 
+    // the version of the topology is only meaningful for the broker which sent it
+    protected long topologyVersion = RequestTopologyCmdImpl.UNKNOWN_VERSION;
+    protected RemoteAddress topologyVersionEndpoint;
+
+    protected RemoteAddress topologyChangeEndpoint;
+    protected long nextTopologyChangeRequestTimestamp = 0L;
+
     public ClientTopologyManager(final ClientTransport transport, final ObjectMapper objectMapper, final SocketAddress... initialBrokers)
     {
         this.transport = transport;
@@ -55,6 +71,11 @@ public class ClientTopologyManager implements Actor
                 objectMapper,
                 this::onNewTopology,
                 this::failRefreshFutures);
+        this.topologyChangeController = new ClientTopologyController(
+                transport,
+                objectMapper,
+                this::onTopologyChange,
+                this::onTopologyChangeFailure);
         this.topology = new TopologyImpl();
 
         for (SocketAddress socketAddress : initialBrokers)
@@ -86,6 +107,18 @@ public class ClientTopologyManager implements Actor
             }
         }
 
+        if (topologyChangeController.isRequestInProgress())
+        {
+            workCount += topologyChangeController.doWork();
+        }
+        else if (shouldAwaitTopologyChange())
+        {
+            final long knownVersion = topologyChangeEndpoint.equals(topologyVersionEndpoint) ? topologyVersion : RequestTopologyCmdImpl.UNKNOWN_VERSION;
+
+            topologyChangeController.triggerRefresh(topologyChangeEndpoint, knownVersion);
+            workCount++;
+        }
+
         return workCount;
     }
 
@@ -106,6 +139,18 @@ public class ClientTopologyManager implements Actor
         }
     }
 
+    public RemoteAddress getFollowerForTopic(final Partition topic)
+    {
+        if (topic != null)
+        {
+            return topology.getFollowerForTopic(topic);
+        }
+        else
+        {
+            return topology.getRandomBroker();
+        }
+    }
+
     public CompletableFuture<Void> refreshNow()
     {
         return commandContext.runAsync(future ->
@@ -115,12 +160,23 @@ public class ClientTopologyManager implements Actor
         });
     }
 
+    protected boolean shouldAwaitTopologyChange()
+    {
+        // a broker without a topology version does not notify about changes
+        return topologyVersion != RequestTopologyCmdImpl.UNKNOWN_VERSION && nextTopologyChangeRequestTimestamp <= ClockUtil.getCurrentTimeInMillis();
+    }
+
     protected boolean shouldRefreshTopology()
     {
         return nextRequestTimestamp < ClockUtil.getCurrentTimeInMillis() || !refreshFutures.isEmpty();
     }
 
     protected void onNewTopology(TopologyResponse topologyResponse)
+    {
+        onNewTopology(topologyResponse, topologyEndpoint);
+    }
+
+    protected void onNewTopology(TopologyResponse topologyResponse, RemoteAddress source)
     {
         recordTopologyRefreshAttempt();
 
@@ -128,10 +184,37 @@ public class ClientTopologyManager implements Actor
         topology.update(topologyResponse, transport);
         this.topology = topology;
 
+        topologyVersion = topologyResponse.getVersion();
+        topologyVersionEndpoint = source;
+
+        if (topologyChangeEndpoint == null)
+        {
+            topologyChangeEndpoint = source;
+        }
+
         refreshFutures.forEach(f -> f.complete(null));
         refreshFutures.clear();
     }
 
+    protected void onTopologyChange(TopologyResponse topologyResponse)
+    {
+        onNewTopology(topologyResponse, topologyChangeEndpoint);
+
+        // wait for the next change immediately
+        nextTopologyChangeRequestTimestamp = 0L;
+    }
+
+    protected void onTopologyChangeFailure(Exception e)
+    {
+        // the broker may be gone, wait for changes on a different one
+        // - or retry the last one if the topology contains no broker
+        if (topology.hasBrokers())
+        {
+            topologyChangeEndpoint = topology.getRandomBroker();
+        }
+        nextTopologyChangeRequestTimestamp = ClockUtil.getCurrentTimeInMillis() + TOPOLOGY_CHANGE_RETRY_BACKOFF;
+    }
+
     protected void failRefreshFutures(Exception e)
     {
         recordTopologyRefreshAttempt();
@@ -16,6 +16,7 @@
 package io.zeebe.client.clustering.impl;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.task.impl.ControlMessageRequest;
@@ -23,16 +24,37 @@ import io.zeebe.protocol.clientapi.ControlMessageType;
 
 public class RequestTopologyCmdImpl extends ControlMessageRequest<TopologyResponse>
 {
+    public static final long UNKNOWN_VERSION = -1L;
+
     protected static final Object EMPTY_REQUEST = new HashMap<>();
 
+    protected final Map<String, Object> request = new HashMap<>();
+
     public RequestTopologyCmdImpl(RequestManager commandManager)
     {
         super(commandManager, ControlMessageType.REQUEST_TOPOLOGY, null, TopologyResponse.class);
     }
 
+    /**
+     * If the version of the broker's topology is known, then the broker
+     * responds not before its topology changed or a hold time elapsed.
+     */
+    public RequestTopologyCmdImpl knownVersion(long knownVersion)
+    {
+        if (knownVersion != UNKNOWN_VERSION)
+        {
+            request.put("knownVersion", knownVersion);
+        }
+        else
+        {
+            request.remove("knownVersion");
+        }
+        return this;
+    }
+
     @Override
     public Object getRequest()
     {
-        return EMPTY_REQUEST;
+        return request.isEmpty() ? EMPTY_REQUEST : request;
     }
 }
@@ -25,12 +25,14 @@ import io.zeebe.transport.*;
 public class TopologyImpl implements Topology
 {
     protected Map<Partition, RemoteAddress> topicLeaders;
+    protected Map<Partition, List<RemoteAddress>> topicFollowers;
     protected List<RemoteAddress> brokers;
     protected final Random randomBroker = new Random();
 
     public TopologyImpl()
     {
         topicLeaders = new HashMap<>();
+        topicFollowers = new HashMap<>();
         brokers = new ArrayList<>();
     }
 
@@ -52,6 +54,27 @@ public class TopologyImpl implements Topology
         }
     }
 
+    @Override
+    public RemoteAddress getFollowerForTopic(Partition topic)
+    {
+        final List<RemoteAddress> followers = topicFollowers.get(topic);
+
+        if (followers != null && !followers.isEmpty())
+        {
+            final int nextFollower = randomBroker.nextInt(followers.size());
+            return followers.get(nextFollower);
+        }
+        else
+        {
+            return getLeaderForTopic(topic);
+        }
+    }
+
+    public boolean hasBrokers()
+    {
+        return !brokers.isEmpty();
+    }
+
     @Override
     public RemoteAddress getRandomBroker()
     {
@@ -71,6 +94,7 @@ public class TopologyImpl implements Topology
     {
         return "Topology{" +
             "topicLeaders=" + topicLeaders +
+            ", topicFollowers=" + topicFollowers +
             ", brokers=" + brokers +
             '}';
     }
@@ -86,6 +110,17 @@ public class TopologyImpl implements Topology
         {
             topicLeaders.put(leader.getTopic(), transport.registerRemoteAddress(leader.getSocketAddress()));
         }
+
+        final List<TopicLeader> followers = topologyDto.getTopicFollowers();
+        if (followers != null)
+        {
+            for (TopicLeader follower : followers)
+            {
+                topicFollowers
+                    .computeIfAbsent(follower.getTopic(), t -> new ArrayList<>())
+                    .add(transport.registerRemoteAddress(follower.getSocketAddress()));
+            }
+        }
     }
 
 }
@@ -21,10 +21,24 @@ import io.zeebe.transport.SocketAddress;
 
 public class TopologyResponse
 {
+    private long version = RequestTopologyCmdImpl.UNKNOWN_VERSION;
+
     private List<SocketAddress> brokers;
 
     private List<TopicLeader> topicLeaders;
 
+    private List<TopicLeader> topicFollowers;
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public void setVersion(long version)
+    {
+        this.version = version;
+    }
+
     public List<SocketAddress> getBrokers()
     {
         return brokers;
@@ -44,4 +58,14 @@ public class TopologyResponse
     {
         this.topicLeaders = topicLeaders;
     }
+
+    public List<TopicLeader> getTopicFollowers()
+    {
+        return topicFollowers;
+    }
+
+    public void setTopicFollowers(List<TopicLeader> topicFollowers)
+    {
+        this.topicFollowers = topicFollowers;
+    }
 }
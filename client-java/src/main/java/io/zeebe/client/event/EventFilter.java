@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event;
+
+import io.zeebe.util.EnsureUtil;
+
+/**
+ * Filter of a topic subscription which is evaluated by the broker. Only
+ * events which match the filter are pushed to the subscription. An event
+ * matches if it matches all of the given conditions. If a subscription has
+ * multiple filters then an event is pushed if it matches any of them.
+ *
+ * <p>Example:
+ * <pre>
+ * EventFilter.of(TopicEventType.WORKFLOW_INSTANCE)
+ *   .state("WORKFLOW_INSTANCE_COMPLETED")
+ *   .bpmnProcessId("order-process");
+ * </pre>
+ */
+public final class EventFilter
+{
+    private final TopicEventType eventType;
+    private String state;
+    private String bpmnProcessId;
+    private String taskType;
+
+    private EventFilter(TopicEventType eventType)
+    {
+        this.eventType = eventType;
+    }
+
+    /**
+     * @return a filter which matches the events of the given type
+     */
+    public static EventFilter of(TopicEventType eventType)
+    {
+        EnsureUtil.ensureNotNull("event type", eventType);
+        return new EventFilter(eventType);
+    }
+
+    /**
+     * @return a filter which matches events of any type
+     */
+    public static EventFilter ofAnyType()
+    {
+        return new EventFilter(null);
+    }
+
+    /**
+     * Matches only events with the given state (e.g. <code>CREATED</code>).
+     */
+    public EventFilter state(String state)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("state", state);
+        this.state = state;
+        return this;
+    }
+
+    /**
+     * Matches only workflow, workflow instance and incident events of the
+     * workflow with the given BPMN process id.
+     */
+    public EventFilter bpmnProcessId(String bpmnProcessId)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("bpmn process id", bpmnProcessId);
+        this.bpmnProcessId = bpmnProcessId;
+        return this;
+    }
+
+    /**
+     * Matches only task events with the given task type.
+     */
+    public EventFilter taskType(String taskType)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("task type", taskType);
+        this.taskType = taskType;
+        return this;
+    }
+
+    public TopicEventType getEventType()
+    {
+        return eventType;
+    }
+
+    public String getState()
+    {
+        return state;
+    }
+
+    public String getBpmnProcessId()
+    {
+        return bpmnProcessId;
+    }
+
+    public String getTaskType()
+    {
+        return taskType;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EventFilter [eventType=" + eventType + ", state=" + state + ", bpmnProcessId=" + bpmnProcessId + ", taskType=" + taskType + "]";
+    }
+}
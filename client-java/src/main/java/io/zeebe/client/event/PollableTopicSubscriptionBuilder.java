@@ -91,6 +91,30 @@ public interface PollableTopicSubscriptionBuilder
      */
     PollableTopicSubscriptionBuilder forcedStart();
 
+    /**
+     * <p>Opens the subscription against a follower of the partition instead of its leader,
+     * so that reading the topic does not compete with processing on the leader. Only
+     * committed events are received. If the partition has no follower, the leader serves
+     * the subscription.
+     *
+     * <p>A read-only subscription does not persist its position in the broker, i.e. it
+     * always begins at the configured start position and cannot be resumed by name.
+     *
+     * @return this builder
+     */
+    PollableTopicSubscriptionBuilder readOnly();
+
+    /**
+     * Adds a filter which is evaluated by the broker, so that only matching
+     * events are pushed to this subscription. If multiple filters are added
+     * then an event is received if it matches any of them. Without a filter,
+     * all events of the topic are received.
+     *
+     * @param filter the filter to add
+     * @return this builder
+     */
+    PollableTopicSubscriptionBuilder filter(EventFilter filter);
+
     /**
      * Opens a new topic subscription with the defined parameters.
      *
@@ -51,4 +51,10 @@ public interface WorkflowInstanceEvent extends Event
      * @return the payload of the workflow instance as JSON-formatted string.
      */
     String getPayload();
+
+    /**
+     * @return the number of workflow instances which are canceled so far, if
+     *         the event belongs to a bulk cancellation. Otherwise, 0.
+     */
+    int getCanceledInstances();
 }
\ No newline at end of file
@@ -15,12 +15,15 @@
  */
 package io.zeebe.client.event.impl;
 
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.impl.cmd.CommandImpl;
+import io.zeebe.transport.RemoteAddress;
 
 public class AcknowledgeSubscribedEventCommandImpl extends CommandImpl<TopicSubscriptionEvent>
 {
     protected final TopicSubscriptionEvent ack = new TopicSubscriptionEvent(SubscriptionEventType.ACKNOWLEDGE.name());
+    protected RemoteAddress remote;
 
     public AcknowledgeSubscribedEventCommandImpl(final RequestManager commandManager, String topicName, int partitionId)
     {
@@ -41,6 +44,22 @@ public class AcknowledgeSubscribedEventCommandImpl extends CommandImpl<TopicSubs
         return this;
     }
 
+    /**
+     * Sends the acknowledgement to the given broker instead of the partition leader,
+     * e.g. the follower which serves a read-only subscription.
+     */
+    public AcknowledgeSubscribedEventCommandImpl remote(RemoteAddress remote)
+    {
+        this.remote = remote;
+        return this;
+    }
+
+    @Override
+    public RemoteAddress getTarget(ClientTopologyManager topologyManager)
+    {
+        return remote != null ? remote : super.getTarget(topologyManager);
+    }
+
     @Override
     public EventImpl getEvent()
     {
@@ -15,15 +15,18 @@
  */
 package io.zeebe.client.event.impl;
 
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.impl.Partition;
 import io.zeebe.client.task.impl.ControlMessageRequest;
 import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.transport.RemoteAddress;
 
 public class CloseTopicSubscriptionCommandImpl extends ControlMessageRequest<Void>
 {
 
     protected CloseSubscriptionRequest request = new CloseSubscriptionRequest();
+    protected RemoteAddress remote;
 
     public CloseTopicSubscriptionCommandImpl(final RequestManager commandManager, String topicName, int partitionId, long subscriberKey)
     {
@@ -36,6 +39,22 @@ public class CloseTopicSubscriptionCommandImpl extends ControlMessageRequest<Voi
         this.request.setSubscriberKey(subscriberKey);
     }
 
+    /**
+     * Sends the request to the given broker instead of the partition leader,
+     * e.g. the follower which serves a read-only subscription.
+     */
+    public CloseTopicSubscriptionCommandImpl remote(RemoteAddress remote)
+    {
+        this.remote = remote;
+        return this;
+    }
+
+    @Override
+    public RemoteAddress getTarget(ClientTopologyManager topologyManager)
+    {
+        return remote != null ? remote : super.getTarget(topologyManager);
+    }
+
     @Override
     public Object getRequest()
     {
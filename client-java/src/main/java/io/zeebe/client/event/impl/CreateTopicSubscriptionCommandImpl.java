@@ -15,8 +15,14 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.List;
+
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
+import io.zeebe.client.event.EventFilter;
+import io.zeebe.client.impl.Partition;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.impl.cmd.CommandImpl;
+import io.zeebe.transport.RemoteAddress;
 
 public class CreateTopicSubscriptionCommandImpl extends CommandImpl<TopicSubscriberEvent>
 {
@@ -53,6 +59,35 @@ public class CreateTopicSubscriptionCommandImpl extends CommandImpl<TopicSubscri
         return this;
     }
 
+    public CreateTopicSubscriptionCommandImpl readOnly(boolean readOnly)
+    {
+        this.subscription.setReadOnly(readOnly);
+        return this;
+    }
+
+    public CreateTopicSubscriptionCommandImpl filters(List<EventFilter> filters)
+    {
+        this.subscription.getFilters().clear();
+        for (EventFilter filter : filters)
+        {
+            this.subscription.getFilters().add(TopicSubscriptionFilter.of(filter));
+        }
+        return this;
+    }
+
+    @Override
+    public RemoteAddress getTarget(ClientTopologyManager topologyManager)
+    {
+        if (subscription.isReadOnly())
+        {
+            return topologyManager.getFollowerForTopic(new Partition(subscription.getMetadata().getTopicName(), subscription.getMetadata().getPartitionId()));
+        }
+        else
+        {
+            return super.getTarget(topologyManager);
+        }
+    }
+
     @Override
     public EventImpl getEvent()
     {
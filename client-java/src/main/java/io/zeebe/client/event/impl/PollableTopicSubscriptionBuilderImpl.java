@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.event.impl;
 
+import io.zeebe.client.event.EventFilter;
 import io.zeebe.client.event.PollableTopicSubscription;
 import io.zeebe.client.event.PollableTopicSubscriptionBuilder;
 import io.zeebe.client.task.impl.subscription.EventAcquisition;
@@ -72,6 +73,13 @@ public class PollableTopicSubscriptionBuilderImpl implements PollableTopicSubscr
         return this;
     }
 
+    @Override
+    public PollableTopicSubscriptionBuilder filter(EventFilter filter)
+    {
+        implBuilder.filter(filter);
+        return this;
+    }
+
     @Override
     public PollableTopicSubscriptionBuilder forcedStart()
     {
@@ -79,4 +87,11 @@ public class PollableTopicSubscriptionBuilderImpl implements PollableTopicSubscr
         return this;
     }
 
+    @Override
+    public PollableTopicSubscriptionBuilder readOnly()
+    {
+        implBuilder.readOnly();
+        return this;
+    }
+
 }
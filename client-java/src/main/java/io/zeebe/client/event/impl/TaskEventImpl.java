@@ -35,6 +35,7 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     protected long lockTime = Protocol.INSTANT_NULL_VALUE;
     protected String lockOwner;
     protected Integer retries;
+    protected long retryBackoff;
     protected String type;
     protected final MsgPackField payload;
 
@@ -53,6 +54,7 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
         this.lockTime = eventToCopy.lockTime;
         this.lockOwner = eventToCopy.lockOwner;
         this.retries = eventToCopy.retries;
+        this.retryBackoff = eventToCopy.retryBackoff;
         this.type = eventToCopy.type;
         this.payload = new MsgPackField(eventToCopy.payload);
     }
@@ -167,6 +169,17 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
         this.retries = retries;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public long getRetryBackoff()
+    {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(long retryBackoff)
+    {
+        this.retryBackoff = retryBackoff;
+    }
+
     @Override
     public String toString()
     {
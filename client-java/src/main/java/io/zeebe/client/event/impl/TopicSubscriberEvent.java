@@ -15,8 +15,12 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import io.zeebe.client.event.TopicEventType;
@@ -31,6 +35,8 @@ public class TopicSubscriberEvent extends EventImpl implements EventSubscription
     protected String name;
     protected int prefetchCapacity = -1;
     protected boolean forceStart;
+    protected boolean readOnly;
+    protected List<TopicSubscriptionFilter> filters = new ArrayList<>();
 
     protected RemoteAddress remote;
 
@@ -80,6 +86,27 @@ public class TopicSubscriberEvent extends EventImpl implements EventSubscription
         this.forceStart = forceStart;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isReadOnly()
+    {
+        return readOnly;
+    }
+
+    public void setReadOnly(boolean readOnly)
+    {
+        this.readOnly = readOnly;
+    }
+
+    public List<TopicSubscriptionFilter> getFilters()
+    {
+        return filters;
+    }
+
+    public void setFilters(List<TopicSubscriptionFilter> filters)
+    {
+        this.filters = filters;
+    }
+
     @Override
     public void setReceiver(RemoteAddress receiver)
     {
@@ -172,10 +172,24 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
         return this;
     }
 
+    @Override
+    public TopicSubscriptionBuilder filter(EventFilter filter)
+    {
+        builder.filter(filter);
+        return this;
+    }
+
     @Override
     public TopicSubscriptionBuilder forcedStart()
     {
         builder.forceStart();
         return this;
     }
+
+    @Override
+    public TopicSubscriptionBuilder readOnly()
+    {
+        builder.readOnly();
+        return this;
+    }
 }
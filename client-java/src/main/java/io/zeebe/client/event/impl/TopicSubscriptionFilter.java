@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import io.zeebe.client.event.EventFilter;
+import io.zeebe.protocol.clientapi.EventType;
+
+/**
+ * The msgpack representation of an {@link EventFilter} in the subscriber event.
+ */
+@JsonInclude(Include.NON_NULL)
+public class TopicSubscriptionFilter
+{
+    protected String eventType;
+    protected String state;
+    protected String bpmnProcessId;
+    protected String taskType;
+
+    public static TopicSubscriptionFilter of(EventFilter filter)
+    {
+        final TopicSubscriptionFilter subscriptionFilter = new TopicSubscriptionFilter();
+
+        if (filter.getEventType() != null)
+        {
+            final EventType eventType = EventTypeMapping.mapEventType(filter.getEventType());
+            if (eventType == null)
+            {
+                throw new IllegalArgumentException("Cannot filter events of type " + filter.getEventType());
+            }
+            subscriptionFilter.setEventType(eventType.name());
+        }
+
+        subscriptionFilter.setState(filter.getState());
+        subscriptionFilter.setBpmnProcessId(filter.getBpmnProcessId());
+        subscriptionFilter.setTaskType(filter.getTaskType());
+
+        return subscriptionFilter;
+    }
+
+    public String getEventType()
+    {
+        return eventType;
+    }
+
+    public void setEventType(String eventType)
+    {
+        this.eventType = eventType;
+    }
+
+    public String getState()
+    {
+        return state;
+    }
+
+    public void setState(String state)
+    {
+        this.state = state;
+    }
+
+    public String getBpmnProcessId()
+    {
+        return bpmnProcessId;
+    }
+
+    public void setBpmnProcessId(String bpmnProcessId)
+    {
+        this.bpmnProcessId = bpmnProcessId;
+    }
+
+    public String getTaskType()
+    {
+        return taskType;
+    }
+
+    public void setTaskType(String taskType)
+    {
+        this.taskType = taskType;
+    }
+}
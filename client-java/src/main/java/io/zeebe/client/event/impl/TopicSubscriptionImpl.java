@@ -15,14 +15,17 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.zeebe.client.event.EventFilter;
 import io.zeebe.client.event.PollableTopicSubscription;
 import io.zeebe.client.event.UniversalEventHandler;
 import io.zeebe.client.event.TopicSubscription;
 import io.zeebe.client.task.impl.subscription.EventAcquisition;
 import io.zeebe.client.task.impl.subscription.EventSubscription;
 import io.zeebe.client.task.impl.subscription.EventSubscriptionCreationResult;
+import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.CheckedConsumer;
 
 public class TopicSubscriptionImpl
@@ -41,7 +44,9 @@ public class TopicSubscriptionImpl
 
     protected final long startPosition;
     protected final boolean forceStart;
+    protected final boolean readOnly;
     protected final String name;
+    protected final List<EventFilter> filters;
     protected final int prefetchCapacity;
 
     public TopicSubscriptionImpl(
@@ -52,7 +57,9 @@ public class TopicSubscriptionImpl
             int prefetchCapacity,
             long startPosition,
             boolean forceStart,
+            boolean readOnly,
             String name,
+            List<EventFilter> filters,
             EventAcquisition<TopicSubscriptionImpl> acquisition)
     {
         super(topic, partitionId, prefetchCapacity, acquisition);
@@ -68,7 +75,9 @@ public class TopicSubscriptionImpl
         }
         this.startPosition = startPosition;
         this.forceStart = forceStart;
+        this.readOnly = readOnly;
         this.name = name;
+        this.filters = filters;
         this.lastProcessedEventPosition = startPosition;
         this.lastAcknowledgedPosition = startPosition;
     }
@@ -147,6 +156,8 @@ public class TopicSubscriptionImpl
                 .prefetchCapacity(prefetchCapacity)
                 .name(name)
                 .forceStart(forceStart)
+                .readOnly(readOnly)
+                .filters(filters)
                 .execute();
     }
 
@@ -155,7 +166,9 @@ public class TopicSubscriptionImpl
     {
         acknowledgeLastProcessedEvent();
 
-        client.closeTopicSubscription(topic, partitionId, subscriberKey).execute();
+        client.closeTopicSubscription(topic, partitionId, subscriberKey)
+            .remote(getRemote())
+            .execute();
     }
 
     @Override
@@ -176,12 +189,21 @@ public class TopicSubscriptionImpl
             client.acknowledgeEvent(topic, partitionId)
                 .subscriptionName(name)
                 .ackPosition(positionToAck)
+                .remote(getRemote())
                 .execute();
 
             lastAcknowledgedPosition = positionToAck;
         }
     }
 
+    /**
+     * @return the broker which serves a read-only subscription, or null if requests are sent to the partition leader
+     */
+    protected RemoteAddress getRemote()
+    {
+        return readOnly ? getEventSource() : null;
+    }
+
     protected void recordProcessedEvent(GeneralEventImpl event)
     {
         this.lastProcessedEventPosition = event.getMetadata().getPosition();
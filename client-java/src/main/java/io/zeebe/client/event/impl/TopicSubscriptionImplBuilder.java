@@ -15,6 +15,10 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.client.event.EventFilter;
 import io.zeebe.client.task.impl.subscription.EventAcquisition;
 import io.zeebe.util.CheckedConsumer;
 import io.zeebe.util.EnsureUtil;
@@ -30,6 +34,8 @@ public class TopicSubscriptionImplBuilder
     protected String name;
     protected final int prefetchCapacity;
     protected boolean forceStart;
+    protected boolean readOnly;
+    protected final List<EventFilter> filters = new ArrayList<>();
 
     public TopicSubscriptionImplBuilder(
             TopicClientImpl client,
@@ -77,12 +83,25 @@ public class TopicSubscriptionImplBuilder
         return this;
     }
 
+    public TopicSubscriptionImplBuilder readOnly()
+    {
+        this.readOnly = true;
+        return this;
+    }
+
     public TopicSubscriptionImplBuilder name(String name)
     {
         this.name = name;
         return this;
     }
 
+    public TopicSubscriptionImplBuilder filter(EventFilter filter)
+    {
+        EnsureUtil.ensureNotNull("filter", filter);
+        this.filters.add(filter);
+        return this;
+    }
+
     public CheckedConsumer<GeneralEventImpl> getHandler()
     {
         return handler;
@@ -103,7 +122,9 @@ public class TopicSubscriptionImplBuilder
                 prefetchCapacity,
                 startPosition,
                 forceStart,
+                readOnly,
                 name,
+                new ArrayList<>(filters),
                 acquisition);
 
         this.acquisition.registerSubscriptionAsync(subscription);
@@ -47,6 +47,7 @@ public class CommandRequestHandler implements RequestResponseHandler
 
     protected ExecuteCommandResponseDecoder decoder = new ExecuteCommandResponseDecoder();
 
+    protected CommandImpl<?> command;
     protected EventImpl event;
     protected String expectedState;
     protected BiFunction<EventImpl, EventImpl, String> errorFunction;
@@ -64,6 +65,7 @@ public class CommandRequestHandler implements RequestResponseHandler
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public void configure(CommandImpl command)
     {
+        this.command = command;
         this.event = command.getEvent();
         this.expectedState = command.getExpectedStatus();
         this.errorFunction = command::generateError;
@@ -181,9 +183,7 @@ public class CommandRequestHandler implements RequestResponseHandler
     @Override
     public RemoteAddress getTarget(ClientTopologyManager currentTopology)
     {
-        final EventMetadata metadata = event.getMetadata();
-
-        return currentTopology.getLeaderForTopic(new Partition(metadata.getTopicName(), metadata.getPartitionId()));
+        return command.getTarget(currentTopology);
     }
 
     @Override
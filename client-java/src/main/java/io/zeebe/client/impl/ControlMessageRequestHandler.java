@@ -137,7 +137,7 @@ public class ControlMessageRequestHandler implements RequestResponseHandler
     @Override
     public RemoteAddress getTarget(ClientTopologyManager currentTopology)
     {
-        return currentTopology.getLeaderForTopic(message.getTarget());
+        return message.getTarget(currentTopology);
     }
 
     @Override
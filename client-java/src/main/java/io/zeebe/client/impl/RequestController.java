@@ -18,6 +18,7 @@ package io.zeebe.client.impl;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -51,10 +52,19 @@ import io.zeebe.util.time.ClockUtil;
 public class RequestController implements BufferReader
 {
     private static final long CMD_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    private static final long MIN_BACKOFF = 10;
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * The broker rejects a request with this error message prefix if it has no
+     * resources left. Other errors with the same error code are not retried.
+     */
+    private static final String RESOURCE_EXHAUSTED_MESSAGE_PREFIX = "Resource exhausted: ";
 
     protected static final int TRANSITION_DEFAULT = 0;
     protected static final int TRANSITION_FAILED = 1;
     protected static final int TRANSITION_REFRESH_TOPOLOGY = 2;
+    protected static final int TRANSITION_BACKOFF = 3;
 
     protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     protected final ErrorResponseDecoder errorResponseDecoder = new ErrorResponseDecoder();
@@ -65,6 +75,7 @@ public class RequestController implements BufferReader
     protected final AwaitTopologyRefreshState awaitTopologyRefreshState = new AwaitTopologyRefreshState();
     protected final ExecuteRequestState executeRequestState = new ExecuteRequestState();
     protected final HandleResponseState handleResponseState = new HandleResponseState();
+    protected final BackoffState backoffState = new BackoffState();
     protected final FinishedState finishedState = new FinishedState();
     protected final FailedState failedState = new FailedState();
     protected final ClosedState closedState = new ClosedState();
@@ -110,6 +121,8 @@ public class RequestController implements BufferReader
             .from(handleResponseState).take(TRANSITION_DEFAULT).to(finishedState)
             .from(handleResponseState).take(TRANSITION_FAILED).to(failedState)
             .from(handleResponseState).take(TRANSITION_REFRESH_TOPOLOGY).to(refreshTopologyState)
+            .from(handleResponseState).take(TRANSITION_BACKOFF).to(backoffState)
+            .from(backoffState).take(TRANSITION_DEFAULT).to(determineRemoteState)
             .from(finishedState).take(TRANSITION_DEFAULT).to(closedState)
             .from(failedState).take(TRANSITION_DEFAULT).to(closedState)
             .build();
@@ -335,6 +348,14 @@ public class RequestController implements BufferReader
                 // topic not found -> refresh topology -> retry request
                 context.take(TRANSITION_REFRESH_TOPOLOGY);
             }
+            else if (errorCode == ErrorCode.REQUEST_WRITE_FAILURE && isResourceExhausted(context))
+            {
+                // broker is overloaded -> back off -> retry request
+                context.errorCode = ErrorCode.NULL_VAL;
+                context.errorBuffer = null;
+
+                context.take(TRANSITION_BACKOFF);
+            }
             else
             {
                 context.take(TRANSITION_FAILED);
@@ -343,6 +364,45 @@ public class RequestController implements BufferReader
             return 1;
         }
 
+        private boolean isResourceExhausted(final Context context)
+        {
+            return context.errorBuffer != null &&
+                    BufferUtil.bufferAsString(context.errorBuffer).startsWith(RESOURCE_EXHAUSTED_MESSAGE_PREFIX);
+        }
+
+    }
+
+    /**
+     * Waits before the request is retried. The backoff grows exponentially with the number of
+     * attempts and is randomized (full jitter), so that clients which are rejected at the same
+     * time don't retry at the same time.
+     */
+    private static class BackoffState implements State<Context>
+    {
+        @Override
+        public int doWork(final Context context) throws Exception
+        {
+            final long now = ClockUtil.getCurrentTimeInMillis();
+
+            if (context.retryTime < 0)
+            {
+                final int exponent = Math.min(context.attempts - 1, 16);
+                final long backoff = Math.min(MAX_BACKOFF, MIN_BACKOFF << exponent);
+
+                context.retryTime = now + ThreadLocalRandom.current().nextLong(backoff + 1);
+            }
+
+            if (now >= context.retryTime)
+            {
+                context.retryTime = -1;
+                context.take(TRANSITION_DEFAULT);
+                return 1;
+            }
+            else
+            {
+                return 0;
+            }
+        }
     }
 
     private class FinishedState implements State<Context>
@@ -432,6 +492,7 @@ public class RequestController implements BufferReader
         MutableDirectBuffer errorBuffer;
         Exception exception;
         long timeout;
+        long retryTime = -1;
         RemoteAddress receiver;
 
         Context(final StateMachine<?> stateMachine)
@@ -444,6 +505,7 @@ public class RequestController implements BufferReader
         {
             topologyRefreshFuture = null;
             attempts = 0;
+            retryTime = -1;
             responseObject = null;
             errorCode = ErrorCode.NULL_VAL;
             errorBuffer = null;
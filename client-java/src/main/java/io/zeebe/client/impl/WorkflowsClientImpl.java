@@ -18,13 +18,17 @@ package io.zeebe.client.impl;
 import io.zeebe.client.WorkflowsClient;
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.WorkflowInstanceEvent;
+import io.zeebe.client.workflow.cmd.CancelWorkflowInstancesCommand;
 import io.zeebe.client.workflow.cmd.CreateDeploymentCommand;
 import io.zeebe.client.workflow.cmd.CreateWorkflowInstanceCommand;
 import io.zeebe.client.workflow.cmd.UpdatePayloadCommand;
+import io.zeebe.client.workflow.cmd.WorkflowInstanceQueryCommand;
 import io.zeebe.client.workflow.impl.CancelWorkflowInstanceCmdImpl;
+import io.zeebe.client.workflow.impl.CancelWorkflowInstancesCommandImpl;
 import io.zeebe.client.workflow.impl.CreateDeploymentCommandImpl;
 import io.zeebe.client.workflow.impl.CreateWorkflowInstanceCommandImpl;
 import io.zeebe.client.workflow.impl.UpdatePayloadCommandImpl;
+import io.zeebe.client.workflow.impl.WorkflowInstanceQueryCommandImpl;
 
 public class WorkflowsClientImpl implements WorkflowsClient
 {
@@ -53,10 +57,22 @@ public class WorkflowsClientImpl implements WorkflowsClient
         return new CancelWorkflowInstanceCmdImpl(client.getCommandManager(), baseEvent);
     }
 
+    @Override
+    public CancelWorkflowInstancesCommand cancelAll(String topic, int partitionId)
+    {
+        return new CancelWorkflowInstancesCommandImpl(client.getCommandManager(), client.getMsgPackConverter(), topic, partitionId);
+    }
+
     @Override
     public UpdatePayloadCommand updatePayload(WorkflowInstanceEvent baseEvent)
     {
         return new UpdatePayloadCommandImpl(client.getCommandManager(), baseEvent);
     }
 
+    @Override
+    public WorkflowInstanceQueryCommand query(String topic, int partitionId)
+    {
+        return new WorkflowInstanceQueryCommandImpl(client.getCommandManager(), new Partition(topic, partitionId));
+    }
+
 }
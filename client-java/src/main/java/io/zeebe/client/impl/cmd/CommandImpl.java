@@ -17,10 +17,14 @@ package io.zeebe.client.impl.cmd;
 
 import java.util.concurrent.Future;
 
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.Event;
+import io.zeebe.client.event.EventMetadata;
 import io.zeebe.client.event.impl.EventImpl;
+import io.zeebe.client.impl.Partition;
 import io.zeebe.client.impl.RequestManager;
+import io.zeebe.transport.RemoteAddress;
 
 public abstract class CommandImpl<E extends Event> implements Request<E>
 {
@@ -64,6 +68,16 @@ public abstract class CommandImpl<E extends Event> implements Request<E>
         return sb.toString();
     }
 
+    /**
+     * @return the broker the command is sent to; the leader of the event's partition by default
+     */
+    public RemoteAddress getTarget(ClientTopologyManager topologyManager)
+    {
+        final EventMetadata metadata = getEvent().getMetadata();
+
+        return topologyManager.getLeaderForTopic(new Partition(metadata.getTopicName(), metadata.getPartitionId()));
+    }
+
     public abstract EventImpl getEvent();
 
     public abstract String getExpectedStatus();
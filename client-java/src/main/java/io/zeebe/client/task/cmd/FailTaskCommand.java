@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.task.cmd;
 
+import java.time.Duration;
+
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.TaskEvent;
 
@@ -25,4 +27,11 @@ public interface FailTaskCommand extends Request<TaskEvent>
      * then the task will not be locked again unless the retries are increased.
      */
     FailTaskCommand retries(int remainingRetries);
+
+    /**
+     * Sets the time to wait before the task is locked again. Can be increased
+     * on every failure to back off exponentially. By default, the task is
+     * locked again immediately.
+     */
+    FailTaskCommand retryBackoff(Duration retryBackoff);
 }
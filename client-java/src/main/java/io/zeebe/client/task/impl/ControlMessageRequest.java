@@ -19,10 +19,12 @@ import java.util.concurrent.Future;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.impl.Partition;
 import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.transport.RemoteAddress;
 
 public abstract class ControlMessageRequest<R> implements Request<R>
 {
@@ -53,6 +55,14 @@ public abstract class ControlMessageRequest<R> implements Request<R>
         return target;
     }
 
+    /**
+     * @return the broker the message is sent to; the leader of the target partition by default
+     */
+    public RemoteAddress getTarget(ClientTopologyManager topologyManager)
+    {
+        return topologyManager.getLeaderForTopic(target);
+    }
+
     @JsonIgnore
     public Class<R> getResponseClass()
     {
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.task.impl;
 
+import java.time.Duration;
+
 import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.event.impl.EventImpl;
 import io.zeebe.client.event.impl.TaskEventImpl;
@@ -33,6 +35,8 @@ public class FailTaskCommandImpl extends CommandImpl<TaskEvent> implements FailT
         super(client);
         EnsureUtil.ensureNotNull("base event", baseEvent);
         this.taskEvent = new TaskEventImpl((TaskEventImpl) baseEvent, TaskEventType.FAIL.name());
+        // the backoff of a previous failure must not be applied again
+        this.taskEvent.setRetryBackoff(0L);
     }
 
     @Override
@@ -42,6 +46,14 @@ public class FailTaskCommandImpl extends CommandImpl<TaskEvent> implements FailT
         return this;
     }
 
+    @Override
+    public FailTaskCommand retryBackoff(Duration retryBackoff)
+    {
+        EnsureUtil.ensureNotNull("retry backoff", retryBackoff);
+        this.taskEvent.setRetryBackoff(retryBackoff.toMillis());
+        return this;
+    }
+
     @Override
     public EventImpl getEvent()
     {
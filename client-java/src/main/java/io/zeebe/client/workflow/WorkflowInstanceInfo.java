@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow;
+
+/**
+ * Represents the current state of an active workflow instance.
+ */
+public interface WorkflowInstanceInfo
+{
+    /**
+     * @return the key of the workflow instance
+     */
+    long getWorkflowInstanceKey();
+
+    /**
+     * @return the key of the deployed workflow this instance belongs to
+     */
+    long getWorkflowKey();
+
+    /**
+     * @return the BPMN process id of the workflow
+     */
+    String getBpmnProcessId();
+
+    /**
+     * @return the version of the workflow
+     */
+    int getVersion();
+
+    /**
+     * @return the id of the current activity or an empty string if no activity
+     *         is active
+     */
+    String getActivityId();
+
+    /**
+     * @return the key of the current activity instance, or <code>-1</code> if
+     *         no activity is active
+     */
+    long getActivityInstanceKey();
+
+    /**
+     * @return the number of active tokens
+     */
+    int getActiveTokenCount();
+
+    /**
+     * @return the payload of the workflow instance as JSON-formatted string.
+     *         Only set if the instance is requested by its key.
+     */
+    String getPayload();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow;
+
+import java.util.List;
+
+/**
+ * Result of a workflow instance query.
+ */
+public interface WorkflowInstanceQueryResult
+{
+    /**
+     * @return the active workflow instances which matches the query
+     */
+    List<WorkflowInstanceInfo> getWorkflowInstances();
+
+    /**
+     * @return the cursor to request the next page of the listing, or
+     *         <code>-1</code> if there are no more instances
+     */
+    long getNextCursor();
+
+    /**
+     * @return <code>true</code> if more instances can be requested with the
+     *         next cursor
+     */
+    boolean hasNextPage();
+}
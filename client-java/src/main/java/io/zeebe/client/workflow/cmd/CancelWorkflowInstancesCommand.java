@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.cmd;
+
+import io.zeebe.client.cmd.Request;
+import io.zeebe.client.event.WorkflowInstanceEvent;
+
+/**
+ * Command to cancel all active instances of a workflow on a partition. The
+ * broker accepts the command with a WORKFLOW_INSTANCES_CANCELING event and
+ * cancels the instances in batches. When all instances are canceled, it
+ * writes a WORKFLOW_INSTANCES_CANCELED event.
+ */
+public interface CancelWorkflowInstancesCommand extends Request<WorkflowInstanceEvent>
+{
+    /**
+     * Sets the BPMN process id of the workflow whose instances are canceled.
+     */
+    CancelWorkflowInstancesCommand bpmnProcessId(String bpmnProcessId);
+
+    /**
+     * Restrict the cancellation to the instances of the given version of the
+     * workflow. If not set then the instances of all versions are canceled.
+     */
+    CancelWorkflowInstancesCommand version(int version);
+}
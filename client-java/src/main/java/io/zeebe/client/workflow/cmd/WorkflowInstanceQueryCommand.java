@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.cmd;
+
+import io.zeebe.client.cmd.Request;
+import io.zeebe.client.workflow.WorkflowInstanceQueryResult;
+
+/**
+ * Command to query the active workflow instances of a partition. Either a
+ * single workflow instance is requested by its key, or the instances of a
+ * workflow are listed by the BPMN process id.
+ */
+public interface WorkflowInstanceQueryCommand extends Request<WorkflowInstanceQueryResult>
+{
+    /**
+     * Request a single workflow instance by its key. The result contains the
+     * payload of the instance.
+     */
+    WorkflowInstanceQueryCommand workflowInstanceKey(long workflowInstanceKey);
+
+    /**
+     * List the active instances of the workflow with the given BPMN process
+     * id. The result does not contain the payloads of the instances.
+     */
+    WorkflowInstanceQueryCommand bpmnProcessId(String bpmnProcessId);
+
+    /**
+     * Restrict the listed instances to the given version of the workflow. If
+     * not set then the instances of all versions are listed.
+     */
+    WorkflowInstanceQueryCommand version(int version);
+
+    /**
+     * Continue a listing at the given cursor, see
+     * {@link WorkflowInstanceQueryResult#getNextCursor()}.
+     */
+    WorkflowInstanceQueryCommand cursor(long cursor);
+
+    /**
+     * Set the maximum number of instances to return. Default is 100.
+     */
+    WorkflowInstanceQueryCommand limit(int limit);
+}
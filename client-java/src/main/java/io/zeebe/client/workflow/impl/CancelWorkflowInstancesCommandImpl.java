@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.impl;
+
+import io.zeebe.client.event.WorkflowInstanceEvent;
+import io.zeebe.client.event.impl.EventImpl;
+import io.zeebe.client.impl.RequestManager;
+import io.zeebe.client.impl.cmd.CommandImpl;
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.workflow.cmd.CancelWorkflowInstancesCommand;
+import io.zeebe.util.EnsureUtil;
+
+public class CancelWorkflowInstancesCommandImpl extends CommandImpl<WorkflowInstanceEvent> implements CancelWorkflowInstancesCommand
+{
+    private final WorkflowInstanceEventImpl workflowInstanceEvent;
+
+    public CancelWorkflowInstancesCommandImpl(final RequestManager commandManager,
+            MsgPackConverter converter,
+            String topic,
+            int partitionId)
+    {
+        super(commandManager);
+
+        workflowInstanceEvent = new WorkflowInstanceEventImpl(
+                WorkflowInstanceEventType.CANCEL_WORKFLOW_INSTANCES.name(),
+                converter);
+        workflowInstanceEvent.setTopicName(topic);
+        workflowInstanceEvent.setPartitionId(partitionId);
+    }
+
+    @Override
+    public CancelWorkflowInstancesCommand bpmnProcessId(String bpmnProcessId)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("bpmn process id", bpmnProcessId);
+        workflowInstanceEvent.setBpmnProcessId(bpmnProcessId);
+        return this;
+    }
+
+    @Override
+    public CancelWorkflowInstancesCommand version(int version)
+    {
+        EnsureUtil.ensureGreaterThan("version", version, 0);
+        workflowInstanceEvent.setVersion(version);
+        return this;
+    }
+
+    @Override
+    public EventImpl getEvent()
+    {
+        if (workflowInstanceEvent.getBpmnProcessId() == null)
+        {
+            throw new IllegalArgumentException("Must set a bpmn process id.");
+        }
+        return workflowInstanceEvent;
+    }
+
+    @Override
+    public String getExpectedStatus()
+    {
+        return WorkflowInstanceEventType.WORKFLOW_INSTANCES_CANCELING.name();
+    }
+}
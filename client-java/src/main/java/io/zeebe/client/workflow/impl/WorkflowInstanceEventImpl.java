@@ -35,6 +35,7 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
     protected long workflowKey = -1L;
     protected long workflowInstanceKey = -1L;
     protected String activityId;
+    protected int canceledInstances;
     protected final MsgPackField payload;
 
     @JsonCreator
@@ -52,6 +53,7 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
         this.workflowKey = baseEvent.workflowKey;
         this.workflowInstanceKey = baseEvent.workflowInstanceKey;
         this.activityId = baseEvent.activityId;
+        this.canceledInstances = baseEvent.canceledInstances;
         this.payload = new MsgPackField(baseEvent.payload);
     }
 
@@ -139,6 +141,18 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
         this.workflowKey = workflowKey;
     }
 
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public int getCanceledInstances()
+    {
+        return canceledInstances;
+    }
+
+    public void setCanceledInstances(int canceledInstances)
+    {
+        this.canceledInstances = canceledInstances;
+    }
+
     @Override
     public String toString()
     {
@@ -42,6 +42,11 @@ public enum WorkflowInstanceEventType
     WORKFLOW_INSTANCE_CANCELED,
     CANCEL_WORKFLOW_INSTANCE_REJECTED,
 
+    CANCEL_WORKFLOW_INSTANCES,
+    WORKFLOW_INSTANCES_CANCELING,
+    WORKFLOW_INSTANCES_CANCELED,
+    CANCEL_WORKFLOW_INSTANCES_REJECTED,
+
     UPDATE_PAYLOAD,
     PAYLOAD_UPDATED,
     UPDATE_PAYLOAD_REJECTED;
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.impl;
+
+import com.fasterxml.jackson.annotation.*;
+
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.task.impl.subscription.MsgPackField;
+import io.zeebe.client.workflow.WorkflowInstanceInfo;
+
+public class WorkflowInstanceInfoImpl implements WorkflowInstanceInfo
+{
+    protected long workflowInstanceKey = -1L;
+    protected long workflowKey = -1L;
+    protected String bpmnProcessId;
+    protected int version = -1;
+    protected String activityId;
+    protected long activityInstanceKey = -1L;
+    protected int activeTokenCount;
+    protected final MsgPackField payload;
+
+    @JsonCreator
+    public WorkflowInstanceInfoImpl(@JacksonInject MsgPackConverter converter)
+    {
+        this.payload = new MsgPackField(converter);
+    }
+
+    @Override
+    public long getWorkflowInstanceKey()
+    {
+        return workflowInstanceKey;
+    }
+
+    public void setWorkflowInstanceKey(long workflowInstanceKey)
+    {
+        this.workflowInstanceKey = workflowInstanceKey;
+    }
+
+    @Override
+    public long getWorkflowKey()
+    {
+        return workflowKey;
+    }
+
+    public void setWorkflowKey(long workflowKey)
+    {
+        this.workflowKey = workflowKey;
+    }
+
+    @Override
+    public String getBpmnProcessId()
+    {
+        return bpmnProcessId;
+    }
+
+    public void setBpmnProcessId(String bpmnProcessId)
+    {
+        this.bpmnProcessId = bpmnProcessId;
+    }
+
+    @Override
+    public int getVersion()
+    {
+        return version;
+    }
+
+    public void setVersion(int version)
+    {
+        this.version = version;
+    }
+
+    @Override
+    public String getActivityId()
+    {
+        return activityId;
+    }
+
+    public void setActivityId(String activityId)
+    {
+        this.activityId = activityId;
+    }
+
+    @Override
+    public long getActivityInstanceKey()
+    {
+        return activityInstanceKey;
+    }
+
+    public void setActivityInstanceKey(long activityInstanceKey)
+    {
+        this.activityInstanceKey = activityInstanceKey;
+    }
+
+    @Override
+    public int getActiveTokenCount()
+    {
+        return activeTokenCount;
+    }
+
+    public void setActiveTokenCount(int activeTokenCount)
+    {
+        this.activeTokenCount = activeTokenCount;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getPayload()
+    {
+        return payload.getAsJson();
+    }
+
+    @JsonProperty("payload")
+    public void setPayload(byte[] msgpack)
+    {
+        this.payload.setMsgPack(msgpack);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorkflowInstanceInfo [workflowInstanceKey=" + workflowInstanceKey + ", workflowKey=" + workflowKey + ", bpmnProcessId=" + bpmnProcessId +
+                ", version=" + version + ", activityId=" + activityId + ", activityInstanceKey=" + activityInstanceKey +
+                ", activeTokenCount=" + activeTokenCount + ", payload=" + getPayload() + "]";
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.zeebe.client.impl.Partition;
+import io.zeebe.client.impl.RequestManager;
+import io.zeebe.client.task.impl.ControlMessageRequest;
+import io.zeebe.client.workflow.WorkflowInstanceQueryResult;
+import io.zeebe.client.workflow.cmd.WorkflowInstanceQueryCommand;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.util.EnsureUtil;
+
+/**
+ * The protocol has no dedicated control message type for queries. The query is
+ * sent as topology request and identified by the broker by its query property.
+ */
+public class WorkflowInstanceQueryCommandImpl extends ControlMessageRequest<WorkflowInstanceQueryResult> implements WorkflowInstanceQueryCommand
+{
+    public static final String QUERY_TYPE = "workflowInstances";
+
+    protected final Map<String, Object> request = new HashMap<>();
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public WorkflowInstanceQueryCommandImpl(final RequestManager commandManager, final Partition partition)
+    {
+        super(commandManager, ControlMessageType.REQUEST_TOPOLOGY, partition, (Class) WorkflowInstanceQueryResultImpl.class);
+
+        request.put("query", QUERY_TYPE);
+        request.put("topicName", partition.getTopicName());
+        request.put("partitionId", partition.getPartitionId());
+    }
+
+    @Override
+    public WorkflowInstanceQueryCommand workflowInstanceKey(long workflowInstanceKey)
+    {
+        EnsureUtil.ensureGreaterThan("workflow instance key", workflowInstanceKey, -1);
+        request.put("workflowInstanceKey", workflowInstanceKey);
+        return this;
+    }
+
+    @Override
+    public WorkflowInstanceQueryCommand bpmnProcessId(String bpmnProcessId)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("bpmn process id", bpmnProcessId);
+        request.put("bpmnProcessId", bpmnProcessId);
+        return this;
+    }
+
+    @Override
+    public WorkflowInstanceQueryCommand version(int version)
+    {
+        EnsureUtil.ensureGreaterThan("version", version, 0);
+        request.put("version", version);
+        return this;
+    }
+
+    @Override
+    public WorkflowInstanceQueryCommand cursor(long cursor)
+    {
+        request.put("cursor", cursor);
+        return this;
+    }
+
+    @Override
+    public WorkflowInstanceQueryCommand limit(int limit)
+    {
+        EnsureUtil.ensureGreaterThan("limit", limit, 0);
+        request.put("limit", limit);
+        return this;
+    }
+
+    @Override
+    public Object getRequest()
+    {
+        if (!request.containsKey("workflowInstanceKey") && !request.containsKey("bpmnProcessId"))
+        {
+            throw new IllegalArgumentException("Must set either a workflow instance key or a bpmn process id.");
+        }
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.workflow.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import io.zeebe.client.workflow.WorkflowInstanceInfo;
+import io.zeebe.client.workflow.WorkflowInstanceQueryResult;
+
+public class WorkflowInstanceQueryResultImpl implements WorkflowInstanceQueryResult
+{
+    @JsonDeserialize(contentAs = WorkflowInstanceInfoImpl.class)
+    protected List<WorkflowInstanceInfo> workflowInstances = new ArrayList<>();
+
+    protected long nextCursor = -1L;
+
+    @Override
+    public List<WorkflowInstanceInfo> getWorkflowInstances()
+    {
+        return workflowInstances;
+    }
+
+    public void setWorkflowInstances(List<WorkflowInstanceInfo> workflowInstances)
+    {
+        this.workflowInstances = workflowInstances;
+    }
+
+    @Override
+    public long getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean hasNextPage()
+    {
+        return nextCursor >= 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorkflowInstanceQueryResult [workflowInstances=" + workflowInstances + ", nextCursor=" + nextCursor + "]";
+    }
+}
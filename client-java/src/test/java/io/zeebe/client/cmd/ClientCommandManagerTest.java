@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.CoreMatchers.containsString;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -148,6 +149,53 @@ public class ClientCommandManagerTest
         createTaskCmd().execute();
     }
 
+    @Test
+    public void testRetryRequestAfterBackpressureResponse()
+    {
+        // given
+        final AtomicInteger rejectedRequests = new AtomicInteger(2);
+
+        broker.onExecuteCommandRequest(ecr -> ecr.eventType() == EventType.TASK_EVENT &&
+            rejectedRequests.getAndDecrement() > 0)
+              .respondWithError()
+                .errorCode(ErrorCode.REQUEST_WRITE_FAILURE)
+                .errorData("Resource exhausted: partition is exhausted")
+              .register();
+
+        stubTaskResponse();
+
+        // when
+        final TaskEvent taskEvent = createTaskCmd().execute();
+
+        // then
+        assertThat(taskEvent).isNotNull();
+        assertCreateTaskRequests(3);
+    }
+
+    @Test
+    public void testNoRetryAfterOtherWriteFailureResponse()
+    {
+        // given
+        broker.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+              .respondWithError()
+                .errorCode(ErrorCode.REQUEST_WRITE_FAILURE)
+                .errorData("Cannot write response.")
+              .register();
+
+        // then
+        exception.expect(BrokerErrorException.class);
+        exception.expectMessage("Cannot write response.");
+
+        // when
+        try
+        {
+            createTaskCmd().execute();
+        }
+        finally
+        {
+            assertCreateTaskRequests(1);
+        }
+    }
 
     protected CreateTaskCommand createTaskCmd()
     {
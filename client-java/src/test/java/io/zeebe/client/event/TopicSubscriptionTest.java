@@ -124,6 +124,32 @@ public class TopicSubscriptionTest
         assertThat(subscribeRequest.getCommand()).containsEntry("forceStart", true);
     }
 
+    @Test
+    public void shouldOpenReadOnlySubscription()
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        // when
+        clientRule.topics().newSubscription(clientRule.getDefaultTopicName())
+            .startAtHeadOfTopic()
+            .readOnly()
+            .handler(DO_NOTHING)
+            .name(SUBSCRIPTION_NAME)
+            .open();
+
+        // then
+        final ExecuteCommandRequest subscribeRequest = broker.getReceivedCommandRequests()
+            .stream()
+            .filter((e) -> e.eventType() == EventType.SUBSCRIBER_EVENT)
+            .findFirst()
+            .get();
+
+        assertThat(subscribeRequest.getCommand())
+            .containsEntry("state", "SUBSCRIBE")
+            .containsEntry("readOnly", true);
+    }
+
     @Test
     public void shouldOpenSubscriptionAtTailOfTopic()
     {
@@ -20,6 +20,8 @@ import static io.zeebe.test.broker.protocol.clientapi.ClientApiRule.DEFAULT_TOPI
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
+import java.time.Duration;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -102,6 +104,67 @@ public class FailTaskTest
         assertThat(taskEvent.getRetries()).isEqualTo(4);
     }
 
+    @Test
+    public void shouldFailTaskWithRetryBackoff()
+    {
+        // given
+        final TaskEventImpl baseEvent = Events.exampleTask();
+
+        brokerRule.onExecuteCommandRequest(EventType.TASK_EVENT, "FAIL")
+            .respondWith()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .key(123)
+            .event()
+              .allOf((r) -> r.getCommand())
+              .put("state", "FAILED")
+              .done()
+            .register();
+
+        // when
+        clientRule.tasks()
+            .fail(baseEvent)
+            .retries(4)
+            .retryBackoff(Duration.ofSeconds(5))
+            .execute();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+
+        assertThat(request.getCommand()).containsKey("retryBackoff");
+        assertThat(((Number) request.getCommand().get("retryBackoff")).longValue()).isEqualTo(5000L);
+    }
+
+    @Test
+    public void shouldNotFailTaskWithRetryBackoffOfBaseEvent()
+    {
+        // given
+        final TaskEventImpl baseEvent = Events.exampleTask();
+        baseEvent.setRetryBackoff(5000L);
+
+        brokerRule.onExecuteCommandRequest(EventType.TASK_EVENT, "FAIL")
+            .respondWith()
+            .topicName(DEFAULT_TOPIC_NAME)
+            .partitionId(DEFAULT_PARTITION_ID)
+            .key(123)
+            .event()
+              .allOf((r) -> r.getCommand())
+              .put("state", "FAILED")
+              .done()
+            .register();
+
+        // when
+        clientRule.tasks()
+            .fail(baseEvent)
+            .retries(4)
+            .execute();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+
+        assertThat(request.getCommand()).doesNotContainKey("retryBackoff");
+    }
+
     @Test
     public void shouldThrowExceptionOnRejection()
     {
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.workflow;
 
+import static io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule.TEST_PARTITION_ID;
+import static io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule.TEST_TOPIC_NAME;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.Before;
@@ -25,6 +27,7 @@ import org.junit.rules.RuleChain;
 
 import io.zeebe.client.ZeebeClient;
 import io.zeebe.client.cmd.ClientCommandRejectedException;
+import io.zeebe.client.event.WorkflowInstanceEvent;
 import io.zeebe.client.util.ClientRule;
 import io.zeebe.client.util.Events;
 import io.zeebe.client.workflow.impl.WorkflowInstanceEventImpl;
@@ -108,4 +111,45 @@ public class CancelWorkflowInstanceTest
             .execute();
     }
 
+    @Test
+    public void shouldCancelAllWorkflowInstances()
+    {
+        // given
+        brokerRule.onWorkflowRequestRespondWith(3L)
+                .put("state", "WORKFLOW_INSTANCES_CANCELING")
+                .put("canceledInstances", 0)
+                .done()
+                .register();
+
+        // when
+        final WorkflowInstanceEvent event = clientRule.workflows()
+                .cancelAll(TEST_TOPIC_NAME, TEST_PARTITION_ID)
+                .bpmnProcessId("process")
+                .version(2)
+                .execute();
+
+        // then
+        final ExecuteCommandRequest commandRequest = brokerRule.getReceivedCommandRequests().get(0);
+        assertThat(commandRequest.partitionId()).isEqualTo(TEST_PARTITION_ID);
+        assertThat(commandRequest.getCommand())
+            .containsEntry("state", "CANCEL_WORKFLOW_INSTANCES")
+            .containsEntry("bpmnProcessId", "process")
+            .containsEntry("version", 2);
+
+        assertThat(event.getState()).isEqualTo("WORKFLOW_INSTANCES_CANCELING");
+        assertThat(event.getMetadata().getKey()).isEqualTo(3L);
+    }
+
+    @Test
+    public void shouldFailCancelAllWorkflowInstancesIfBpmnProcessIdMissing()
+    {
+        thrown.expect(RuntimeException.class);
+        thrown.expectMessage("Must set a bpmn process id.");
+
+        // when
+        clientRule.workflows()
+            .cancelAll(TEST_TOPIC_NAME, TEST_PARTITION_ID)
+            .execute();
+    }
+
 }
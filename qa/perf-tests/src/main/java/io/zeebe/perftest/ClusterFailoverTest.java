@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.perftest;
+
+import static io.zeebe.perftest.CommonProperties.DEFAULT_PARTITION_ID;
+import static io.zeebe.perftest.CommonProperties.DEFAULT_TOPIC_NAME;
+import static io.zeebe.perftest.helper.TestHelper.printProperties;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import io.zeebe.perftest.cluster.ClusterSimulation;
+import io.zeebe.perftest.cluster.SimulatedNetwork;
+import io.zeebe.perftest.cluster.TopologyView;
+
+/**
+ * Starts a cluster in this JVM on a simulated network, kills the leader of
+ * the default topic and measures:
+ *
+ * <ul>
+ * <li>join convergence: time until all brokers know all brokers after the last broker started</li>
+ * <li>failure detection: time until no broker lists the killed leader as alive anymore</li>
+ * <li>failover: time until all remaining brokers know the same new leader</li>
+ * </ul>
+ */
+public class ClusterFailoverTest
+{
+    public static final String TEST_CLUSTER_BROKERS = "test.cluster.brokers";
+    public static final String TEST_CLUSTER_BASE_PORT = "test.cluster.basePort";
+    public static final String TEST_CLUSTER_THREADS = "test.cluster.threads";
+    public static final String TEST_CLUSTER_TIMEOUTMS = "test.cluster.timeoutms";
+    public static final String TEST_CLUSTER_POLL_INTERVALMS = "test.cluster.pollIntervalms";
+
+    public static final String TEST_NETWORK_DELAYMS = "test.cluster.network.delayms";
+    public static final String TEST_NETWORK_JITTERMS = "test.cluster.network.jitterms";
+    public static final String TEST_NETWORK_LOSS_RATE = "test.cluster.network.lossRate";
+    public static final String TEST_NETWORK_RETRANSMIT_DELAYMS = "test.cluster.network.retransmitDelayms";
+
+    protected final Map<String, Long> results = new LinkedHashMap<>();
+
+    public static void main(String[] args)
+    {
+        new ClusterFailoverTest().run();
+    }
+
+    public void run()
+    {
+        final Properties properties = System.getProperties();
+
+        setDefaultProperties(properties);
+        printProperties(properties);
+
+        final SimulatedNetwork network = new SimulatedNetwork(
+                Long.parseLong(properties.getProperty(TEST_NETWORK_DELAYMS)),
+                Long.parseLong(properties.getProperty(TEST_NETWORK_JITTERMS)),
+                Double.parseDouble(properties.getProperty(TEST_NETWORK_LOSS_RATE)),
+                Long.parseLong(properties.getProperty(TEST_NETWORK_RETRANSMIT_DELAYMS)));
+
+        try (ClusterSimulation cluster = new ClusterSimulation(
+                Integer.parseInt(properties.getProperty(TEST_CLUSTER_BROKERS)),
+                Integer.parseInt(properties.getProperty(TEST_CLUSTER_BASE_PORT)),
+                Integer.parseInt(properties.getProperty(TEST_CLUSTER_THREADS)),
+                properties,
+                network))
+        {
+            executeTest(properties, cluster);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+
+        writeResults(properties.getProperty(CommonProperties.TEST_OUTPUT_FILE_NAME));
+    }
+
+    protected void setDefaultProperties(final Properties properties)
+    {
+        properties.putIfAbsent(TEST_CLUSTER_BROKERS, "3");
+        properties.putIfAbsent(TEST_CLUSTER_BASE_PORT, "26000");
+        properties.putIfAbsent(TEST_CLUSTER_THREADS, "1");
+        properties.putIfAbsent(TEST_CLUSTER_TIMEOUTMS, "120000");
+        properties.putIfAbsent(TEST_CLUSTER_POLL_INTERVALMS, "10");
+        properties.putIfAbsent(TEST_NETWORK_DELAYMS, "1");
+        properties.putIfAbsent(TEST_NETWORK_JITTERMS, "0");
+        properties.putIfAbsent(TEST_NETWORK_LOSS_RATE, "0");
+        // minimal retransmission timeout of Linux
+        properties.putIfAbsent(TEST_NETWORK_RETRANSMIT_DELAYMS, "200");
+        properties.putIfAbsent(CommonProperties.TEST_OUTPUT_FILE_NAME, "data/output.txt");
+    }
+
+    protected void executeTest(Properties properties, ClusterSimulation cluster) throws Exception
+    {
+        final long timeout = Long.parseLong(properties.getProperty(TEST_CLUSTER_TIMEOUTMS));
+        final long pollInterval = Long.parseLong(properties.getProperty(TEST_CLUSTER_POLL_INTERVALMS));
+        final int brokerCount = cluster.getBrokerCount();
+
+        System.out.format("Starting %d brokers\n", brokerCount);
+
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < brokerCount; i++)
+        {
+            cluster.startBroker(i);
+        }
+
+        final long joinTime = System.currentTimeMillis();
+        results.put("startup", joinTime - startTime);
+
+        awaitCondition(cluster, timeout, pollInterval, "join convergence",
+            view -> view.getAliveBrokers().size() == brokerCount);
+        results.put("join convergence", System.currentTimeMillis() - joinTime);
+
+        final int expectedFollowers = Math.min(brokerCount - 1, 2);
+        awaitCondition(cluster, timeout, pollInterval, "replication of " + DEFAULT_TOPIC_NAME,
+            view -> view.getLeader(DEFAULT_TOPIC_NAME, DEFAULT_PARTITION_ID) >= 0 && view.getFollowerCount(DEFAULT_TOPIC_NAME, DEFAULT_PARTITION_ID) >= expectedFollowers);
+
+        final int leader = cluster.getTopology(0).getLeader(DEFAULT_TOPIC_NAME, DEFAULT_PARTITION_ID);
+
+        System.out.format("Killing leader %d of %s\n", leader, DEFAULT_TOPIC_NAME);
+
+        final long faultTime = System.currentTimeMillis();
+        cluster.killBroker(leader);
+
+        awaitCondition(cluster, timeout, pollInterval, "failure detection",
+            view -> !view.getAliveBrokers().contains(leader));
+        results.put("failure detection", System.currentTimeMillis() - faultTime);
+
+        awaitNewLeader(cluster, leader, timeout, pollInterval);
+        results.put("failover", System.currentTimeMillis() - faultTime);
+    }
+
+    /**
+     * Waits until the topology of every running broker matches the condition.
+     */
+    protected void awaitCondition(ClusterSimulation cluster, long timeout, long pollInterval, String description, Predicate<TopologyView> condition) throws Exception
+    {
+        awaitViews(cluster, timeout, pollInterval, description, views -> views.stream().allMatch(condition));
+    }
+
+    protected void awaitNewLeader(ClusterSimulation cluster, int oldLeader, long timeout, long pollInterval) throws Exception
+    {
+        awaitViews(cluster, timeout, pollInterval, "failover", views ->
+        {
+            final Set<Integer> leaders = views.stream()
+                .map(view -> view.getLeader(DEFAULT_TOPIC_NAME, DEFAULT_PARTITION_ID))
+                .collect(Collectors.toSet());
+
+            return leaders.size() == 1 && !leaders.contains(-1) && !leaders.contains(oldLeader);
+        });
+    }
+
+    protected void awaitViews(ClusterSimulation cluster, long timeout, long pollInterval, String description, Predicate<List<TopologyView>> condition) throws Exception
+    {
+        final long deadline = System.currentTimeMillis() + timeout;
+
+        while (true)
+        {
+            final List<TopologyView> views = new ArrayList<>();
+
+            for (int i = 0; i < cluster.getBrokerCount(); i++)
+            {
+                if (cluster.isRunning(i))
+                {
+                    views.add(cluster.getTopology(i));
+                }
+            }
+
+            if (condition.test(views))
+            {
+                System.out.format("Finished %s\n", description);
+                return;
+            }
+            else if (System.currentTimeMillis() > deadline)
+            {
+                throw new RuntimeException("Timeout while waiting for " + description + ", topologies: " + views);
+            }
+
+            Thread.sleep(pollInterval);
+        }
+    }
+
+    protected void writeResults(String outputFileName)
+    {
+        final File outputFile = new File(outputFileName);
+        if (outputFile.getParentFile() != null)
+        {
+            outputFile.getParentFile().mkdirs();
+        }
+
+        try (PrintStream output = new PrintStream(new FileOutputStream(outputFile)))
+        {
+            for (Map.Entry<String, Long> result : results.entrySet())
+            {
+                final String line = String.format("%s: %d ms", result.getKey(), result.getValue());
+
+                System.out.println(line);
+                output.println(line);
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.perftest.cluster;
+
+import static io.zeebe.broker.clustering.ClusterServiceNames.GOSSIP_SERVICE;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.broker.Broker;
+import io.zeebe.broker.clustering.gossip.Gossip;
+import io.zeebe.broker.clustering.handler.BrokerAddress;
+import io.zeebe.broker.clustering.handler.TopicLeader;
+import io.zeebe.broker.clustering.handler.Topology;
+import io.zeebe.perftest.cluster.SimulatedNetwork.Link;
+import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.impl.ServiceContainerImpl;
+
+/**
+ * Runs a cluster of brokers in this JVM. The management and replication
+ * endpoints of every broker are only reachable through the
+ * {@link SimulatedNetwork}, i.e. gossip and raft traffic between the brokers
+ * is delayed and lossy. The client endpoints are not simulated.
+ *
+ * <p>Every broker advertises the address of its proxies, so the links of a
+ * broker carry all connections which are opened <i>to</i> this broker. As all
+ * brokers connect from the loopback address, the proxies can not distinguish
+ * the connections which are opened <i>by</i> the broker.
+ *
+ * <p>Broker <code>i</code> uses the ports <code>basePort + 10 * i</code> (client),
+ * <code>+ 1</code> (management), <code>+ 2</code> (replication), <code>+ 3</code>
+ * (simulated management) and <code>+ 4</code> (simulated replication). The
+ * first broker is the contact point of the others.
+ *
+ * <p>The configuration of the brokers can be extended by properties of the form
+ * <code>test.cluster.cfg.&lt;section&gt;.&lt;key&gt; = &lt;toml value&gt;</code>, e.g.
+ * <code>test.cluster.cfg.network.gossip.phiSuspectThreshold = 5.0</code>.
+ */
+public class ClusterSimulation implements AutoCloseable
+{
+    public static final String CONFIGURATION_PREFIX = "test.cluster.cfg.";
+
+    protected static final String HOST = "localhost";
+
+    protected static final int CLIENT_PORT_OFFSET = 0;
+    protected static final int MANAGEMENT_PORT_OFFSET = 1;
+    protected static final int REPLICATION_PORT_OFFSET = 2;
+    protected static final int SIMULATED_MANAGEMENT_PORT_OFFSET = 3;
+    protected static final int SIMULATED_REPLICATION_PORT_OFFSET = 4;
+    protected static final int PORTS_PER_BROKER = 10;
+
+    protected final int brokerCount;
+    protected final int basePort;
+    protected final int threadsPerBroker;
+    protected final Properties configuration;
+    protected final SimulatedNetwork network;
+
+    protected final Broker[] brokers;
+    protected final Link[] managementLinks;
+    protected final Link[] replicationLinks;
+
+    public ClusterSimulation(int brokerCount, int basePort, int threadsPerBroker, Properties configuration, SimulatedNetwork network)
+    {
+        this.brokerCount = brokerCount;
+        this.basePort = basePort;
+        this.threadsPerBroker = threadsPerBroker;
+        this.configuration = configuration;
+        this.network = network;
+
+        this.brokers = new Broker[brokerCount];
+        this.managementLinks = new Link[brokerCount];
+        this.replicationLinks = new Link[brokerCount];
+    }
+
+    public int getBrokerCount()
+    {
+        return brokerCount;
+    }
+
+    public void startBroker(int broker) throws IOException
+    {
+        if (managementLinks[broker] == null)
+        {
+            managementLinks[broker] = network.link("broker-" + broker + "-management",
+                    address(broker, SIMULATED_MANAGEMENT_PORT_OFFSET),
+                    address(broker, MANAGEMENT_PORT_OFFSET));
+
+            replicationLinks[broker] = network.link("broker-" + broker + "-replication",
+                    address(broker, SIMULATED_REPLICATION_PORT_OFFSET),
+                    address(broker, REPLICATION_PORT_OFFSET));
+        }
+
+        final byte[] toml = createConfiguration(broker).getBytes(StandardCharsets.UTF_8);
+        brokers[broker] = new Broker(new ByteArrayInputStream(toml));
+    }
+
+    /**
+     * Closes the broker. Its links stay open, so that the other brokers
+     * observe connection failures as in case of a crashed broker.
+     */
+    public void killBroker(int broker)
+    {
+        final Broker closingBroker = brokers[broker];
+
+        if (closingBroker != null)
+        {
+            brokers[broker] = null;
+            closingBroker.close();
+        }
+    }
+
+    public boolean isRunning(int broker)
+    {
+        return brokers[broker] != null;
+    }
+
+    /**
+     * @return the topology as known by the given broker
+     */
+    public TopologyView getTopology(int broker) throws Exception
+    {
+        final Broker runningBroker = brokers[broker];
+
+        if (runningBroker == null)
+        {
+            throw new IllegalStateException("Broker " + broker + " is not running");
+        }
+
+        final ServiceContainerImpl serviceContainer = (ServiceContainerImpl) runningBroker.getBrokerContext().getServiceContainer();
+        final Service<Gossip> gossipService = serviceContainer.getService(GOSSIP_SERVICE);
+
+        if (gossipService == null)
+        {
+            // broker is not started yet
+            return new TopologyView();
+        }
+
+        final Topology topology = gossipService.get().getTopology().get(10, TimeUnit.SECONDS);
+
+        return createView(topology);
+    }
+
+    protected TopologyView createView(Topology topology)
+    {
+        // read the topology the way it is received by a client
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[topology.getLength()]);
+        topology.write(buffer, 0);
+
+        final Topology readTopology = new Topology();
+        readTopology.wrap(buffer, 0, buffer.capacity());
+
+        final TopologyView view = new TopologyView();
+
+        while (readTopology.brokers().hasNext())
+        {
+            final BrokerAddress address = readTopology.brokers().next();
+            view.aliveBrokers.add(brokerOfClientPort(address.getPort()));
+        }
+
+        while (readTopology.topicLeaders().hasNext())
+        {
+            final TopicLeader leader = readTopology.topicLeaders().next();
+            final String partition = bufferAsString(leader.getTopicNameProp()) + "/" + leader.getPartitionId();
+            view.leaders.put(partition, brokerOfClientPort(leader.getPort()));
+        }
+
+        while (readTopology.topicFollowers().hasNext())
+        {
+            final TopicLeader follower = readTopology.topicFollowers().next();
+            final String partition = bufferAsString(follower.getTopicNameProp()) + "/" + follower.getPartitionId();
+            view.followerCounts.merge(partition, 1, Integer::sum);
+        }
+
+        return view;
+    }
+
+    protected int brokerOfClientPort(int port)
+    {
+        return (port - basePort - CLIENT_PORT_OFFSET) / PORTS_PER_BROKER;
+    }
+
+    protected InetSocketAddress address(int broker, int portOffset)
+    {
+        return new InetSocketAddress(HOST, port(broker, portOffset));
+    }
+
+    protected int port(int broker, int portOffset)
+    {
+        return basePort + PORTS_PER_BROKER * broker + portOffset;
+    }
+
+    protected String createConfiguration(int broker)
+    {
+        final Map<String, Map<String, String>> sections = new LinkedHashMap<>();
+
+        section(sections, "global")
+            .put("useTempDirectory", "true");
+
+        section(sections, "network")
+            .put("host", quote(HOST));
+
+        section(sections, "network.clientApi")
+            .put("port", String.valueOf(port(broker, CLIENT_PORT_OFFSET)));
+
+        section(sections, "network.managementApi")
+            .put("port", String.valueOf(port(broker, MANAGEMENT_PORT_OFFSET)));
+        section(sections, "network.managementApi")
+            .put("advertisedPort", String.valueOf(port(broker, SIMULATED_MANAGEMENT_PORT_OFFSET)));
+
+        section(sections, "network.replicationApi")
+            .put("port", String.valueOf(port(broker, REPLICATION_PORT_OFFSET)));
+        section(sections, "network.replicationApi")
+            .put("advertisedPort", String.valueOf(port(broker, SIMULATED_REPLICATION_PORT_OFFSET)));
+
+        if (broker > 0)
+        {
+            section(sections, "network.gossip")
+                .put("initialContactPoints", "[ " + quote(HOST + ":" + port(0, SIMULATED_MANAGEMENT_PORT_OFFSET)) + " ]");
+        }
+
+        section(sections, "threading")
+            .put("numberOfThreads", String.valueOf(threadsPerBroker));
+
+        // configured overrides
+        final Enumeration<?> propertyNames = configuration.propertyNames();
+        while (propertyNames.hasMoreElements())
+        {
+            final String name = (String) propertyNames.nextElement();
+
+            if (name.startsWith(CONFIGURATION_PREFIX))
+            {
+                final String path = name.substring(CONFIGURATION_PREFIX.length());
+                final int keyOffset = path.lastIndexOf('.');
+
+                if (keyOffset > 0)
+                {
+                    section(sections, path.substring(0, keyOffset))
+                        .put(path.substring(keyOffset + 1), configuration.getProperty(name));
+                }
+            }
+        }
+
+        final StringBuilder toml = new StringBuilder();
+
+        for (Map.Entry<String, Map<String, String>> section : sections.entrySet())
+        {
+            toml.append('[').append(section.getKey()).append("]\n");
+
+            for (Map.Entry<String, String> entry : section.getValue().entrySet())
+            {
+                toml.append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+            }
+
+            toml.append('\n');
+        }
+
+        return toml.toString();
+    }
+
+    protected static Map<String, String> section(Map<String, Map<String, String>> sections, String name)
+    {
+        return sections.computeIfAbsent(name, n -> new TreeMap<>());
+    }
+
+    protected static String quote(String value)
+    {
+        return "\"" + value + "\"";
+    }
+
+    @Override
+    public void close()
+    {
+        for (int i = 0; i < brokerCount; i++)
+        {
+            killBroker(i);
+        }
+
+        network.close();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.perftest.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a network between brokers running in the same JVM. Every
+ * {@link Link} is a TCP proxy in front of a broker endpoint which delays
+ * the forwarded data by the configured latency.
+ *
+ * <p>Packet loss can not be simulated on top of TCP, as TCP retransmits lost
+ * segments. Instead, a lost segment is modeled the way the application observes
+ * it: with the configured loss rate, a chunk is delivered after an additional
+ * retransmission delay, which holds back the following chunks of the connection
+ * as well.
+ *
+ * <p>Each direction of a connection is delivered by a thread of its own, so
+ * that a receiver which does not read does not stall the other connections.
+ */
+public class SimulatedNetwork implements AutoCloseable
+{
+    protected static final int CHUNK_SIZE = 64 * 1024;
+
+    protected final long delayMs;
+    protected final long jitterMs;
+    protected final double lossRate;
+    protected final long retransmitDelayMs;
+
+    protected final List<Link> links = new CopyOnWriteArrayList<>();
+
+    protected volatile boolean closed = false;
+
+    public SimulatedNetwork(long delayMs, long jitterMs, double lossRate, long retransmitDelayMs)
+    {
+        this.delayMs = delayMs;
+        this.jitterMs = jitterMs;
+        this.lossRate = lossRate;
+        this.retransmitDelayMs = retransmitDelayMs;
+    }
+
+    /**
+     * Opens a proxy which listens on the given address and forwards all
+     * connections to the target address.
+     */
+    public Link link(String name, InetSocketAddress bindAddress, InetSocketAddress targetAddress) throws IOException
+    {
+        final Link link = new Link(name, bindAddress, targetAddress);
+        links.add(link);
+        return link;
+    }
+
+    protected long nextDeliveryTime(long previousDeliveryTime)
+    {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long delay = delayMs;
+
+        if (jitterMs > 0)
+        {
+            delay += random.nextLong(jitterMs + 1);
+        }
+
+        if (lossRate > 0 && random.nextDouble() < lossRate)
+        {
+            delay += retransmitDelayMs;
+        }
+
+        // a connection delivers in order, even if the delay of a chunk is shorter than of its predecessor
+        return Math.max(previousDeliveryTime, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+
+        for (Link link : links)
+        {
+            link.close();
+        }
+        links.clear();
+    }
+
+    /**
+     * A proxy in front of an endpoint.
+     */
+    public class Link implements AutoCloseable
+    {
+        protected final String name;
+        protected final InetSocketAddress targetAddress;
+        protected final ServerSocket serverSocket;
+        protected final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+        protected Link(String name, InetSocketAddress bindAddress, InetSocketAddress targetAddress) throws IOException
+        {
+            this.name = name;
+            this.targetAddress = targetAddress;
+
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(bindAddress);
+
+            final Thread acceptThread = new Thread(this::accept, name + "-accept");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        protected void accept()
+        {
+            while (!serverSocket.isClosed())
+            {
+                Socket source = null;
+                try
+                {
+                    source = serverSocket.accept();
+
+                    final Socket target = new Socket();
+                    target.connect(targetAddress);
+
+                    final Connection connection = new Connection(this, source, target);
+                    connections.add(connection);
+                    connection.start();
+                }
+                catch (IOException e)
+                {
+                    // target is not reachable (e.g. broker is killed) or link is closed
+                    closeQuietly(source);
+                }
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            closeQuietly(serverSocket);
+
+            for (Connection connection : connections)
+            {
+                connection.close();
+            }
+            connections.clear();
+        }
+
+        @Override
+        public String toString()
+        {
+            return name + " -> " + targetAddress;
+        }
+    }
+
+    /**
+     * A proxied connection, forwards the data of both directions through the
+     * simulated network.
+     */
+    protected class Connection
+    {
+        protected final Link link;
+        protected final Socket source;
+        protected final Socket target;
+        protected final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        protected Connection(Link link, Socket source, Socket target) throws IOException
+        {
+            this.link = link;
+            this.source = source;
+            this.target = target;
+
+            source.setTcpNoDelay(true);
+            target.setTcpNoDelay(true);
+        }
+
+        protected void start() throws IOException
+        {
+            startDirection(source.getInputStream(), target.getOutputStream(), link.name + "-in");
+            startDirection(target.getInputStream(), source.getOutputStream(), link.name + "-out");
+        }
+
+        protected void startDirection(InputStream input, OutputStream output, String name)
+        {
+            final DelayQueue<Chunk> inFlight = new DelayQueue<>();
+
+            startThread(() -> pump(input, inFlight), name);
+            startThread(() -> deliver(inFlight, output), name + "-delivery");
+        }
+
+        protected void startThread(Runnable runnable, String name)
+        {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        protected void pump(InputStream input, DelayQueue<Chunk> inFlight)
+        {
+            long previousDeliveryTime = Long.MIN_VALUE;
+            long sequence = 0;
+
+            try
+            {
+                while (true)
+                {
+                    final byte[] data = new byte[CHUNK_SIZE];
+                    final int length = input.read(data);
+
+                    if (length < 0)
+                    {
+                        break;
+                    }
+
+                    previousDeliveryTime = nextDeliveryTime(previousDeliveryTime);
+                    inFlight.add(new Chunk(data, length, previousDeliveryTime, ++sequence));
+                }
+            }
+            catch (IOException e)
+            {
+                // connection closed
+            }
+            finally
+            {
+                close();
+            }
+        }
+
+        protected void deliver(DelayQueue<Chunk> inFlight, OutputStream output)
+        {
+            try
+            {
+                while (!closed)
+                {
+                    final Chunk chunk = inFlight.take();
+
+                    output.write(chunk.data, 0, chunk.length);
+                    output.flush();
+                }
+            }
+            catch (IOException | InterruptedException e)
+            {
+                // connection closed
+            }
+            finally
+            {
+                close();
+            }
+        }
+
+        protected void close()
+        {
+            closeQuietly(source);
+            closeQuietly(target);
+            link.connections.remove(this);
+
+            for (Thread thread : threads)
+            {
+                if (thread != Thread.currentThread())
+                {
+                    // wakes up a delivery thread which waits for the next chunk
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    protected static class Chunk implements Delayed
+    {
+        protected final byte[] data;
+        protected final int length;
+        protected final long deliveryTime;
+        protected final long sequence;
+
+        protected Chunk(byte[] data, int length, long deliveryTime, long sequence)
+        {
+            this.data = data;
+            this.length = length;
+            this.deliveryTime = deliveryTime;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit)
+        {
+            return unit.convert(deliveryTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other)
+        {
+            final Chunk otherChunk = (Chunk) other;
+
+            final int result = Long.compare(deliveryTime, otherChunk.deliveryTime);
+
+            // keep the order of chunks which are due at the same time
+            return result != 0 ? result : Long.compare(sequence, otherChunk.sequence);
+        }
+    }
+
+    protected static void closeQuietly(AutoCloseable closeable)
+    {
+        if (closeable != null)
+        {
+            try
+            {
+                closeable.close();
+            }
+            catch (Exception e)
+            {
+                // ignore
+            }
+        }
+    }
+}
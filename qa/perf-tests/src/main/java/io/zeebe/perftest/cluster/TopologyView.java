@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.perftest.cluster;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The topology as known by a broker of a {@link ClusterSimulation},
+ * brokers are identified by their index.
+ */
+public class TopologyView
+{
+    protected final Set<Integer> aliveBrokers = new TreeSet<>();
+    protected final Map<String, Integer> leaders = new HashMap<>();
+    protected final Map<String, Integer> followerCounts = new HashMap<>();
+
+    public Set<Integer> getAliveBrokers()
+    {
+        return aliveBrokers;
+    }
+
+    /**
+     * @return the leader of the partition or <code>-1</code> if no leader is known
+     */
+    public int getLeader(String topicName, int partitionId)
+    {
+        return leaders.getOrDefault(topicName + "/" + partitionId, -1);
+    }
+
+    public int getFollowerCount(String topicName, int partitionId)
+    {
+        return followerCounts.getOrDefault(topicName + "/" + partitionId, 0);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TopologyView{" +
+            "aliveBrokers=" + aliveBrokers +
+            ", leaders=" + leaders +
+            ", followerCounts=" + followerCounts +
+            "}";
+    }
+}